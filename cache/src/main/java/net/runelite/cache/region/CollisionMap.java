@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The collision of the whole world, as built by {@link CollisionMapBuilder}.
+ * <p>
+ * Each tile of each plane is one byte, with a bit set for each of the eight directions an
+ * actor standing on it may step in, and a second byte with a bit set for each direction a
+ * projectile can pass in. The file is a header listing the region ids in order followed by
+ * one block of {@link #REGION_SIZE} bytes per region, so it can be memory mapped and read
+ * in place.
+ */
+public class CollisionMap
+{
+	static final int MAGIC = 0x524c434d; // RLCM
+	static final int VERSION = 2;
+
+	/**
+	 * Tiles per region, over all planes
+	 */
+	static final int REGION_TILES = Region.Z * Region.X * Region.Y;
+
+	/**
+	 * Bytes per region, the movement directions of every tile followed by their line of sight directions
+	 */
+	static final int REGION_SIZE = 2 * REGION_TILES;
+
+	// W, E, S, N, SW, SE, NW, NE
+	static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+	static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+
+	/**
+	 * Direction bit, indexed by (dy + 1) * 3 + (dx + 1)
+	 */
+	private static final int[] DIRECTION_BITS = new int[9];
+
+	static
+	{
+		for (int dir = 0; dir < DX.length; dir++)
+		{
+			DIRECTION_BITS[(DY[dir] + 1) * 3 + DX[dir] + 1] = 1 << dir;
+		}
+	}
+
+	private final ByteBuffer buffer;
+	private final int dataOffset;
+
+	/**
+	 * Block number of each region id, or -1 if the region doesn't exist
+	 */
+	private final int[] blocks = new int[1 << 16];
+
+	public CollisionMap(ByteBuffer buffer) throws IOException
+	{
+		this.buffer = buffer;
+
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+		{
+			throw new IOException("Not a collision map");
+		}
+
+		int count = buffer.getInt(8);
+		Arrays.fill(blocks, -1);
+		for (int i = 0; i < count; i++)
+		{
+			blocks[buffer.getInt(12 + i * 4)] = i;
+		}
+
+		dataOffset = 12 + count * 4;
+	}
+
+	/**
+	 * Memory map a collision map file
+	 *
+	 * @param file the file written by {@link CollisionMapBuilder#build(File)}
+	 * @return the collision map
+	 * @throws IOException
+	 */
+	public static CollisionMap load(File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+		{
+			return new CollisionMap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	static int index(int localX, int localY, int z)
+	{
+		return z * Region.X * Region.Y + localY * Region.X + localX;
+	}
+
+	/**
+	 * Get the directions which can be stepped in from a tile
+	 *
+	 * @return the direction bits, in the order of {@link #DX} and {@link #DY}, or 0 if
+	 * the tile is not in a region
+	 */
+	public int getDirections(int x, int y, int z)
+	{
+		return get(x, y, z, 0);
+	}
+
+	/**
+	 * Get the directions a projectile can pass in from a tile
+	 *
+	 * @return the direction bits, in the order of {@link #DX} and {@link #DY}, or 0 if
+	 * the tile is not in a region
+	 */
+	public int getLineOfSightDirections(int x, int y, int z)
+	{
+		return get(x, y, z, REGION_TILES);
+	}
+
+	private int get(int x, int y, int z, int offset)
+	{
+		if (x < 0 || y < 0 || z < 0 || z >= Region.Z)
+		{
+			return 0;
+		}
+
+		int regionId = (x >>> 6) << 8 | (y >>> 6);
+		if (regionId >= blocks.length)
+		{
+			return 0;
+		}
+
+		int block = blocks[regionId];
+		if (block == -1)
+		{
+			return 0;
+		}
+
+		return buffer.get(dataOffset + block * REGION_SIZE + offset + index(x & 63, y & 63, z)) & 0xFF;
+	}
+
+	/**
+	 * Determine if a 1x1 actor can step from a tile to one of its eight neighbours
+	 *
+	 * @param dx the x-axis direction to step (-1, 0, or 1)
+	 * @param dy the y-axis direction to step (-1, 0, or 1)
+	 */
+	public boolean canMove(int x, int y, int z, int dx, int dy)
+	{
+		return (getDirections(x, y, z) & DIRECTION_BITS[(dy + 1) * 3 + dx + 1]) != 0;
+	}
+
+	/**
+	 * Determine if a projectile can pass from a tile to one of its eight neighbours
+	 *
+	 * @param dx the x-axis direction (-1, 0, or 1)
+	 * @param dy the y-axis direction (-1, 0, or 1)
+	 */
+	public boolean hasLineOfSight(int x, int y, int z, int dx, int dy)
+	{
+		return (getLineOfSightDirections(x, y, z) & DIRECTION_BITS[(dy + 1) * 3 + dx + 1]) != 0;
+	}
+
+	/**
+	 * Determine if a region was built into the map
+	 */
+	public boolean hasRegion(int regionId)
+	{
+		return regionId >= 0 && regionId < blocks.length && blocks[regionId] != -1;
+	}
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import net.runelite.cache.ObjectManager;
+import net.runelite.cache.definitions.ObjectDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the collision of every region from its tile settings and locations, the same
+ * way the client does when it loads a scene, and writes it out as a {@link CollisionMap}.
+ * Regions are independent of each other, so they are built in parallel.
+ */
+public class CollisionMapBuilder
+{
+	private static final Logger logger = LoggerFactory.getLogger(CollisionMapBuilder.class);
+
+	// the client's collision flags
+	static final int BLOCK_MOVEMENT_NORTH_WEST = 0x1;
+	static final int BLOCK_MOVEMENT_NORTH = 0x2;
+	static final int BLOCK_MOVEMENT_NORTH_EAST = 0x4;
+	static final int BLOCK_MOVEMENT_EAST = 0x8;
+	static final int BLOCK_MOVEMENT_SOUTH_EAST = 0x10;
+	static final int BLOCK_MOVEMENT_SOUTH = 0x20;
+	static final int BLOCK_MOVEMENT_SOUTH_WEST = 0x40;
+	static final int BLOCK_MOVEMENT_WEST = 0x80;
+	static final int BLOCK_MOVEMENT_OBJECT = 0x100;
+	static final int BLOCK_LINE_OF_SIGHT_SHIFT = 9;
+	static final int BLOCK_LINE_OF_SIGHT_FULL = 0x20000;
+	static final int BLOCK_MOVEMENT_FLOOR_DECORATION = 0x40000;
+	static final int BLOCK_MOVEMENT_FLOOR = 0x200000;
+	static final int BLOCK_MOVEMENT_FULL = BLOCK_MOVEMENT_OBJECT | BLOCK_MOVEMENT_FLOOR_DECORATION | BLOCK_MOVEMENT_FLOOR;
+
+	/**
+	 * Tiles of the neighbouring regions kept around a region, so walls and objects on the
+	 * border and the moves across it are handled
+	 */
+	private static final int PADDING = 1;
+	private static final int WIDTH = Region.X + 2 * PADDING;
+	private static final int HEIGHT = Region.Y + 2 * PADDING;
+
+	private final Map<Integer, Region> regions = new HashMap<>();
+	private final IntFunction<ObjectDefinition> objects;
+
+	public CollisionMapBuilder(RegionLoader regionLoader, ObjectManager objectManager)
+	{
+		this(regionLoader.getRegions(), objectManager::getObject);
+	}
+
+	public CollisionMapBuilder(Collection<Region> regions, IntFunction<ObjectDefinition> objects)
+	{
+		for (Region region : regions)
+		{
+			this.regions.put(region.getRegionID(), region);
+		}
+		this.objects = objects;
+	}
+
+	/**
+	 * Build the collision of every region and write the map
+	 *
+	 * @param out the file to write
+	 * @throws IOException
+	 */
+	public void build(File out) throws IOException
+	{
+		long start = System.currentTimeMillis();
+
+		Map<Integer, byte[]> built = regions.values().parallelStream()
+			.collect(Collectors.toMap(Region::getRegionID, this::buildRegion, (a, b) -> a, TreeMap::new));
+
+		try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(out))))
+		{
+			os.writeInt(CollisionMap.MAGIC);
+			os.writeInt(CollisionMap.VERSION);
+			os.writeInt(built.size());
+			for (int regionId : built.keySet())
+			{
+				os.writeInt(regionId);
+			}
+			for (byte[] directions : built.values())
+			{
+				os.write(directions);
+			}
+		}
+
+		logger.info("Built collision for {} regions in {}ms", built.size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Build the collision of one region
+	 *
+	 * @param region the region
+	 * @return the directions which can be moved and seen in from each tile, laid out as {@link CollisionMap} reads them
+	 */
+	byte[] buildRegion(Region region)
+	{
+		int[][][] flags = new int[Region.Z][WIDTH][HEIGHT];
+
+		for (int dx = -1; dx <= 1; dx++)
+		{
+			for (int dy = -1; dy <= 1; dy++)
+			{
+				Region neighbour = regions.get((region.getRegionX() + dx) << 8 | (region.getRegionY() + dy));
+				if (neighbour == null)
+				{
+					blockMissing(flags, dx, dy);
+				}
+				else
+				{
+					addFloor(region, neighbour, flags, dx, dy);
+					addLocations(region, neighbour, flags);
+				}
+			}
+		}
+
+		byte[] directions = new byte[CollisionMap.REGION_SIZE];
+		for (int z = 0; z < Region.Z; z++)
+		{
+			for (int x = 0; x < Region.X; x++)
+			{
+				for (int y = 0; y < Region.Y; y++)
+				{
+					int bits = 0;
+					int sightBits = 0;
+					for (int dir = 0; dir < CollisionMap.DX.length; dir++)
+					{
+						if (canMove(flags[z], x + PADDING, y + PADDING, CollisionMap.DX[dir], CollisionMap.DY[dir]))
+						{
+							bits |= 1 << dir;
+						}
+						if (canSee(flags[z], x + PADDING, y + PADDING, CollisionMap.DX[dir], CollisionMap.DY[dir]))
+						{
+							sightBits |= 1 << dir;
+						}
+					}
+					directions[CollisionMap.index(x, y, z)] = (byte) bits;
+					directions[CollisionMap.REGION_TILES + CollisionMap.index(x, y, z)] = (byte) sightBits;
+				}
+			}
+		}
+		return directions;
+	}
+
+	private static void blockMissing(int[][][] flags, int dx, int dy)
+	{
+		int startX = dx < 0 ? 0 : dx == 0 ? PADDING : WIDTH - PADDING;
+		int endX = dx < 0 ? PADDING : dx == 0 ? WIDTH - PADDING : WIDTH;
+		int startY = dy < 0 ? 0 : dy == 0 ? PADDING : HEIGHT - PADDING;
+		int endY = dy < 0 ? PADDING : dy == 0 ? HEIGHT - PADDING : HEIGHT;
+
+		for (int[][] plane : flags)
+		{
+			for (int x = startX; x < endX; x++)
+			{
+				for (int y = startY; y < endY; y++)
+				{
+					plane[x][y] = BLOCK_MOVEMENT_FULL | BLOCK_LINE_OF_SIGHT_FULL;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Block the tiles with the blocked floor setting, such as water, for the part of a
+	 * neighbouring region which is within the padding
+	 */
+	private static void addFloor(Region region, Region from, int[][][] flags, int dx, int dy)
+	{
+		int startX = dx < 0 ? Region.X - PADDING : 0;
+		int endX = dx > 0 ? PADDING : Region.X;
+		int startY = dy < 0 ? Region.Y - PADDING : 0;
+		int endY = dy > 0 ? PADDING : Region.Y;
+
+		for (int z = 0; z < Region.Z; z++)
+		{
+			for (int x = startX; x < endX; x++)
+			{
+				for (int y = startY; y < endY; y++)
+				{
+					if ((from.getTileSetting(z, x, y) & 1) != 0)
+					{
+						int plane = getCollisionPlane(from, z, x, y);
+						if (plane >= 0)
+						{
+							set(region, flags, plane, from.getBaseX() + x, from.getBaseY() + y, BLOCK_MOVEMENT_FLOOR);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	private void addLocations(Region region, Region from, int[][][] flags)
+	{
+		for (Location location : from.getLocations())
+		{
+			ObjectDefinition object = objects.apply(location.getId());
+			if (object == null || object.getInteractType() == 0)
+			{
+				continue;
+			}
+
+			Position position = location.getPosition();
+			int x = position.getX();
+			int y = position.getY();
+			int plane = getCollisionPlane(from, position.getZ(), x - from.getBaseX(), y - from.getBaseY());
+			if (plane < 0)
+			{
+				continue;
+			}
+
+			int type = location.getType();
+			int orientation = location.getOrientation();
+			boolean blocksProjectile = object.isBlocksProjectile();
+
+			if (type >= 0 && type <= 3)
+			{
+				addWall(region, flags, plane, x, y, type, orientation, blocksProjectile);
+			}
+			else if (type == 9 || (type >= 10 && type <= 21))
+			{
+				int sizeX = object.getSizeX();
+				int sizeY = object.getSizeY();
+				if (orientation == 1 || orientation == 3)
+				{
+					sizeX = object.getSizeY();
+					sizeY = object.getSizeX();
+				}
+
+				int bits = BLOCK_MOVEMENT_OBJECT | (blocksProjectile ? BLOCK_LINE_OF_SIGHT_FULL : 0);
+				for (int dx = 0; dx < sizeX; dx++)
+				{
+					for (int dy = 0; dy < sizeY; dy++)
+					{
+						set(region, flags, plane, x + dx, y + dy, bits);
+					}
+				}
+			}
+			else if (type == 22 && object.getInteractType() == 1)
+			{
+				set(region, flags, plane, x, y, BLOCK_MOVEMENT_FLOOR_DECORATION);
+			}
+		}
+	}
+
+	private static void addWall(Region region, int[][][] flags, int z, int x, int y, int type, int orientation, boolean blocksProjectile)
+	{
+		addWall(region, flags, z, x, y, type, orientation, 0);
+		if (blocksProjectile)
+		{
+			addWall(region, flags, z, x, y, type, orientation, BLOCK_LINE_OF_SIGHT_SHIFT);
+		}
+	}
+
+	/**
+	 * Set the flags for a wall on its own tile and the tile on the other side of it
+	 */
+	private static void addWall(Region region, int[][][] flags, int z, int x, int y, int type, int orientation, int shift)
+	{
+		if (type == 0)
+		{
+			switch (orientation)
+			{
+				case 0:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_WEST << shift);
+					set(region, flags, z, x - 1, y, BLOCK_MOVEMENT_EAST << shift);
+					break;
+				case 1:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_NORTH << shift);
+					set(region, flags, z, x, y + 1, BLOCK_MOVEMENT_SOUTH << shift);
+					break;
+				case 2:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_EAST << shift);
+					set(region, flags, z, x + 1, y, BLOCK_MOVEMENT_WEST << shift);
+					break;
+				case 3:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_SOUTH << shift);
+					set(region, flags, z, x, y - 1, BLOCK_MOVEMENT_NORTH << shift);
+					break;
+			}
+		}
+		else if (type == 1 || type == 3)
+		{
+			switch (orientation)
+			{
+				case 0:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_NORTH_WEST << shift);
+					set(region, flags, z, x - 1, y + 1, BLOCK_MOVEMENT_SOUTH_EAST << shift);
+					break;
+				case 1:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_NORTH_EAST << shift);
+					set(region, flags, z, x + 1, y + 1, BLOCK_MOVEMENT_SOUTH_WEST << shift);
+					break;
+				case 2:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_SOUTH_EAST << shift);
+					set(region, flags, z, x + 1, y - 1, BLOCK_MOVEMENT_NORTH_WEST << shift);
+					break;
+				case 3:
+					set(region, flags, z, x, y, BLOCK_MOVEMENT_SOUTH_WEST << shift);
+					set(region, flags, z, x - 1, y - 1, BLOCK_MOVEMENT_NORTH_EAST << shift);
+					break;
+			}
+		}
+		else if (type == 2)
+		{
+			switch (orientation)
+			{
+				case 0:
+					set(region, flags, z, x, y, (BLOCK_MOVEMENT_WEST | BLOCK_MOVEMENT_NORTH) << shift);
+					set(region, flags, z, x - 1, y, BLOCK_MOVEMENT_EAST << shift);
+					set(region, flags, z, x, y + 1, BLOCK_MOVEMENT_SOUTH << shift);
+					break;
+				case 1:
+					set(region, flags, z, x, y, (BLOCK_MOVEMENT_NORTH | BLOCK_MOVEMENT_EAST) << shift);
+					set(region, flags, z, x, y + 1, BLOCK_MOVEMENT_SOUTH << shift);
+					set(region, flags, z, x + 1, y, BLOCK_MOVEMENT_WEST << shift);
+					break;
+				case 2:
+					set(region, flags, z, x, y, (BLOCK_MOVEMENT_EAST | BLOCK_MOVEMENT_SOUTH) << shift);
+					set(region, flags, z, x + 1, y, BLOCK_MOVEMENT_WEST << shift);
+					set(region, flags, z, x, y - 1, BLOCK_MOVEMENT_NORTH << shift);
+					break;
+				case 3:
+					set(region, flags, z, x, y, (BLOCK_MOVEMENT_SOUTH | BLOCK_MOVEMENT_WEST) << shift);
+					set(region, flags, z, x, y - 1, BLOCK_MOVEMENT_NORTH << shift);
+					set(region, flags, z, x - 1, y, BLOCK_MOVEMENT_EAST << shift);
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Get the plane whose collision a tile's contents count towards. Tiles under a
+	 * bridge are moved down a plane, the same as when the client builds the scene.
+	 *
+	 * @return the plane, or -1 if it is below the ground
+	 */
+	private static int getCollisionPlane(Region region, int z, int localX, int localY)
+	{
+		if ((region.getTileSetting(1, localX, localY) & 2) != 0)
+		{
+			return z - 1;
+		}
+		return z;
+	}
+
+	/**
+	 * Set flags on a world tile, if it is within the padded area of the region being built
+	 */
+	private static void set(Region region, int[][][] flags, int z, int worldX, int worldY, int bits)
+	{
+		int x = worldX - region.getBaseX() + PADDING;
+		int y = worldY - region.getBaseY() + PADDING;
+		if (x >= 0 && y >= 0 && x < WIDTH && y < HEIGHT)
+		{
+			flags[z][x][y] |= bits;
+		}
+	}
+
+	/**
+	 * Determine if a 1x1 actor can step from a tile to one of its eight neighbours,
+	 * following the client's movement rules
+	 */
+	static boolean canMove(int[][] flags, int x, int y, int dx, int dy)
+	{
+		return canPass(flags, x, y, dx, dy, 0, BLOCK_MOVEMENT_FULL);
+	}
+
+	/**
+	 * Determine if a projectile can pass from a tile to one of its eight neighbours. Walls
+	 * and objects which block projectiles have line of sight flags, which are laid out the
+	 * same as the movement flags.
+	 */
+	static boolean canSee(int[][] flags, int x, int y, int dx, int dy)
+	{
+		return canPass(flags, x, y, dx, dy, BLOCK_LINE_OF_SIGHT_SHIFT, BLOCK_LINE_OF_SIGHT_FULL);
+	}
+
+	private static boolean canPass(int[][] flags, int x, int y, int dx, int dy, int shift, int full)
+	{
+		int nx = x + dx;
+		int ny = y + dy;
+
+		// walls are stored on the tile being entered, on the side being entered from
+		int xFlags = full | (dx > 0 ? BLOCK_MOVEMENT_WEST : BLOCK_MOVEMENT_EAST) << shift;
+		int yFlags = full | (dy > 0 ? BLOCK_MOVEMENT_SOUTH : BLOCK_MOVEMENT_NORTH) << shift;
+
+		if (dy == 0)
+		{
+			return (flags[nx][y] & xFlags) == 0;
+		}
+		if (dx == 0)
+		{
+			return (flags[x][ny] & yFlags) == 0;
+		}
+
+		int xyFlags;
+		if (dx > 0)
+		{
+			xyFlags = (dy > 0 ? BLOCK_MOVEMENT_SOUTH_WEST : BLOCK_MOVEMENT_NORTH_WEST) << shift;
+		}
+		else
+		{
+			xyFlags = (dy > 0 ? BLOCK_MOVEMENT_SOUTH_EAST : BLOCK_MOVEMENT_NORTH_EAST) << shift;
+		}
+
+		return (flags[nx][ny] & (xFlags | yFlags | xyFlags)) == 0
+			&& (flags[nx][y] & xFlags) == 0
+			&& (flags[x][ny] & yFlags) == 0;
+	}
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A* over a {@link CollisionMap}, for shortest walking routes across the world.
+ * <p>
+ * Tiles are packed into ints and the search state is kept in primitive open addressed
+ * tables, so even searches spanning many regions only expand tiles near the route.
+ * Only walking on one plane is considered; stairs, ladders and other transports are not
+ * in the collision data. Instances can be shared between threads.
+ */
+public class CollisionPathfinder
+{
+	/**
+	 * Tiles expanded before a search gives up, which bounds searches for unreachable tiles
+	 */
+	private static final int DEFAULT_MAX_EXPANDED = 4_000_000;
+
+	private static final int COORD_BITS = 14;
+	private static final int COORD_MASK = (1 << COORD_BITS) - 1;
+
+	private final CollisionMap map;
+	private final int maxExpanded;
+
+	public CollisionPathfinder(CollisionMap map)
+	{
+		this(map, DEFAULT_MAX_EXPANDED);
+	}
+
+	public CollisionPathfinder(CollisionMap map, int maxExpanded)
+	{
+		this.map = map;
+		this.maxExpanded = maxExpanded;
+	}
+
+	/**
+	 * Find a shortest walking path between two tiles
+	 *
+	 * @param from the tile to start from
+	 * @param to   the tile to walk to
+	 * @return the tiles from the start to the end inclusive, or null if there is no path
+	 * within the search limit
+	 */
+	public List<Position> findPath(Position from, Position to)
+	{
+		if (from.getZ() != to.getZ())
+		{
+			return null;
+		}
+
+		if (from.equals(to))
+		{
+			return Collections.singletonList(from);
+		}
+
+		int z = from.getZ();
+		int start = pack(from.getX(), from.getY());
+		int end = pack(to.getX(), to.getY());
+		int endX = to.getX();
+		int endY = to.getY();
+
+		Search search = new Search();
+		search.put(start, 0, -1);
+		search.push(heuristic(start, endX, endY), start);
+
+		int expanded = 0;
+		while (search.size > 0 && expanded < maxExpanded)
+		{
+			long key = search.pop();
+			int tile = (int) key;
+			int slot = search.find(tile);
+			int g = search.costs[slot];
+			if ((int) (key >>> 32) != g + heuristic(tile, endX, endY))
+			{
+				// a shorter route to this tile was found after this entry was queued
+				continue;
+			}
+
+			if (tile == end)
+			{
+				return search.path(end, z);
+			}
+
+			++expanded;
+
+			int x = tile >>> COORD_BITS;
+			int y = tile & COORD_MASK;
+			int directions = map.getDirections(x, y, z);
+			for (int dir = 0; dir < CollisionMap.DX.length; dir++)
+			{
+				if ((directions & (1 << dir)) == 0)
+				{
+					continue;
+				}
+
+				int next = pack(x + CollisionMap.DX[dir], y + CollisionMap.DY[dir]);
+				int nextSlot = search.find(next);
+				if (nextSlot != -1 && search.costs[nextSlot] <= g + 1)
+				{
+					continue;
+				}
+
+				search.put(next, g + 1, tile);
+				search.push(g + 1 + heuristic(next, endX, endY), next);
+			}
+		}
+
+		return null;
+	}
+
+	private static int pack(int x, int y)
+	{
+		return x << COORD_BITS | y;
+	}
+
+	/**
+	 * Chebyshev distance, as diagonal steps cost the same as straight ones
+	 */
+	private static int heuristic(int tile, int endX, int endY)
+	{
+		return Math.max(Math.abs((tile >>> COORD_BITS) - endX), Math.abs((tile & COORD_MASK) - endY));
+	}
+
+	/**
+	 * The open set as a binary heap of (f, tile) longs, and the best known cost and parent
+	 * of each tile in an open addressed table
+	 */
+	private static class Search
+	{
+		private static final int EMPTY = -1;
+
+		private long[] heap = new long[1024];
+		private int size;
+
+		private int[] keys = new int[4096];
+		private int[] costs = new int[4096];
+		private int[] parents = new int[4096];
+		private int count;
+
+		Search()
+		{
+			Arrays.fill(keys, EMPTY);
+		}
+
+		int find(int tile)
+		{
+			int mask = keys.length - 1;
+			for (int i = hash(tile) & mask; ; i = (i + 1) & mask)
+			{
+				if (keys[i] == tile)
+				{
+					return i;
+				}
+				if (keys[i] == EMPTY)
+				{
+					return -1;
+				}
+			}
+		}
+
+		void put(int tile, int cost, int parent)
+		{
+			if ((count + 1) * 2 > keys.length)
+			{
+				grow();
+			}
+
+			int mask = keys.length - 1;
+			int i = hash(tile) & mask;
+			while (keys[i] != EMPTY && keys[i] != tile)
+			{
+				i = (i + 1) & mask;
+			}
+
+			if (keys[i] == EMPTY)
+			{
+				keys[i] = tile;
+				++count;
+			}
+			costs[i] = cost;
+			parents[i] = parent;
+		}
+
+		private void grow()
+		{
+			int[] oldKeys = keys;
+			int[] oldCosts = costs;
+			int[] oldParents = parents;
+
+			keys = new int[oldKeys.length * 2];
+			costs = new int[keys.length];
+			parents = new int[keys.length];
+			Arrays.fill(keys, EMPTY);
+			count = 0;
+
+			for (int i = 0; i < oldKeys.length; i++)
+			{
+				if (oldKeys[i] != EMPTY)
+				{
+					put(oldKeys[i], oldCosts[i], oldParents[i]);
+				}
+			}
+		}
+
+		private static int hash(int tile)
+		{
+			return tile * 0x9E3779B9 >>> 7;
+		}
+
+		void push(int f, int tile)
+		{
+			if (size == heap.length)
+			{
+				heap = Arrays.copyOf(heap, size * 2);
+			}
+
+			long key = (long) f << 32 | tile;
+			int i = size++;
+			while (i > 0)
+			{
+				int parent = (i - 1) >>> 1;
+				if (heap[parent] <= key)
+				{
+					break;
+				}
+				heap[i] = heap[parent];
+				i = parent;
+			}
+			heap[i] = key;
+		}
+
+		long pop()
+		{
+			long top = heap[0];
+			long key = heap[--size];
+			int i = 0;
+			while (true)
+			{
+				int child = 2 * i + 1;
+				if (child >= size)
+				{
+					break;
+				}
+				if (child + 1 < size && heap[child + 1] < heap[child])
+				{
+					child++;
+				}
+				if (key <= heap[child])
+				{
+					break;
+				}
+				heap[i] = heap[child];
+				i = child;
+			}
+			heap[i] = key;
+			return top;
+		}
+
+		List<Position> path(int end, int z)
+		{
+			List<Position> path = new ArrayList<>();
+			for (int tile = end; tile != -1; tile = parents[find(tile)])
+			{
+				path.add(new Position(tile >>> COORD_BITS, tile & COORD_MASK, z));
+			}
+			Collections.reverse(path);
+			return path;
+		}
+	}
+}
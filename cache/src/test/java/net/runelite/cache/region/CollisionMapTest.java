@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.cache.region;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.runelite.cache.definitions.LocationsDefinition;
+import net.runelite.cache.definitions.MapDefinition;
+import net.runelite.cache.definitions.ObjectDefinition;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CollisionMapTest
+{
+	private static final int WALL = 1;
+	private static final int TREE = 2;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Map<Integer, ObjectDefinition> objects = new HashMap<>();
+
+	private Region west;
+	private Region east;
+	private MapDefinition westMap;
+
+	@Before
+	public void before()
+	{
+		ObjectDefinition wall = new ObjectDefinition();
+		wall.setId(WALL);
+		objects.put(WALL, wall);
+
+		ObjectDefinition tree = new ObjectDefinition();
+		tree.setId(TREE);
+		tree.setSizeX(2);
+		tree.setSizeY(3);
+		objects.put(TREE, tree);
+
+		west = new Region(50, 50);
+		east = new Region(51, 50);
+		westMap = emptyMap();
+		east.loadTerrain(emptyMap());
+	}
+
+	@Test
+	public void testBuild() throws IOException
+	{
+		// water at (10, 10), and a 2x3 tree rotated to 3x2 at (20, 20)
+		westMap.getTiles()[0][10][10].setSettings((byte) 1);
+		west.loadTerrain(westMap);
+		load(west, new Location(TREE, 10, 1, new Position(20, 20, 0)));
+
+		CollisionMap map = build();
+		int x = west.getBaseX();
+		int y = west.getBaseY();
+
+		assertFalse(map.canMove(x + 9, y + 10, 0, 1, 0));
+		assertFalse(map.canMove(x + 11, y + 11, 0, -1, -1));
+		assertTrue(map.canMove(x + 9, y + 10, 0, 0, 1));
+
+		assertFalse(map.canMove(x + 19, y + 21, 0, 1, 0));
+		assertFalse(map.canMove(x + 23, y + 21, 0, -1, 0));
+		assertTrue(map.canMove(x + 24, y + 21, 0, -1, 0));
+		assertTrue(map.canMove(x + 21, y + 19, 0, 0, -1));
+		assertFalse(map.canMove(x + 21, y + 19, 0, 0, 1));
+
+		// the world ends where the regions do
+		assertFalse(map.canMove(x, y + 5, 0, -1, 0));
+		assertTrue(map.canMove(x + 63, y + 5, 0, 1, 0));
+		assertEquals(0, map.getDirections(x - 1, y, 0));
+		assertTrue(map.hasRegion(west.getRegionID()));
+		assertFalse(map.hasRegion(west.getRegionID() + 1));
+	}
+
+	@Test
+	public void testWallsOnBorder() throws IOException
+	{
+		// walls on the east side of the west region's last column, except the top tile
+		west.loadTerrain(westMap);
+		Location[] walls = new Location[Region.Y - 1];
+		for (int y = 0; y < walls.length; y++)
+		{
+			walls[y] = new Location(WALL, 0, 2, new Position(63, y, 0));
+		}
+		load(west, walls);
+
+		CollisionMap map = build();
+		int x = west.getBaseX();
+		int y = west.getBaseY();
+
+		assertFalse(map.canMove(x + 63, y + 10, 0, 1, 0));
+		assertFalse(map.canMove(x + 64, y + 10, 0, -1, 0));
+		assertFalse(map.canMove(x + 63, y + 62, 0, 1, 1));
+		assertTrue(map.canMove(x + 63, y + 63, 0, 1, 0));
+
+		CollisionPathfinder pathfinder = new CollisionPathfinder(map);
+		List<Position> path = pathfinder.findPath(new Position(x + 62, y + 10, 0), new Position(x + 65, y + 10, 0));
+		// up along the wall to the gap, through it, and back down
+		assertEquals(1 + 53 + 3 + 53 - 2, path.size());
+		assertEquals(new Position(x + 65, y + 10, 0), path.get(path.size() - 1));
+		for (int i = 1; i < path.size(); i++)
+		{
+			Position a = path.get(i - 1);
+			Position b = path.get(i);
+			assertTrue(map.canMove(a.getX(), a.getY(), 0, b.getX() - a.getX(), b.getY() - a.getY()));
+		}
+
+		assertNull(pathfinder.findPath(new Position(x + 62, y + 10, 0), new Position(x + 200, y + 10, 0)));
+	}
+
+	@Test
+	public void testLineOfSight() throws IOException
+	{
+		// water and a wall which doesn't block projectiles at (10, 10), and a tree at (20, 20)
+		ObjectDefinition fence = new ObjectDefinition();
+		fence.setId(3);
+		fence.setBlocksProjectile(false);
+		objects.put(3, fence);
+
+		westMap.getTiles()[0][10][10].setSettings((byte) 1);
+		west.loadTerrain(westMap);
+		load(west,
+			new Location(3, 0, 0, new Position(10, 10, 0)),
+			new Location(TREE, 10, 0, new Position(20, 20, 0)),
+			new Location(WALL, 0, 1, new Position(30, 30, 0)));
+
+		CollisionMap map = build();
+		int x = west.getBaseX();
+		int y = west.getBaseY();
+
+		assertFalse(map.canMove(x + 9, y + 10, 0, 1, 0));
+		assertTrue(map.hasLineOfSight(x + 9, y + 10, 0, 1, 0));
+
+		assertFalse(map.hasLineOfSight(x + 19, y + 20, 0, 1, 0));
+		assertFalse(map.hasLineOfSight(x + 30, y + 30, 0, 0, 1));
+		assertTrue(map.hasLineOfSight(x + 30, y + 30, 0, 1, 0));
+
+		// the world ends where the regions do
+		assertFalse(map.hasLineOfSight(x, y + 5, 0, -1, 0));
+	}
+
+	@Test
+	public void testBridge() throws IOException
+	{
+		// a bridge tile carries plane 1's water down to plane 0, and its plane 0 water is ignored
+		westMap.getTiles()[1][30][30].setSettings((byte) 3);
+		westMap.getTiles()[0][31][30].setSettings((byte) 1);
+		westMap.getTiles()[1][31][30].setSettings((byte) 2);
+		west.loadTerrain(westMap);
+		load(west);
+
+		CollisionMap map = build();
+		int x = west.getBaseX();
+		int y = west.getBaseY();
+
+		assertFalse(map.canMove(x + 29, y + 30, 0, 1, 0));
+		assertTrue(map.canMove(x + 30, y + 30, 0, 1, 0));
+		assertTrue(map.canMove(x + 29, y + 30, 1, 1, 0));
+	}
+
+	private CollisionMap build() throws IOException
+	{
+		File file = folder.newFile();
+		new CollisionMapBuilder(Arrays.asList(west, east), objects::get).build(file);
+		return CollisionMap.load(file);
+	}
+
+	private static void load(Region region, Location... locations)
+	{
+		LocationsDefinition locs = new LocationsDefinition();
+		locs.getLocations().addAll(Arrays.asList(locations));
+		region.loadLocations(locs);
+	}
+
+	private static MapDefinition emptyMap()
+	{
+		MapDefinition map = new MapDefinition();
+		for (int z = 0; z < Region.Z; z++)
+		{
+			for (int x = 0; x < Region.X; x++)
+			{
+				for (int y = 0; y < Region.Y; y++)
+				{
+					map.getTiles()[z][x][y] = new MapDefinition.Tile();
+				}
+			}
+		}
+		return map;
+	}
+}
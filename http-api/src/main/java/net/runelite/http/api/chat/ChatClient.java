@@ -25,17 +25,27 @@
 package net.runelite.http.api.chat;
 
 import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.List;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.HttpUrl;
+import okhttp3.MediaType;
 import okhttp3.Request;
 import okhttp3.RequestBody;
 import okhttp3.Response;
 
 public class ChatClient
 {
+	/**
+	 * Maximum number of values which can be looked up in one request
+	 */
+	public static final int MAX_LOOKUPS = 64;
+
+	private static final MediaType JSON = MediaType.parse("application/json");
+
 	public boolean submitKc(String username, String boss, int kc) throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -216,4 +226,48 @@ public class ChatClient
 			return Integer.parseInt(response.body().string());
 		}
 	}
+
+	/**
+	 * Look up many values in one request
+	 *
+	 * @param lookups values to look up, at most {@link #MAX_LOOKUPS}
+	 * @return the results, in the same order as the lookups
+	 * @throws IOException
+	 */
+	public List<ChatLookupResult> lookup(List<ChatLookup> lookups) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("chat")
+			.addPathSegment("lookup")
+			.build();
+
+		Request request = new Request.Builder()
+			.post(RequestBody.create(JSON, RuneLiteAPI.GSON.toJson(lookups)))
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unable to look up chat values!");
+			}
+
+			InputStream in = response.body().byteStream();
+			List<ChatLookupResult> results = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), new TypeToken<List<ChatLookupResult>>()
+			{
+			}.getType());
+
+			if (results == null || results.size() != lookups.size())
+			{
+				throw new IOException("Unexpected number of chat lookup results");
+			}
+
+			return results;
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2018, Adam <Adam@sigterm.info>
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
  * All rights reserved.
  *
  * Redistribution and use in source and binary forms, with or without
@@ -22,13 +22,12 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package net.runelite.http.service.chat;
+package net.runelite.http.api.chat;
 
-import lombok.Value;
-
-@Value
-class KillCountKey
+public enum ChatLookupType
 {
-	private String username;
-	private String boss;
+	KILLCOUNT,
+	QUEST_POINTS,
+	PERSONAL_BEST,
+	TASK
 }
@@ -25,10 +25,18 @@
 package net.runelite.http.api.config;
 
 import com.google.gson.JsonParseException;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPOutputStream;
 import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -45,6 +53,7 @@ public class ConfigClient
 	private static final Logger logger = LoggerFactory.getLogger(ConfigClient.class);
 
 	private static final MediaType TEXT_PLAIN = MediaType.parse("text/plain");
+	private static final MediaType JSON = MediaType.parse("application/json");
 
 	private final UUID uuid;
 
@@ -54,6 +63,18 @@ public class ConfigClient
 	}
 
 	public Configuration get() throws IOException
+	{
+		return get(-1);
+	}
+
+	/**
+	 * Get the configuration, if it has changed from a known version
+	 *
+	 * @param version the known configuration version, or -1 if unknown
+	 * @return the configuration, or null if it is still at the known version
+	 * @throws IOException
+	 */
+	public Configuration get(long version) throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("config")
@@ -61,15 +82,80 @@ public class ConfigClient
 
 		logger.debug("Built URI: {}", url);
 
+		Request.Builder builder = new Request.Builder()
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.url(url);
+
+		if (version >= 0)
+		{
+			builder.header("If-None-Match", "\"" + version + "\"");
+		}
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(builder.build()).execute())
+		{
+			if (response.code() == 304)
+			{
+				logger.debug("Configuration is unchanged from version {}", version);
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), Configuration.class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
+
+	/**
+	 * Apply a batch of changes to the configuration. This blocks until the changes are stored,
+	 * or the timeout elapses.
+	 *
+	 * @param patch   changes to apply
+	 * @param timeout maximum time to wait for the changes to be stored
+	 * @param unit    unit of the timeout
+	 * @return the configuration version after the changes were applied
+	 * @throws IOException
+	 */
+	public long patch(ConfigPatch patch, long timeout, TimeUnit unit) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("config")
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+		{
+			gzip.write(RuneLiteAPI.GSON.toJson(patch).getBytes(StandardCharsets.UTF_8));
+		}
+
 		Request request = new Request.Builder()
+			.patch(RequestBody.create(JSON, out.toByteArray()))
 			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.header("Content-Encoding", "gzip")
 			.url(url)
 			.build();
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		try (Response response = execute(RuneLiteAPI.CLIENT.newCall(request), timeout, unit))
 		{
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unable to synchronize configuration: " + response.code());
+			}
+
 			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), Configuration.class);
+			Long version = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), Long.class);
+			if (version == null)
+			{
+				throw new IOException("No configuration version in response");
+			}
+
+			logger.debug("Synchronized {} configuration changes, now at version {}",
+				patch.getEdit().size() + patch.getUnset().size(), version);
+			return version;
 		}
 		catch (JsonParseException ex)
 		{
@@ -77,6 +163,49 @@ public class ConfigClient
 		}
 	}
 
+	private static Response execute(Call call, long timeout, TimeUnit unit) throws IOException
+	{
+		CompletableFuture<Response> future = new CompletableFuture<>();
+		call.enqueue(new Callback()
+		{
+			@Override
+			public void onFailure(Call call, IOException e)
+			{
+				future.completeExceptionally(e);
+			}
+
+			@Override
+			public void onResponse(Call call, Response response)
+			{
+				future.complete(response);
+			}
+		});
+
+		try
+		{
+			return future.get(timeout, unit);
+		}
+		catch (TimeoutException ex)
+		{
+			call.cancel();
+			// a response arriving after the timeout is not used
+			future.thenAccept(Response::close);
+			throw new IOException("Timed out synchronizing configuration", ex);
+		}
+		catch (InterruptedException ex)
+		{
+			call.cancel();
+			future.thenAccept(Response::close);
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException();
+		}
+		catch (ExecutionException ex)
+		{
+			Throwable cause = ex.getCause();
+			throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+		}
+	}
+
 	public void set(String key, String value)
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -29,6 +29,7 @@ import java.util.List;
 
 public class Configuration
 {
+	private long version;
 	private List<ConfigEntry> config = new ArrayList<>();
 
 	public Configuration(List<ConfigEntry> config)
@@ -36,6 +37,16 @@ public class Configuration
 		this.config = config;
 	}
 
+	public long getVersion()
+	{
+		return version;
+	}
+
+	public void setVersion(long version)
+	{
+		this.version = version;
+	}
+
 	public List<ConfigEntry> getConfig()
 	{
 		return config;
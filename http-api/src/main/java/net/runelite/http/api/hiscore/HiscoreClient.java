@@ -30,9 +30,7 @@ import net.runelite.http.api.RuneLiteAPI;
 import okhttp3.HttpUrl;
 import okhttp3.Request;
 import okhttp3.Response;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import okio.BufferedSource;
 
 @Slf4j
 public class HiscoreClient
@@ -95,8 +93,6 @@ public class HiscoreClient
 			.url(url)
 			.build();
 
-		String responseStr;
-
 		try (Response okresponse = RuneLiteAPI.CLIENT.newCall(okrequest).execute())
 		{
 			if (!okresponse.isSuccessful())
@@ -110,39 +106,93 @@ public class HiscoreClient
 				}
 			}
 
-			responseStr = okresponse.body().string();
+			HiscoreResultBuilder hiscoreBuilder = new HiscoreResultBuilder();
+			hiscoreBuilder.setPlayer(username);
+			parse(okresponse.body().source(), hiscoreBuilder);
+			return hiscoreBuilder;
 		}
+	}
 
-		CSVParser parser = CSVParser.parse(responseStr, CSVFormat.DEFAULT);
+	/**
+	 * Parse the hiscore csv directly from the response, without buffering it or
+	 * allocating strings for each line and field.
+	 */
+	static void parse(BufferedSource source, HiscoreResultBuilder hiscoreBuilder) throws IOException
+	{
+		final int maxLines = HiscoreSkill.values().length;
+		// rank, level, experience
+		final long[] fields = new long[3];
+		int fieldCount = 0;
+		int lines = 0;
+		long value = 0;
+		boolean negative = false;
+		boolean inField = false;
+
+		while (!source.exhausted())
+		{
+			byte b = source.readByte();
+			if (b >= '0' && b <= '9')
+			{
+				value = value * 10 + (b - '0');
+				inField = true;
+			}
+			else if (b == '-' && !inField)
+			{
+				negative = true;
+				inField = true;
+			}
+			else if (b == ',' || b == '\n')
+			{
+				if (fieldCount >= fields.length)
+				{
+					throw new IOException("Too many fields in hiscore line " + lines);
+				}
 
-		HiscoreResultBuilder hiscoreBuilder = new HiscoreResultBuilder();
-		hiscoreBuilder.setPlayer(username);
+				fields[fieldCount++] = negative ? -value : value;
+				value = 0;
+				negative = false;
+				inField = false;
 
-		int count = 0;
+				if (b == '\n')
+				{
+					if (lines++ >= maxLines)
+					{
+						log.warn("Jagex Hiscore API returned unexpected data");
+						return; // rest is other things?
+					}
+
+					hiscoreBuilder.setNextSkill(toSkill(fields, fieldCount));
+					fieldCount = 0;
+				}
+			}
+			else if (b != '\r')
+			{
+				throw new IOException("Unexpected character in hiscore response: " + (char) b);
+			}
+		}
 
-		for (CSVRecord record : parser.getRecords())
+		if (inField || fieldCount > 0)
 		{
-			if (count++ >= HiscoreSkill.values().length)
+			if (lines >= maxLines)
 			{
 				log.warn("Jagex Hiscore API returned unexpected data");
-				break; // rest is other things?
+				return;
 			}
 
-			// rank, level, experience
-			int rank = Integer.parseInt(record.get(0));
-			int level = Integer.parseInt(record.get(1));
-
-			// items that are not skills do not have an experience parameter
-			long experience = -1;
-			if (record.size() == 3)
-			{
-				experience = Long.parseLong(record.get(2));
-			}
+			fields[fieldCount++] = negative ? -value : value;
+			hiscoreBuilder.setNextSkill(toSkill(fields, fieldCount));
+		}
+	}
 
-			Skill skill = new Skill(rank, level, experience);
-			hiscoreBuilder.setNextSkill(skill);
+	private static Skill toSkill(long[] fields, int fieldCount) throws IOException
+	{
+		if (fieldCount < 2)
+		{
+			throw new IOException("Too few fields in hiscore line");
 		}
 
-		return hiscoreBuilder;
+		// items that are not skills do not have an experience parameter
+		long experience = fieldCount == 3 ? fields[2] : -1;
+		return new Skill((int) fields[0], (int) fields[1], experience);
 	}
 }
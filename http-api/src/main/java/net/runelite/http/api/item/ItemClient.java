@@ -45,6 +45,10 @@ public class ItemClient
 {
 	private static final Logger logger = LoggerFactory.getLogger(ItemClient.class);
 
+	// last price list and its etag, so unchanged prices are not downloaded again
+	private String pricesEtag;
+	private ItemPrice[] prices;
+
 	public ItemPrice lookupItemPrice(int itemId) throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -173,7 +177,7 @@ public class ItemClient
 		}
 	}
 
-	public ItemPrice[] getPrices() throws IOException
+	public synchronized ItemPrice[] getPrices() throws IOException
 	{
 		HttpUrl.Builder urlBuilder = RuneLiteAPI.getApiBase().newBuilder()
 			.addPathSegment("item")
@@ -183,12 +187,22 @@ public class ItemClient
 
 		logger.debug("Built URI: {}", url);
 
-		Request request = new Request.Builder()
-			.url(url)
-			.build();
+		Request.Builder requestBuilder = new Request.Builder()
+			.url(url);
 
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		if (pricesEtag != null && prices != null)
+		{
+			requestBuilder.header("If-None-Match", pricesEtag);
+		}
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(requestBuilder.build()).execute())
 		{
+			if (response.code() == 304 && prices != null)
+			{
+				logger.debug("Prices are unchanged");
+				return prices;
+			}
+
 			if (!response.isSuccessful())
 			{
 				logger.warn("Error looking up prices: {}", response);
@@ -196,7 +210,10 @@ public class ItemClient
 			}
 
 			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPrice[].class);
+			ItemPrice[] itemPrices = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), ItemPrice[].class);
+			prices = itemPrices;
+			pricesEtag = response.header("ETag");
+			return itemPrices;
 		}
 		catch (JsonParseException ex)
 		{
@@ -82,6 +82,36 @@ public class LootTrackerClient
 		});
 	}
 
+	/**
+	 * Submit many loot records in one request. This blocks until the records are stored.
+	 *
+	 * @param lootRecords records to submit
+	 * @throws IOException if the records could not be submitted
+	 */
+	public void submit(Collection<LootRecord> lootRecords) throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("loottracker")
+			.addPathSegment("bulk")
+			.build();
+
+		Request request = new Request.Builder()
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.post(RequestBody.create(JSON, GSON.toJson(lootRecords)))
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				throw new IOException("Unable to submit loot: " + response.code());
+			}
+
+			log.debug("Submitted {} loot records", lootRecords.size());
+		}
+	}
+
 	public Collection<LootRecord> get() throws IOException
 	{
 		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
@@ -112,6 +142,85 @@ public class LootTrackerClient
 		}
 	}
 
+	/**
+	 * Get the per-event loot totals for the account
+	 *
+	 * @return the loot totals, or null if they could not be looked up
+	 * @throws IOException
+	 */
+	public Collection<LootAggregate> getSummary() throws IOException
+	{
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("loottracker")
+			.addPathSegment("summary")
+			.build();
+
+		Request request = new Request.Builder()
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				log.debug("Error looking up loot summary: {}", response);
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), new TypeToken<List<LootAggregate>>()
+			{
+			}.getType());
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
+
+	/**
+	 * Get a page of loot history, newest first
+	 *
+	 * @param count  maximum number of kills to return
+	 * @param before cursor from a previous page, or null for the first page
+	 * @return the page, or null if it could not be looked up
+	 * @throws IOException
+	 */
+	public LootRecordPage getHistory(int count, Integer before) throws IOException
+	{
+		HttpUrl.Builder builder = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("loottracker")
+			.addPathSegment("history")
+			.addQueryParameter("count", Integer.toString(count));
+
+		if (before != null)
+		{
+			builder.addQueryParameter("before", before.toString());
+		}
+
+		Request request = new Request.Builder()
+			.header(RuneLiteAPI.RUNELITE_AUTH, uuid.toString())
+			.url(builder.build())
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				log.debug("Error looking up loot history: {}", response);
+				return null;
+			}
+
+			InputStream in = response.body().byteStream();
+			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), LootRecordPage.class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+	}
+
 	public void delete(String eventId)
 	{
 		HttpUrl.Builder builder = RuneLiteAPI.getApiBase().newBuilder()
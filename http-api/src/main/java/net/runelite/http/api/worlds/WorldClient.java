@@ -36,6 +36,10 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class WorldClient
 {
@@ -69,4 +73,91 @@ public class WorldClient
 			throw new IOException(ex);
 		}
 	}
+
+	/**
+	 * Update a previously looked up world list, only fetching what has changed
+	 * since it was looked up. The previous world list is not modified.
+	 *
+	 * @param worldResult the previous world list, may be null
+	 * @return the updated world list, or null if it could not be looked up
+	 * @throws IOException
+	 */
+	public WorldResult refreshWorlds(WorldResult worldResult) throws IOException
+	{
+		if (worldResult == null || worldResult.getVersion() == 0)
+		{
+			return lookupWorlds();
+		}
+
+		HttpUrl url = RuneLiteAPI.getApiBase().newBuilder()
+			.addPathSegment("worlds")
+			.addPathSegment("delta")
+			.addQueryParameter("since", Integer.toString(worldResult.getVersion()))
+			.build();
+
+		logger.debug("Built URI: {}", url);
+
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		WorldDelta delta;
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			if (!response.isSuccessful())
+			{
+				logger.debug("Error looking up world delta: {}", response);
+				return lookupWorlds();
+			}
+
+			InputStream in = response.body().byteStream();
+			delta = RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), WorldDelta.class);
+		}
+		catch (JsonParseException ex)
+		{
+			throw new IOException(ex);
+		}
+
+		if (delta.isFull())
+		{
+			return lookupWorlds();
+		}
+
+		return apply(worldResult, delta);
+	}
+
+	static WorldResult apply(WorldResult worldResult, WorldDelta delta)
+	{
+		Map<Integer, WorldUpdate> updates = new HashMap<>();
+		if (delta.getUpdates() != null)
+		{
+			for (WorldUpdate update : delta.getUpdates())
+			{
+				updates.put(update.getId(), update);
+			}
+		}
+
+		List<World> worlds = new ArrayList<>(worldResult.getWorlds().size());
+		for (World world : worldResult.getWorlds())
+		{
+			WorldUpdate update = updates.get(world.getId());
+			if (update != null)
+			{
+				world = World.builder()
+					.id(world.getId())
+					.types(update.getTypes())
+					.address(world.getAddress())
+					.activity(world.getActivity())
+					.location(world.getLocation())
+					.players(update.getPlayers())
+					.build();
+			}
+			worlds.add(world);
+		}
+
+		WorldResult result = new WorldResult();
+		result.setVersion(delta.getVersion());
+		result.setWorlds(worlds);
+		return result;
+	}
 }
@@ -31,6 +31,7 @@ import com.github.scribejava.core.model.OAuthRequest;
 import com.github.scribejava.core.model.Response;
 import com.github.scribejava.core.model.Verb;
 import com.github.scribejava.core.oauth.OAuth20Service;
+import com.google.common.cache.CacheStats;
 import com.google.gson.Gson;
 import java.io.IOException;
 import java.util.HashMap;
@@ -44,6 +45,7 @@ import net.runelite.http.api.account.OAuthResponse;
 import net.runelite.http.api.ws.WebsocketGsonFactory;
 import net.runelite.http.api.ws.WebsocketMessage;
 import net.runelite.http.api.ws.messages.LoginResponse;
+import net.runelite.http.service.account.beans.SessionCacheStats;
 import net.runelite.http.service.account.beans.SessionEntry;
 import net.runelite.http.service.account.beans.UserEntry;
 import net.runelite.http.service.util.redis.RedisPool;
@@ -269,6 +271,8 @@ public class AccountService
 				.addParameter("uuid", session.getUuid().toString())
 				.executeUpdate();
 		}
+
+		auth.invalidate(session.getUuid());
 	}
 
 	@GetMapping("/session-check")
@@ -276,4 +280,18 @@ public class AccountService
 	{
 		auth.handle(request, response);
 	}
+
+	@GetMapping("/session-cache")
+	public SessionCacheStats sessionCacheStats()
+	{
+		CacheStats stats = auth.getCacheStats();
+
+		SessionCacheStats sessionCacheStats = new SessionCacheStats();
+		sessionCacheStats.setSize(auth.getCacheSize());
+		sessionCacheStats.setHitCount(stats.hitCount());
+		sessionCacheStats.setMissCount(stats.missCount());
+		sessionCacheStats.setHitRate(stats.hitRate());
+		sessionCacheStats.setEvictionCount(stats.evictionCount());
+		return sessionCacheStats;
+	}
 }
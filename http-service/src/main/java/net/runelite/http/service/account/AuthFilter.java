@@ -24,25 +24,52 @@
  */
 package net.runelite.http.service.account;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
 import java.io.IOException;
-import net.runelite.http.service.account.beans.SessionEntry;
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PreDestroy;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
+@Slf4j
 public class AuthFilter
 {
+	private static final int MAX_SESSIONS = 65536;
+
 	private final Sql2o sql2o;
 
+	// Sessions are cached so authentication is usually a map lookup. Entries expire so
+	// sessions removed outside of this node, eg. by a logout handled by another node
+	// or the user being deleted, stop working shortly after.
+	private final Cache<UUID, CachedSession> sessionCache = CacheBuilder.newBuilder()
+		.maximumSize(MAX_SESSIONS)
+		.expireAfterWrite(1, TimeUnit.MINUTES)
+		.recordStats()
+		.build();
+
+	// last_used times not yet written to the database
+	private final Map<UUID, Instant> lastUsed = new ConcurrentHashMap<>();
+
 	@Autowired
 	public AuthFilter(@Qualifier("Runelite SQL2O") Sql2o sql2o)
 	{
@@ -60,11 +87,16 @@ public class AuthFilter
 
 		UUID uuid = UUID.fromString(runeliteAuth);
 
-		try (Connection con = sql2o.open())
+		CachedSession cachedSession = sessionCache.getIfPresent(uuid);
+		if (cachedSession == null)
 		{
-			SessionEntry sessionEntry = con.createQuery("select user, uuid, created from sessions where uuid = :uuid")
-				.addParameter("uuid", uuid.toString())
-				.executeAndFetchFirst(SessionEntry.class);
+			SessionEntry sessionEntry;
+			try (Connection con = sql2o.open())
+			{
+				sessionEntry = con.createQuery("select user, uuid, created from sessions where uuid = :uuid")
+					.addParameter("uuid", uuid.toString())
+					.executeAndFetchFirst(SessionEntry.class);
+			}
 
 			if (sessionEntry == null)
 			{
@@ -72,17 +104,100 @@ public class AuthFilter
 				return null;
 			}
 
-			Instant now = Instant.now();
+			cachedSession = new CachedSession(sessionEntry.getUser(), sessionEntry.getUuid(), sessionEntry.getCreated());
+			sessionCache.put(uuid, cachedSession);
+		}
+
+		Instant now = Instant.now();
+		lastUsed.put(uuid, now);
+
+		// Each request gets its own entry, so callers can't change what is cached
+		SessionEntry sessionEntry = new SessionEntry();
+		sessionEntry.setUser(cachedSession.getUser());
+		sessionEntry.setUuid(cachedSession.getUuid());
+		sessionEntry.setCreated(cachedSession.getCreated());
+		sessionEntry.setLastUsed(now);
+		return sessionEntry;
+	}
+
+	/**
+	 * Remove a session from the cache, after it has been deleted
+	 *
+	 * @param uuid session uuid
+	 */
+	public void invalidate(UUID uuid)
+	{
+		sessionCache.invalidate(uuid);
+		lastUsed.remove(uuid);
+	}
+
+	/**
+	 * @return statistics of the session cache, including its hit rate
+	 */
+	public CacheStats getCacheStats()
+	{
+		return sessionCache.stats();
+	}
+
+	/**
+	 * @return the number of cached sessions
+	 */
+	public long getCacheSize()
+	{
+		return sessionCache.size();
+	}
 
-			con.createQuery("update sessions set last_used = :last_used where uuid = :uuid")
-				.addParameter("last_used", Timestamp.from(now))
-				.addParameter("uuid", uuid.toString())
-				.executeUpdate();
+	/**
+	 * Write the last used times of sessions used since the last flush
+	 */
+	@Scheduled(fixedDelay = 60_000)
+	public void flush()
+	{
+		Map<UUID, Instant> batch = new HashMap<>(lastUsed);
+		if (batch.isEmpty())
+		{
+			return;
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query query = con.createQuery("update sessions set last_used = :last_used where uuid = :uuid");
+
+			for (Map.Entry<UUID, Instant> entry : batch.entrySet())
+			{
+				query
+					.addParameter("last_used", Timestamp.from(entry.getValue()))
+					.addParameter("uuid", entry.getKey().toString())
+					.addToBatch();
+			}
 
-			sessionEntry.setLastUsed(now);
+			query.executeBatch();
+			con.commit(false);
+		}
 
-			return sessionEntry;
+		// Only remove the times once they are committed, so a failed flush is retried.
+		// A newer time written by a concurrent request is left for the next flush.
+		for (Map.Entry<UUID, Instant> entry : batch.entrySet())
+		{
+			lastUsed.remove(entry.getKey(), entry.getValue());
 		}
+
+		CacheStats stats = sessionCache.stats();
+		log.debug("Updated {} sessions, session cache hit rate {} ({} hits, {} misses)",
+			batch.size(), stats.hitRate(), stats.hitCount(), stats.missCount());
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		flush();
+	}
+
+	@Value
+	private static class CachedSession
+	{
+		private final int user;
+		private final UUID uuid;
+		private final Instant created;
+	}
 }
@@ -24,16 +24,21 @@
  */
 package net.runelite.http.service.chat;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.chat.ChatClient;
+import net.runelite.http.api.chat.ChatLookup;
+import net.runelite.http.api.chat.ChatLookupResult;
+import net.runelite.http.api.chat.ChatLookupType;
 import net.runelite.http.api.chat.Task;
 import net.runelite.http.service.util.exception.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -45,11 +50,6 @@ public class ChatController
 	private static final Pattern STRING_VALIDATION = Pattern.compile("[^a-zA-Z0-9' -]");
 	private static final int STRING_MAX_LENGTH = 50;
 
-	private final Cache<KillCountKey, Integer> killCountCache = CacheBuilder.newBuilder()
-		.expireAfterWrite(2, TimeUnit.MINUTES)
-		.maximumSize(128L)
-		.build();
-
 	@Autowired
 	private ChatService chatService;
 
@@ -62,22 +62,12 @@ public class ChatController
 		}
 
 		chatService.setKc(name, boss, kc);
-		killCountCache.put(new KillCountKey(name, boss), kc);
 	}
 
 	@GetMapping("/kc")
 	public int getKc(@RequestParam String name, @RequestParam String boss)
 	{
-		Integer kc = killCountCache.getIfPresent(new KillCountKey(name, boss));
-		if (kc == null)
-		{
-			kc = chatService.getKc(name, boss);
-			if (kc != null)
-			{
-				killCountCache.put(new KillCountKey(name, boss), kc);
-			}
-		}
-
+		Integer kc = chatService.getKc(name, boss);
 		if (kc == null)
 		{
 			throw new NotFoundException();
@@ -155,4 +145,26 @@ public class ChatController
 		}
 		return pb;
 	}
+
+	@PostMapping("/lookup")
+	public List<ChatLookupResult> lookup(HttpServletResponse response, @RequestBody List<ChatLookup> lookups) throws IOException
+	{
+		if (lookups.size() > ChatClient.MAX_LOOKUPS)
+		{
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Too many lookups");
+			return null;
+		}
+
+		for (ChatLookup lookup : lookups)
+		{
+			if (lookup.getType() == null || lookup.getName() == null
+				|| (lookup.getType() == ChatLookupType.KILLCOUNT || lookup.getType() == ChatLookupType.PERSONAL_BEST) && lookup.getBoss() == null)
+			{
+				response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid lookup");
+				return null;
+			}
+		}
+
+		return chatService.lookup(lookups);
+	}
 }
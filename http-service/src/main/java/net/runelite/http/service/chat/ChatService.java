@@ -24,84 +24,156 @@
  */
 package net.runelite.http.service.chat;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.Value;
+import net.runelite.http.api.chat.ChatLookup;
+import net.runelite.http.api.chat.ChatLookupResult;
 import net.runelite.http.api.chat.Task;
 import net.runelite.http.service.util.redis.RedisPool;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
 @Service
 public class ChatService
 {
 	private static final Duration EXPIRE = Duration.ofMinutes(2);
+	private static final String TASK_PREFIX = "task.";
 
 	private final RedisPool jedisPool;
 
+	/*
+	 * Near-cache of redis values, keyed by redis key. Entries are kept briefly since other
+	 * instances may update the values. Concurrent lookups of the same key share a single load.
+	 */
+	private final LoadingCache<String, CachedValue> cache = CacheBuilder.newBuilder()
+		.expireAfterWrite(10, TimeUnit.SECONDS)
+		.maximumSize(16384)
+		.build(new CacheLoader<String, CachedValue>()
+		{
+			@Override
+			public CachedValue load(String key)
+			{
+				return loadAll(ImmutableList.of(key)).get(key);
+			}
+
+			@Override
+			public Map<String, CachedValue> loadAll(Iterable<? extends String> keys)
+			{
+				return ChatService.this.loadAll(keys);
+			}
+		});
+
 	@Autowired
 	public ChatService(RedisPool jedisPool)
 	{
 		this.jedisPool = jedisPool;
 	}
 
-	public Integer getKc(String name, String boss)
+	/**
+	 * Load many keys from redis in a single pipelined round trip
+	 */
+	private Map<String, CachedValue> loadAll(Iterable<? extends String> keys)
 	{
-		String value;
+		Map<String, Response<String>> strings = new HashMap<>();
+		Map<String, Response<Map<String, String>>> tasks = new HashMap<>();
+
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			value = jedis.get("kc." + name + "." + boss);
+			Pipeline pipeline = jedis.pipelined();
+			for (String key : keys)
+			{
+				if (key.startsWith(TASK_PREFIX))
+				{
+					tasks.put(key, pipeline.hgetAll(key));
+				}
+				else
+				{
+					strings.put(key, pipeline.get(key));
+				}
+			}
+			pipeline.sync();
 		}
-		return value == null ? null : Integer.parseInt(value);
-	}
 
-	public void setKc(String name, String boss, int kc)
-	{
-		try (Jedis jedis = jedisPool.getResource())
+		Map<String, CachedValue> values = new HashMap<>(strings.size() + tasks.size());
+		for (Map.Entry<String, Response<String>> entry : strings.entrySet())
+		{
+			values.put(entry.getKey(), new CachedValue(entry.getValue().get(), null));
+		}
+		for (Map.Entry<String, Response<Map<String, String>>> entry : tasks.entrySet())
 		{
-			jedis.setex("kc." + name + "." + boss, (int) EXPIRE.getSeconds(), Integer.toString(kc));
+			Map<String, String> task = entry.getValue().get();
+			values.put(entry.getKey(), new CachedValue(null, task == null || task.isEmpty() ? null : task));
 		}
+		return values;
 	}
 
-	public Integer getQp(String name)
+	private CachedValue get(String key)
 	{
-		String value;
-		try (Jedis jedis = jedisPool.getResource())
+		try
+		{
+			return cache.getUnchecked(key);
+		}
+		catch (UncheckedExecutionException ex)
 		{
-			value = jedis.get("qp." + name);
+			throw (RuntimeException) ex.getCause();
 		}
+	}
+
+	private Integer getInt(String key)
+	{
+		String value = get(key).getValue();
 		return value == null ? null : Integer.parseInt(value);
 	}
 
-	public void setQp(String name, int qp)
+	private void setInt(String key, int value)
 	{
+		String str = Integer.toString(value);
 		try (Jedis jedis = jedisPool.getResource())
 		{
-			jedis.setex("qp." + name, (int) EXPIRE.getSeconds(), Integer.toString(qp));
+			jedis.setex(key, (int) EXPIRE.getSeconds(), str);
 		}
+		cache.put(key, new CachedValue(str, null));
 	}
 
-	public Task getTask(String name)
+	public Integer getKc(String name, String boss)
 	{
-		Map<String, String> map;
+		return getInt(kcKey(name, boss));
+	}
 
-		try (Jedis jedis = jedisPool.getResource())
-		{
-			map = jedis.hgetAll("task." + name);
-		}
+	public void setKc(String name, String boss, int kc)
+	{
+		setInt(kcKey(name, boss), kc);
+	}
 
-		if (map.isEmpty())
-		{
-			return null;
-		}
+	public Integer getQp(String name)
+	{
+		return getInt(qpKey(name));
+	}
 
-		Task task = new Task();
-		task.setTask(map.get("task"));
-		task.setAmount(Integer.parseInt(map.get("amount")));
-		task.setInitialAmount(Integer.parseInt(map.get("initialAmount")));
-		task.setLocation(map.get("location"));
-		return task;
+	public void setQp(String name, int qp)
+	{
+		setInt(qpKey(name), qp);
+	}
+
+	public Task getTask(String name)
+	{
+		Map<String, String> map = get(taskKey(name)).getTask();
+		return map == null ? null : toTask(map);
 	}
 
 	public void setTask(String name, Task task)
@@ -113,30 +185,123 @@ public class ChatService
 			.put("location", task.getLocation())
 			.build();
 
-		String key = "task." + name;
+		String key = taskKey(name);
 
 		try (Jedis jedis = jedisPool.getResource())
 		{
 			jedis.hmset(key, taskMap);
 			jedis.expire(key, (int) EXPIRE.getSeconds());
 		}
+		cache.put(key, new CachedValue(null, taskMap));
 	}
 
 	public Integer getPb(String name, String boss)
 	{
-		String value;
-		try (Jedis jedis = jedisPool.getResource())
+		return getInt(pbKey(name, boss));
+	}
+
+	public void setPb(String name, String boss, int pb)
+	{
+		setInt(pbKey(name, boss), pb);
+	}
+
+	/**
+	 * Look up many values, loading those not in the near-cache with a single pipelined request
+	 *
+	 * @param lookups values to look up
+	 * @return the results, in the same order as the lookups
+	 */
+	public List<ChatLookupResult> lookup(List<ChatLookup> lookups)
+	{
+		List<String> keys = new ArrayList<>(lookups.size());
+		for (ChatLookup lookup : lookups)
 		{
-			value = jedis.get("pb." + boss + "." + name);
+			keys.add(key(lookup));
 		}
-		return value == null ? null : Integer.parseInt(value);
+
+		Map<String, CachedValue> values;
+		try
+		{
+			values = cache.getAll(keys);
+		}
+		catch (ExecutionException | UncheckedExecutionException ex)
+		{
+			throw new RuntimeException(ex.getCause());
+		}
+
+		List<ChatLookupResult> results = new ArrayList<>(lookups.size());
+		for (String key : keys)
+		{
+			CachedValue value = values.get(key);
+			ChatLookupResult result = new ChatLookupResult();
+			if (value.getTask() != null)
+			{
+				result.setTask(toTask(value.getTask()));
+			}
+			else if (value.getValue() != null)
+			{
+				result.setValue(Integer.parseInt(value.getValue()));
+			}
+			results.add(result);
+		}
+		return results;
 	}
 
-	public void setPb(String name, String boss, int pb)
+	private static String key(ChatLookup lookup)
 	{
-		try (Jedis jedis = jedisPool.getResource())
+		switch (lookup.getType())
 		{
-			jedis.setex("pb." + boss + "." + name, (int) EXPIRE.getSeconds(), Integer.toString(pb));
+			case KILLCOUNT:
+				return kcKey(lookup.getName(), lookup.getBoss());
+			case QUEST_POINTS:
+				return qpKey(lookup.getName());
+			case PERSONAL_BEST:
+				return pbKey(lookup.getName(), lookup.getBoss());
+			case TASK:
+				return taskKey(lookup.getName());
+			default:
+				throw new IllegalArgumentException("unknown lookup type " + lookup.getType());
 		}
 	}
+
+	private static String kcKey(String name, String boss)
+	{
+		return "kc." + name + "." + boss;
+	}
+
+	private static String qpKey(String name)
+	{
+		return "qp." + name;
+	}
+
+	private static String pbKey(String name, String boss)
+	{
+		return "pb." + boss + "." + name;
+	}
+
+	private static String taskKey(String name)
+	{
+		return TASK_PREFIX + name;
+	}
+
+	private static Task toTask(Map<String, String> map)
+	{
+		Task task = new Task();
+		task.setTask(map.get("task"));
+		task.setAmount(Integer.parseInt(map.get("amount")));
+		task.setInitialAmount(Integer.parseInt(map.get("initialAmount")));
+		task.setLocation(map.get("location"));
+		return task;
+	}
+
+	/**
+	 * A cached redis value, which is a string, or a hash for tasks. Both are null
+	 * if the key does not exist.
+	 */
+	@Value
+	private static class CachedValue
+	{
+		private final String value;
+		private final Map<String, String> task;
+	}
 }
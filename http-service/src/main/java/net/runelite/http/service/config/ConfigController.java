@@ -24,18 +24,30 @@
  */
 package net.runelite.http.service.config;
 
+import com.google.common.io.ByteStreams;
+import com.google.gson.JsonParseException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.config.ConfigPatch;
 import net.runelite.http.api.config.Configuration;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
+import static org.springframework.web.bind.annotation.RequestMethod.PATCH;
 import static org.springframework.web.bind.annotation.RequestMethod.PUT;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -43,6 +55,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/config")
 public class ConfigController
 {
+	private static final long MAX_PATCH_SIZE = 1024 * 1024;
+
 	private final ConfigService configService;
 	private final AuthFilter authFilter;
 
@@ -54,7 +68,37 @@ public class ConfigController
 	}
 
 	@GetMapping
-	public Configuration get(HttpServletRequest request, HttpServletResponse response) throws IOException
+	public Configuration get(
+		HttpServletRequest request,
+		HttpServletResponse response,
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
+	) throws IOException
+	{
+		SessionEntry session = authFilter.handle(request, response);
+
+		if (session == null)
+		{
+			return null;
+		}
+
+		if (ifNoneMatch != null)
+		{
+			String etag = etag(configService.getVersion(session.getUser()));
+			if (ifNoneMatch.equals(etag))
+			{
+				response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+				response.setHeader(HttpHeaders.ETAG, etag);
+				return null;
+			}
+		}
+
+		Configuration configuration = configService.get(session.getUser());
+		response.setHeader(HttpHeaders.ETAG, etag(configuration.getVersion()));
+		return configuration;
+	}
+
+	@RequestMapping(method = PATCH)
+	public Long patch(HttpServletRequest request, HttpServletResponse response) throws IOException
 	{
 		SessionEntry session = authFilter.handle(request, response);
 
@@ -63,7 +107,29 @@ public class ConfigController
 			return null;
 		}
 
-		return configService.get(session.getUser());
+		InputStream in = request.getInputStream();
+		if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING)))
+		{
+			in = new GZIPInputStream(in);
+		}
+
+		ConfigPatch patch;
+		try (Reader reader = new InputStreamReader(ByteStreams.limit(in, MAX_PATCH_SIZE), StandardCharsets.UTF_8))
+		{
+			patch = RuneLiteAPI.GSON.fromJson(reader, ConfigPatch.class);
+		}
+		catch (JsonParseException ex)
+		{
+			patch = null;
+		}
+
+		if (patch == null || patch.getEdit() == null || patch.getUnset() == null)
+		{
+			response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+			return null;
+		}
+
+		return configService.patch(session.getUser(), patch);
 	}
 
 	@RequestMapping(path = "/{key:.+}", method = PUT)
@@ -100,4 +166,9 @@ public class ConfigController
 
 		configService.unsetKey(session.getUser(), key);
 	}
+
+	private static String etag(long version)
+	{
+		return "\"" + version + "\"";
+	}
 }
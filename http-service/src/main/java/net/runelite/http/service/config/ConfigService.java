@@ -30,22 +30,30 @@ import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import static com.mongodb.client.model.Filters.eq;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
 import com.mongodb.client.model.IndexOptions;
 import com.mongodb.client.model.Indexes;
+import static com.mongodb.client.model.Projections.include;
+import com.mongodb.client.model.ReturnDocument;
 import com.mongodb.client.model.UpdateOptions;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.inc;
 import static com.mongodb.client.model.Updates.set;
 import static com.mongodb.client.model.Updates.unset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.Nullable;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.api.config.ConfigPatch;
 import net.runelite.http.api.config.Configuration;
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -53,8 +61,14 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class ConfigService
 {
+	private static final String VERSION = "_version";
+
 	private final Gson GSON = RuneLiteAPI.GSON;
 	private final UpdateOptions upsertUpdateOptions = new UpdateOptions().upsert(true);
+	private final FindOneAndUpdateOptions patchOptions = new FindOneAndUpdateOptions()
+		.upsert(true)
+		.returnDocument(ReturnDocument.AFTER)
+		.projection(include(VERSION));
 
 	private final MongoCollection<Document> mongoCollection;
 
@@ -78,9 +92,33 @@ public class ConfigService
 		return mongoCollection.find(eq("_userId", userId)).first();
 	}
 
+	/**
+	 * Get the version of a user's configuration, which is incremented on every change
+	 *
+	 * @param userId user
+	 * @return the configuration version
+	 */
+	public long getVersion(int userId)
+	{
+		return getVersion(mongoCollection.find(eq("_userId", userId))
+			.projection(include(VERSION))
+			.first());
+	}
+
+	private static long getVersion(@Nullable Document document)
+	{
+		if (document == null)
+		{
+			return 0;
+		}
+
+		Object version = document.get(VERSION);
+		return version instanceof Number ? ((Number) version).longValue() : 0;
+	}
+
 	public Configuration get(int userId)
 	{
-		Map<String, Object> configMap = getConfig(userId);
+		Document configMap = getConfig(userId);
 
 		if (configMap == null || configMap.isEmpty())
 		{
@@ -120,7 +158,9 @@ public class ConfigService
 			}
 		}
 
-		return new Configuration(config);
+		Configuration configuration = new Configuration(config);
+		configuration.setVersion(getVersion(configMap));
+		return configuration;
 	}
 
 	public void setKey(
@@ -129,20 +169,15 @@ public class ConfigService
 		@Nullable String value
 	)
 	{
-		if (key.startsWith("$") || key.startsWith("_"))
-		{
-			return;
-		}
-
-		String[] split = key.split("\\.", 2);
-		if (split.length != 2)
+		String path = getPath(key);
+		if (path == null)
 		{
 			return;
 		}
 
 		Object jsonValue = parseJsonString(value);
 		mongoCollection.updateOne(eq("_userId", userId),
-			set(split[0] + "." + split[1].replace('.', ':'), jsonValue),
+			combine(set(path, jsonValue), inc(VERSION, 1)),
 			upsertUpdateOptions);
 	}
 
@@ -151,19 +186,81 @@ public class ConfigService
 		String key
 	)
 	{
-		if (key.startsWith("$") || key.startsWith("_"))
+		String path = getPath(key);
+		if (path == null)
 		{
 			return;
 		}
 
+		mongoCollection.updateOne(eq("_userId", userId),
+			combine(unset(path), inc(VERSION, 1)));
+	}
+
+	/**
+	 * Apply a batch of configuration changes in a single update
+	 *
+	 * @param userId user
+	 * @param patch  changes to apply
+	 * @return the configuration version after the changes were applied
+	 */
+	public long patch(int userId, ConfigPatch patch)
+	{
+		// keyed by path, as an update may not modify the same path twice
+		Map<String, Bson> updatesByPath = new LinkedHashMap<>();
+
+		for (String key : patch.getUnset())
+		{
+			String path = getPath(key);
+			if (path != null)
+			{
+				updatesByPath.put(path, unset(path));
+			}
+		}
+
+		for (Map.Entry<String, String> entry : patch.getEdit().entrySet())
+		{
+			String path = getPath(entry.getKey());
+			if (path != null && entry.getValue() != null)
+			{
+				updatesByPath.put(path, set(path, parseJsonString(entry.getValue())));
+			}
+		}
+
+		List<Bson> updates = new ArrayList<>(updatesByPath.values());
+		if (updates.isEmpty())
+		{
+			return getVersion(userId);
+		}
+
+		updates.add(inc(VERSION, 1));
+
+		Document document = mongoCollection.findOneAndUpdate(eq("_userId", userId),
+			combine(updates),
+			patchOptions);
+		return getVersion(document);
+	}
+
+	/**
+	 * Get the document path of a configuration key
+	 *
+	 * @param key group and key, separated by a period
+	 * @return the path, or null if the key is not valid
+	 */
+	@Nullable
+	private static String getPath(String key)
+	{
+		if (key.startsWith("$") || key.startsWith("_"))
+		{
+			return null;
+		}
+
 		String[] split = key.split("\\.", 2);
 		if (split.length != 2)
 		{
-			return;
+			return null;
 		}
 
-		mongoCollection.updateOne(eq("_userId", userId),
-			unset(split[0] + "." + split[1].replace('.', ':')));
+		return split[0] + "." + split[1].replace('.', ':');
 	}
 
 	private static Object parseJsonString(String value)
@@ -28,13 +28,21 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreResultBuilder;
+import net.runelite.http.api.hiscore.HiscoreSkill;
 import okhttp3.HttpUrl;
 import org.springframework.stereotype.Service;
 
@@ -42,19 +50,42 @@ import org.springframework.stereotype.Service;
 @Slf4j
 public class HiscoreService
 {
+	// Approximate size of a cached result, excluding the username
+	private static final int RESULT_WEIGHT = 64 + HiscoreSkill.values().length * 32;
+	private static final long MAX_CACHE_WEIGHT = 32L * 1024 * 1024;
+	private static final int MAX_UPSTREAM_LOOKUPS = 8;
+	private static final long UPSTREAM_TIMEOUT_SECONDS = 10;
+
 	private final HiscoreClient hiscoreClient = new HiscoreClient();
+	// Limits concurrent requests to the Jagex hiscores, from both loads and refreshes
+	private final Semaphore upstreamLimiter = new Semaphore(MAX_UPSTREAM_LOOKUPS);
+	private final ExecutorService refreshExecutor = new ThreadPoolExecutor(
+		MAX_UPSTREAM_LOOKUPS, MAX_UPSTREAM_LOOKUPS, 1, TimeUnit.MINUTES,
+		new LinkedBlockingQueue<>(1024),
+		new ThreadFactoryBuilder().setNameFormat("hiscore-refresh-%d").setDaemon(true).build(),
+		// A rejected reload must fail rather than be discarded, so the cache keeps serving the stale
+		// result and retries the refresh later. A discarded task's future would never complete.
+		new ThreadPoolExecutor.AbortPolicy());
+
+	/*
+	 * Results are refreshed in the background once they are a minute old, while the
+	 * stale result continues to be served, and are only dropped entirely after 10
+	 * minutes. Concurrent lookups of the same player share a single load.
+	 */
 	private final LoadingCache<HiscoreKey, HiscoreResult> hiscoreCache = CacheBuilder.newBuilder()
-		.maximumSize(128)
-		.expireAfterWrite(1, TimeUnit.MINUTES)
-		.build(
+		.maximumWeight(MAX_CACHE_WEIGHT)
+		.weigher((HiscoreKey key, HiscoreResult result) -> RESULT_WEIGHT + key.getUsername().length() * 2)
+		.refreshAfterWrite(1, TimeUnit.MINUTES)
+		.expireAfterWrite(10, TimeUnit.MINUTES)
+		.build(CacheLoader.asyncReloading(
 			new CacheLoader<HiscoreKey, HiscoreResult>()
 			{
 				@Override
-				public HiscoreResult load(HiscoreKey key) throws IOException
+				public HiscoreResult load(HiscoreKey key) throws IOException, InterruptedException
 				{
-					return hiscoreClient.lookup(key.getUsername(), key.getEndpoint());
+					return lookupUpstream(key.getUsername(), key.getEndpoint().getHiscoreURL());
 				}
-			});
+			}, refreshExecutor));
 
 	@VisibleForTesting
 	HiscoreResult lookupUsername(String username, HttpUrl httpUrl) throws IOException
@@ -64,6 +95,74 @@ public class HiscoreService
 
 	public HiscoreResult lookupUsername(String username, HiscoreEndpoint endpoint) throws ExecutionException
 	{
-		return hiscoreCache.get(new HiscoreKey(username, endpoint));
+		try
+		{
+			HiscoreResult result = hiscoreCache.get(new HiscoreKey(normalize(username), endpoint));
+			return withPlayer(result, username);
+		}
+		catch (UncheckedExecutionException ex)
+		{
+			throw new ExecutionException(ex.getCause());
+		}
+	}
+
+	/**
+	 * Copy a cached result with the username the caller asked for, since the cached
+	 * result was looked up with the normalized name
+	 */
+	private static HiscoreResult withPlayer(HiscoreResult result, String username)
+	{
+		HiscoreResultBuilder builder = new HiscoreResultBuilder();
+		builder.setPlayer(username);
+		for (HiscoreSkill skill : HiscoreSkill.values())
+		{
+			builder.setNextSkill(result.getSkill(skill));
+		}
+		return builder.build();
+	}
+
+	private HiscoreResult lookupUpstream(String username, HttpUrl httpUrl) throws IOException, InterruptedException
+	{
+		if (!upstreamLimiter.tryAcquire(UPSTREAM_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+		{
+			throw new IOException("Too many concurrent hiscore lookups");
+		}
+
+		try
+		{
+			return lookupUsername(username, httpUrl);
+		}
+		finally
+		{
+			upstreamLimiter.release();
+		}
+	}
+
+	/**
+	 * Normalize a username so different spellings of the same name share
+	 * a cache entry. The hiscores treat these as the same player.
+	 */
+	@VisibleForTesting
+	static String normalize(String username)
+	{
+		StringBuilder sb = new StringBuilder(username.length());
+		boolean space = false;
+		for (int i = 0; i < username.length(); ++i)
+		{
+			char c = username.charAt(i);
+			if (c == ' ' || c == '_' || c == '-' || c == '\u00A0')
+			{
+				space = sb.length() > 0;
+				continue;
+			}
+
+			if (space)
+			{
+				sb.append(' ');
+				space = false;
+			}
+			sb.append(Character.toLowerCase(c));
+		}
+		return sb.toString();
 	}
 }
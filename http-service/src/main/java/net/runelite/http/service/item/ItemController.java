@@ -24,8 +24,6 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.common.base.Supplier;
-import com.google.common.base.Suppliers;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import java.time.Instant;
@@ -37,11 +35,15 @@ import javax.servlet.http.HttpServletResponse;
 import net.runelite.http.api.item.Item;
 import net.runelite.http.api.item.ItemPrice;
 import net.runelite.http.api.item.SearchResult;
+import net.runelite.http.service.util.CompressedBody;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -59,24 +61,10 @@ public class ItemController
 
 	private final ItemService itemService;
 
-	private final Supplier<ItemPrice[]> memorizedPrices;
-
 	@Autowired
 	public ItemController(ItemService itemService)
 	{
 		this.itemService = itemService;
-
-		memorizedPrices = Suppliers.memoizeWithExpiration(() -> itemService.fetchPrices().stream()
-			.map(priceEntry ->
-			{
-				ItemPrice itemPrice = new ItemPrice();
-				itemPrice.setId(priceEntry.getItem());
-				itemPrice.setName(priceEntry.getName());
-				itemPrice.setPrice(priceEntry.getPrice());
-				itemPrice.setTime(priceEntry.getTime());
-				return itemPrice;
-			})
-			.toArray(ItemPrice[]::new), 30, TimeUnit.MINUTES);
 	}
 
 	@GetMapping("/{itemId}")
@@ -218,10 +206,12 @@ public class ItemController
 	}
 
 	@GetMapping("/prices")
-	public ResponseEntity<ItemPrice[]> prices()
+	public ResponseEntity<byte[]> prices(
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	)
 	{
-		return ResponseEntity.ok()
-			.cacheControl(CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic())
-			.body(memorizedPrices.get());
+		CompressedBody body = itemService.getPriceSnapshot().getBody();
+		return body.serve(ifNoneMatch, acceptEncoding, MediaType.APPLICATION_JSON_UTF8, CacheControl.maxAge(30, TimeUnit.MINUTES).cachePublic());
 	}
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs pending item lookups on a fixed pool of workers. Lookups are deduplicated
+ * for as long as they are queued or running, and urgent lookups, which are the
+ * ones users are waiting on, are run before background ones.
+ */
+@Slf4j
+class ItemCrawler
+{
+	private final int threads;
+	private final int maxPending;
+	private final Consumer<PendingLookup> handler;
+
+	// lookups which are queued or in progress
+	private final Set<PendingLookup> pending = new HashSet<>();
+	private final Deque<PendingLookup> urgent = new ArrayDeque<>();
+	private final Deque<PendingLookup> background = new ArrayDeque<>();
+
+	private ExecutorService executor;
+
+	ItemCrawler(int threads, int maxPending, Consumer<PendingLookup> handler)
+	{
+		this.threads = threads;
+		this.maxPending = maxPending;
+		this.handler = handler;
+	}
+
+	synchronized void start()
+	{
+		if (executor != null)
+		{
+			return;
+		}
+
+		executor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+			.setNameFormat("item-crawler-%d")
+			.setDaemon(true)
+			.build());
+
+		for (int i = 0; i < threads; ++i)
+		{
+			executor.execute(this::run);
+		}
+	}
+
+	void shutdown()
+	{
+		ExecutorService e;
+		synchronized (this)
+		{
+			e = executor;
+			executor = null;
+		}
+
+		if (e != null)
+		{
+			e.shutdownNow();
+		}
+	}
+
+	/**
+	 * Queue a lookup
+	 *
+	 * @param lookup  the lookup
+	 * @param isUrgent whether to run the lookup before any background lookups
+	 * @return false if the lookup was dropped because too many lookups are pending
+	 */
+	synchronized boolean queue(PendingLookup lookup, boolean isUrgent)
+	{
+		if (pending.contains(lookup))
+		{
+			// promote a queued background lookup which is now urgent
+			if (isUrgent && background.remove(lookup))
+			{
+				urgent.addLast(lookup);
+			}
+			return true;
+		}
+
+		if (pending.size() >= maxPending)
+		{
+			return false;
+		}
+
+		pending.add(lookup);
+		(isUrgent ? urgent : background).addLast(lookup);
+		notify();
+		return true;
+	}
+
+	/**
+	 * @return number of background lookups waiting to run
+	 */
+	synchronized int getBackgroundSize()
+	{
+		return background.size();
+	}
+
+	private synchronized PendingLookup take() throws InterruptedException
+	{
+		while (urgent.isEmpty() && background.isEmpty())
+		{
+			wait();
+		}
+
+		return !urgent.isEmpty() ? urgent.pollFirst() : background.pollFirst();
+	}
+
+	private synchronized void complete(PendingLookup lookup)
+	{
+		pending.remove(lookup);
+	}
+
+	private void run()
+	{
+		while (!Thread.currentThread().isInterrupted())
+		{
+			PendingLookup lookup;
+			try
+			{
+				lookup = take();
+			}
+			catch (InterruptedException ex)
+			{
+				return;
+			}
+
+			try
+			{
+				handler.accept(lookup);
+			}
+			catch (RuntimeException ex)
+			{
+				log.warn("error running lookup {}", lookup, ex);
+			}
+			finally
+			{
+				complete(lookup);
+			}
+		}
+	}
+}
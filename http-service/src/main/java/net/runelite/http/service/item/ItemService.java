@@ -24,28 +24,29 @@
  */
 package net.runelite.http.service.item;
 
-import com.google.gson.JsonParseException;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Ordering;
+import com.google.common.primitives.Ints;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Random;
 import java.util.Set;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.cache.definitions.ItemDefinition;
-import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.item.ItemType;
 import net.runelite.http.service.cache.CacheService;
 import okhttp3.HttpUrl;
-import okhttp3.Request;
-import okhttp3.Response;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
@@ -56,11 +57,6 @@ import org.sql2o.Sql2o;
 @Slf4j
 public class ItemService
 {
-	private static final String BASE = "https://services.runescape.com/m=itemdb_oldschool";
-	private static final HttpUrl RS_ITEM_URL = HttpUrl.parse(BASE + "/api/catalogue/detail.json");
-	private static final HttpUrl RS_PRICE_URL = HttpUrl.parse(BASE + "/api/graph");
-	private static final HttpUrl RS_SEARCH_URL = HttpUrl.parse(BASE + "/api/catalogue/items.json?category=1");
-
 	private static final String CREATE_ITEMS = "CREATE TABLE IF NOT EXISTS `items` (\n"
 		+ "  `id` int(11) NOT NULL,\n"
 		+ "  `name` tinytext NOT NULL,\n"
@@ -82,21 +78,51 @@ public class ItemService
 		+ "  KEY `item_fetched_time` (`item`,`fetched_time`)\n"
 		+ ") ENGINE=InnoDB";
 
-	private static final int MAX_PENDING = 512;
+	private static final int MAX_PENDING = 4096;
+	private static final int CRAWLER_THREADS = 4;
+	// number of prices queued for refresh each crawl, about a minute of requests
+	private static final int CRAWL_BATCH = 60;
+	// a failing price refresh waits up to 2^MAX_BACKOFF_SHIFT times as long to be ranked as highly again
+	private static final int MAX_BACKOFF_SHIFT = 8;
+
+	/**
+	 * Consecutive failed price refreshes of an item
+	 */
+	static final class PriceFailure
+	{
+		private final int count;
+		private final long lastAttempt;
+
+		PriceFailure(int count, long lastAttempt)
+		{
+			this.count = count;
+			this.lastAttempt = lastAttempt;
+		}
+	}
 
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
+	private final ItemDbClient itemDbClient;
+	private final ItemCrawler crawler;
 
-	private final ConcurrentLinkedQueue<PendingLookup> pendingLookups = new ConcurrentLinkedQueue<PendingLookup>();
-	private int[] tradeableItems;
-	private final Random random = new Random();
+	private final LatestPrices latestPrices = new LatestPrices();
+	private volatile boolean latestPricesLoaded;
+	// latest price lookups per tradeable item since it was last crawled
+	private final ConcurrentHashMultiset<Integer> priceRequests = ConcurrentHashMultiset.create();
+	private final Map<Integer, PriceFailure> priceFailures = new ConcurrentHashMap<>();
+	// sorted ids of the tradeable items
+	private volatile int[] tradeableItems;
 
 	@Autowired
 	public ItemService(@Qualifier("Runelite SQL2O") Sql2o sql2o,
-		CacheService cacheService)
+		CacheService cacheService,
+		@Value("${runelite.itemdb.url:https://services.runescape.com/m=itemdb_oldschool}") String itemDbUrl,
+		@Value("${runelite.itemdb.rate:1.0}") double itemDbRate)
 	{
 		this.sql2o = sql2o;
 		this.cacheService = cacheService;
+		this.itemDbClient = new ItemDbClient(HttpUrl.parse(itemDbUrl), itemDbRate);
+		this.crawler = new ItemCrawler(CRAWLER_THREADS, MAX_PENDING, this::lookup);
 
 		try (Connection con = sql2o.open())
 		{
@@ -108,6 +134,18 @@ public class ItemService
 		}
 	}
 
+	@PostConstruct
+	public void start()
+	{
+		crawler.start();
+	}
+
+	@PreDestroy
+	public void shutdown()
+	{
+		crawler.shutdown();
+	}
+
 	public ItemEntry getItem(int itemId)
 	{
 		try (Connection con = sql2o.open())
@@ -139,6 +177,13 @@ public class ItemService
 
 	public PriceEntry getPrice(int itemId, Instant time)
 	{
+		if (time == null)
+		{
+			countPriceRequest(itemId);
+			PriceEntry priceEntry = getLatestPrices().get(itemId);
+			return priceEntry != null && priceEntry.getName() != null ? priceEntry : null;
+		}
+
 		try (Connection con = sql2o.open())
 		{
 			return getPrice(con, itemId, time);
@@ -147,31 +192,59 @@ public class ItemService
 
 	public List<PriceEntry> getPrices(int... itemIds)
 	{
-		try (Connection con = sql2o.open())
+		LatestPrices prices = getLatestPrices();
+		Set<Integer> seen = new HashSet<>();
+		List<PriceEntry> priceEntries = new ArrayList<>(itemIds.length);
+
+		for (int itemId : itemIds)
 		{
-			Set<Integer> seen = new HashSet<>();
-			List<PriceEntry> priceEntries = new ArrayList<>(itemIds.length);
+			if (!seen.add(itemId))
+			{
+				continue;
+			}
 
-			for (int itemId : itemIds)
+			countPriceRequest(itemId);
+
+			PriceEntry priceEntry = prices.get(itemId);
+
+			if (priceEntry == null || priceEntry.getName() == null)
 			{
-				if (seen.contains(itemId))
-				{
-					continue;
-				}
-				seen.add(itemId);
+				continue;
+			}
+
+			priceEntries.add(priceEntry);
+		}
 
-				PriceEntry priceEntry = getPrice(con, itemId, null);
+		return priceEntries;
+	}
+
+	/**
+	 * Get the serialized latest prices of all items
+	 *
+	 * @return the price snapshot
+	 */
+	public LatestPrices.Snapshot getPriceSnapshot()
+	{
+		return getLatestPrices().getSnapshot();
+	}
 
-				if (priceEntry == null)
+	private LatestPrices getLatestPrices()
+	{
+		if (!latestPricesLoaded)
+		{
+			synchronized (latestPrices)
+			{
+				if (!latestPricesLoaded)
 				{
-					continue;
+					List<PriceEntry> prices = fetchPrices();
+					latestPrices.update(prices);
+					latestPricesLoaded = true;
+					log.debug("Loaded {} latest prices", prices.size());
 				}
-
-				priceEntries.add(priceEntry);
 			}
-
-			return priceEntries;
 		}
+
+		return latestPrices;
 	}
 
 	public List<ItemEntry> search(String search)
@@ -190,12 +263,12 @@ public class ItemService
 	{
 		try
 		{
-			RSItem rsItem = fetchRSItem(itemId);
+			RSItem rsItem = itemDbClient.fetchItem(itemId);
 			byte[] icon = null, iconLarge = null;
 
 			try
 			{
-				icon = fetchImage(rsItem.getIcon());
+				icon = itemDbClient.fetchImage(rsItem.getIcon());
 			}
 			catch (IOException ex)
 			{
@@ -204,7 +277,7 @@ public class ItemService
 
 			try
 			{
-				iconLarge = fetchImage(rsItem.getIcon_large());
+				iconLarge = itemDbClient.fetchImage(rsItem.getIcon_large());
 			}
 			catch (IOException ex)
 			{
@@ -225,6 +298,8 @@ public class ItemService
 					.executeUpdate();
 			}
 
+			latestPrices.updateName(itemId, rsItem.getName());
+
 			ItemEntry item = new ItemEntry();
 			item.setId(itemId);
 			item.setName(rsItem.getName());
@@ -246,7 +321,7 @@ public class ItemService
 		RSPrices rsprice;
 		try
 		{
-			rsprice = fetchRSPrices(itemId);
+			rsprice = itemDbClient.fetchPrices(itemId);
 		}
 		catch (IOException ex)
 		{
@@ -287,6 +362,8 @@ public class ItemService
 			query.executeBatch();
 			con.commit(false);
 
+			latestPrices.update(entries);
+
 			return entries;
 		}
 	}
@@ -302,51 +379,9 @@ public class ItemService
 		}
 	}
 
-	private RSItem fetchRSItem(int itemId) throws IOException
-	{
-		HttpUrl itemUrl = RS_ITEM_URL
-			.newBuilder()
-			.addQueryParameter("item", "" + itemId)
-			.build();
-
-		Request request = new Request.Builder()
-			.url(itemUrl)
-			.build();
-
-		RSItemResponse itemResponse = fetchJson(request, RSItemResponse.class);
-		return itemResponse.getItem();
-
-	}
-
-	private RSPrices fetchRSPrices(int itemId) throws IOException
-	{
-		HttpUrl priceUrl = RS_PRICE_URL
-			.newBuilder()
-			.addPathSegment(itemId + ".json")
-			.build();
-
-		Request request = new Request.Builder()
-			.url(priceUrl)
-			.build();
-
-		return fetchJson(request, RSPrices.class);
-	}
-
 	public RSSearch fetchRSSearch(String query) throws IOException
 	{
-		// rs api seems to require lowercase
-		query = query.toLowerCase();
-
-		HttpUrl searchUrl = RS_SEARCH_URL
-			.newBuilder()
-			.addQueryParameter("alpha", query)
-			.build();
-
-		Request request = new Request.Builder()
-			.url(searchUrl)
-			.build();
-
-		return fetchJson(request, RSSearch.class);
+		return itemDbClient.search(query);
 	}
 
 	private void batchInsertItems(RSSearch search)
@@ -369,52 +404,16 @@ public class ItemService
 			q.executeBatch();
 			con.commit(false);
 		}
-	}
 
-	private <T> T fetchJson(Request request, Class<T> clazz) throws IOException
-	{
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		for (RSItem rsItem : search.getItems())
 		{
-			if (!response.isSuccessful())
-			{
-				throw new IOException("Unsuccessful http response: " + response);
-			}
-
-			InputStream in = response.body().byteStream();
-			return RuneLiteAPI.GSON.fromJson(new InputStreamReader(in), clazz);
-		}
-		catch (JsonParseException ex)
-		{
-			throw new IOException(ex);
-		}
-	}
-
-	private byte[] fetchImage(String url) throws IOException
-	{
-		HttpUrl httpUrl = HttpUrl.parse(url);
-
-		Request request = new Request.Builder()
-			.url(httpUrl)
-			.build();
-
-		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
-		{
-			if (!response.isSuccessful())
-			{
-				throw new IOException("Unsuccessful http response: " + response);
-			}
-
-			return response.body().bytes();
+			latestPrices.updateName(rsItem.getId(), rsItem.getName());
 		}
 	}
 
 	public void queueSearch(String search)
 	{
-		if (pendingLookups.size() < MAX_PENDING)
-		{
-			pendingLookups.add(new PendingLookup(search, PendingLookup.Type.SEARCH));
-		}
-		else
+		if (!crawler.queue(new PendingLookup(search, PendingLookup.Type.SEARCH), true))
 		{
 			log.debug("Dropping pending search for {}", search);
 		}
@@ -422,31 +421,20 @@ public class ItemService
 
 	public void queueItem(int itemId)
 	{
-		if (pendingLookups.size() < MAX_PENDING)
-		{
-			pendingLookups.add(new PendingLookup(itemId, PendingLookup.Type.ITEM));
-		}
-		else
+		if (!crawler.queue(new PendingLookup(itemId, PendingLookup.Type.ITEM), true))
 		{
 			log.debug("Dropping pending item lookup for {}", itemId);
 		}
 	}
 
-	@Scheduled(fixedDelay = 5000)
-	public void check()
+	private void lookup(PendingLookup pendingLookup)
 	{
-		PendingLookup pendingLookup = pendingLookups.poll();
-		if (pendingLookup == null)
-		{
-			return;
-		}
-
 		switch (pendingLookup.getType())
 		{
 			case SEARCH:
 				try
 				{
-					RSSearch reSearch = fetchRSSearch(pendingLookup.getSearch());
+					RSSearch reSearch = itemDbClient.search(pendingLookup.getSearch());
 
 					batchInsertItems(reSearch);
 				}
@@ -458,31 +446,124 @@ public class ItemService
 			case ITEM:
 				fetchItem(pendingLookup.getItemId());
 				break;
+			case PRICE:
+			{
+				int id = pendingLookup.getItemId();
+				ItemEntry item = getItem(id);
+				if (item == null)
+				{
+					// This is a new item..
+					log.debug("Fetching new item {}", id);
+					item = fetchItem(id);
+					if (item == null)
+					{
+						recordPriceFailure(id);
+						break;
+					}
+				}
+
+				log.debug("Fetching price for {}", id);
+
+				if (fetchPrice(id) == null)
+				{
+					recordPriceFailure(id);
+				}
+				else
+				{
+					priceFailures.remove(id);
+				}
+				latestPrices.updateName(id, item.getName());
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Count a latest price lookup of an item. Only tradeable items are crawled, so lookups
+	 * of other ids are not counted, which keeps clients from growing the counts without bound.
+	 */
+	@VisibleForTesting
+	void countPriceRequest(int itemId)
+	{
+		int[] items = tradeableItems;
+		if (items != null && Arrays.binarySearch(items, itemId) >= 0)
+		{
+			priceRequests.add(itemId);
 		}
 	}
 
-	@Scheduled(fixedDelay = 20_000)
+	@VisibleForTesting
+	int getPriceRequests(int itemId)
+	{
+		return priceRequests.count(itemId);
+	}
+
+	/**
+	 * Queue price refreshes for the tradeable items most in need of one. Items are
+	 * ranked by the age of their price, weighted by how often their price has been
+	 * requested since it was last refreshed.
+	 */
+	@Scheduled(fixedDelay = 60_000)
 	public void crawlPrices()
 	{
-		if (tradeableItems == null || tradeableItems.length == 0)
+		int[] items = tradeableItems;
+		if (items == null || items.length == 0 || crawler.getBackgroundSize() >= CRAWL_BATCH)
 		{
 			return;
 		}
 
-		int idx = random.nextInt(tradeableItems.length);
-		int id = tradeableItems[idx];
+		LatestPrices prices = getLatestPrices();
+		long now = Instant.now().getEpochSecond();
 
-		if (getItem(id) == null)
+		List<Integer> candidates = Ordering.<Double>natural().reverse().onResultOf((Integer id) ->
 		{
-			// This is a new item..
-			log.debug("Fetching new item {}", id);
-			queueItem(id);
-			return;
+			PriceEntry priceEntry = prices.get(id);
+			return crawlRank(priceEntry != null ? priceEntry.getFetched_time() : null, priceFailures.get(id), priceRequests.count(id), now);
+		}).leastOf(Ints.asList(items), CRAWL_BATCH);
+
+		for (int id : candidates)
+		{
+			if (crawler.queue(new PendingLookup(id, PendingLookup.Type.PRICE), false))
+			{
+				priceRequests.setCount(id, 0);
+			}
+		}
+
+		log.debug("Queued {} price refreshes", candidates.size());
+	}
+
+	private void recordPriceFailure(int itemId)
+	{
+		final long now = Instant.now().getEpochSecond();
+		priceFailures.merge(itemId, new PriceFailure(1, now), (prev, next) -> new PriceFailure(prev.count + 1, now));
+	}
+
+	/**
+	 * Rank an item for a price refresh, higher ranks are refreshed first
+	 *
+	 * @param fetched  when the item's price was last fetched, or null if it never has been
+	 * @param failure  the item's failed refreshes since its last successful one, or null
+	 * @param requests price lookups of the item since it was last refreshed
+	 * @param now      the current time, in seconds since the epoch
+	 * @return the rank
+	 */
+	static double crawlRank(Instant fetched, PriceFailure failure, int requests, long now)
+	{
+		if (failure != null)
+		{
+			// back off from items which keep failing, so that they can't take up every batch
+			long age = Math.max(0L, now - failure.lastAttempt);
+			return (double) age / (1L << Math.min(failure.count, MAX_BACKOFF_SHIFT));
 		}
 
-		log.debug("Fetching price for {}", id);
+		// never fetched items sort first
+		if (fetched == null)
+		{
+			return Double.MAX_VALUE;
+		}
 
-		fetchPrice(id);
+		long age = Math.max(0L, now - fetched.getEpochSecond());
+		return age * (1 + Math.log1p(requests));
 	}
 
 	@Scheduled(fixedDelay = 1_8000_000) // 30 minutes
@@ -494,12 +575,17 @@ public class ItemService
 			log.warn("Failed to load any items from cache, item price updating will be disabled");
 		}
 
-		tradeableItems = items.stream()
+		int[] tradeable = items.stream()
 			.filter(item -> item.isTradeable)
 			.mapToInt(item -> item.id)
+			.sorted()
 			.toArray();
+		tradeableItems = tradeable;
+
+		// drop the counts of items which are no longer tradeable
+		priceRequests.elementSet().removeIf(id -> Arrays.binarySearch(tradeable, id) < 0);
 
-		log.debug("Loaded {} tradeable items", tradeableItems.length);
+		log.debug("Loaded {} tradeable items", tradeable.length);
 	}
 
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import lombok.Value;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.item.ItemPrice;
+import net.runelite.http.service.util.CompressedBody;
+
+/**
+ * The most recent price of each item, indexed by item id. This is kept up to date
+ * as prices are inserted so the latest prices never have to be queried from the
+ * price history.
+ */
+class LatestPrices
+{
+	private static final int INITIAL_SIZE = 32768;
+
+	private volatile PriceEntry[] prices = new PriceEntry[INITIAL_SIZE];
+	// incremented whenever a price changes, under the lock
+	private volatile int version;
+	private volatile Snapshot snapshot;
+
+	/**
+	 * Get the latest price of an item
+	 *
+	 * @param itemId item id
+	 * @return the price entry, or null if the price is not known
+	 */
+	PriceEntry get(int itemId)
+	{
+		PriceEntry[] p = prices;
+		return itemId >= 0 && itemId < p.length ? p[itemId] : null;
+	}
+
+	/**
+	 * Update the latest prices. Entries older than the current latest price
+	 * of their item are ignored.
+	 *
+	 * @param entries price entries
+	 */
+	synchronized void update(Collection<PriceEntry> entries)
+	{
+		for (PriceEntry entry : entries)
+		{
+			int itemId = entry.getItem();
+			if (itemId < 0)
+			{
+				continue;
+			}
+
+			PriceEntry[] p = prices;
+			if (itemId >= p.length)
+			{
+				p = Arrays.copyOf(p, Math.max(itemId + 1, p.length * 2));
+			}
+
+			PriceEntry current = p[itemId];
+			if (current != null)
+			{
+				int cmp = entry.getTime().compareTo(current.getTime());
+				if (cmp < 0 || (cmp == 0 && entry.getPrice() == current.getPrice()))
+				{
+					continue;
+				}
+
+				if (entry.getName() == null)
+				{
+					entry = withName(entry, current.getName());
+				}
+			}
+
+			p[itemId] = entry;
+			prices = p;
+			++version;
+		}
+	}
+
+	/**
+	 * Set the name of an item which has a price
+	 *
+	 * @param itemId item id
+	 * @param name   item name
+	 */
+	synchronized void updateName(int itemId, String name)
+	{
+		PriceEntry current = get(itemId);
+		if (current != null && !name.equals(current.getName()))
+		{
+			prices[itemId] = withName(current, name);
+			++version;
+		}
+	}
+
+	private static PriceEntry withName(PriceEntry priceEntry, String name)
+	{
+		PriceEntry named = new PriceEntry();
+		named.setItem(priceEntry.getItem());
+		named.setName(name);
+		named.setPrice(priceEntry.getPrice());
+		named.setTime(priceEntry.getTime());
+		named.setFetched_time(priceEntry.getFetched_time());
+		return named;
+	}
+
+	/**
+	 * Get the serialized prices of all named items. The snapshot is only rebuilt
+	 * after a price has changed.
+	 *
+	 * @return the price snapshot
+	 */
+	Snapshot getSnapshot()
+	{
+		Snapshot s = snapshot;
+		if (s != null && s.getVersion() == version)
+		{
+			return s;
+		}
+
+		synchronized (this)
+		{
+			s = snapshot;
+			if (s != null && s.getVersion() == version)
+			{
+				return s;
+			}
+
+			List<ItemPrice> itemPrices = new ArrayList<>();
+			for (PriceEntry priceEntry : prices)
+			{
+				if (priceEntry == null || priceEntry.getName() == null)
+				{
+					continue;
+				}
+
+				ItemPrice itemPrice = new ItemPrice();
+				itemPrice.setId(priceEntry.getItem());
+				itemPrice.setName(priceEntry.getName());
+				itemPrice.setPrice(priceEntry.getPrice());
+				itemPrice.setTime(priceEntry.getTime());
+				itemPrices.add(itemPrice);
+			}
+
+			byte[] json = RuneLiteAPI.GSON.toJson(itemPrices).getBytes(StandardCharsets.UTF_8);
+			String etag = '"' + Hashing.sha256().hashBytes(json).toString() + '"';
+			s = new Snapshot(version, CompressedBody.of(json, etag));
+			snapshot = s;
+			return s;
+		}
+	}
+
+	@Value
+	static class Snapshot
+	{
+		private final int version;
+		private final CompressedBody body;
+	}
+}
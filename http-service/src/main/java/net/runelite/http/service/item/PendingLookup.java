@@ -32,7 +32,8 @@ class PendingLookup
 	enum Type
 	{
 		SEARCH,
-		ITEM;
+		ITEM,
+		PRICE;
 	}
 
 	private final int itemId;
@@ -28,14 +28,18 @@ package net.runelite.http.service.loottracker;
 import com.google.api.client.http.HttpStatusCodes;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordPage;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
@@ -46,6 +50,8 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/loottracker")
 public class LootTrackerController
 {
+	private static final int MAX_BULK_RECORDS = 1024;
+
 	@Autowired
 	private LootTrackerService service;
 
@@ -66,6 +72,26 @@ public class LootTrackerController
 		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
 	}
 
+	@PostMapping("/bulk")
+	public void storeLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestBody List<LootRecord> records) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return;
+		}
+
+		if (records.size() > MAX_BULK_RECORDS)
+		{
+			response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+			return;
+		}
+
+		service.store(records, e.getUser());
+		response.setStatus(HttpStatusCodes.STATUS_CODE_OK);
+	}
+
 	@GetMapping
 	public Collection<LootRecord> getLootRecords(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count, @RequestParam(value = "start", defaultValue = "0") int start) throws IOException
 	{
@@ -79,6 +105,32 @@ public class LootTrackerController
 		return service.get(e.getUser(), count, start);
 	}
 
+	@GetMapping("/history")
+	public LootRecordPage getLootHistory(HttpServletRequest request, HttpServletResponse response, @RequestParam(value = "count", defaultValue = "1024") int count, @RequestParam(value = "before", required = false) Integer before) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return null;
+		}
+
+		return service.getPage(e.getUser(), count, before);
+	}
+
+	@GetMapping("/summary")
+	public Collection<LootAggregate> getLootSummary(HttpServletRequest request, HttpServletResponse response) throws IOException
+	{
+		SessionEntry e = auth.handle(request, response);
+		if (e == null)
+		{
+			response.setStatus(HttpStatusCodes.STATUS_CODE_UNAUTHORIZED);
+			return null;
+		}
+
+		return service.getAggregate(e.getUser());
+	}
+
 	@DeleteMapping
 	public void deleteLoot(HttpServletRequest request, HttpServletResponse response,
 		@RequestParam(required = false) String eventId) throws IOException
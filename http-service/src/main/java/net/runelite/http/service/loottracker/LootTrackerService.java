@@ -25,11 +25,25 @@
  */
 package net.runelite.http.service.loottracker;
 
+import com.google.common.collect.Lists;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordPage;
+import net.runelite.http.api.loottracker.LootRecordType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -39,6 +53,7 @@ import org.sql2o.Query;
 import org.sql2o.Sql2o;
 
 @Service
+@Slf4j
 public class LootTrackerService
 {
 	// Table for storing individual LootRecords
@@ -51,6 +66,7 @@ public class LootTrackerService
 		+ "  PRIMARY KEY (id),\n"
 		+ "  FOREIGN KEY (accountId) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE,\n"
 		+ "  INDEX idx_acc (accountId, time),"
+		+ "  INDEX idx_acc_id (accountId, id),"
 		+ "  INDEX idx_time (time)"
 		+ ") ENGINE=InnoDB";
 
@@ -62,14 +78,85 @@ public class LootTrackerService
 		+ "  FOREIGN KEY (killId) REFERENCES kills(id) ON DELETE CASCADE\n"
 		+ ") ENGINE=InnoDB";
 
+	// Running totals of kills per event, maintained alongside the kills table
+	private static final String CREATE_KILLS_AGGREGATE = "CREATE TABLE IF NOT EXISTS `kills_aggregate` (\n"
+		+ "  `accountId` INT NOT NULL,\n"
+		+ "  `type` enum('NPC', 'PLAYER', 'EVENT', 'UNKNOWN') NOT NULL,\n"
+		+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+		+ "  `kills` INT NOT NULL,\n"
+		+ "  PRIMARY KEY (accountId, type, eventId),\n"
+		+ "  FOREIGN KEY (accountId) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE\n"
+		+ ") ENGINE=InnoDB";
+
+	// Running totals of item quantities per event, maintained alongside the drops table
+	private static final String CREATE_DROPS_AGGREGATE = "CREATE TABLE IF NOT EXISTS `drops_aggregate` (\n"
+		+ "  `accountId` INT NOT NULL,\n"
+		+ "  `type` enum('NPC', 'PLAYER', 'EVENT', 'UNKNOWN') NOT NULL,\n"
+		+ "  `eventId` VARCHAR(255) NOT NULL,\n"
+		+ "  `itemId` INT NOT NULL,\n"
+		+ "  `itemQuantity` BIGINT NOT NULL,\n"
+		+ "  PRIMARY KEY (accountId, type, eventId, itemId),\n"
+		+ "  FOREIGN KEY (accountId) REFERENCES users(id) ON DELETE CASCADE ON UPDATE CASCADE\n"
+		+ ") ENGINE=InnoDB";
+
+	// Queries for filling the aggregate tables from existing loot when they are first created.
+	// These set rather than add, so kills stored while the tables are filled are not counted twice.
+	private static final String AGGREGATE_TABLE_EXISTS = "SELECT COUNT(*) FROM information_schema.tables "
+		+ "WHERE table_schema = DATABASE() AND table_name = :table";
+	private static final String BACKFILL_KILLS_AGGREGATE = "INSERT INTO kills_aggregate (accountId, type, eventId, kills) "
+		+ "SELECT accountId, type, eventId, COUNT(*) FROM kills GROUP BY accountId, type, eventId "
+		+ "ON DUPLICATE KEY UPDATE kills = VALUES(kills)";
+	private static final String BACKFILL_DROPS_AGGREGATE = "INSERT INTO drops_aggregate (accountId, type, eventId, itemId, itemQuantity) "
+		+ "SELECT accountId, type, eventId, itemId, SUM(itemQuantity) FROM kills JOIN drops ON drops.killId = kills.id "
+		+ "GROUP BY accountId, type, eventId, itemId "
+		+ "ON DUPLICATE KEY UPDATE itemQuantity = VALUES(itemQuantity)";
+
 	// Queries for inserting kills
 	private static final String INSERT_KILL_QUERY = "INSERT INTO kills (accountId, type, eventId) VALUES (:accountId, :type, :eventId)";
-	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES (LAST_INSERT_ID(), :itemId, :itemQuantity)";
+	private static final String INSERT_DROP_QUERY = "INSERT INTO drops (killId, itemId, itemQuantity) VALUES ";
+
+	// Maximum number of rows in a single multi-row drop insert
+	private static final int MAX_DROP_ROWS = 1000;
+
+	// Queries for maintaining the aggregate tables
+	private static final String UPDATE_KILLS_AGGREGATE_QUERY = "INSERT INTO kills_aggregate (accountId, type, eventId, kills) VALUES (:accountId, :type, :eventId, :kills)"
+		+ " ON DUPLICATE KEY UPDATE kills = kills + VALUES(kills)";
+	private static final String UPDATE_DROPS_AGGREGATE_QUERY = "INSERT INTO drops_aggregate (accountId, type, eventId, itemId, itemQuantity) VALUES (:accountId, :type, :eventId, :itemId, :itemQuantity)"
+		+ " ON DUPLICATE KEY UPDATE itemQuantity = itemQuantity + VALUES(itemQuantity)";
 
-	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM kills JOIN drops ON drops.killId = kills.id WHERE accountId = :accountId ORDER BY TIME DESC LIMIT :limit OFFSET :offset";
+	// The limit and offset apply to kills, not to drop rows
+	private static final String SELECT_LOOT_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM "
+		+ "(SELECT id,time,type,eventId FROM kills WHERE accountId = :accountId ORDER BY time DESC, id DESC LIMIT :limit OFFSET :offset) k "
+		+ "JOIN drops ON drops.killId = k.id ORDER BY k.time DESC, k.id DESC";
+	private static final String SELECT_LOOT_PAGE_QUERY = "SELECT killId,time,type,eventId,itemId,itemQuantity FROM "
+		+ "(SELECT id,time,type,eventId FROM kills WHERE accountId = :accountId AND id < :before ORDER BY id DESC LIMIT :limit) k "
+		+ "JOIN drops ON drops.killId = k.id ORDER BY k.id DESC";
+	private static final String SELECT_AGGREGATE_QUERY = "SELECT k.type,k.eventId,k.kills,d.itemId,d.itemQuantity FROM kills_aggregate k "
+		+ "LEFT JOIN drops_aggregate d ON d.accountId = k.accountId AND d.type = k.type AND d.eventId = k.eventId "
+		+ "WHERE k.accountId = :accountId ORDER BY k.type, k.eventId";
 
 	private static final String DELETE_LOOT_ACCOUNT = "DELETE FROM kills WHERE accountId = :accountId";
 	private static final String DELETE_LOOT_ACCOUNT_EVENTID = "DELETE FROM kills WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_KILLS_AGGREGATE_ACCOUNT = "DELETE FROM kills_aggregate WHERE accountId = :accountId";
+	private static final String DELETE_KILLS_AGGREGATE_ACCOUNT_EVENTID = "DELETE FROM kills_aggregate WHERE accountId = :accountId AND eventId = :eventId";
+	private static final String DELETE_DROPS_AGGREGATE_ACCOUNT = "DELETE FROM drops_aggregate WHERE accountId = :accountId";
+	private static final String DELETE_DROPS_AGGREGATE_ACCOUNT_EVENTID = "DELETE FROM drops_aggregate WHERE accountId = :accountId AND eventId = :eventId";
+
+	// Queries for expiring old loot, which also has to be taken back out of the aggregates
+	private static final String EXPIRE_KILLS_AGGREGATE = "UPDATE kills_aggregate a JOIN "
+		+ "(SELECT accountId, type, eventId, COUNT(*) AS kills FROM kills WHERE time < :cutoff GROUP BY accountId, type, eventId) e "
+		+ "ON a.accountId = e.accountId AND a.type = e.type AND a.eventId = e.eventId "
+		+ "SET a.kills = a.kills - e.kills";
+	private static final String EXPIRE_DROPS_AGGREGATE = "UPDATE drops_aggregate a JOIN "
+		+ "(SELECT accountId, type, eventId, itemId, SUM(itemQuantity) AS itemQuantity FROM kills JOIN drops ON drops.killId = kills.id "
+		+ "WHERE time < :cutoff GROUP BY accountId, type, eventId, itemId) e "
+		+ "ON a.accountId = e.accountId AND a.type = e.type AND a.eventId = e.eventId AND a.itemId = e.itemId "
+		+ "SET a.itemQuantity = a.itemQuantity - e.itemQuantity";
+	private static final String DELETE_EMPTY_KILLS_AGGREGATE = "DELETE FROM kills_aggregate WHERE kills <= 0";
+	private static final String DELETE_EMPTY_DROPS_AGGREGATE = "DELETE FROM drops_aggregate WHERE itemQuantity <= 0";
+	private static final String DELETE_EXPIRED_KILLS = "DELETE FROM kills WHERE time < :cutoff";
+
+	private static final Duration LOOT_RETENTION = Duration.ofDays(30);
 
 	private final Sql2o sql2o;
 
@@ -83,6 +170,37 @@ public class LootTrackerService
 		{
 			con.createQuery(CREATE_KILLS).executeUpdate();
 			con.createQuery(CREATE_DROPS).executeUpdate();
+
+			boolean backfill = !tableExists(con, "kills_aggregate") || !tableExists(con, "drops_aggregate");
+			con.createQuery(CREATE_KILLS_AGGREGATE).executeUpdate();
+			con.createQuery(CREATE_DROPS_AGGREGATE).executeUpdate();
+
+			if (backfill)
+			{
+				backfillAggregates();
+			}
+		}
+	}
+
+	private static boolean tableExists(Connection con, String table)
+	{
+		return con.createQuery(AGGREGATE_TABLE_EXISTS)
+			.addParameter("table", table)
+			.executeScalar(Integer.class) > 0;
+	}
+
+	/**
+	 * Fill newly created aggregate tables from the existing loot, so that expiring
+	 * the existing loot does not take away totals that were never added
+	 */
+	private void backfillAggregates()
+	{
+		try (Connection con = sql2o.beginTransaction())
+		{
+			int kills = con.createQuery(BACKFILL_KILLS_AGGREGATE).executeUpdate().getResult();
+			int drops = con.createQuery(BACKFILL_DROPS_AGGREGATE).executeUpdate().getResult();
+			con.commit(false);
+			log.info("Filled loot aggregates with {} kill and {} drop totals", kills, drops);
 		}
 	}
 
@@ -94,31 +212,151 @@ public class LootTrackerService
 	 */
 	public void store(LootRecord record, int accountId)
 	{
+		store(Collections.singletonList(record), accountId);
+	}
+
+	/**
+	 * Store many LootRecords in one transaction. The kills are inserted as one batch,
+	 * and then their drops with multi-row inserts. The per-event aggregates are updated
+	 * in the same transaction.
+	 *
+	 * @param records   LootRecords to store
+	 * @param accountId runelite account id to tie data too
+	 */
+	public void store(Collection<LootRecord> records, int accountId)
+	{
+		if (records.isEmpty())
+		{
+			return;
+		}
+
 		try (Connection con = sql2o.beginTransaction())
 		{
-			// Kill Entry Query
-			con.createQuery(INSERT_KILL_QUERY, true)
-				.addParameter("accountId", accountId)
-				.addParameter("type", record.getType())
-				.addParameter("eventId", record.getEventId())
-				.executeUpdate();
+			Query insertKill = con.createQuery(INSERT_KILL_QUERY, true);
+			for (LootRecord record : records)
+			{
+				insertKill
+					.addParameter("accountId", accountId)
+					.addParameter("type", record.getType())
+					.addParameter("eventId", record.getEventId())
+					.addToBatch();
+			}
+
+			insertKill.executeBatch();
+			List<Integer> killIds = con.getKeys(Integer.class);
+			if (killIds.size() != records.size())
+			{
+				throw new IllegalStateException("Expected " + records.size() + " kill ids, got " + killIds.size());
+			}
+
+			List<int[]> drops = new ArrayList<>();
+			Iterator<Integer> killId = killIds.iterator();
+			for (LootRecord record : records)
+			{
+				int id = killId.next();
+				for (GameItem drop : record.getDrops())
+				{
+					drops.add(new int[]{id, drop.getId(), drop.getQty()});
+				}
+			}
+
+			for (List<int[]> rows : Lists.partition(drops, MAX_DROP_ROWS))
+			{
+				insertDrops(con, rows);
+			}
+
+			updateAggregates(con, records, accountId);
+
+			con.commit(false);
+		}
+	}
+
+	private static void insertDrops(Connection con, List<int[]> rows)
+	{
+		StringBuilder sql = new StringBuilder(INSERT_DROP_QUERY);
+		for (int i = 0; i < rows.size(); ++i)
+		{
+			if (i > 0)
+			{
+				sql.append(',');
+			}
+			sql.append("(:killId").append(i)
+				.append(", :itemId").append(i)
+				.append(", :itemQuantity").append(i).append(')');
+		}
+
+		Query insertDrops = con.createQuery(sql.toString());
+		for (int i = 0; i < rows.size(); ++i)
+		{
+			int[] row = rows.get(i);
+			insertDrops
+				.addParameter("killId" + i, row[0])
+				.addParameter("itemId" + i, row[1])
+				.addParameter("itemQuantity" + i, row[2]);
+		}
+		insertDrops.executeUpdate();
+	}
 
-			Query insertDrop = con.createQuery(INSERT_DROP_QUERY);
+	private static void updateAggregates(Connection con, Collection<LootRecord> records, int accountId)
+	{
+		// Sum up the records first so each event and item is only written once
+		Map<EventKey, Integer> kills = new LinkedHashMap<>();
+		Map<EventKey, Map<Integer, Long>> drops = new LinkedHashMap<>();
+		for (LootRecord record : records)
+		{
+			EventKey key = new EventKey(record.getType(), record.getEventId());
+			kills.merge(key, 1, Integer::sum);
 
-			// Append all queries for inserting drops
+			Map<Integer, Long> items = drops.computeIfAbsent(key, k -> new HashMap<>());
 			for (GameItem drop : record.getDrops())
 			{
-				insertDrop
-					.addParameter("itemId", drop.getId())
-					.addParameter("itemQuantity", drop.getQty())
+				items.merge(drop.getId(), (long) drop.getQty(), Long::sum);
+			}
+		}
+
+		Query updateKills = con.createQuery(UPDATE_KILLS_AGGREGATE_QUERY);
+		for (Map.Entry<EventKey, Integer> entry : kills.entrySet())
+		{
+			updateKills
+				.addParameter("accountId", accountId)
+				.addParameter("type", entry.getKey().getType())
+				.addParameter("eventId", entry.getKey().getEventId())
+				.addParameter("kills", entry.getValue())
+				.addToBatch();
+		}
+		updateKills.executeBatch();
+
+		Query updateDrops = con.createQuery(UPDATE_DROPS_AGGREGATE_QUERY);
+		boolean hasDrops = false;
+		for (Map.Entry<EventKey, Map<Integer, Long>> entry : drops.entrySet())
+		{
+			for (Map.Entry<Integer, Long> item : entry.getValue().entrySet())
+			{
+				updateDrops
+					.addParameter("accountId", accountId)
+					.addParameter("type", entry.getKey().getType())
+					.addParameter("eventId", entry.getKey().getEventId())
+					.addParameter("itemId", item.getKey())
+					.addParameter("itemQuantity", item.getValue())
 					.addToBatch();
+				hasDrops = true;
 			}
+		}
 
-			insertDrop.executeBatch();
-			con.commit(false);
+		if (hasDrops)
+		{
+			updateDrops.executeBatch();
 		}
 	}
 
+	/**
+	 * Get LootRecords, newest first
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills to return
+	 * @param offset    number of kills to skip
+	 * @return the loot records
+	 */
 	public Collection<LootRecord> get(int accountId, int limit, int offset)
 	{
 		List<LootResult> lootResults;
@@ -132,6 +370,84 @@ public class LootTrackerService
 				.executeAndFetch(LootResult.class);
 		}
 
+		return toLootRecords(lootResults);
+	}
+
+	/**
+	 * Get a page of LootRecords older than the given cursor, newest first. Unlike
+	 * {@link #get(int, int, int)} this does not have to skip over earlier pages.
+	 *
+	 * @param accountId runelite account id
+	 * @param limit     maximum number of kills to return
+	 * @param before    cursor returned with the previous page, or null for the first page
+	 * @return the page of loot records
+	 */
+	public LootRecordPage getPage(int accountId, int limit, Integer before)
+	{
+		List<LootResult> lootResults;
+
+		try (Connection con = sql2o.open())
+		{
+			lootResults = con.createQuery(SELECT_LOOT_PAGE_QUERY)
+				.addParameter("accountId", accountId)
+				.addParameter("before", before != null ? before : Integer.MAX_VALUE)
+				.addParameter("limit", limit)
+				.executeAndFetch(LootResult.class);
+		}
+
+		Integer next = null;
+		if (!lootResults.isEmpty())
+		{
+			long kills = lootResults.stream().mapToInt(LootResult::getKillId).distinct().count();
+			if (kills >= limit)
+			{
+				next = lootResults.get(lootResults.size() - 1).getKillId();
+			}
+		}
+
+		return new LootRecordPage(toLootRecords(lootResults), next);
+	}
+
+	/**
+	 * Get the total kills and item quantities for each event
+	 *
+	 * @param accountId runelite account id
+	 * @return the loot aggregates
+	 */
+	public Collection<LootAggregate> getAggregate(int accountId)
+	{
+		List<AggregateResult> aggregateResults;
+
+		try (Connection con = sql2o.open())
+		{
+			aggregateResults = con.createQuery(SELECT_AGGREGATE_QUERY)
+				.addParameter("accountId", accountId)
+				.executeAndFetch(AggregateResult.class);
+		}
+
+		List<LootAggregate> lootAggregates = new ArrayList<>();
+		LootAggregate current = null;
+
+		for (AggregateResult result : aggregateResults)
+		{
+			if (current == null || current.getType() != result.getType() || !current.getEventId().equals(result.getEventId()))
+			{
+				current = new LootAggregate(result.getEventId(), result.getType(), result.getKills(), new ArrayList<>());
+				lootAggregates.add(current);
+			}
+
+			if (result.getItemId() != null)
+			{
+				int quantity = (int) Math.min(result.getItemQuantity(), Integer.MAX_VALUE);
+				current.getDrops().add(new GameItem(result.getItemId(), quantity));
+			}
+		}
+
+		return lootAggregates;
+	}
+
+	private static List<LootRecord> toLootRecords(List<LootResult> lootResults)
+	{
 		LootResult current = null;
 		List<LootRecord> lootRecords = new ArrayList<>();
 		List<GameItem> gameItems = new ArrayList<>();
@@ -166,13 +482,19 @@ public class LootTrackerService
 
 	public void delete(int accountId, String eventId)
 	{
-		try (Connection con = sql2o.open())
+		try (Connection con = sql2o.beginTransaction())
 		{
 			if (eventId == null)
 			{
 				con.createQuery(DELETE_LOOT_ACCOUNT)
 					.addParameter("accountId", accountId)
 					.executeUpdate();
+				con.createQuery(DELETE_KILLS_AGGREGATE_ACCOUNT)
+					.addParameter("accountId", accountId)
+					.executeUpdate();
+				con.createQuery(DELETE_DROPS_AGGREGATE_ACCOUNT)
+					.addParameter("accountId", accountId)
+					.executeUpdate();
 			}
 			else
 			{
@@ -180,17 +502,49 @@ public class LootTrackerService
 					.addParameter("accountId", accountId)
 					.addParameter("eventId", eventId)
 					.executeUpdate();
+				con.createQuery(DELETE_KILLS_AGGREGATE_ACCOUNT_EVENTID)
+					.addParameter("accountId", accountId)
+					.addParameter("eventId", eventId)
+					.executeUpdate();
+				con.createQuery(DELETE_DROPS_AGGREGATE_ACCOUNT_EVENTID)
+					.addParameter("accountId", accountId)
+					.addParameter("eventId", eventId)
+					.executeUpdate();
 			}
+
+			con.commit(false);
 		}
 	}
 
 	@Scheduled(fixedDelay = 15 * 60 * 1000)
 	public void expire()
 	{
-		try (Connection con = sql2o.open())
+		Timestamp cutoff = Timestamp.from(Instant.now().minus(LOOT_RETENTION));
+
+		try (Connection con = sql2o.beginTransaction())
 		{
-			con.createQuery("delete from kills where time < current_timestamp() - interval 30 day")
+			con.createQuery(EXPIRE_KILLS_AGGREGATE)
+				.addParameter("cutoff", cutoff)
+				.executeUpdate();
+			con.createQuery(EXPIRE_DROPS_AGGREGATE)
+				.addParameter("cutoff", cutoff)
+				.executeUpdate();
+			con.createQuery(DELETE_EMPTY_KILLS_AGGREGATE)
+				.executeUpdate();
+			con.createQuery(DELETE_EMPTY_DROPS_AGGREGATE)
+				.executeUpdate();
+			con.createQuery(DELETE_EXPIRED_KILLS)
+				.addParameter("cutoff", cutoff)
 				.executeUpdate();
+
+			con.commit(false);
 		}
 	}
+
+	@Value
+	private static class EventKey
+	{
+		private final LootRecordType type;
+		private final String eventId;
+	}
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+import lombok.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * A response body which is compressed once up front, and served with an ETag
+ * so clients which already have it get a 304 instead. The compressed and
+ * uncompressed bodies are different representations, so they have different
+ * strong ETags.
+ */
+@Value
+public class CompressedBody
+{
+	private final byte[] data;
+	private final byte[] gzip;
+	private final String etag;
+
+	/**
+	 * @param data body
+	 * @param etag quoted entity tag of the body
+	 * @return the body along with its gzip compressed form
+	 */
+	public static CompressedBody of(byte[] data, String etag)
+	{
+		return new CompressedBody(data, gzip(data), etag);
+	}
+
+	/**
+	 * Build a response for a request, honoring its If-None-Match and Accept-Encoding headers
+	 *
+	 * @param ifNoneMatch    If-None-Match header of the request, or null
+	 * @param acceptEncoding Accept-Encoding header of the request, or null
+	 * @param mediaType      content type of the body
+	 * @param cacheControl   cache control of the response
+	 * @return the response
+	 */
+	public ResponseEntity<byte[]> serve(String ifNoneMatch, String acceptEncoding, MediaType mediaType, CacheControl cacheControl)
+	{
+		boolean gzipped = acceptEncoding != null && acceptEncoding.contains("gzip");
+		String selectedEtag = gzipped ? getGzipEtag() : etag;
+		String otherEtag = gzipped ? etag : getGzipEtag();
+
+		// whichever representation the client has is still current
+		String matchedEtag = null;
+		if (ifNoneMatch != null)
+		{
+			if (etagMatches(ifNoneMatch, selectedEtag))
+			{
+				matchedEtag = selectedEtag;
+			}
+			else if (etagMatches(ifNoneMatch, otherEtag))
+			{
+				matchedEtag = otherEtag;
+			}
+		}
+
+		if (matchedEtag != null)
+		{
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				.cacheControl(cacheControl)
+				.eTag(matchedEtag)
+				.build();
+		}
+
+		ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+			.cacheControl(cacheControl)
+			.eTag(selectedEtag)
+			.contentType(mediaType)
+			.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+		if (gzipped)
+		{
+			return builder
+				.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+				.body(gzip);
+		}
+
+		return builder.body(data);
+	}
+
+	/**
+	 * @return quoted entity tag of the gzip compressed body
+	 */
+	public String getGzipEtag()
+	{
+		return etag.substring(0, etag.length() - 1) + "-gz\"";
+	}
+
+	private static boolean etagMatches(String ifNoneMatch, String etag)
+	{
+		for (String tag : ifNoneMatch.split(","))
+		{
+			tag = tag.trim();
+			if (tag.equals("*") || tag.equals(etag))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static byte[] gzip(byte[] data)
+	{
+		ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+		{
+			gzip.write(data);
+		}
+		catch (IOException ex)
+		{
+			throw new UncheckedIOException(ex);
+		}
+		return out.toByteArray();
+	}
+}
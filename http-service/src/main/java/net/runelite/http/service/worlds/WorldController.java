@@ -25,15 +25,22 @@
 package net.runelite.http.service.worlds;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.service.util.exception.NotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -41,22 +48,83 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class WorldController
 {
+	// number of previous versions deltas are available from
+	private static final int MAX_HISTORY = 30;
+	private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic();
+
 	@Autowired
 	private WorldsService worldsService;
 
-	private WorldResult worldResult;
+	private final Deque<WorldsSnapshot> history = new ArrayDeque<>();
+	private volatile WorldsSnapshot snapshot;
 
 	@GetMapping
-	public ResponseEntity<WorldResult> listWorlds() throws IOException
+	public ResponseEntity<byte[]> listWorlds(
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	)
+	{
+		return getSnapshot().getJson().serve(ifNoneMatch, acceptEncoding, MediaType.APPLICATION_JSON_UTF8, CACHE_CONTROL);
+	}
+
+	@GetMapping("/bin")
+	public ResponseEntity<byte[]> listWorldsBinary(
+		@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+		@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+	)
 	{
+		return getSnapshot().getBinary().serve(ifNoneMatch, acceptEncoding, MediaType.APPLICATION_OCTET_STREAM, CACHE_CONTROL);
+	}
+
+	@GetMapping("/delta")
+	public ResponseEntity<byte[]> delta(@RequestParam int since)
+	{
+		WorldsSnapshot s = getSnapshot();
 		return ResponseEntity.ok()
-			.cacheControl(CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic())
-			.body(worldResult);
+			.cacheControl(CacheControl.maxAge(1, TimeUnit.MINUTES).cachePublic())
+			.contentType(MediaType.APPLICATION_JSON_UTF8)
+			.body(s.getDelta(since));
 	}
 
 	@Scheduled(fixedDelay = 60_000L)
 	public void refreshWorlds() throws IOException
 	{
-		worldResult = worldsService.getWorlds();
+		WorldResult worldResult = worldsService.getWorlds();
+		WorldsSnapshot previous = snapshot;
+
+		if (worldResult == null || previous != null && previous.getWorlds().equals(worldResult.getWorlds()))
+		{
+			return;
+		}
+
+		// versions are seconds since the epoch so that they remain ordered across restarts
+		int version = (int) TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+		if (previous != null && version <= previous.getVersion())
+		{
+			version = previous.getVersion() + 1;
+		}
+
+		if (previous != null)
+		{
+			history.addLast(previous);
+			if (history.size() > MAX_HISTORY)
+			{
+				history.removeFirst();
+			}
+		}
+
+		snapshot = new WorldsSnapshot(version, worldResult.getWorlds(), history);
+
+		log.debug("Updated world list to version {}", version);
+	}
+
+	private WorldsSnapshot getSnapshot()
+	{
+		WorldsSnapshot s = snapshot;
+		if (s == null)
+		{
+			throw new NotFoundException();
+		}
+		return s;
 	}
 }
@@ -58,6 +58,17 @@ public class WorldsService
 			b = okresponse.body().bytes();
 		}
 
+		return parse(b);
+	}
+
+	/**
+	 * Parse a world list in the slr.ws format
+	 *
+	 * @param b world list data
+	 * @return the world list
+	 */
+	static WorldResult parse(byte[] b)
+	{
 		List<World> worlds = new ArrayList<>();
 		ByteBuffer buf = ByteBuffer.wrap(b);
 
@@ -84,6 +95,37 @@ public class WorldsService
 		return result;
 	}
 
+	/**
+	 * Encode a world list in the slr.ws format
+	 *
+	 * @param worlds worlds to encode
+	 * @return world list data
+	 */
+	static byte[] encode(List<World> worlds)
+	{
+		int length = 2;
+		for (World world : worlds)
+		{
+			length += 2 + 4 + world.getAddress().length() + 1 + world.getActivity().length() + 1 + 1 + 2;
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate(4 + length);
+		buf.putInt(length);
+		buf.putShort((short) worlds.size());
+
+		for (World world : worlds)
+		{
+			buf.putShort((short) world.getId());
+			buf.putInt(getMask(world.getTypes()));
+			writeString(buf, world.getAddress());
+			writeString(buf, world.getActivity());
+			buf.put((byte) world.getLocation());
+			buf.putShort((short) world.getPlayers());
+		}
+
+		return buf.array();
+	}
+
 	private static EnumSet<WorldType> getTypes(int mask)
 	{
 		EnumSet<WorldType> types = EnumSet.noneOf(WorldType.class);
@@ -99,6 +141,21 @@ public class WorldsService
 		return types;
 	}
 
+	private static int getMask(EnumSet<WorldType> types)
+	{
+		int mask = 0;
+
+		for (ServiceWorldType type : ServiceWorldType.values())
+		{
+			if (types.contains(type.getApiType()))
+			{
+				mask |= type.getMask();
+			}
+		}
+
+		return mask;
+	}
+
 	private static String readString(ByteBuffer buf)
 	{
 		byte b;
@@ -119,6 +176,15 @@ public class WorldsService
 		return sb.toString();
 	}
 
+	private static void writeString(ByteBuffer buf, String s)
+	{
+		for (int i = 0; i < s.length(); ++i)
+		{
+			buf.put((byte) s.charAt(i));
+		}
+		buf.put((byte) 0);
+	}
+
 	public HttpUrl getUrl()
 	{
 		return url;
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.worlds;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.Getter;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.worlds.World;
+import net.runelite.http.api.worlds.WorldDelta;
+import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.api.worlds.WorldUpdate;
+import net.runelite.http.service.util.CompressedBody;
+
+/**
+ * A version of the world list with its encoded forms, and the deltas to it
+ * from previous versions, computed once when the world list changes.
+ */
+@Getter
+class WorldsSnapshot
+{
+	private final int version;
+	private final List<World> worlds;
+	private final CompressedBody json;
+	private final CompressedBody binary;
+	private final byte[] fullDelta;
+	private final Map<Integer, byte[]> deltas;
+
+	/**
+	 * @param version  version of the world list
+	 * @param worlds   the world list
+	 * @param previous previous snapshots to compute deltas from
+	 */
+	WorldsSnapshot(int version, List<World> worlds, Collection<WorldsSnapshot> previous)
+	{
+		this.version = version;
+		this.worlds = Collections.unmodifiableList(new ArrayList<>(worlds));
+
+		WorldResult worldResult = new WorldResult();
+		worldResult.setVersion(version);
+		worldResult.setWorlds(this.worlds);
+
+		json = CompressedBody.of(RuneLiteAPI.GSON.toJson(worldResult).getBytes(StandardCharsets.UTF_8), "\"" + version + "\"");
+		binary = CompressedBody.of(WorldsService.encode(this.worlds), "\"" + version + "b\"");
+
+		WorldDelta full = new WorldDelta();
+		full.setVersion(version);
+		full.setFull(true);
+		fullDelta = RuneLiteAPI.GSON.toJson(full).getBytes(StandardCharsets.UTF_8);
+
+		Map<Integer, byte[]> deltas = new HashMap<>();
+		deltas.put(version, encodeDelta(computeDelta(this.worlds)));
+		for (WorldsSnapshot snapshot : previous)
+		{
+			deltas.put(snapshot.getVersion(), encodeDelta(snapshot.computeDelta(this.worlds)));
+		}
+		this.deltas = deltas;
+	}
+
+	/**
+	 * Get the encoded delta from a previous version to this one
+	 *
+	 * @param since previous version
+	 * @return json encoded {@link WorldDelta}
+	 */
+	byte[] getDelta(int since)
+	{
+		return deltas.getOrDefault(since, fullDelta);
+	}
+
+	/**
+	 * Compute the updates required to turn this world list into another
+	 *
+	 * @param to the new world list
+	 * @return the updates, or null if the list can't be updated in place
+	 */
+	private List<WorldUpdate> computeDelta(List<World> to)
+	{
+		if (worlds.size() != to.size())
+		{
+			return null;
+		}
+
+		List<WorldUpdate> updates = new ArrayList<>();
+		for (int i = 0; i < worlds.size(); ++i)
+		{
+			World from = worlds.get(i);
+			World world = to.get(i);
+
+			if (from.getId() != world.getId()
+				|| from.getLocation() != world.getLocation()
+				|| !Objects.equals(from.getAddress(), world.getAddress())
+				|| !Objects.equals(from.getActivity(), world.getActivity()))
+			{
+				return null;
+			}
+
+			if (from.getPlayers() != world.getPlayers() || !Objects.equals(from.getTypes(), world.getTypes()))
+			{
+				WorldUpdate update = new WorldUpdate();
+				update.setId(world.getId());
+				update.setPlayers(world.getPlayers());
+				update.setTypes(world.getTypes());
+				updates.add(update);
+			}
+		}
+		return updates;
+	}
+
+	private byte[] encodeDelta(List<WorldUpdate> updates)
+	{
+		if (updates == null)
+		{
+			return fullDelta;
+		}
+
+		WorldDelta delta = new WorldDelta();
+		delta.setVersion(version);
+		delta.setUpdates(updates);
+		return RuneLiteAPI.GSON.toJson(delta).getBytes(StandardCharsets.UTF_8);
+	}
+}
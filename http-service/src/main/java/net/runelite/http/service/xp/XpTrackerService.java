@@ -24,14 +24,31 @@
  */
 package net.runelite.http.service.xp;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.BloomFilter;
 import com.google.common.hash.Funnels;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
@@ -44,7 +61,9 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.sql2o.Connection;
+import org.sql2o.Query;
 import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
 
 @Service
 @Slf4j
@@ -52,6 +71,21 @@ public class XpTrackerService
 {
 	private static final int QUEUE_LIMIT = 32768;
 	private static final int BLOOMFILTER_EXPECTED_INSERTIONS = 100_000;
+	// Hiscore lookups are shared with user requests, so leave some of the upstream limit to them
+	private static final int WORKERS = 4;
+	private static final int XP_BATCH_SIZE = 256;
+	private static final int PLAYER_CACHE_SIZE = 100_000;
+
+	private static final String INSERT_XP_QUERY = "insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
+		+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
+		+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
+		+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
+		+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
+		+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
+		+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
+		+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
+		+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
+		+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)";
 
 	@Autowired
 	@Qualifier("Runelite XP Tracker SQL2O")
@@ -60,8 +94,44 @@ public class XpTrackerService
 	@Autowired
 	private HiscoreService hiscoreService;
 
-	private final Queue<String> usernameUpdateQueue = new ArrayDeque<>();
-	private BloomFilter<String> usernameFilter = createFilter();
+	// Usernames waiting for a hiscore lookup. The set deduplicates the queue.
+	private final Queue<String> usernameUpdateQueue = new ConcurrentLinkedQueue<>();
+	private final Set<String> queuedUsernames = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger queueSize = new AtomicInteger();
+	// Hiscore results waiting to be written
+	private final Queue<PendingXp> pendingXp = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger pendingXpSize = new AtomicInteger();
+
+	private final Cache<String, PlayerEntity> playerCache = CacheBuilder.newBuilder()
+		.maximumSize(PLAYER_CACHE_SIZE)
+		.build();
+	// Most recently written xp of each player, used to skip writing unchanged xp
+	private final Cache<Integer, XpData> xpCache = CacheBuilder.newBuilder()
+		.maximumSize(PLAYER_CACHE_SIZE)
+		.build();
+
+	private volatile BloomFilter<String> usernameFilter = createFilter();
+	private ScheduledExecutorService workers;
+
+	@PostConstruct
+	public void start()
+	{
+		workers = Executors.newScheduledThreadPool(WORKERS, new ThreadFactoryBuilder()
+			.setNameFormat("xp-tracker-%d")
+			.setDaemon(true)
+			.build());
+
+		for (int i = 0; i < WORKERS; ++i)
+		{
+			workers.scheduleWithFixedDelay(this::processQueue, 1, 1, TimeUnit.SECONDS);
+		}
+	}
+
+	@PreDestroy
+	public void stop()
+	{
+		workers.shutdownNow();
+	}
 
 	public void update(String username) throws ExecutionException
 	{
@@ -69,6 +139,12 @@ public class XpTrackerService
 		update(username, hiscoreResult);
 	}
 
+	/**
+	 * Queue a player to have their xp updated, unless they have been
+	 * updated recently
+	 *
+	 * @param username player name
+	 */
 	public void tryUpdate(String username)
 	{
 		if (usernameFilter.mightContain(username))
@@ -76,122 +152,264 @@ public class XpTrackerService
 			return;
 		}
 
-		try (Connection con = sql2o.open())
+		PlayerEntity playerEntity = playerCache.getIfPresent(username);
+		if (playerEntity != null && updatedRecently(playerEntity))
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
-			Duration frequency = updateFrequency(playerEntity);
-			Instant now = Instant.now();
-			Duration timeSinceLastUpdate = Duration.between(playerEntity.getLast_updated(), now);
-			if (timeSinceLastUpdate.toMillis() < frequency.toMillis())
-			{
-				log.debug("User {} updated too recently", username);
-				usernameFilter.put(username);
-				return;
-			}
+			log.debug("User {} updated too recently", username);
+			usernameFilter.put(username);
+			return;
+		}
+
+		if (!queuedUsernames.add(username))
+		{
+			return;
+		}
+
+		if (queueSize.incrementAndGet() > QUEUE_LIMIT)
+		{
+			queueSize.decrementAndGet();
+			queuedUsernames.remove(username);
+			log.warn("Username update queue is full ({})", QUEUE_LIMIT);
+			return;
+		}
+
+		usernameUpdateQueue.add(username);
+		usernameFilter.put(username);
+	}
 
-			synchronized (usernameUpdateQueue)
+	/**
+	 * Queue the hiscore result of a player to be written
+	 *
+	 * @param username      player name
+	 * @param hiscoreResult the player's hiscores
+	 */
+	public void update(String username, HiscoreResult hiscoreResult)
+	{
+		// The player is looked up when the batch is written, to keep the database off the request thread
+		if (pendingXpSize.incrementAndGet() > QUEUE_LIMIT)
+		{
+			pendingXpSize.decrementAndGet();
+			log.warn("Xp write queue is full ({}), dropping update for {}", QUEUE_LIMIT, username);
+			return;
+		}
+
+		pendingXp.add(new PendingXp(username, hiscoreResult));
+	}
+
+	private void processQueue()
+	{
+		String username;
+		while ((username = usernameUpdateQueue.poll()) != null)
+		{
+			queueSize.decrementAndGet();
+			queuedUsernames.remove(username);
+
+			try
 			{
-				if (usernameUpdateQueue.size() >= QUEUE_LIMIT)
+				PlayerEntity playerEntity = getPlayer(username);
+				if (updatedRecently(playerEntity))
 				{
-					log.warn("Username update queue is full ({})", QUEUE_LIMIT);
-					return;
+					log.debug("User {} updated too recently", username);
+					continue;
 				}
 
-				usernameUpdateQueue.add(username);
+				update(username);
+			}
+			catch (ExecutionException | RuntimeException ex)
+			{
+				log.debug("Unable to update {}", username, ex);
 			}
 		}
+	}
 
-		usernameFilter.put(username);
+	@Scheduled(fixedDelay = 1000)
+	public void flush()
+	{
+		while (!pendingXp.isEmpty())
+		{
+			// Only one row per player can be inserted at a time, so keep only the latest
+			Map<String, PendingXp> batch = new LinkedHashMap<>();
+			PendingXp pending;
+			while (batch.size() < XP_BATCH_SIZE && (pending = pendingXp.poll()) != null)
+			{
+				pendingXpSize.decrementAndGet();
+				batch.put(pending.getUsername(), pending);
+			}
+
+			try
+			{
+				writeXp(batch.values());
+			}
+			catch (Sql2oException ex)
+			{
+				log.warn("Unable to write xp for {} players, requeueing", batch.size(), ex);
+
+				pendingXpSize.addAndGet(batch.size());
+				pendingXp.addAll(batch.values());
+				// Try again on the next flush rather than spinning on a failing database
+				break;
+			}
+		}
 	}
 
-	public void update(String username, HiscoreResult hiscoreResult)
+	private void writeXp(Iterable<PendingXp> batch)
 	{
-		try (Connection con = sql2o.open())
+		Map<String, PlayerEntity> players = new LinkedHashMap<>();
+		List<PendingXp> written = new ArrayList<>();
+
+		try (Connection con = sql2o.beginTransaction())
 		{
-			PlayerEntity playerEntity = findOrCreatePlayer(con, username);
+			Query insertXp = con.createQuery(INSERT_XP_QUERY);
+			Query updatePlayer = con.createQuery("update player set rank = :rank, last_updated = CURRENT_TIMESTAMP where id = :id");
 
-			Instant now = Instant.now();
-			XpEntity currentXp = findXpAtTime(con, username, now);
-			if (currentXp != null)
+			for (PendingXp pending : batch)
 			{
+				PlayerEntity playerEntity = playerCache.getIfPresent(pending.getUsername());
+				if (playerEntity == null)
+				{
+					playerEntity = findOrCreatePlayer(con, pending.getUsername());
+				}
+				players.put(pending.getUsername(), playerEntity);
+
+				int playerId = playerEntity.getId();
+				HiscoreResult hiscoreResult = pending.getHiscoreResult();
 				XpData hiscoreData = XpMapper.INSTANCE.hiscoreResultToXpData(hiscoreResult);
-				XpData existingData = XpMapper.INSTANCE.xpEntityToXpData(currentXp);
+				XpData existingData = getLatestXp(con, playerId);
 
 				if (hiscoreData.equals(existingData))
 				{
-					log.debug("Hiscore for {} already up to date", username);
-					return;
+					log.debug("Hiscore for {} already up to date", pending.getUsername());
+					continue;
 				}
+
+				addXpParameters(insertXp, playerId, hiscoreResult).addToBatch();
+				updatePlayer
+					.addParameter("id", playerId)
+					.addParameter("rank", hiscoreResult.getOverall().getRank())
+					.addToBatch();
+				written.add(pending);
 			}
 
-			con.createQuery("insert into xp (player,attack_xp,defence_xp,strength_xp,hitpoints_xp,ranged_xp,prayer_xp,magic_xp,cooking_xp,woodcutting_xp,"
-				+ "fletching_xp,fishing_xp,firemaking_xp,crafting_xp,smithing_xp,mining_xp,herblore_xp,agility_xp,thieving_xp,slayer_xp,farming_xp,"
-				+ "runecraft_xp,hunter_xp,construction_xp,attack_rank,defence_rank,strength_rank,hitpoints_rank,ranged_rank,prayer_rank,magic_rank,"
-				+ "cooking_rank,woodcutting_rank,fletching_rank,fishing_rank,firemaking_rank,crafting_rank,smithing_rank,mining_rank,herblore_rank,"
-				+ "agility_rank,thieving_rank,slayer_rank,farming_rank,runecraft_rank,hunter_rank,construction_rank,overall_rank) values (:player,:attack_xp,:defence_xp,"
-				+ ":strength_xp,:hitpoints_xp,:ranged_xp,:prayer_xp,:magic_xp,:cooking_xp,:woodcutting_xp,:fletching_xp,:fishing_xp,:firemaking_xp,"
-				+ ":crafting_xp,:smithing_xp,:mining_xp,:herblore_xp,:agility_xp,:thieving_xp,:slayer_xp,:farming_xp,:runecraft_xp,:hunter_xp,"
-				+ ":construction_xp,:attack_rank,:defence_rank,:strength_rank,:hitpoints_rank,:ranged_rank,:prayer_rank,:magic_rank,:cooking_rank,"
-				+ ":woodcutting_rank,:fletching_rank,:fishing_rank,:firemaking_rank,:crafting_rank,:smithing_rank,:mining_rank,:herblore_rank,"
-				+ ":agility_rank,:thieving_rank,:slayer_rank,:farming_rank,:runecraft_rank,:hunter_rank,:construction_rank,:overall_rank)")
-				.addParameter("player", playerEntity.getId())
-				.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
-				.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
-				.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
-				.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
-				.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
-				.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
-				.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
-				.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
-				.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
-				.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
-				.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
-				.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
-				.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
-				.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
-				.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
-				.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
-				.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
-				.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
-				.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
-				.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
-				.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
-				.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
-				.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
-				.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
-				.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
-				.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
-				.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
-				.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
-				.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
-				.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
-				.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
-				.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
-				.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
-				.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
-				.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
-				.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
-				.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
-				.addParameter("mining_rank", hiscoreResult.getMining().getRank())
-				.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
-				.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
-				.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
-				.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
-				.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
-				.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
-				.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
-				.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
-				.addParameter("overall_rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
-
-			con.createQuery("update player set rank = :rank, last_updated = CURRENT_TIMESTAMP where id = :id")
-				.addParameter("id", playerEntity.getId())
-				.addParameter("rank", hiscoreResult.getOverall().getRank())
-				.executeUpdate();
+			if (!written.isEmpty())
+			{
+				insertXp.executeBatch();
+				updatePlayer.executeBatch();
+			}
+			// Commit even if no xp changed, to keep players created above
+			con.commit(false);
+		}
+
+		playerCache.putAll(players);
+
+		Instant now = Instant.now();
+		for (PendingXp pending : written)
+		{
+			PlayerEntity player = players.get(pending.getUsername());
+			PlayerEntity updated = new PlayerEntity();
+			updated.setId(player.getId());
+			updated.setName(player.getName());
+			updated.setTracked_since(player.getTracked_since());
+			updated.setLast_updated(now);
+			updated.setRank(pending.getHiscoreResult().getOverall().getRank());
+			playerCache.put(pending.getUsername(), updated);
+			xpCache.put(updated.getId(), XpMapper.INSTANCE.hiscoreResultToXpData(pending.getHiscoreResult()));
+		}
+
+		log.debug("Wrote xp for {} players", written.size());
+	}
+
+	private static Query addXpParameters(Query query, int playerId, HiscoreResult hiscoreResult)
+	{
+		return query
+			.addParameter("player", playerId)
+			.addParameter("attack_xp", hiscoreResult.getAttack().getExperience())
+			.addParameter("defence_xp", hiscoreResult.getDefence().getExperience())
+			.addParameter("strength_xp", hiscoreResult.getStrength().getExperience())
+			.addParameter("hitpoints_xp", hiscoreResult.getHitpoints().getExperience())
+			.addParameter("ranged_xp", hiscoreResult.getRanged().getExperience())
+			.addParameter("prayer_xp", hiscoreResult.getPrayer().getExperience())
+			.addParameter("magic_xp", hiscoreResult.getMagic().getExperience())
+			.addParameter("cooking_xp", hiscoreResult.getCooking().getExperience())
+			.addParameter("woodcutting_xp", hiscoreResult.getWoodcutting().getExperience())
+			.addParameter("fletching_xp", hiscoreResult.getFletching().getExperience())
+			.addParameter("fishing_xp", hiscoreResult.getFishing().getExperience())
+			.addParameter("firemaking_xp", hiscoreResult.getFiremaking().getExperience())
+			.addParameter("crafting_xp", hiscoreResult.getCrafting().getExperience())
+			.addParameter("smithing_xp", hiscoreResult.getSmithing().getExperience())
+			.addParameter("mining_xp", hiscoreResult.getMining().getExperience())
+			.addParameter("herblore_xp", hiscoreResult.getHerblore().getExperience())
+			.addParameter("agility_xp", hiscoreResult.getAgility().getExperience())
+			.addParameter("thieving_xp", hiscoreResult.getThieving().getExperience())
+			.addParameter("slayer_xp", hiscoreResult.getSlayer().getExperience())
+			.addParameter("farming_xp", hiscoreResult.getFarming().getExperience())
+			.addParameter("runecraft_xp", hiscoreResult.getRunecraft().getExperience())
+			.addParameter("hunter_xp", hiscoreResult.getHunter().getExperience())
+			.addParameter("construction_xp", hiscoreResult.getConstruction().getExperience())
+			.addParameter("attack_rank", hiscoreResult.getAttack().getRank())
+			.addParameter("defence_rank", hiscoreResult.getDefence().getRank())
+			.addParameter("strength_rank", hiscoreResult.getStrength().getRank())
+			.addParameter("hitpoints_rank", hiscoreResult.getHitpoints().getRank())
+			.addParameter("ranged_rank", hiscoreResult.getRanged().getRank())
+			.addParameter("prayer_rank", hiscoreResult.getPrayer().getRank())
+			.addParameter("magic_rank", hiscoreResult.getMagic().getRank())
+			.addParameter("cooking_rank", hiscoreResult.getCooking().getRank())
+			.addParameter("woodcutting_rank", hiscoreResult.getWoodcutting().getRank())
+			.addParameter("fletching_rank", hiscoreResult.getFletching().getRank())
+			.addParameter("fishing_rank", hiscoreResult.getFishing().getRank())
+			.addParameter("firemaking_rank", hiscoreResult.getFiremaking().getRank())
+			.addParameter("crafting_rank", hiscoreResult.getCrafting().getRank())
+			.addParameter("smithing_rank", hiscoreResult.getSmithing().getRank())
+			.addParameter("mining_rank", hiscoreResult.getMining().getRank())
+			.addParameter("herblore_rank", hiscoreResult.getHerblore().getRank())
+			.addParameter("agility_rank", hiscoreResult.getAgility().getRank())
+			.addParameter("thieving_rank", hiscoreResult.getThieving().getRank())
+			.addParameter("slayer_rank", hiscoreResult.getSlayer().getRank())
+			.addParameter("farming_rank", hiscoreResult.getFarming().getRank())
+			.addParameter("runecraft_rank", hiscoreResult.getRunecraft().getRank())
+			.addParameter("hunter_rank", hiscoreResult.getHunter().getRank())
+			.addParameter("construction_rank", hiscoreResult.getConstruction().getRank())
+			.addParameter("overall_rank", hiscoreResult.getOverall().getRank());
+	}
+
+	private XpData getLatestXp(Connection con, int playerId)
+	{
+		XpData xpData = xpCache.getIfPresent(playerId);
+		if (xpData != null)
+		{
+			return xpData;
 		}
+
+		XpEntity xpEntity = con.createQuery("select * from xp where player = :player order by time desc limit 1")
+			.throwOnMappingFailure(false)
+			.addParameter("player", playerId)
+			.executeAndFetchFirst(XpEntity.class);
+		return xpEntity != null ? XpMapper.INSTANCE.xpEntityToXpData(xpEntity) : null;
 	}
 
-	private synchronized PlayerEntity findOrCreatePlayer(Connection con, String username)
+	private PlayerEntity getPlayer(String username)
+	{
+		try
+		{
+			return playerCache.get(username, () ->
+			{
+				try (Connection con = sql2o.open())
+				{
+					return findOrCreatePlayer(con, username);
+				}
+			});
+		}
+		catch (ExecutionException | UncheckedExecutionException ex)
+		{
+			throw new RuntimeException("unable to find player " + username, ex.getCause());
+		}
+	}
+
+	/**
+	 * Find a player, creating them if they don't exist yet. Other threads, or other
+	 * instances of the service, may be creating the same player concurrently, so the
+	 * insert does nothing if the player exists and the player is then read again.
+	 */
+	private PlayerEntity findOrCreatePlayer(Connection con, String username)
 	{
 		PlayerEntity playerEntity = con.createQuery("select * from player where name = :name")
 			.addParameter("name", username)
@@ -201,20 +419,15 @@ public class XpTrackerService
 			return playerEntity;
 		}
 
-		Instant now = Instant.now();
+		con.createQuery("insert into player (name, tracked_since) values (:name, :tracked_since) on duplicate key update name = name")
+			.addParameter("name", username)
+			.addParameter("tracked_since", Instant.now())
+			.executeUpdate();
 
-		int id = con.createQuery("insert into player (name, tracked_since) values (:name, :tracked_since)")
+		// a locking read, so the row is seen even if it was committed after this transaction began
+		return con.createQuery("select * from player where name = :name for update")
 			.addParameter("name", username)
-			.addParameter("tracked_since", now)
-			.executeUpdate()
-			.getKey(int.class);
-
-		playerEntity = new PlayerEntity();
-		playerEntity.setId(id);
-		playerEntity.setName(username);
-		playerEntity.setTracked_since(now);
-		playerEntity.setLast_updated(now);
-		return playerEntity;
+			.executeAndFetchFirst(PlayerEntity.class);
 	}
 
 	private XpEntity findXpAtTime(Connection con, String username, Instant time)
@@ -234,23 +447,6 @@ public class XpTrackerService
 		}
 	}
 
-	@Scheduled(fixedDelay = 1000)
-	public void update() throws ExecutionException
-	{
-		String next;
-		synchronized (usernameUpdateQueue)
-		{
-			next = usernameUpdateQueue.poll();
-		}
-
-		if (next == null)
-		{
-			return;
-		}
-
-		update(next);
-	}
-
 	@Scheduled(fixedDelay = 6 * 60 * 60 * 1000) // 6 hours
 	public void clearFilter()
 	{
@@ -264,17 +460,27 @@ public class XpTrackerService
 			BLOOMFILTER_EXPECTED_INSERTIONS
 		);
 
-		synchronized (usernameUpdateQueue)
+		for (String toUpdate : usernameUpdateQueue)
 		{
-			for (String toUpdate : usernameUpdateQueue)
-			{
-				filter.put(toUpdate);
-			}
+			filter.put(toUpdate);
 		}
 
 		return filter;
 	}
 
+	private static boolean updatedRecently(PlayerEntity playerEntity)
+	{
+		Duration timeSinceLastUpdate = Duration.between(playerEntity.getLast_updated(), Instant.now());
+		return timeSinceLastUpdate.toMillis() < updateFrequency(playerEntity).toMillis();
+	}
+
+	@Value
+	private static class PendingXp
+	{
+		private final String username;
+		private final HiscoreResult hiscoreResult;
+	}
+
 	/**
 	 * scale how often to check hiscore updates for players based on their rank
 	 * @param playerEntity
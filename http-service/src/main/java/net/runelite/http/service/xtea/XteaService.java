@@ -26,11 +26,26 @@ package net.runelite.http.service.xtea;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.Value;
 import net.runelite.cache.IndexType;
 import net.runelite.cache.fs.Container;
 import net.runelite.cache.util.Djb2;
+import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.xtea.XteaKey;
 import net.runelite.http.api.xtea.XteaRequest;
 import net.runelite.http.service.cache.CacheService;
@@ -60,6 +75,29 @@ public class XteaService
 		+ "  KEY `region` (`region`,`time`)\n"
 		+ ") ENGINE=InnoDB";
 
+	// The most recent keys of each region, maintained alongside the xtea history
+	private static final String CREATE_LATEST_SQL = "CREATE TABLE IF NOT EXISTS `xtea_latest` (\n"
+		+ "  `region` int(11) NOT NULL,\n"
+		+ "  `time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,\n"
+		+ "  `rev` int(11) NOT NULL,\n"
+		+ "  `key1` int(11) NOT NULL,\n"
+		+ "  `key2` int(11) NOT NULL,\n"
+		+ "  `key3` int(11) NOT NULL,\n"
+		+ "  `key4` int(11) NOT NULL,\n"
+		+ "  PRIMARY KEY (`region`)\n"
+		+ ") ENGINE=InnoDB";
+
+	private static final String POPULATE_LATEST_SQL = "insert into xtea_latest (region, time, rev, key1, key2, key3, key4) "
+		+ "select t2.region, t2.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from "
+		+ "(select region,max(time) as time from xtea group by region) t1 "
+		+ "join xtea t2 on t1.region = t2.region and t1.time = t2.time "
+		+ "on duplicate key update region = region";
+
+	private static final int VERIFY_THREADS = 8;
+	private static final long MAX_ARCHIVE_CACHE_WEIGHT = 64L * 1024 * 1024;
+	// how long the serialized keys are served before being rebuilt, to pick up keys added through other nodes
+	private static final long SERIALIZED_KEYS_TTL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
 	private final Sql2o sql2o;
 	private final CacheService cacheService;
 
@@ -67,6 +105,23 @@ public class XteaService
 		.maximumSize(1024)
 		.build();
 
+	// Map archives keyed by cache, so a new cache revision does not use stale archives
+	private final Cache<ArchiveKey, byte[]> archiveCache = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_ARCHIVE_CACHE_WEIGHT)
+		.weigher((ArchiveKey key, byte[] data) -> data.length)
+		.build();
+
+	private final ExecutorService verifyExecutor = Executors.newFixedThreadPool(VERIFY_THREADS, new ThreadFactoryBuilder()
+		.setNameFormat("xtea-verify-%d")
+		.setDaemon(true)
+		.build());
+
+	// Serialized latest keys of all regions, rebuilt after keys are added and once they expire.
+	// The version is bumped on each commit through this node, so keys serialized from a read
+	// before the commit are never served. Other nodes' commits are picked up on expiry.
+	private final AtomicInteger keysVersion = new AtomicInteger();
+	private volatile SerializedKeys latestKeys;
+
 	@Autowired
 	public XteaService(
 		@Qualifier("Runelite SQL2O") Sql2o sql2o,
@@ -80,15 +135,31 @@ public class XteaService
 		{
 			con.createQuery(CREATE_SQL)
 				.executeUpdate();
+			con.createQuery(CREATE_LATEST_SQL)
+				.executeUpdate();
+
+			Integer latest = con.createQuery("select count(*) from xtea_latest")
+				.executeScalar(Integer.class);
+			if (latest == null || latest == 0)
+			{
+				con.createQuery(POPULATE_LATEST_SQL)
+					.executeUpdate();
+			}
+
+			con.commit(false);
 		}
 	}
 
+	@PreDestroy
+	public void shutdown()
+	{
+		verifyExecutor.shutdownNow();
+	}
+
 	private XteaEntry findLatestXtea(Connection con, int region)
 	{
-		return con.createQuery("select region, time, key1, key2, key3, key4 from xtea "
-			+ "where region = :region "
-			+ "order by time desc "
-			+ "limit 1")
+		return con.createQuery("select region, time, rev, key1, key2, key3, key4 from xtea_latest "
+			+ "where region = :region")
 			.addParameter("region", region)
 			.executeAndFetchFirst(XteaEntry.class);
 	}
@@ -118,29 +189,21 @@ public class XteaService
 			return;
 		}
 
-		try (Connection con = sql2o.beginTransaction())
+		List<XteaKey> candidates = new ArrayList<>();
+		try (Connection con = sql2o.open())
 		{
-			CacheEntry cache = cacheService.findMostRecent();
-
-			if (cache == null)
-			{
-				throw new InternalServerErrorException("No most recent cache");
-			}
-
-			Query query = null;
-
 			for (XteaKey key : xteaRequest.getKeys())
 			{
 				int region = key.getRegion();
 				int[] keys = key.getKeys();
 
-				XteaEntry xteaEntry = findLatestXtea(con, region);
-
 				if (keys.length != 4)
 				{
 					throw new IllegalArgumentException("Key length must be 4");
 				}
 
+				XteaEntry xteaEntry = findLatestXtea(con, region);
+
 				// already have these?
 				if (xteaEntry != null
 					&& xteaEntry.getKey1() == keys[0]
@@ -151,57 +214,148 @@ public class XteaService
 					continue;
 				}
 
-				if (!checkKeys(cache, region, keys))
+				candidates.add(key);
+			}
+		}
+
+		if (candidates.isEmpty())
+		{
+			return;
+		}
+
+		CacheEntry cache = cacheService.findMostRecent();
+
+		if (cache == null)
+		{
+			throw new InternalServerErrorException("No most recent cache");
+		}
+
+		List<XteaKey> valid = verifyKeys(cache, candidates);
+		if (valid.isEmpty())
+		{
+			return;
+		}
+
+		try (Connection con = sql2o.beginTransaction())
+		{
+			Query insert = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
+				+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
+			Query insertLatest = con.createQuery("insert into xtea_latest (region, rev, key1, key2, key3, key4) "
+				+ "values (:region, :rev, :key1, :key2, :key3, :key4) "
+				+ "on duplicate key update time = CURRENT_TIMESTAMP, rev = VALUES(rev), "
+				+ "key1 = VALUES(key1), key2 = VALUES(key2), key3 = VALUES(key3), key4 = VALUES(key4)");
+
+			for (XteaKey key : valid)
+			{
+				for (Query query : new Query[]{insert, insertLatest})
 				{
-					continue;
+					int[] keys = key.getKeys();
+					query.addParameter("region", key.getRegion())
+						.addParameter("rev", xteaRequest.getRevision())
+						.addParameter("key1", keys[0])
+						.addParameter("key2", keys[1])
+						.addParameter("key3", keys[2])
+						.addParameter("key4", keys[3])
+						.addToBatch();
 				}
+			}
+
+			insert.executeBatch();
+			insertLatest.executeBatch();
+			con.commit(false);
+		}
+
+		keysVersion.incrementAndGet();
+	}
 
-				if (query == null)
+	/**
+	 * Check keys against the map archives of the cache in parallel
+	 *
+	 * @return the keys which decrypt their region's map archive
+	 */
+	private List<XteaKey> verifyKeys(CacheEntry cache, List<XteaKey> keys)
+	{
+		List<CompletableFuture<Boolean>> futures = keys.stream()
+			.map(key -> CompletableFuture.supplyAsync(() -> checkKeys(cache, key.getRegion(), key.getKeys()), verifyExecutor))
+			.collect(Collectors.toList());
+
+		List<XteaKey> valid = new ArrayList<>();
+		try
+		{
+			for (int i = 0; i < keys.size(); ++i)
+			{
+				if (futures.get(i).join())
 				{
-					query = con.createQuery("insert into xtea (region, rev, key1, key2, key3, key4) "
-						+ "values (:region, :rev, :key1, :key2, :key3, :key4)");
+					valid.add(keys.get(i));
 				}
-
-				query.addParameter("region", region)
-					.addParameter("rev", xteaRequest.getRevision())
-					.addParameter("key1", keys[0])
-					.addParameter("key2", keys[1])
-					.addParameter("key3", keys[2])
-					.addParameter("key4", keys[3])
-					.addToBatch();
 			}
-
-			if (query != null)
+		}
+		catch (CompletionException ex)
+		{
+			if (ex.getCause() instanceof RuntimeException)
 			{
-				query.executeBatch();
-				con.commit(false);
+				throw (RuntimeException) ex.getCause();
 			}
+			throw ex;
 		}
+		return valid;
 	}
 
 	public List<XteaEntry> get()
 	{
 		try (Connection con = sql2o.open())
 		{
-			return con.createQuery(
-				"select t1.region, t1.time, t2.rev, t2.key1, t2.key2, t2.key3, t2.key4 from " +
-					"(select region,max(time) as time from xtea group by region) t1 " +
-					"join xtea t2 on t1.region = t2.region and t1.time = t2.time")
+			return con.createQuery("select region, time, rev, key1, key2, key3, key4 from xtea_latest")
 				.executeAndFetch(XteaEntry.class);
 		}
 	}
 
+	/**
+	 * Get the latest keys of all regions, serialized as a json list of {@link XteaKey}
+	 *
+	 * @return json bytes
+	 */
+	public byte[] getSerialized()
+	{
+		int version = keysVersion.get();
+		long now = System.nanoTime();
+		SerializedKeys serialized = latestKeys;
+		if (serialized != null && serialized.getVersion() == version
+			&& now - serialized.getCreated() < SERIALIZED_KEYS_TTL_NANOS)
+		{
+			return serialized.getData();
+		}
+
+		List<XteaKey> keys = get().stream()
+			.map(XteaService::entryToKey)
+			.collect(Collectors.toList());
+		byte[] data = RuneLiteAPI.GSON.toJson(keys).getBytes(StandardCharsets.UTF_8);
+		latestKeys = new SerializedKeys(version, now, data);
+		return data;
+	}
+
 	public XteaEntry getRegion(int region)
 	{
 		try (Connection con = sql2o.open())
 		{
-			return con.createQuery("select region, time, rev, key1, key2, key3, key4 from xtea "
-				+ "where region = :region order by time desc limit 1")
-				.addParameter("region", region)
-				.executeAndFetchFirst(XteaEntry.class);
+			return findLatestXtea(con, region);
 		}
 	}
 
+	static XteaKey entryToKey(XteaEntry xe)
+	{
+		XteaKey xteaKey = new XteaKey();
+		xteaKey.setRegion(xe.getRegion());
+		xteaKey.setKeys(new int[]
+		{
+			xe.getKey1(),
+			xe.getKey2(),
+			xe.getKey3(),
+			xe.getKey4()
+		});
+		return xteaKey;
+	}
+
 	private boolean checkKeys(CacheEntry cache, int regionId, int[] keys)
 	{
 		int x = regionId >>> 8;
@@ -215,15 +369,31 @@ public class XteaService
 			.toString();
 		int archiveNameHash = Djb2.hash(archiveName);
 
-		ArchiveEntry archiveEntry = cacheService.findArchiveForTypeAndName(cache, IndexType.MAPS, archiveNameHash);
-		if (archiveEntry == null)
+		byte[] data;
+		try
 		{
-			throw new InternalServerErrorException("Unable to find archive for region");
-		}
+			data = archiveCache.get(new ArchiveKey(cache.getId(), archiveNameHash), () ->
+			{
+				ArchiveEntry archiveEntry = cacheService.findArchiveForTypeAndName(cache, IndexType.MAPS, archiveNameHash);
+				if (archiveEntry == null)
+				{
+					throw new InternalServerErrorException("Unable to find archive for region");
+				}
 
-		byte[] data = cacheService.getArchive(archiveEntry);
-		if (data == null)
+				byte[] archive = cacheService.getArchive(archiveEntry);
+				if (archive == null)
+				{
+					throw new InternalServerErrorException("Unable to get archive data");
+				}
+				return archive;
+			});
+		}
+		catch (ExecutionException | UncheckedExecutionException ex)
 		{
+			if (ex.getCause() instanceof RuntimeException)
+			{
+				throw (RuntimeException) ex.getCause();
+			}
 			throw new InternalServerErrorException("Unable to get archive data");
 		}
 
@@ -237,4 +407,19 @@ public class XteaService
 			return false;
 		}
 	}
+
+	@Value
+	private static class ArchiveKey
+	{
+		private final int cache;
+		private final int nameHash;
+	}
+
+	@Value
+	private static class SerializedKeys
+	{
+		private final int version;
+		private final long created;
+		private final byte[] data;
+	}
 }
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.account;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.service.account.beans.SessionEntry;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
+
+public class AuthFilterTest
+{
+	private final UUID uuid = UUID.randomUUID();
+	private final SessionEntry sessionEntry = new SessionEntry();
+
+	private Sql2o sql2o;
+	private Query query;
+	private AuthFilter authFilter;
+
+	@Before
+	public void before()
+	{
+		sessionEntry.setUser(42);
+		sessionEntry.setUuid(uuid);
+
+		sql2o = mock(Sql2o.class);
+		Connection con = mock(Connection.class);
+		query = mock(Query.class);
+		when(sql2o.open()).thenReturn(con);
+		when(con.createQuery(anyString())).thenReturn(query);
+		when(query.addParameter(anyString(), anyString())).thenReturn(query);
+		when(query.executeAndFetchFirst(SessionEntry.class)).thenReturn(sessionEntry);
+
+		authFilter = new AuthFilter(sql2o);
+	}
+
+	@Test
+	public void testCachedSession() throws Exception
+	{
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getHeader(RuneLiteAPI.RUNELITE_AUTH)).thenReturn(uuid.toString());
+		HttpServletResponse response = mock(HttpServletResponse.class);
+
+		SessionEntry first = authFilter.handle(request, response);
+		assertEquals(42, first.getUser());
+		assertEquals(uuid, first.getUuid());
+
+		// changes made by a caller are not seen by later requests
+		first.setUser(1);
+		SessionEntry second = authFilter.handle(request, response);
+		assertNotSame(first, second);
+		assertEquals(42, second.getUser());
+
+		verify(sql2o, times(1)).open();
+		assertEquals(1, authFilter.getCacheStats().hitCount());
+
+		authFilter.invalidate(uuid);
+		when(query.executeAndFetchFirst(SessionEntry.class)).thenReturn(null);
+
+		assertNull(authFilter.handle(request, response));
+		verify(response).sendError(eq(401), anyString());
+	}
+
+	@Test
+	public void testFlushFailureRetries() throws Exception
+	{
+		HttpServletRequest request = mock(HttpServletRequest.class);
+		when(request.getHeader(RuneLiteAPI.RUNELITE_AUTH)).thenReturn(uuid.toString());
+		authFilter.handle(request, mock(HttpServletResponse.class));
+
+		Connection con = mock(Connection.class);
+		Query update = mock(Query.class);
+		when(sql2o.beginTransaction()).thenReturn(con);
+		when(con.createQuery(anyString())).thenReturn(update);
+		when(update.addParameter(anyString(), any(Timestamp.class))).thenReturn(update);
+		when(update.addParameter(anyString(), anyString())).thenReturn(update);
+		when(update.executeBatch())
+			.thenThrow(new Sql2oException("database is down"))
+			.thenReturn(con);
+
+		try
+		{
+			authFilter.flush();
+			fail();
+		}
+		catch (Sql2oException ex)
+		{
+			// expected
+		}
+
+		// the last used time is kept until it has been written
+		authFilter.flush();
+		authFilter.flush();
+		verify(update, times(2)).executeBatch();
+		verify(con, times(1)).commit(false);
+	}
+
+	@Test
+	public void testMissingHeader() throws Exception
+	{
+		HttpServletResponse response = mock(HttpServletResponse.class);
+
+		assertNull(authFilter.handle(mock(HttpServletRequest.class), response));
+		verify(response).sendError(anyInt(), anyString());
+	}
+}
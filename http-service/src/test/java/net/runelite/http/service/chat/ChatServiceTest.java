@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.chat;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import net.runelite.http.api.chat.ChatLookup;
+import net.runelite.http.api.chat.ChatLookupResult;
+import net.runelite.http.api.chat.ChatLookupType;
+import net.runelite.http.service.util.redis.RedisPool;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+public class ChatServiceTest
+{
+	private final RedisPool redisPool = mock(RedisPool.class);
+	private final Jedis jedis = mock(Jedis.class);
+	private final Pipeline pipeline = mock(Pipeline.class);
+
+	private ChatService chatService;
+
+	@Before
+	public void before()
+	{
+		when(redisPool.getResource()).thenReturn(jedis);
+		when(jedis.pipelined()).thenReturn(pipeline);
+
+		Response<String> kc = response("42");
+		when(pipeline.get("kc.Adam.Zulrah")).thenReturn(kc);
+		Response<String> qp = response(null);
+		when(pipeline.get("qp.Adam")).thenReturn(qp);
+		Response<Map<String, String>> task = response(ImmutableMap.of(
+			"task", "Cave kraken",
+			"amount", "80",
+			"initialAmount", "120",
+			"location", ""
+		));
+		when(pipeline.hgetAll("task.Adam")).thenReturn(task);
+
+		chatService = new ChatService(redisPool);
+	}
+
+	@Test
+	public void testNearCache()
+	{
+		assertEquals(42, (int) chatService.getKc("Adam", "Zulrah"));
+		assertEquals(42, (int) chatService.getKc("Adam", "Zulrah"));
+		assertNull(chatService.getQp("Adam"));
+		assertNull(chatService.getQp("Adam"));
+
+		verify(pipeline, times(1)).get("kc.Adam.Zulrah");
+		verify(pipeline, times(1)).get("qp.Adam");
+	}
+
+	@Test
+	public void testLookup()
+	{
+		List<ChatLookupResult> results = chatService.lookup(Arrays.asList(
+			new ChatLookup(ChatLookupType.KILLCOUNT, "Adam", "Zulrah"),
+			new ChatLookup(ChatLookupType.QUEST_POINTS, "Adam", null),
+			new ChatLookup(ChatLookupType.TASK, "Adam", null)
+		));
+
+		assertEquals(3, results.size());
+		assertEquals(42, (int) results.get(0).getValue());
+		assertNull(results.get(1).getValue());
+		assertEquals("Cave kraken", results.get(2).getTask().getTask());
+		assertEquals(80, results.get(2).getTask().getAmount());
+
+		// all keys are loaded in one pipeline
+		verify(redisPool, times(1)).getResource();
+		verify(pipeline, times(1)).sync();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Response<T> response(T value)
+	{
+		Response<T> response = mock(Response.class);
+		when(response.get()).thenReturn(value);
+		return response;
+	}
+}
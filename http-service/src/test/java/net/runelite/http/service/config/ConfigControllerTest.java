@@ -24,29 +24,41 @@
  */
 package net.runelite.http.service.config;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.config.ConfigPatch;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatcher;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.argThat;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -81,4 +93,49 @@ public class ConfigControllerTest
 
 		verify(configService).setKey(anyInt(), eq("key"), eq("value"));
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testPatch() throws Exception
+	{
+		ConfigPatch configPatch = new ConfigPatch();
+		configPatch.setVersion(4);
+		configPatch.getEdit().put("group.key", "value");
+		configPatch.getUnset().add("group.other");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(out))
+		{
+			gzip.write(RuneLiteAPI.GSON.toJson(configPatch).getBytes(StandardCharsets.UTF_8));
+		}
+
+		when(configService.patch(anyInt(), any(ConfigPatch.class))).thenReturn(5L);
+
+		mockMvc.perform(patch("/config")
+			.content(out.toByteArray())
+			.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+			.contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk())
+			.andExpect(content().string("5"));
+
+		verify(configService).patch(anyInt(), argThat(new ArgumentMatcher<ConfigPatch>()
+		{
+			@Override
+			public boolean matches(Object argument)
+			{
+				return configPatch.equals(argument);
+			}
+		}));
+	}
+
+	@Test
+	public void testNotModified() throws Exception
+	{
+		when(configService.getVersion(anyInt())).thenReturn(3L);
+
+		mockMvc.perform(get("/config")
+			.header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+			.andExpect(status().isNotModified());
+
+		verify(configService, never()).get(anyInt());
+	}
+}
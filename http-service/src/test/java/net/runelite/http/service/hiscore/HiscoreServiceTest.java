@@ -107,4 +107,27 @@ public class HiscoreServiceTest
 		Assert.assertEquals(-1, result.getLastManStanding().getLevel());
 	}
 
+	@Test
+	public void testCachedLookup() throws Exception
+	{
+		HiscoreTestService hiscores = new HiscoreTestService(server.url("/"));
+
+		HiscoreResult result = hiscores.lookupUsername("Zezima", HiscoreEndpoint.NORMAL);
+		HiscoreResult cached = hiscores.lookupUsername(" zezima", HiscoreEndpoint.NORMAL);
+		Assert.assertSame(result.getAttack(), cached.getAttack());
+
+		Assert.assertEquals(1, server.getRequestCount());
+
+		// the results keep the names they were looked up with
+		Assert.assertEquals("Zezima", result.getPlayer());
+		Assert.assertEquals(" zezima", cached.getPlayer());
+	}
+
+	@Test
+	public void testNormalize()
+	{
+		Assert.assertEquals("iron mammal", HiscoreService.normalize("Iron_Mammal"));
+		Assert.assertEquals("iron mammal", HiscoreService.normalize(" iron-\u00A0mammal "));
+	}
+
 }
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import net.runelite.http.service.util.CompressedBody;
+import static org.mockito.Mockito.when;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(ItemController.class)
+@ActiveProfiles("test")
+public class ItemControllerTest
+{
+	private static final String ETAG = "\"abc\"";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@MockBean
+	private ItemService itemService;
+
+	@Before
+	public void before()
+	{
+		when(itemService.getPriceSnapshot())
+			.thenReturn(new LatestPrices.Snapshot(1, new CompressedBody("[]".getBytes(), new byte[]{1, 2, 3}, ETAG)));
+	}
+
+	@Test
+	public void testPrices() throws Exception
+	{
+		mockMvc.perform(get("/item/prices"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, ETAG))
+			.andExpect(content().bytes("[]".getBytes()));
+
+		mockMvc.perform(get("/item/prices").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc-gz\""))
+			.andExpect(content().bytes(new byte[]{1, 2, 3}));
+	}
+
+	@Test
+	public void testPricesNotModified() throws Exception
+	{
+		mockMvc.perform(get("/item/prices").header(HttpHeaders.IF_NONE_MATCH, ETAG))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, ETAG));
+
+		mockMvc.perform(get("/item/prices")
+			.header(HttpHeaders.IF_NONE_MATCH, "\"abc-gz\"")
+			.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(status().isNotModified())
+			.andExpect(header().string(HttpHeaders.ETAG, "\"abc-gz\""));
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ItemCrawlerTest
+{
+	@Test
+	public void testPriority() throws InterruptedException
+	{
+		List<PendingLookup> lookups = Collections.synchronizedList(new ArrayList<>());
+		CountDownLatch latch = new CountDownLatch(4);
+		ItemCrawler crawler = new ItemCrawler(1, 16, lookup ->
+		{
+			lookups.add(lookup);
+			latch.countDown();
+		});
+
+		PendingLookup price1 = new PendingLookup(1, PendingLookup.Type.PRICE);
+		PendingLookup price2 = new PendingLookup(2, PendingLookup.Type.PRICE);
+		PendingLookup item = new PendingLookup(3, PendingLookup.Type.ITEM);
+		PendingLookup search = new PendingLookup("whip", PendingLookup.Type.SEARCH);
+
+		assertTrue(crawler.queue(price1, false));
+		assertTrue(crawler.queue(price2, false));
+		assertTrue(crawler.queue(item, true));
+		// duplicates are suppressed, and promoted if they become urgent
+		assertTrue(crawler.queue(new PendingLookup(3, PendingLookup.Type.ITEM), true));
+		assertTrue(crawler.queue(price2, true));
+		assertTrue(crawler.queue(search, true));
+
+		crawler.start();
+		try
+		{
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+			assertEquals(Arrays.asList(item, price2, search, price1), lookups);
+		}
+		finally
+		{
+			crawler.shutdown();
+		}
+	}
+
+	@Test
+	public void testMaxPending()
+	{
+		ItemCrawler crawler = new ItemCrawler(1, 2, lookup ->
+		{
+		});
+
+		assertTrue(crawler.queue(new PendingLookup(1, PendingLookup.Type.ITEM), false));
+		assertTrue(crawler.queue(new PendingLookup(2, PendingLookup.Type.ITEM), false));
+		assertFalse(crawler.queue(new PendingLookup(3, PendingLookup.Type.ITEM), true));
+		assertEquals(2, crawler.getBackgroundSize());
+	}
+}
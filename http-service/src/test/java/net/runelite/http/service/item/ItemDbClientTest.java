@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.io.IOException;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ItemDbClientTest
+{
+	private final MockWebServer server = new MockWebServer();
+
+	@Before
+	public void before() throws IOException
+	{
+		server.start();
+	}
+
+	@After
+	public void after() throws IOException
+	{
+		server.shutdown();
+	}
+
+	@Test
+	public void testFetchItem() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody("{\"item\":{\"id\":4151,\"name\":\"Abyssal whip\",\"type\":\"Default\","
+			+ "\"icon\":\"" + server.url("/icon.gif") + "\"}}"));
+		server.enqueue(new MockResponse().setBody("GIF89a"));
+
+		ItemDbClient client = new ItemDbClient(server.url("/m=itemdb_oldschool"), 100);
+		RSItem item = client.fetchItem(4151);
+
+		assertEquals(4151, item.getId());
+		assertEquals("Abyssal whip", item.getName());
+
+		RecordedRequest request = server.takeRequest();
+		assertEquals("/m=itemdb_oldschool/api/catalogue/detail.json?item=4151", request.getPath());
+
+		assertEquals("GIF89a", new String(client.fetchImage(item.getIcon())));
+	}
+
+	@Test
+	public void testFetchPrices() throws Exception
+	{
+		server.enqueue(new MockResponse().setBody("{\"daily\":{\"1546300800000\":1500000,\"1546387200000\":1600000}}"));
+
+		ItemDbClient client = new ItemDbClient(server.url("/m=itemdb_oldschool"), 100);
+		RSPrices prices = client.fetchPrices(4151);
+
+		assertEquals(2, prices.getDaily().size());
+		assertEquals(1_600_000, (int) prices.getDaily().get(1546387200000L));
+		assertEquals("/m=itemdb_oldschool/api/graph/4151.json", server.takeRequest().getPath());
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnsuccessful() throws Exception
+	{
+		server.enqueue(new MockResponse().setResponseCode(503));
+
+		ItemDbClient client = new ItemDbClient(server.url("/m=itemdb_oldschool"), 100);
+		client.search("Whip");
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.time.Instant;
+import java.util.Arrays;
+import net.runelite.cache.definitions.ItemDefinition;
+import net.runelite.http.service.cache.CacheService;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.sql2o.Sql2o;
+
+public class ItemServiceTest
+{
+	private static final long NOW = 1_000_000;
+
+	@Test
+	public void testCrawlRank()
+	{
+		double neverFetched = ItemService.crawlRank(null, null, 0, NOW);
+		double hourOld = ItemService.crawlRank(Instant.ofEpochSecond(NOW - 3600), null, 0, NOW);
+		double hourOldRequested = ItemService.crawlRank(Instant.ofEpochSecond(NOW - 3600), null, 10, NOW);
+
+		assertEquals(Double.MAX_VALUE, neverFetched, 0);
+		assertTrue(hourOldRequested > hourOld);
+	}
+
+	@Test
+	public void testCrawlRankBackoff()
+	{
+		double hourOld = ItemService.crawlRank(Instant.ofEpochSecond(NOW - 3600), null, 0, NOW);
+
+		// an item which has never been fetched and keeps failing sinks below refreshes of real prices
+		double failed = ItemService.crawlRank(null, new ItemService.PriceFailure(1, NOW - 3600), 0, NOW);
+		double failedAgain = ItemService.crawlRank(null, new ItemService.PriceFailure(5, NOW - 3600), 0, NOW);
+
+		assertTrue(failed < hourOld);
+		assertTrue(failedAgain < failed);
+		assertEquals(3600.0 / 32, failedAgain, 0);
+	}
+
+	@Test
+	public void testCountPriceRequests() throws Exception
+	{
+		ItemDefinition tradeable = new ItemDefinition(4151);
+		tradeable.isTradeable = true;
+		ItemDefinition untradeable = new ItemDefinition(1234);
+
+		CacheService cacheService = mock(CacheService.class);
+		when(cacheService.getItems()).thenReturn(Arrays.asList(untradeable, tradeable));
+
+		ItemService itemService = new ItemService(mock(Sql2o.class, RETURNS_DEEP_STUBS), cacheService, "http://localhost", 1.0);
+		itemService.countPriceRequest(4151);
+		assertEquals(0, itemService.getPriceRequests(4151));
+
+		itemService.reloadItems();
+		itemService.countPriceRequest(4151);
+		itemService.countPriceRequest(4151);
+		itemService.countPriceRequest(1234);
+		itemService.countPriceRequest(Integer.MAX_VALUE);
+
+		// only lookups of tradeable items are counted
+		assertEquals(2, itemService.getPriceRequests(4151));
+		assertEquals(0, itemService.getPriceRequests(1234));
+		assertEquals(0, itemService.getPriceRequests(Integer.MAX_VALUE));
+	}
+}
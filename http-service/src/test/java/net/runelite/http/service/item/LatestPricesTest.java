@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.item;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class LatestPricesTest
+{
+	@Test
+	public void testUpdate()
+	{
+		LatestPrices latestPrices = new LatestPrices();
+		latestPrices.update(Arrays.asList(
+			entry(4151, "Abyssal whip", 1_500_000, 2),
+			entry(4151, null, 1_400_000, 1),
+			entry(100_000, "New item", 5, 1)
+		));
+
+		assertEquals(1_500_000, latestPrices.get(4151).getPrice());
+		assertEquals(5, latestPrices.get(100_000).getPrice());
+		assertNull(latestPrices.get(995));
+
+		// newer prices keep the known name
+		latestPrices.update(Collections.singletonList(entry(4151, null, 1_600_000, 3)));
+		assertEquals(1_600_000, latestPrices.get(4151).getPrice());
+		assertEquals("Abyssal whip", latestPrices.get(4151).getName());
+	}
+
+	@Test
+	public void testSnapshot()
+	{
+		LatestPrices latestPrices = new LatestPrices();
+		latestPrices.update(Collections.singletonList(entry(4151, "Abyssal whip", 1_500_000, 1)));
+
+		LatestPrices.Snapshot snapshot = latestPrices.getSnapshot();
+		assertSame(snapshot, latestPrices.getSnapshot());
+
+		// refetching the same price does not change the snapshot
+		latestPrices.update(Collections.singletonList(entry(4151, null, 1_500_000, 1)));
+		assertSame(snapshot, latestPrices.getSnapshot());
+
+		latestPrices.update(Collections.singletonList(entry(4151, null, 1_600_000, 2)));
+		assertNotEquals(snapshot.getBody().getEtag(), latestPrices.getSnapshot().getBody().getEtag());
+	}
+
+	private static PriceEntry entry(int item, String name, int price, long time)
+	{
+		PriceEntry priceEntry = new PriceEntry();
+		priceEntry.setItem(item);
+		priceEntry.setName(name);
+		priceEntry.setPrice(price);
+		priceEntry.setTime(Instant.ofEpochSecond(time));
+		return priceEntry;
+	}
+}
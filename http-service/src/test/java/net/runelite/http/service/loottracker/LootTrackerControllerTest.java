@@ -26,13 +26,17 @@ package net.runelite.http.service.loottracker;
 
 import java.io.IOException;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.http.api.RuneLiteAPI;
 import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootRecordPage;
 import net.runelite.http.api.loottracker.LootRecordType;
 import net.runelite.http.service.account.AuthFilter;
 import net.runelite.http.service.account.beans.SessionEntry;
@@ -52,7 +56,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @RunWith(SpringRunner.class)
@@ -91,4 +97,46 @@ public class LootTrackerControllerTest
 
 		verify(lootTrackerService).store(eq(lootRecord), anyInt());
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void storeLootRecords() throws Exception
+	{
+		LootRecord lootRecord = new LootRecord();
+		lootRecord.setType(LootRecordType.NPC);
+		lootRecord.setTime(Instant.now());
+		lootRecord.setDrops(Collections.singletonList(new GameItem(4151, 1)));
+
+		List<LootRecord> lootRecords = Arrays.asList(lootRecord, lootRecord);
+
+		String data = RuneLiteAPI.GSON.toJson(lootRecords);
+		mockMvc.perform(post("/loottracker/bulk").content(data).contentType(MediaType.APPLICATION_JSON))
+			.andExpect(status().isOk());
+
+		verify(lootTrackerService).store(eq(lootRecords), anyInt());
+	}
+
+	@Test
+	public void getLootSummary() throws Exception
+	{
+		LootAggregate lootAggregate = new LootAggregate("Goblin", LootRecordType.NPC, 5, Collections.singletonList(new GameItem(526, 5)));
+		when(lootTrackerService.getAggregate(anyInt())).thenReturn(Collections.singletonList(lootAggregate));
+
+		mockMvc.perform(get("/loottracker/summary"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$[0].eventId").value("Goblin"))
+			.andExpect(jsonPath("$[0].kills").value(5))
+			.andExpect(jsonPath("$[0].drops[0].qty").value(5));
+	}
+
+	@Test
+	public void getLootHistory() throws Exception
+	{
+		when(lootTrackerService.getPage(anyInt(), anyInt(), any())).thenReturn(new LootRecordPage(Collections.emptyList(), 42));
+
+		mockMvc.perform(get("/loottracker/history").param("count", "10").param("before", "100"))
+			.andExpect(status().isOk())
+			.andExpect(jsonPath("$.next").value(42));
+
+		verify(lootTrackerService).getPage(anyInt(), eq(10), eq(100));
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.worlds;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.worlds.World;
+import net.runelite.http.api.worlds.WorldDelta;
+import net.runelite.http.api.worlds.WorldResult;
+import net.runelite.http.api.worlds.WorldType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import static org.mockito.Mockito.when;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@RunWith(SpringRunner.class)
+@WebMvcTest(WorldController.class)
+@ActiveProfiles("test")
+public class WorldControllerTest
+{
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private WorldController worldController;
+
+	@MockBean
+	private WorldsService worldsService;
+
+	@Test
+	public void testListWorlds() throws Exception
+	{
+		when(worldsService.getWorlds()).thenReturn(result(100, 200));
+		worldController.refreshWorlds();
+
+		String etag = mockMvc.perform(get("/worlds"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mockMvc.perform(get("/worlds").header(HttpHeaders.IF_NONE_MATCH, etag))
+			.andExpect(status().isNotModified());
+
+		mockMvc.perform(get("/worlds.js"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.ETAG, etag));
+
+		mockMvc.perform(get("/worlds/bin"))
+			.andExpect(status().isOk())
+			.andExpect(content().bytes(WorldsService.encode(result(100, 200).getWorlds())));
+
+		// the compressed body is a different representation, with its own tag
+		String gzipEtag = mockMvc.perform(get("/worlds").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+			.andExpect(status().isOk())
+			.andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+			.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(etag, gzipEtag);
+
+		mockMvc.perform(get("/worlds").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipEtag))
+			.andExpect(status().isNotModified());
+	}
+
+	@Test
+	public void testDelta() throws Exception
+	{
+		when(worldsService.getWorlds()).thenReturn(result(100, 200));
+		worldController.refreshWorlds();
+
+		String json = mockMvc.perform(get("/worlds"))
+			.andReturn().getResponse().getContentAsString();
+		int version = RuneLiteAPI.GSON.fromJson(json, WorldResult.class).getVersion();
+
+		when(worldsService.getWorlds()).thenReturn(result(100, 250));
+		worldController.refreshWorlds();
+
+		json = mockMvc.perform(get("/worlds/delta").param("since", Integer.toString(version)))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		WorldDelta delta = RuneLiteAPI.GSON.fromJson(json, WorldDelta.class);
+		assertFalse(delta.isFull());
+		assertEquals(1, delta.getUpdates().size());
+		assertEquals(2, delta.getUpdates().get(0).getId());
+		assertEquals(250, delta.getUpdates().get(0).getPlayers());
+
+		json = mockMvc.perform(get("/worlds/delta").param("since", "1"))
+			.andExpect(status().isOk())
+			.andReturn().getResponse().getContentAsString();
+		assertTrue(RuneLiteAPI.GSON.fromJson(json, WorldDelta.class).isFull());
+	}
+
+	private static WorldResult result(int players1, int players2)
+	{
+		WorldResult worldResult = new WorldResult();
+		worldResult.setWorlds(Arrays.asList(
+			world(1, players1),
+			world(2, players2)
+		));
+		return worldResult;
+	}
+
+	private static World world(int id, int players)
+	{
+		return World.builder()
+			.id(id)
+			.types(EnumSet.of(WorldType.MEMBERS))
+			.address("oldschool" + id + ".runescape.com")
+			.activity("-")
+			.location(0)
+			.players(players)
+			.build();
+	}
+}
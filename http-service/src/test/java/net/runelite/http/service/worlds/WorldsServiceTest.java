@@ -79,4 +79,15 @@ public class WorldsServiceTest
 		assertTrue(world.getTypes().contains(WorldType.SKILL_TOTAL));
 	}
 
+	@Test
+	public void testEncode() throws Exception
+	{
+		WorldsService worlds = new WorldsService();
+		worlds.setUrl(server.url("/"));
+
+		WorldResult worldResult = worlds.getWorlds();
+		byte[] encoded = WorldsService.encode(worldResult.getWorlds());
+		assertEquals(worldResult.getWorlds(), WorldsService.parse(encoded).getWorlds());
+	}
+
 }
@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.http.service.xp;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import net.runelite.http.api.hiscore.HiscoreResult;
+import net.runelite.http.api.hiscore.HiscoreResultBuilder;
+import net.runelite.http.api.hiscore.HiscoreSkill;
+import net.runelite.http.api.hiscore.Skill;
+import net.runelite.http.service.util.InstantConverter;
+import net.runelite.http.service.xp.beans.PlayerEntity;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.sql2o.Connection;
+import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
+import org.sql2o.converters.Converter;
+import org.sql2o.quirks.NoQuirks;
+
+public class XpTrackerServiceTest
+{
+	private Sql2o sql2o;
+	private Connection keepAlive;
+	private XpTrackerService xpTrackerService;
+
+	@Before
+	public void before()
+	{
+		JdbcDataSource dataSource = new JdbcDataSource();
+		dataSource.setURL("jdbc:h2:mem:xptrackertest;MODE=MySQL");
+
+		Map<Class, Converter> converters = new HashMap<>();
+		converters.put(Instant.class, new InstantConverter());
+		sql2o = new Sql2o(dataSource, new NoQuirks(converters));
+
+		// The in-memory database lives until its last connection is closed
+		keepAlive = sql2o.open();
+
+		StringBuilder xpTable = new StringBuilder("create table xp (id int auto_increment primary key, time timestamp default CURRENT_TIMESTAMP, player int not null");
+		for (HiscoreSkill skill : HiscoreSkill.values())
+		{
+			xpTable.append(", ").append(skill.name().toLowerCase()).append("_xp bigint, ").append(skill.name().toLowerCase()).append("_rank int");
+		}
+		xpTable.append(")");
+
+		keepAlive.createQuery("create table player (id int auto_increment primary key, name varchar(32) not null unique, "
+			+ "tracked_since timestamp default CURRENT_TIMESTAMP, last_updated timestamp default CURRENT_TIMESTAMP, rank int)").executeUpdate();
+		keepAlive.createQuery(xpTable.toString()).executeUpdate();
+
+		xpTrackerService = new XpTrackerService();
+		ReflectionTestUtils.setField(xpTrackerService, "sql2o", sql2o);
+	}
+
+	@After
+	public void after()
+	{
+		keepAlive.close();
+	}
+
+	@Test
+	public void testFlushBatches()
+	{
+		for (int i = 0; i < 300; ++i)
+		{
+			xpTrackerService.update("player" + i, hiscoreResult(1000));
+		}
+
+		xpTrackerService.flush();
+
+		assertEquals(300, count("player"));
+		assertEquals(300, count("xp"));
+	}
+
+	@Test
+	public void testFlushKeepsLatest()
+	{
+		xpTrackerService.update("zezima", hiscoreResult(1000));
+		xpTrackerService.update("zezima", hiscoreResult(2000));
+
+		xpTrackerService.flush();
+
+		List<Long> xp = keepAlive.createQuery("select attack_xp from xp")
+			.executeAndFetch(Long.class);
+		assertEquals(1, xp.size());
+		assertEquals(2000L, (long) xp.get(0));
+	}
+
+	@Test
+	public void testFlushSkipsUnchanged()
+	{
+		xpTrackerService.update("zezima", hiscoreResult(1000));
+		xpTrackerService.flush();
+
+		xpTrackerService.update("zezima", hiscoreResult(1000));
+		xpTrackerService.flush();
+
+		assertEquals(1, count("xp"));
+	}
+
+	@Test
+	public void testFlushFailureRequeues()
+	{
+		Sql2o failing = mock(Sql2o.class);
+		when(failing.beginTransaction()).thenThrow(new Sql2oException("database is down"));
+		ReflectionTestUtils.setField(xpTrackerService, "sql2o", failing);
+
+		xpTrackerService.update("zezima", hiscoreResult(1000));
+		xpTrackerService.flush();
+
+		ReflectionTestUtils.setField(xpTrackerService, "sql2o", sql2o);
+		xpTrackerService.flush();
+
+		assertEquals(1, count("xp"));
+	}
+
+	@Test
+	public void testCreatePlayerConcurrently() throws Exception
+	{
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try
+		{
+			List<Future<PlayerEntity>> futures = new ArrayList<>();
+			for (int i = 0; i < 64; ++i)
+			{
+				String username = "player" + (i % 4);
+				futures.add(executor.submit(() ->
+				{
+					try (Connection con = sql2o.beginTransaction())
+					{
+						PlayerEntity playerEntity = ReflectionTestUtils.invokeMethod(xpTrackerService, "findOrCreatePlayer", con, username);
+						con.commit();
+						return playerEntity;
+					}
+				}));
+			}
+
+			Map<String, Integer> ids = new HashMap<>();
+			for (Future<PlayerEntity> future : futures)
+			{
+				PlayerEntity playerEntity = future.get();
+				Integer id = ids.putIfAbsent(playerEntity.getName(), playerEntity.getId());
+				if (id != null)
+				{
+					assertEquals(id, playerEntity.getId());
+				}
+			}
+		}
+		finally
+		{
+			executor.shutdown();
+			executor.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		assertEquals(4, count("player"));
+	}
+
+	private int count(String table)
+	{
+		return keepAlive.createQuery("select count(*) from " + table)
+			.executeScalar(Integer.class);
+	}
+
+	private static HiscoreResult hiscoreResult(long experience)
+	{
+		HiscoreResultBuilder builder = new HiscoreResultBuilder();
+		for (HiscoreSkill skill : HiscoreSkill.values())
+		{
+			builder.setNextSkill(new Skill(1, 1, experience));
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,639 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import net.runelite.api.Client;
+import net.runelite.api.CollisionData;
+import net.runelite.api.CollisionDataFlag;
+import static net.runelite.api.Constants.SCENE_SIZE;
+import net.runelite.api.Player;
+import net.runelite.api.coords.WorldPoint;
+
+/**
+ * Pathfinding, reachability and line of sight over the scene's {@link CollisionData}.
+ * <p>
+ * Tiles are handled as packed ints (see {@link #pack(int, int)}) and all searches reuse
+ * the same primitive buffers, so queries do not allocate beyond their results. The flood
+ * fill from the local player is cached for the current game tick, so checking many tiles
+ * in a tick only walks the scene once.
+ * <p>
+ * Movement follows the rules for a 1x1 actor, the same as
+ * {@link net.runelite.api.coords.WorldArea#canTravelInDirection(Client, int, int)}.
+ * Instances are not thread safe.
+ */
+public class ScenePathfinder
+{
+	/**
+	 * Value returned by the distance queries for tiles which can't be reached
+	 */
+	public static final int UNREACHABLE = -1;
+
+	private static final int Y_BITS = 7;
+	private static final int Y_MASK = (1 << Y_BITS) - 1;
+	private static final int TILES = SCENE_SIZE << Y_BITS;
+
+	/**
+	 * Bits of the heap keys holding the packed tile, the remaining bits hold the cost
+	 */
+	private static final int HEAP_TILE_BITS = 14;
+
+	// W, E, S, N, SW, SE, NW, NE
+	private static final int[] DX = {-1, 1, 0, 0, -1, 1, -1, 1};
+	private static final int[] DY = {0, 0, -1, 1, -1, -1, 1, 1};
+
+	private final Client client;
+
+	private final int[] queue = new int[TILES];
+	private final int[] heap = new int[TILES * DX.length];
+	private final int[] stamps = new int[TILES];
+	private final int[] costs = new int[TILES];
+	private final int[] parents = new int[TILES];
+	private int stamp;
+
+	private final int[] reachableStamps = new int[TILES];
+	private final int[] reachableDistances = new int[TILES];
+	private int reachableStamp;
+	private int reachableTick = -1;
+	private int reachablePlane = -1;
+	private int reachableStart = -1;
+	private int[][] reachableFlags;
+
+	/**
+	 * @param client the client to read the scene and local player from. The methods which take
+	 *               collision flags directly may be used without one.
+	 */
+	public ScenePathfinder(@Nullable Client client)
+	{
+		this.client = client;
+	}
+
+	/**
+	 * Pack scene coordinates into a single int
+	 *
+	 * @param sceneX the scene x coordinate
+	 * @param sceneY the scene y coordinate
+	 * @return the packed tile
+	 */
+	public static int pack(int sceneX, int sceneY)
+	{
+		return sceneX << Y_BITS | sceneY;
+	}
+
+	public static int unpackX(int packed)
+	{
+		return packed >>> Y_BITS;
+	}
+
+	public static int unpackY(int packed)
+	{
+		return packed & Y_MASK;
+	}
+
+	/**
+	 * Determine if a 1x1 actor can step from a tile to one of its eight neighbours
+	 *
+	 * @param flags the collision flags of the plane
+	 * @param x     the scene x coordinate to step from
+	 * @param y     the scene y coordinate to step from
+	 * @param dx    the x-axis direction to step (-1, 0, or 1)
+	 * @param dy    the y-axis direction to step (-1, 0, or 1)
+	 * @return true if the step is not blocked
+	 */
+	public static boolean canMove(int[][] flags, int x, int y, int dx, int dy)
+	{
+		int nx = x + dx;
+		int ny = y + dy;
+		if (nx < 0 || ny < 0 || nx >= SCENE_SIZE || ny >= SCENE_SIZE)
+		{
+			return false;
+		}
+
+		// walls are stored on the tile being entered, on the side being entered from
+		int xFlags = CollisionDataFlag.BLOCK_MOVEMENT_FULL
+			| (dx > 0 ? CollisionDataFlag.BLOCK_MOVEMENT_WEST : CollisionDataFlag.BLOCK_MOVEMENT_EAST);
+		int yFlags = CollisionDataFlag.BLOCK_MOVEMENT_FULL
+			| (dy > 0 ? CollisionDataFlag.BLOCK_MOVEMENT_SOUTH : CollisionDataFlag.BLOCK_MOVEMENT_NORTH);
+
+		if (dy == 0)
+		{
+			return (flags[nx][y] & xFlags) == 0;
+		}
+		if (dx == 0)
+		{
+			return (flags[x][ny] & yFlags) == 0;
+		}
+
+		int xyFlags;
+		if (dx > 0)
+		{
+			xyFlags = dy > 0 ? CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_WEST : CollisionDataFlag.BLOCK_MOVEMENT_NORTH_WEST;
+		}
+		else
+		{
+			xyFlags = dy > 0 ? CollisionDataFlag.BLOCK_MOVEMENT_SOUTH_EAST : CollisionDataFlag.BLOCK_MOVEMENT_NORTH_EAST;
+		}
+
+		return (flags[nx][ny] & (xFlags | yFlags | xyFlags)) == 0
+			&& (flags[nx][y] & xFlags) == 0
+			&& (flags[x][ny] & yFlags) == 0;
+	}
+
+	/**
+	 * Find a shortest path between two tiles with A*
+	 *
+	 * @param flags the collision flags of the plane
+	 * @param start the packed tile to start from
+	 * @param end   the packed tile to travel to
+	 * @return the packed tiles stepped on after the start, ending with the end tile,
+	 * or null if the end can't be reached
+	 */
+	@Nullable
+	public int[] findPath(int[][] flags, int start, int end)
+	{
+		if (start == end)
+		{
+			return new int[0];
+		}
+
+		int s = ++stamp;
+		int endX = unpackX(end);
+		int endY = unpackY(end);
+
+		stamps[start] = s;
+		costs[start] = 0;
+		parents[start] = -1;
+		int size = heapPush(0, heuristic(start, endX, endY) << HEAP_TILE_BITS | start);
+
+		while (size > 0)
+		{
+			int key = heap[0];
+			size = heapPop(size);
+
+			int tile = key & ((1 << HEAP_TILE_BITS) - 1);
+			int g = costs[tile];
+			if ((key >>> HEAP_TILE_BITS) != g + heuristic(tile, endX, endY))
+			{
+				// a shorter route to this tile was found after this entry was queued
+				continue;
+			}
+
+			if (tile == end)
+			{
+				int length = g;
+				int[] path = new int[length];
+				for (int t = end; t != start; t = parents[t])
+				{
+					path[--length] = t;
+				}
+				return path;
+			}
+
+			int x = unpackX(tile);
+			int y = unpackY(tile);
+			for (int dir = 0; dir < DX.length; dir++)
+			{
+				if (!canMove(flags, x, y, DX[dir], DY[dir]))
+				{
+					continue;
+				}
+
+				int next = pack(x + DX[dir], y + DY[dir]);
+				if (stamps[next] == s && costs[next] <= g + 1)
+				{
+					continue;
+				}
+
+				stamps[next] = s;
+				costs[next] = g + 1;
+				parents[next] = tile;
+				size = heapPush(size, (g + 1 + heuristic(next, endX, endY)) << HEAP_TILE_BITS | next);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Find a shortest path between two points in the scene
+	 *
+	 * @param from the point to start from
+	 * @param to   the point to travel to
+	 * @return the points stepped on after the start, or null if there is no path
+	 * or the points are not both in the scene on the current plane
+	 */
+	@Nullable
+	public List<WorldPoint> findPath(WorldPoint from, WorldPoint to)
+	{
+		int[][] flags = getFlags();
+		int start = toScene(from);
+		int end = toScene(to);
+		if (flags == null || start == -1 || end == -1)
+		{
+			return null;
+		}
+
+		int[] path = findPath(flags, start, end);
+		if (path == null)
+		{
+			return null;
+		}
+
+		List<WorldPoint> points = new ArrayList<>(path.length);
+		for (int tile : path)
+		{
+			points.add(fromScene(tile));
+		}
+		return points;
+	}
+
+	/**
+	 * Flood fill the plane from a tile, recording the number of steps to every tile reached.
+	 * The results are read with {@link #getFloodDistance(int)} until the next search.
+	 *
+	 * @param flags the collision flags of the plane
+	 * @param start the packed tile to start from
+	 * @return the number of tiles reached, including the start
+	 */
+	public int floodFill(int[][] flags, int start)
+	{
+		return floodFill(flags, start, stamps, costs, ++stamp);
+	}
+
+	/**
+	 * Get the number of steps to a tile found by the last {@link #floodFill(int[][], int)}
+	 *
+	 * @param tile the packed tile
+	 * @return the number of steps, or {@link #UNREACHABLE}
+	 */
+	public int getFloodDistance(int tile)
+	{
+		return stamps[tile] == stamp ? costs[tile] : UNREACHABLE;
+	}
+
+	private int floodFill(int[][] flags, int start, int[] stamps, int[] distances, int s)
+	{
+		int head = 0, tail = 0;
+		stamps[start] = s;
+		distances[start] = 0;
+		queue[tail++] = start;
+
+		while (head < tail)
+		{
+			int tile = queue[head++];
+			int x = unpackX(tile);
+			int y = unpackY(tile);
+			int d = distances[tile] + 1;
+
+			for (int dir = 0; dir < DX.length; dir++)
+			{
+				if (!canMove(flags, x, y, DX[dir], DY[dir]))
+				{
+					continue;
+				}
+
+				int next = pack(x + DX[dir], y + DY[dir]);
+				if (stamps[next] != s)
+				{
+					stamps[next] = s;
+					distances[next] = d;
+					queue[tail++] = next;
+				}
+			}
+		}
+
+		return tail;
+	}
+
+	/**
+	 * Get the number of steps the local player needs to walk to a point. The flood fill
+	 * from the player is computed at most once per game tick, unless the player moves or
+	 * the scene changes within it.
+	 *
+	 * @param point the point to walk to
+	 * @return the number of steps, or {@link #UNREACHABLE}
+	 */
+	public int getDistance(WorldPoint point)
+	{
+		if (!updateReachable())
+		{
+			return UNREACHABLE;
+		}
+
+		int tile = toScene(point);
+		if (tile == -1 || reachableStamps[tile] != reachableStamp)
+		{
+			return UNREACHABLE;
+		}
+
+		return reachableDistances[tile];
+	}
+
+	/**
+	 * Determine if the local player can walk to a point
+	 *
+	 * @param point the point to walk to
+	 * @return true if a path exists
+	 */
+	public boolean isReachable(WorldPoint point)
+	{
+		return getDistance(point) != UNREACHABLE;
+	}
+
+	/**
+	 * Get the number of steps the local player needs to walk to each of the points,
+	 * using the same flood fill for all of them.
+	 *
+	 * @param points the points to walk to
+	 * @return the number of steps to each point in order, or {@link #UNREACHABLE}
+	 */
+	public int[] getDistances(List<WorldPoint> points)
+	{
+		int[] distances = new int[points.size()];
+		for (int i = 0; i < distances.length; i++)
+		{
+			distances[i] = getDistance(points.get(i));
+		}
+		return distances;
+	}
+
+	/**
+	 * Filter points down to the ones the local player can walk to
+	 *
+	 * @param points the points to check
+	 * @return the reachable points, in their original order
+	 */
+	public List<WorldPoint> getReachable(List<WorldPoint> points)
+	{
+		if (!updateReachable())
+		{
+			return Collections.emptyList();
+		}
+
+		List<WorldPoint> reachable = new ArrayList<>();
+		for (WorldPoint point : points)
+		{
+			int tile = toScene(point);
+			if (tile != -1 && reachableStamps[tile] == reachableStamp)
+			{
+				reachable.add(point);
+			}
+		}
+		return reachable;
+	}
+
+	/**
+	 * Recompute the flood fill from the local player if it is stale
+	 *
+	 * @return false if there is no player or collision data
+	 */
+	private boolean updateReachable()
+	{
+		Player player = client.getLocalPlayer();
+		int[][] flags = getFlags();
+		if (player == null || flags == null)
+		{
+			return false;
+		}
+
+		int start = toScene(player.getWorldLocation());
+		if (start == -1)
+		{
+			return false;
+		}
+
+		int tick = client.getTickCount();
+		int plane = client.getPlane();
+		if (tick != reachableTick || plane != reachablePlane || start != reachableStart || flags != reachableFlags)
+		{
+			floodFill(flags, start, reachableStamps, reachableDistances, ++reachableStamp);
+			reachableTick = tick;
+			reachablePlane = plane;
+			reachableStart = start;
+			reachableFlags = flags;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Determine if there is line of sight from one tile to another. This is the
+	 * same check as {@link net.runelite.api.Tile#hasLineOfSightTo(net.runelite.api.Tile)}.
+	 *
+	 * @param flags the collision flags of the plane
+	 * @param from  the packed tile to look from
+	 * @param to    the packed tile to look at
+	 * @return true if nothing blocks the line
+	 */
+	public static boolean hasLineOfSight(int[][] flags, int from, int to)
+	{
+		int x1 = unpackX(from);
+		int y1 = unpackY(from);
+		int x2 = unpackX(to);
+		int y2 = unpackY(to);
+		if (x1 == x2 && y1 == y2)
+		{
+			return true;
+		}
+
+		int dx = x2 - x1;
+		int dy = y2 - y1;
+		int dxAbs = Math.abs(dx);
+		int dyAbs = Math.abs(dy);
+
+		int xFlags = CollisionDataFlag.BLOCK_LINE_OF_SIGHT_FULL
+			| (dx < 0 ? CollisionDataFlag.BLOCK_LINE_OF_SIGHT_EAST : CollisionDataFlag.BLOCK_LINE_OF_SIGHT_WEST);
+		int yFlags = CollisionDataFlag.BLOCK_LINE_OF_SIGHT_FULL
+			| (dy < 0 ? CollisionDataFlag.BLOCK_LINE_OF_SIGHT_NORTH : CollisionDataFlag.BLOCK_LINE_OF_SIGHT_SOUTH);
+
+		if (dxAbs > dyAbs)
+		{
+			int x = x1;
+			int yBig = (y1 << 16) + 0x8000; // fixed point, starting at the middle of the tile
+			int slope = (dy << 16) / dxAbs;
+			if (dy < 0)
+			{
+				yBig--; // For correct rounding
+			}
+			int direction = dx < 0 ? -1 : 1;
+
+			while (x != x2)
+			{
+				x += direction;
+				int y = yBig >>> 16;
+				if ((flags[x][y] & xFlags) != 0)
+				{
+					return false;
+				}
+				yBig += slope;
+				int nextY = yBig >>> 16;
+				if (nextY != y && (flags[x][nextY] & yFlags) != 0)
+				{
+					return false;
+				}
+			}
+		}
+		else
+		{
+			int y = y1;
+			int xBig = (x1 << 16) + 0x8000;
+			int slope = (dx << 16) / dyAbs;
+			if (dx < 0)
+			{
+				xBig--;
+			}
+			int direction = dy < 0 ? -1 : 1;
+
+			while (y != y2)
+			{
+				y += direction;
+				int x = xBig >>> 16;
+				if ((flags[x][y] & yFlags) != 0)
+				{
+					return false;
+				}
+				xBig += slope;
+				int nextX = xBig >>> 16;
+				if (nextX != x && (flags[nextX][y] & xFlags) != 0)
+				{
+					return false;
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Determine if there is line of sight from one point to each of many others
+	 *
+	 * @param from    the point to look from
+	 * @param targets the points to look at
+	 * @return for each target in order, true if it can be seen
+	 */
+	public boolean[] hasLineOfSight(WorldPoint from, List<WorldPoint> targets)
+	{
+		boolean[] visible = new boolean[targets.size()];
+		int[][] flags = getFlags();
+		int start = toScene(from);
+		if (flags == null || start == -1)
+		{
+			return visible;
+		}
+
+		for (int i = 0; i < visible.length; i++)
+		{
+			int tile = toScene(targets.get(i));
+			visible[i] = tile != -1 && hasLineOfSight(flags, start, tile);
+		}
+		return visible;
+	}
+
+	@Nullable
+	private int[][] getFlags()
+	{
+		CollisionData[] collisionData = client.getCollisionMaps();
+		if (collisionData == null)
+		{
+			return null;
+		}
+		return collisionData[client.getPlane()].getFlags();
+	}
+
+	/**
+	 * Convert a point to a packed scene tile
+	 *
+	 * @return the packed tile, or -1 if the point isn't in the scene on the current plane
+	 */
+	private int toScene(WorldPoint point)
+	{
+		int x = point.getX() - client.getBaseX();
+		int y = point.getY() - client.getBaseY();
+		if (point.getPlane() != client.getPlane() || x < 0 || y < 0 || x >= SCENE_SIZE || y >= SCENE_SIZE)
+		{
+			return -1;
+		}
+		return pack(x, y);
+	}
+
+	private WorldPoint fromScene(int tile)
+	{
+		return new WorldPoint(unpackX(tile) + client.getBaseX(), unpackY(tile) + client.getBaseY(), client.getPlane());
+	}
+
+	/**
+	 * Chebyshev distance, as diagonal steps cost the same as straight ones
+	 */
+	private static int heuristic(int tile, int endX, int endY)
+	{
+		return Math.max(Math.abs(unpackX(tile) - endX), Math.abs(unpackY(tile) - endY));
+	}
+
+	private int heapPush(int size, int key)
+	{
+		int i = size++;
+		while (i > 0)
+		{
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] <= key)
+			{
+				break;
+			}
+			heap[i] = heap[parent];
+			i = parent;
+		}
+		heap[i] = key;
+		return size;
+	}
+
+	private int heapPop(int size)
+	{
+		int key = heap[--size];
+		int i = 0;
+		while (true)
+		{
+			int child = 2 * i + 1;
+			if (child >= size)
+			{
+				break;
+			}
+			if (child + 1 < size && heap[child + 1] < heap[child])
+			{
+				child++;
+			}
+			if (key <= heap[child])
+			{
+				break;
+			}
+			heap[i] = heap[child];
+			i = child;
+		}
+		heap[i] = key;
+		return size;
+	}
+}
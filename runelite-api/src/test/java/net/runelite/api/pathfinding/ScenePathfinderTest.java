@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.api.pathfinding;
+
+import net.runelite.api.CollisionDataFlag;
+import static net.runelite.api.Constants.SCENE_SIZE;
+import static net.runelite.api.pathfinding.ScenePathfinder.UNREACHABLE;
+import static net.runelite.api.pathfinding.ScenePathfinder.pack;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ScenePathfinderTest
+{
+	private int[][] flags;
+	private ScenePathfinder pathfinder;
+
+	@Before
+	public void before()
+	{
+		flags = new int[SCENE_SIZE][SCENE_SIZE];
+		pathfinder = new ScenePathfinder(null);
+	}
+
+	@Test
+	public void testCanMove()
+	{
+		// wall on the west side of (11, 10)
+		flags[11][10] |= CollisionDataFlag.BLOCK_MOVEMENT_WEST;
+
+		assertFalse(ScenePathfinder.canMove(flags, 10, 10, 1, 0));
+		assertTrue(ScenePathfinder.canMove(flags, 11, 10, -1, 0));
+		// diagonals can't cut past the wall either
+		assertFalse(ScenePathfinder.canMove(flags, 10, 9, 1, 1));
+		assertFalse(ScenePathfinder.canMove(flags, 10, 11, 1, -1));
+		assertTrue(ScenePathfinder.canMove(flags, 10, 10, 0, 1));
+
+		assertFalse(ScenePathfinder.canMove(flags, 0, 0, -1, 0));
+		assertFalse(ScenePathfinder.canMove(flags, SCENE_SIZE - 1, 0, 1, 1));
+	}
+
+	@Test
+	public void testFindPath()
+	{
+		int[] open = pathfinder.findPath(flags, pack(10, 10), pack(13, 12));
+		assertEquals(3, open.length);
+		assertEquals(pack(13, 12), open[2]);
+		assertEquals(0, pathfinder.findPath(flags, pack(10, 10), pack(10, 10)).length);
+
+		// a wall from (20, 0) to (20, 30) has to be walked around
+		for (int y = 0; y <= 30; y++)
+		{
+			flags[20][y] = CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+		}
+
+		int[] path = pathfinder.findPath(flags, pack(19, 0), pack(21, 0));
+		// 31 steps up past the end of the wall, two across, and 31 back down
+		assertEquals(64, path.length);
+		assertEquals(pack(21, 0), path[path.length - 1]);
+		for (int tile : path)
+		{
+			assertEquals(0, flags[ScenePathfinder.unpackX(tile)][ScenePathfinder.unpackY(tile)]);
+		}
+	}
+
+	@Test
+	public void testUnreachable()
+	{
+		// box in (50, 50)
+		for (int x = 49; x <= 51; x++)
+		{
+			for (int y = 49; y <= 51; y++)
+			{
+				if (x != 50 || y != 50)
+				{
+					flags[x][y] = CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+				}
+			}
+		}
+
+		assertNull(pathfinder.findPath(flags, pack(10, 10), pack(50, 50)));
+
+		assertEquals(1, pathfinder.floodFill(flags, pack(50, 50)));
+		assertEquals(0, pathfinder.getFloodDistance(pack(50, 50)));
+		assertEquals(UNREACHABLE, pathfinder.getFloodDistance(pack(10, 10)));
+
+		assertEquals(SCENE_SIZE * SCENE_SIZE - 9, pathfinder.floodFill(flags, pack(10, 10)));
+		assertEquals(5, pathfinder.getFloodDistance(pack(15, 12)));
+		assertEquals(UNREACHABLE, pathfinder.getFloodDistance(pack(50, 50)));
+		assertEquals(UNREACHABLE, pathfinder.getFloodDistance(pack(50, 51)));
+	}
+
+	@Test
+	public void testLineOfSight()
+	{
+		assertTrue(ScenePathfinder.hasLineOfSight(flags, pack(10, 10), pack(20, 15)));
+
+		flags[15][12] = CollisionDataFlag.BLOCK_LINE_OF_SIGHT_FULL;
+		assertFalse(ScenePathfinder.hasLineOfSight(flags, pack(10, 10), pack(20, 15)));
+		assertTrue(ScenePathfinder.hasLineOfSight(flags, pack(10, 10), pack(20, 10)));
+
+		// blocking movement alone doesn't block sight
+		flags[15][10] = CollisionDataFlag.BLOCK_MOVEMENT_FULL;
+		assertTrue(ScenePathfinder.hasLineOfSight(flags, pack(10, 10), pack(20, 10)));
+	}
+}
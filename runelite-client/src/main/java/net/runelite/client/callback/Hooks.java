@@ -64,6 +64,7 @@ import net.runelite.client.input.MouseManager;
 import net.runelite.client.task.Scheduler;
 import net.runelite.client.ui.ClientUI;
 import net.runelite.client.ui.DrawManager;
+import net.runelite.client.ui.FrameGrabber;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.ui.overlay.OverlayRenderer;
@@ -87,6 +88,28 @@ public class Hooks implements Callbacks
 	private static final OverlayManager overlayManager = injector.getInstance(OverlayManager.class);
 
 	private static final GameTick GAME_TICK = new GameTick();
+	private static final FrameGrabber FRAME_GRABBER = new FrameGrabber()
+	{
+		// the unstretched game image, which includes the overlays
+		@Override
+		public int getWidth()
+		{
+			return client.getBufferProvider().getWidth();
+		}
+
+		@Override
+		public int getHeight()
+		{
+			return client.getBufferProvider().getHeight();
+		}
+
+		@Override
+		public void grab(int[] pixels)
+		{
+			BufferProvider bufferProvider = client.getBufferProvider();
+			System.arraycopy(bufferProvider.getPixels(), 0, pixels, 0, bufferProvider.getWidth() * bufferProvider.getHeight());
+		}
+	};
 	private static final BeforeRender BEFORE_RENDER = new BeforeRender();
 
 	@Inject
@@ -368,7 +391,7 @@ public class Hooks implements Callbacks
 
 		// finalImage is backed by the client buffer which will change soon. make a copy
 		// so that callbacks can safely use it later from threads.
-		drawManager.processDrawComplete(() -> copy(finalImage));
+		drawManager.processDrawComplete(() -> copy(finalImage), FRAME_GRABBER);
 	}
 
 	/**
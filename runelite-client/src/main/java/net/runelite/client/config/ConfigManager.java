@@ -43,6 +43,8 @@ import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.nio.channels.FileLock;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.Duration;
@@ -68,6 +70,7 @@ import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.util.ColorUtil;
 import net.runelite.http.api.config.ConfigClient;
 import net.runelite.http.api.config.ConfigEntry;
+import net.runelite.http.api.config.ConfigPatch;
 import net.runelite.http.api.config.Configuration;
 
 @Singleton
@@ -75,7 +78,10 @@ import net.runelite.http.api.config.Configuration;
 public class ConfigManager
 {
 	private static final String SETTINGS_FILE_NAME = "settings.properties";
+	private static final String VERSION_FILE_NAME = "settings.version";
 	private static final DateFormat TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+	// bounds how long sending the configuration can hold up shutdown or switching sessions
+	private static final int SYNC_TIMEOUT_SECONDS = 10;
 
 	@Inject
 	EventBus eventBus;
@@ -85,6 +91,8 @@ public class ConfigManager
 	private AccountSession session;
 	private ConfigClient client;
 	private File propertiesFile;
+	// version of the account configuration the properties are in sync with, or -1 if unknown
+	private volatile long configVersion = -1;
 
 	private final ConfigInvocationHandler handler = new ConfigInvocationHandler(this);
 	private final Properties properties = new Properties();
@@ -104,6 +112,16 @@ public class ConfigManager
 		// Ensure existing config is saved
 		sendConfig();
 
+		synchronized (pendingChanges)
+		{
+			// changes which failed to send belong to the previous account, and are kept only in its file
+			if (!pendingChanges.isEmpty())
+			{
+				log.warn("Discarding {} configuration changes which could not be synchronized", pendingChanges.size());
+				pendingChanges.clear();
+			}
+		}
+
 		if (session == null)
 		{
 			this.session = null;
@@ -115,6 +133,8 @@ public class ConfigManager
 			this.client = new ConfigClient(session.getUuid());
 		}
 
+		this.configVersion = -1;
+
 		this.propertiesFile = getPropertiesFile();
 
 		load(); // load profile specific config
@@ -147,11 +167,12 @@ public class ConfigManager
 			return;
 		}
 
+		final long savedVersion = readVersion();
 		Configuration configuration;
 
 		try
 		{
-			configuration = client.get();
+			configuration = client.get(savedVersion);
 		}
 		catch (IOException ex)
 		{
@@ -160,6 +181,14 @@ public class ConfigManager
 			return;
 		}
 
+		if (configuration == null)
+		{
+			log.debug("Configuration is unchanged since version {}, using saved configuration on disk", savedVersion);
+			loadFromFile();
+			configVersion = savedVersion;
+			return;
+		}
+
 		if (configuration.getConfig() == null || configuration.getConfig().isEmpty())
 		{
 			log.debug("No configuration from client, using saved configuration on disk");
@@ -195,6 +224,8 @@ public class ConfigManager
 		try
 		{
 			saveToFile(propertiesFile);
+			configVersion = configuration.getVersion();
+			writeVersion(configVersion);
 
 			log.debug("Updated configuration on disk with the latest version");
 		}
@@ -653,40 +684,115 @@ public class ConfigManager
 
 	public void sendConfig()
 	{
-		boolean changed;
+		final ConfigClient client = this.client;
+		final ConfigPatch patch = new ConfigPatch();
+		final Map<String, String> changes;
+
 		synchronized (pendingChanges)
 		{
-			if (client != null)
-			{
-				for (Map.Entry<String, String> entry : pendingChanges.entrySet())
-				{
-					String key = entry.getKey();
-					String value = entry.getValue();
+			changes = new HashMap<>(pendingChanges);
+			pendingChanges.clear();
+		}
 
-					if (Strings.isNullOrEmpty(value))
-					{
-						client.unset(key);
-					}
-					else
-					{
-						client.set(key, value);
-					}
-				}
+		if (changes.isEmpty())
+		{
+			return;
+		}
+
+		for (Map.Entry<String, String> entry : changes.entrySet())
+		{
+			String key = entry.getKey();
+			String value = entry.getValue();
+
+			if (Strings.isNullOrEmpty(value))
+			{
+				patch.getUnset().add(key);
+			}
+			else
+			{
+				patch.getEdit().put(key, value);
 			}
-			changed = !pendingChanges.isEmpty();
-			pendingChanges.clear();
 		}
 
-		if (changed)
+		if (client != null)
 		{
+			patch.setVersion(configVersion);
+
 			try
 			{
-				saveToFile(propertiesFile);
+				long version = client.patch(patch, SYNC_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+				// if the configuration was also changed elsewhere it is fetched again on the next load
+				configVersion = patch.getVersion() >= 0 && version == patch.getVersion() + 1 ? version : -1;
 			}
 			catch (IOException ex)
 			{
-				log.warn("unable to save configuration file", ex);
+				log.warn("Unable to synchronize configuration", ex);
+				configVersion = -1;
+
+				synchronized (pendingChanges)
+				{
+					// retry on the next send, unless the setting has been changed again since
+					for (Map.Entry<String, String> entry : changes.entrySet())
+					{
+						// unset settings are pending with a null value, so putIfAbsent can't be used
+						if (!pendingChanges.containsKey(entry.getKey()))
+						{
+							pendingChanges.put(entry.getKey(), entry.getValue());
+						}
+					}
+				}
+			}
+		}
+
+		try
+		{
+			saveToFile(propertiesFile);
+
+			if (client != null)
+			{
+				writeVersion(configVersion);
 			}
 		}
+		catch (IOException ex)
+		{
+			log.warn("unable to save configuration file", ex);
+		}
+	}
+
+	private File getVersionFile()
+	{
+		return new File(propertiesFile.getParentFile(), VERSION_FILE_NAME);
+	}
+
+	private long readVersion()
+	{
+		try
+		{
+			return Long.parseLong(new String(Files.readAllBytes(getVersionFile().toPath()), StandardCharsets.UTF_8).trim());
+		}
+		catch (IOException | NumberFormatException ex)
+		{
+			return -1;
+		}
+	}
+
+	private void writeVersion(long version)
+	{
+		final File versionFile = getVersionFile();
+
+		if (version < 0)
+		{
+			versionFile.delete();
+			return;
+		}
+
+		try
+		{
+			Files.write(versionFile.toPath(), Long.toString(version).getBytes(StandardCharsets.UTF_8));
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to save configuration version", ex);
+		}
 	}
 }
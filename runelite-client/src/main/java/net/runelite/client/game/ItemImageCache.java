@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.Nullable;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * On-disk cache of rendered item images and outlines, stored as ARGB pixels.
+ * The cache is tied to the game revision it was rendered with, so a game update
+ * invalidates it. Images are only added once the cache has been loaded for the
+ * current revision. Only images of a single item are cached, since stack images
+ * differ with every quantity and are rarely reused. The least recently used images
+ * are evicted once the cache is full.
+ */
+@Slf4j
+class ItemImageCache
+{
+	static final byte IMAGE = 0;
+	static final byte OUTLINE = 1;
+
+	private static final int MAGIC = 0x524c4943; // RLIC
+	private static final int VERSION = 1;
+	/**
+	 * Maximum number of pixels kept, about 1700 inventory sized images
+	 */
+	static final int MAX_PIXELS = 2_000_000;
+
+	@Value
+	private static class Key
+	{
+		private final byte type;
+		private final int itemId;
+		private final int quantity;
+		private final int variant;
+	}
+
+	@Value
+	static class CachedImage
+	{
+		private final int width;
+		private final int height;
+		private final int[] pixels;
+
+		void copyTo(BufferedImage image)
+		{
+			image.setRGB(0, 0, width, height, pixels, 0, width);
+		}
+
+		BufferedImage toBufferedImage()
+		{
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			copyTo(image);
+			return image;
+		}
+	}
+
+	private final File file;
+	private final Cache<Key, CachedImage> images = CacheBuilder.newBuilder()
+		.maximumWeight(MAX_PIXELS)
+		.weigher((Key key, CachedImage image) -> image.getPixels().length)
+		.build();
+	private volatile int revision = -1;
+	private volatile boolean dirty;
+
+	ItemImageCache(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Load the cached images for a revision, if it is not already loaded
+	 *
+	 * @param revision the game revision
+	 */
+	synchronized void load(int revision)
+	{
+		if (this.revision == revision)
+		{
+			return;
+		}
+
+		images.invalidateAll();
+		dirty = false;
+
+		if (file.exists())
+		{
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)))))
+			{
+				if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != revision)
+				{
+					log.debug("Item image cache {} is invalid or for another revision", file);
+				}
+				else
+				{
+					int count = in.readInt();
+					for (int i = 0; i < count; ++i)
+					{
+						Key key = new Key(in.readByte(), in.readInt(), in.readInt(), in.readInt());
+						int width = in.readUnsignedShort();
+						int height = in.readUnsignedShort();
+						int[] data = new int[width * height];
+						for (int j = 0; j < data.length; ++j)
+						{
+							data[j] = in.readInt();
+						}
+
+						images.put(key, new CachedImage(width, height, data));
+					}
+
+					log.debug("Loaded {} item images from {}", images.size(), file);
+				}
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to read item image cache", ex);
+				images.invalidateAll();
+			}
+		}
+
+		this.revision = revision;
+	}
+
+	@Nullable
+	CachedImage get(byte type, int itemId, int quantity, int variant)
+	{
+		return images.getIfPresent(new Key(type, itemId, quantity, variant));
+	}
+
+	/**
+	 * Add a rendered image to the cache
+	 *
+	 * @param type IMAGE or OUTLINE
+	 * @param itemId item id
+	 * @param quantity item quantity
+	 * @param variant any other state the image was rendered with
+	 * @param image the rendered image
+	 */
+	void put(byte type, int itemId, int quantity, int variant, BufferedImage image)
+	{
+		if (revision == -1 || quantity != 1)
+		{
+			return;
+		}
+
+		final int width = image.getWidth();
+		final int height = image.getHeight();
+		final int[] data = image.getRGB(0, 0, width, height, null, 0, width);
+
+		images.put(new Key(type, itemId, quantity, variant), new CachedImage(width, height, data));
+		dirty = true;
+	}
+
+	/**
+	 * Write the cache to disk, if images have been added since it was last read or written
+	 */
+	synchronized void write()
+	{
+		if (!dirty)
+		{
+			return;
+		}
+
+		dirty = false;
+
+		final List<Map.Entry<Key, CachedImage>> entries = new ArrayList<>(images.asMap().entrySet());
+		file.getParentFile().mkdirs();
+
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp)))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(revision);
+			out.writeInt(entries.size());
+			for (Map.Entry<Key, CachedImage> entry : entries)
+			{
+				Key key = entry.getKey();
+				CachedImage image = entry.getValue();
+				out.writeByte(key.getType());
+				out.writeInt(key.getItemId());
+				out.writeInt(key.getQuantity());
+				out.writeInt(key.getVariant());
+				out.writeShort(image.getWidth());
+				out.writeShort(image.getHeight());
+				for (int pixel : image.getPixels())
+				{
+					out.writeInt(pixel);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to write item image cache", ex);
+			tmp.delete();
+			return;
+		}
+
+		try
+		{
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to move item image cache into place", ex);
+			tmp.delete();
+			return;
+		}
+
+		log.debug("Wrote {} item images to {}", entries.size(), file);
+	}
+}
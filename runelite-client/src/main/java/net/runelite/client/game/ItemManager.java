@@ -24,14 +24,15 @@
  */
 package net.runelite.client.game;
 
+import com.google.common.base.Preconditions;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.ImmutableMap;
 import java.awt.Color;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +53,7 @@ import static net.runelite.api.ItemID.*;
 import net.runelite.api.SpritePixels;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.PostItemComposition;
+import net.runelite.client.RuneLite;
 import net.runelite.client.callback.ClientThread;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.http.api.item.ItemClient;
@@ -84,10 +86,14 @@ public class ItemManager
 
 	private final ItemClient itemClient = new ItemClient();
 	private Map<Integer, ItemPrice> itemPrices = Collections.emptyMap();
+	// prices indexed by item id, with the item mappings already applied
+	private int[] itemPriceTable = new int[0];
+	private ItemSearchIndex<ItemPrice> itemSearchIndex = new ItemSearchIndex<>(Collections.emptyList(), ItemPrice::getName);
 	private Map<Integer, ItemStats> itemStats = Collections.emptyMap();
 	private final LoadingCache<ImageKey, AsyncBufferedImage> itemImages;
 	private final LoadingCache<Integer, ItemComposition> itemCompositions;
 	private final LoadingCache<OutlineKey, BufferedImage> itemOutlines;
+	private final ItemImageCache itemImageCache = new ItemImageCache(new File(RuneLite.CACHE_DIR, "items.cache"));
 
 	// Worn items with weight reducing property have a different worn and inventory ItemID
 	private static final ImmutableMap<Integer, Integer> WORN_ITEMS = ImmutableMap.<Integer, Integer>builder().
@@ -161,6 +167,7 @@ public class ItemManager
 
 		scheduledExecutorService.scheduleWithFixedDelay(this::loadPrices, 0, 30, TimeUnit.MINUTES);
 		scheduledExecutorService.submit(this::loadStats);
+		scheduledExecutorService.scheduleWithFixedDelay(itemImageCache::write, 10, 10, TimeUnit.MINUTES);
 
 		itemImages = CacheBuilder.newBuilder()
 			.maximumSize(128L)
@@ -211,7 +218,11 @@ public class ItemManager
 				{
 					map.put(price.getId(), price);
 				}
-				itemPrices = map.build();
+
+				final Map<Integer, ItemPrice> priceMap = map.build();
+				itemSearchIndex = new ItemSearchIndex<>(priceMap.values(), ItemPrice::getName);
+				itemPriceTable = buildPriceTable(priceMap);
+				itemPrices = priceMap;
 			}
 
 			log.debug("Loaded {} prices", itemPrices.size());
@@ -222,6 +233,39 @@ public class ItemManager
 		}
 	}
 
+	/**
+	 * Resolve the price of every item id up to the highest priced or mapped id
+	 *
+	 * @param prices item prices by id
+	 * @return prices indexed by item id
+	 */
+	static int[] buildPriceTable(Map<Integer, ItemPrice> prices)
+	{
+		int maxId = ItemID.PLATINUM_TOKEN;
+		for (int id : prices.keySet())
+		{
+			maxId = Math.max(maxId, id);
+		}
+		for (ItemMapping mapping : ItemMapping.values())
+		{
+			for (int id : mapping.getUntradableItems())
+			{
+				maxId = Math.max(maxId, id);
+			}
+		}
+		for (UntradeableItemMapping mapping : UntradeableItemMapping.values())
+		{
+			maxId = Math.max(maxId, mapping.getItemID());
+		}
+
+		final int[] table = new int[maxId + 1];
+		for (int id = 0; id < table.length; ++id)
+		{
+			table[id] = lookupItemPrice(id, prices);
+		}
+		return table;
+	}
+
 	private void loadStats()
 	{
 		try
@@ -248,6 +292,17 @@ public class ItemManager
 		{
 			itemCompositions.invalidateAll();
 		}
+
+		if (event.getGameState() == GameState.LOGGED_IN)
+		{
+			// Read the rendered images for this revision in the background, so they don't have to be rendered again
+			final int revision = client.getRevision();
+			scheduledExecutorService.execute(() -> itemImageCache.load(revision));
+		}
+		else if (event.getGameState() == GameState.LOGIN_SCREEN)
+		{
+			scheduledExecutorService.execute(itemImageCache::write);
+		}
 	}
 
 	@Subscribe
@@ -272,6 +327,36 @@ public class ItemManager
 	 * @return item price
 	 */
 	public int getItemPrice(int itemID)
+	{
+		final int[] table = itemPriceTable;
+		if (itemID >= 0 && itemID < table.length)
+		{
+			return table[itemID];
+		}
+
+		return lookupItemPrice(itemID, itemPrices);
+	}
+
+	/**
+	 * Look up the prices of many items
+	 *
+	 * @param itemIDs item ids
+	 * @param prices array to store the price of each item id in, at the same index
+	 */
+	public void getItemPrices(int[] itemIDs, long[] prices)
+	{
+		Preconditions.checkArgument(prices.length >= itemIDs.length, "prices is shorter than itemIDs");
+
+		final int[] table = itemPriceTable;
+		final Map<Integer, ItemPrice> map = itemPrices;
+		for (int i = 0; i < itemIDs.length; ++i)
+		{
+			final int itemID = itemIDs[i];
+			prices[i] = itemID >= 0 && itemID < table.length ? table[itemID] : lookupItemPrice(itemID, map);
+		}
+	}
+
+	private static int lookupItemPrice(int itemID, Map<Integer, ItemPrice> itemPrices)
 	{
 		if (itemID == ItemID.COINS_995)
 		{
@@ -285,7 +370,7 @@ public class ItemManager
 		UntradeableItemMapping p = UntradeableItemMapping.map(ItemVariationMapping.map(itemID));
 		if (p != null)
 		{
-			return getItemPrice(p.getPriceID()) * p.getQuantity();
+			return lookupItemPrice(p.getPriceID(), itemPrices) * p.getQuantity();
 		}
 
 		int price = 0;
@@ -327,18 +412,7 @@ public class ItemManager
 	 */
 	public List<ItemPrice> search(String itemName)
 	{
-		itemName = itemName.toLowerCase();
-
-		List<ItemPrice> result = new ArrayList<>();
-		for (ItemPrice itemPrice : itemPrices.values())
-		{
-			final String name = itemPrice.getName();
-			if (name.toLowerCase().contains(itemName))
-			{
-				result.add(itemPrice);
-			}
-		}
-		return result;
+		return itemSearchIndex.search(itemName);
 	}
 
 	/**
@@ -382,6 +456,13 @@ public class ItemManager
 	private AsyncBufferedImage loadImage(int itemId, int quantity, boolean stackable)
 	{
 		AsyncBufferedImage img = new AsyncBufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		final ItemImageCache.CachedImage cached = itemImageCache.get(ItemImageCache.IMAGE, itemId, quantity, stackable ? 1 : 0);
+		if (cached != null)
+		{
+			cached.copyTo(img);
+			return img;
+		}
+
 		clientThread.invoke(() ->
 		{
 			if (client.getGameState().ordinal() < GameState.LOGIN_SCREEN.ordinal())
@@ -395,6 +476,7 @@ public class ItemManager
 				return false;
 			}
 			sprite.toBufferedImage(img);
+			itemImageCache.put(ItemImageCache.IMAGE, itemId, quantity, stackable ? 1 : 0, img);
 			img.changed();
 			return true;
 		});
@@ -449,8 +531,16 @@ public class ItemManager
 	 */
 	private BufferedImage loadItemOutline(final int itemId, final int itemQuantity, final Color outlineColor)
 	{
+		final ItemImageCache.CachedImage cached = itemImageCache.get(ItemImageCache.OUTLINE, itemId, itemQuantity, outlineColor.getRGB());
+		if (cached != null)
+		{
+			return cached.toBufferedImage();
+		}
+
 		final SpritePixels itemSprite = client.createItemSprite(itemId, itemQuantity, 1, 0, 0, true, 710);
-		return itemSprite.toBufferedOutline(outlineColor);
+		final BufferedImage outline = itemSprite.toBufferedOutline(outlineColor);
+		itemImageCache.put(ItemImageCache.OUTLINE, itemId, itemQuantity, outlineColor.getRGB(), outline);
+		return outline;
 	}
 
 	/**
@@ -29,6 +29,8 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 import java.util.Collection;
 import java.util.Collections;
+import lombok.AccessLevel;
+import lombok.Getter;
 import static net.runelite.api.ItemID.*;
 
 /**
@@ -214,6 +216,7 @@ public enum ItemMapping
 
 	private static final Multimap<Integer, Integer> MAPPINGS = HashMultimap.create();
 	private final int tradeableItem;
+	@Getter(AccessLevel.PACKAGE)
 	private final int[] untradableItems;
 
 	static
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Trigram index for substring searches of item names.
+ * <p>
+ * Every distinct three character substring of the lowercased names maps to the
+ * list of items containing it. A search only checks the items in the shortest
+ * list of any of the query's trigrams, and queries shorter than a trigram fall
+ * back to checking every item.
+ *
+ * @param <T> the indexed item type
+ */
+class ItemSearchIndex<T>
+{
+	private static final int GRAM = 3;
+	private static final int CHAR_BITS = 13;
+	private static final int CHAR_MASK = (1 << CHAR_BITS) - 1;
+	private static final int INDEX_BITS = 64 - GRAM * CHAR_BITS - 1;
+
+	private final List<T> items;
+	private final String[] names;
+
+	// sorted distinct trigrams, with the items containing trigrams[i] in postings[offsets[i]..offsets[i + 1])
+	private final long[] trigrams;
+	private final int[] offsets;
+	private final int[] postings;
+
+	ItemSearchIndex(Collection<T> items, Function<T, String> nameFunction)
+	{
+		Preconditions.checkArgument(items.size() < 1 << INDEX_BITS, "too many items");
+		this.items = new ArrayList<>(items);
+		this.names = new String[this.items.size()];
+
+		int count = 0;
+		for (int i = 0; i < names.length; ++i)
+		{
+			names[i] = nameFunction.apply(this.items.get(i)).toLowerCase();
+			count += Math.max(0, names[i].length() - GRAM + 1);
+		}
+
+		// each entry is the trigram in the high bits and the item index in the low bits, so once
+		// sorted they are grouped by trigram with each group in item order
+		final long[] entries = new long[count];
+		int n = 0;
+		for (int i = 0; i < names.length; ++i)
+		{
+			final String name = names[i];
+			for (int j = 0; j + GRAM <= name.length(); ++j)
+			{
+				entries[n++] = trigram(name, j) << INDEX_BITS | i;
+			}
+		}
+		Arrays.sort(entries);
+
+		final long[] trigrams = new long[count];
+		final int[] offsets = new int[count + 1];
+		final int[] postings = new int[count];
+		int keys = 0;
+		int size = 0;
+		long last = -1;
+		for (long entry : entries)
+		{
+			if (entry == last)
+			{
+				// the trigram appears more than once in the name
+				continue;
+			}
+
+			final long trigram = entry >>> INDEX_BITS;
+			if (keys == 0 || trigrams[keys - 1] != trigram)
+			{
+				trigrams[keys] = trigram;
+				offsets[keys++] = size;
+			}
+
+			postings[size++] = (int) (entry & ((1 << INDEX_BITS) - 1));
+			last = entry;
+		}
+		offsets[keys] = size;
+
+		this.trigrams = Arrays.copyOf(trigrams, keys);
+		this.offsets = Arrays.copyOf(offsets, keys + 1);
+		this.postings = Arrays.copyOf(postings, size);
+	}
+
+	/**
+	 * Pack three characters into a long. Characters outside of the low 13 bits may
+	 * collide, which only adds candidates that are then rejected by the name check.
+	 */
+	private static long trigram(String s, int index)
+	{
+		return (long) (s.charAt(index) & CHAR_MASK) << (2 * CHAR_BITS)
+			| (long) (s.charAt(index + 1) & CHAR_MASK) << CHAR_BITS
+			| (s.charAt(index + 2) & CHAR_MASK);
+	}
+
+	/**
+	 * Find the items whose name contains the query, ignoring case
+	 *
+	 * @param query the name to search for
+	 * @return the matching items, in the order they were indexed
+	 */
+	List<T> search(String query)
+	{
+		query = query.toLowerCase();
+
+		final List<T> result = new ArrayList<>();
+		if (query.length() < GRAM)
+		{
+			for (int i = 0; i < names.length; ++i)
+			{
+				if (names[i].contains(query))
+				{
+					result.add(items.get(i));
+				}
+			}
+			return result;
+		}
+
+		// candidates are the items with the rarest of the query's trigrams
+		int from = 0;
+		int to = postings.length;
+		for (int j = 0; j + GRAM <= query.length(); ++j)
+		{
+			final int key = Arrays.binarySearch(trigrams, trigram(query, j));
+			if (key < 0)
+			{
+				return result;
+			}
+
+			if (offsets[key + 1] - offsets[key] < to - from)
+			{
+				from = offsets[key];
+				to = offsets[key + 1];
+			}
+		}
+
+		for (int i = from; i < to; ++i)
+		{
+			final int item = postings[i];
+			if (names[item].contains(query))
+			{
+				result.add(items.get(item));
+			}
+		}
+		return result;
+	}
+}
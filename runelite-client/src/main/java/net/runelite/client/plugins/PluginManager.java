@@ -25,6 +25,7 @@
 package net.runelite.client.plugins;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.graph.Graph;
@@ -33,22 +34,38 @@ import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Binder;
 import com.google.inject.CreationException;
 import com.google.inject.Injector;
 import com.google.inject.Key;
 import com.google.inject.Module;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -81,6 +98,17 @@ public class PluginManager
 	 */
 	private static final String PLUGIN_PACKAGE = "net.runelite.client.plugins";
 
+	/**
+	 * Index of plugin classes generated at build time by the plugin index processor
+	 */
+	@VisibleForTesting
+	static final String PLUGIN_INDEX = "META-INF/runelite/plugins";
+
+	/**
+	 * Maximum number of threads used to instantiate plugins
+	 */
+	private static final int MAX_INSTANTIATION_THREADS = 4;
+
 	private final boolean developerMode;
 	private final EventBus eventBus;
 	private final Scheduler scheduler;
@@ -89,6 +117,7 @@ public class PluginManager
 	private final Provider<GameEventManager> sceneTileManager;
 	private final List<Plugin> plugins = new CopyOnWriteArrayList<>();
 	private final List<Plugin> activePlugins = new CopyOnWriteArrayList<>();
+	private final Map<Class<? extends Plugin>, Long> instantiationTimes = new ConcurrentHashMap<>();
 	private final String runeliteGroupName = RuneLiteConfig.class
 			.getAnnotation(ConfigGroup.class).value();
 
@@ -200,11 +229,14 @@ public class PluginManager
 	public void startCorePlugins()
 	{
 		List<Plugin> scannedPlugins = new ArrayList<>(plugins);
+		Map<Plugin, Long> startTimes = new HashMap<>();
 		for (Plugin plugin : scannedPlugins)
 		{
 			try
 			{
+				long start = System.nanoTime();
 				startPlugin(plugin);
+				startTimes.put(plugin, System.nanoTime() - start);
 			}
 			catch (PluginInstantiationException ex)
 			{
@@ -212,6 +244,35 @@ public class PluginManager
 				plugins.remove(plugin);
 			}
 		}
+
+		logStartupTimes(startTimes);
+	}
+
+	/**
+	 * Log how long each plugin took to instantiate and start, most expensive first
+	 */
+	private void logStartupTimes(Map<Plugin, Long> startTimes)
+	{
+		if (!log.isDebugEnabled())
+		{
+			return;
+		}
+
+		long total = 0;
+		StringBuilder report = new StringBuilder();
+		List<Plugin> sorted = new ArrayList<>(startTimes.keySet());
+		sorted.sort(Comparator.comparingLong((Plugin p) -> startTimes.get(p) + instantiationTimes.getOrDefault(p.getClass(), 0L)).reversed());
+		for (Plugin plugin : sorted)
+		{
+			long instantiate = instantiationTimes.getOrDefault(plugin.getClass(), 0L);
+			long start = startTimes.get(plugin);
+			total += instantiate + start;
+
+			report.append(String.format("%n  %-32s instantiate %6.1fms  start %6.1fms",
+				plugin.getClass().getSimpleName(), instantiate / 1e6, start / 1e6));
+		}
+
+		log.debug("Started {} plugins in {}ms:{}", sorted.size(), TimeUnit.NANOSECONDS.toMillis(total), report);
 	}
 
 	List<Plugin> scanAndInstantiate(ClassLoader classLoader, String packageName) throws IOException
@@ -220,14 +281,8 @@ public class PluginManager
 			.directed()
 			.build();
 
-		List<Plugin> scannedPlugins = new ArrayList<>();
-		ClassPath classPath = ClassPath.from(classLoader);
-
-		ImmutableSet<ClassInfo> classes = packageName == null ? classPath.getAllClasses()
-			: classPath.getTopLevelClassesRecursive(packageName);
-		for (ClassInfo classInfo : classes)
+		for (Class<?> clazz : findPluginClasses(classLoader, packageName))
 		{
-			Class<?> clazz = classInfo.load();
 			PluginDescriptor pluginDescriptor = clazz.getAnnotation(PluginDescriptor.class);
 
 			if (pluginDescriptor == null)
@@ -280,23 +335,133 @@ public class PluginManager
 		List<Class<? extends Plugin>> sortedPlugins = topologicalSort(graph);
 		sortedPlugins = Lists.reverse(sortedPlugins);
 
-		for (Class<? extends Plugin> pluginClazz : sortedPlugins)
+		// Plugins only depend on plugins in earlier levels, so each level can be instantiated in parallel.
+		// See instantiate for what runs concurrently.
+		int threads = Math.max(1, Math.min(MAX_INSTANTIATION_THREADS, Runtime.getRuntime().availableProcessors()));
+		ExecutorService instantiationExecutor = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+			.setNameFormat("plugin-loader-%d")
+			.setDaemon(true)
+			.build());
+		try
 		{
-			Plugin plugin;
-			try
+			List<Plugin> scannedPlugins = new CopyOnWriteArrayList<>();
+			for (List<Class<? extends Plugin>> level : dependencyLevels(graph, sortedPlugins))
 			{
-				plugin = instantiate(scannedPlugins, (Class<Plugin>) pluginClazz);
+				List<Future<Plugin>> futures = new ArrayList<>(level.size());
+				for (Class<? extends Plugin> pluginClazz : level)
+				{
+					futures.add(instantiationExecutor.submit(() ->
+					{
+						long start = System.nanoTime();
+						Plugin plugin = instantiate(scannedPlugins, (Class<Plugin>) pluginClazz);
+						instantiationTimes.put(pluginClazz, System.nanoTime() - start);
+						return plugin;
+					}));
+				}
+
+				// Collect in submission order so the plugin order doesn't depend on scheduling
+				for (Future<Plugin> future : futures)
+				{
+					try
+					{
+						scannedPlugins.add(future.get());
+					}
+					catch (ExecutionException ex)
+					{
+						log.warn("Error instantiating plugin!", ex.getCause());
+					}
+					catch (InterruptedException ex)
+					{
+						Thread.currentThread().interrupt();
+						throw new IOException("Interrupted while instantiating plugins", ex);
+					}
+				}
 			}
-			catch (PluginInstantiationException ex)
+
+			return new ArrayList<>(scannedPlugins);
+		}
+		finally
+		{
+			instantiationExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Find the candidate plugin classes. This uses the index generated at build time if
+	 * there is one, and otherwise falls back to scanning the classpath.
+	 */
+	@VisibleForTesting
+	static List<Class<?>> findPluginClasses(ClassLoader classLoader, String packageName) throws IOException
+	{
+		List<Class<?>> classes = new ArrayList<>();
+		Enumeration<URL> indexes = classLoader.getResources(PLUGIN_INDEX);
+		while (indexes.hasMoreElements())
+		{
+			URL index = indexes.nextElement();
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8)))
 			{
-				log.warn("Error instantiating plugin!", ex);
-				continue;
+				String className;
+				while ((className = reader.readLine()) != null)
+				{
+					if (className.isEmpty() || (packageName != null && !className.startsWith(packageName + ".")))
+					{
+						continue;
+					}
+
+					try
+					{
+						classes.add(Class.forName(className, false, classLoader));
+					}
+					catch (ClassNotFoundException ex)
+					{
+						log.warn("Indexed plugin {} does not exist", className);
+					}
+				}
 			}
+		}
 
-			scannedPlugins.add(plugin);
+		if (!classes.isEmpty())
+		{
+			log.debug("Loaded {} plugin classes from index", classes.size());
+			return classes;
+		}
+
+		log.debug("No plugin index found, scanning classpath");
+		ClassPath classPath = ClassPath.from(classLoader);
+		ImmutableSet<ClassInfo> classInfos = packageName == null ? classPath.getAllClasses()
+			: classPath.getTopLevelClassesRecursive(packageName);
+		for (ClassInfo classInfo : classInfos)
+		{
+			classes.add(classInfo.load());
 		}
+		return classes;
+	}
+
+	/**
+	 * Group the topologically sorted plugins into levels, where each plugin is in
+	 * the level after the deepest of its dependencies.
+	 */
+	@VisibleForTesting
+	static <T> List<List<T>> dependencyLevels(Graph<T> graph, List<T> sorted)
+	{
+		Map<T, Integer> depth = new HashMap<>();
+		List<List<T>> levels = new ArrayList<>();
+		for (T node : sorted)
+		{
+			int d = 0;
+			for (T dependency : graph.successors(node))
+			{
+				d = Math.max(d, depth.get(dependency) + 1);
+			}
+			depth.put(node, d);
 
-		return scannedPlugins;
+			if (d == levels.size())
+			{
+				levels.add(new ArrayList<>());
+			}
+			levels.get(d).add(node);
+		}
+		return levels;
 	}
 
 	public synchronized boolean startPlugin(Plugin plugin) throws PluginInstantiationException
@@ -404,6 +569,19 @@ public class PluginManager
 		return pluginDescriptor == null || pluginDescriptor.enabledByDefault();
 	}
 
+	/**
+	 * Construct a plugin and create its child injector. This is called concurrently for the
+	 * plugins within a dependency level, so it is only safe for construction paths which are:
+	 * <ul>
+	 * <li>creating the child injector, and the just-in-time bindings it makes on the parent injector.
+	 * Guice serializes both on the lock shared by the whole injector hierarchy.</li>
+	 * <li>injecting members and calling provider methods of the plugin module. Singletons are
+	 * created once by Guice's singleton scope, which is thread-safe.</li>
+	 * <li>the plugin constructor and field initializers, provided they only touch the plugin's
+	 * own state. Plugins must not use the client, the event thread or other plugins before
+	 * startUp, which still runs on the event thread.</li>
+	 * </ul>
+	 */
 	private Plugin instantiate(List<Plugin> scannedPlugins, Class<Plugin> clazz) throws PluginInstantiationException
 	{
 		PluginDependency[] pluginDependencies = clazz.getAnnotationsByType(PluginDependency.class);
@@ -527,7 +705,7 @@ public class PluginManager
 
 			l.add(n);
 
-			for (T m : graphCopy.successors(n))
+			for (T m : ImmutableList.copyOf(graphCopy.successors(n)))
 			{
 				graphCopy.removeEdge(n, m);
 				if (graphCopy.inDegree(m) == 0)
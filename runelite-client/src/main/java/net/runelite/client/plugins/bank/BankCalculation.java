@@ -25,10 +25,8 @@
 package net.runelite.client.plugins.bank;
 
 import com.google.common.collect.ImmutableList;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import javax.inject.Inject;
 import lombok.Getter;
@@ -38,7 +36,6 @@ import net.runelite.api.InventoryID;
 import net.runelite.api.Item;
 import net.runelite.api.ItemComposition;
 import net.runelite.api.ItemContainer;
-import net.runelite.api.ItemID;
 import static net.runelite.api.ItemID.COINS_995;
 import static net.runelite.api.ItemID.PLATINUM_TOKEN;
 import net.runelite.api.Varbits;
@@ -118,7 +115,9 @@ class BankCalculation
 
 		gePrice = haPrice = 0;
 
-		List<Integer> itemIds = new ArrayList<>();
+		final int[] itemIds = new int[items.length];
+		final int[] quantities = new int[items.length];
+		int geItems = 0;
 
 		// Generate our lists (and do some quick price additions)
 		for (Item item : items)
@@ -148,7 +147,8 @@ class BankCalculation
 
 			if (config.showGE())
 			{
-				itemIds.add(item.getId());
+				itemIds[geItems] = item.getId();
+				quantities[geItems++] = quantity;
 			}
 
 			if (config.showHA())
@@ -164,20 +164,14 @@ class BankCalculation
 		}
 
 		// Now do the calculations
-		if (config.showGE() && !itemIds.isEmpty())
+		if (geItems > 0)
 		{
-			for (Item item : items)
-			{
-				int itemId = item.getId();
-				int quantity = item.getQuantity();
+			final long[] prices = new long[geItems];
+			itemManager.getItemPrices(Arrays.copyOf(itemIds, geItems), prices);
 
-				if (itemId <= 0 || quantity == 0
-					|| itemId == ItemID.COINS_995 || itemId == ItemID.PLATINUM_TOKEN)
-				{
-					continue;
-				}
-
-				gePrice += (long) itemManager.getItemPrice(itemId) * quantity;
+			for (int i = 0; i < geItems; ++i)
+			{
+				gePrice += prices[i] * quantities[i];
 			}
 		}
 	}
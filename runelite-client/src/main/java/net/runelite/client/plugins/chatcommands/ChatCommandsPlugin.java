@@ -63,6 +63,8 @@ import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.util.StackFormatter;
 import static net.runelite.client.util.Text.sanitize;
 import net.runelite.http.api.chat.ChatClient;
+import net.runelite.http.api.chat.ChatLookup;
+import net.runelite.http.api.chat.ChatLookupType;
 import net.runelite.http.api.hiscore.HiscoreClient;
 import net.runelite.http.api.hiscore.HiscoreEndpoint;
 import net.runelite.http.api.hiscore.HiscoreResult;
@@ -98,6 +100,7 @@ public class ChatCommandsPlugin extends Plugin
 
 	private final HiscoreClient hiscoreClient = new HiscoreClient();
 	private final ChatClient chatClient = new ChatClient();
+	private ChatLookupBatcher chatLookupBatcher;
 
 	private boolean logKills;
 	private HiscoreEndpoint hiscoreEndpoint; // hiscore endpoint for current player
@@ -133,6 +136,7 @@ public class ChatCommandsPlugin extends Plugin
 	@Override
 	public void startUp()
 	{
+		chatLookupBatcher = new ChatLookupBatcher(chatClient, executor);
 		keyManager.registerKeyListener(chatKeyboardListener);
 
 		chatCommandManager.registerCommandAsync(TOTAL_LEVEL_COMMAND_STRING, this::playerSkillLookup);
@@ -384,33 +388,32 @@ public class ChatCommandsPlugin extends Plugin
 			player = sanitize(chatMessage.getName());
 		}
 
-		search = longBossName(search);
+		final String boss = longBossName(search);
 
-		final int kc;
-		try
-		{
-			kc = chatClient.getKc(player, search);
-		}
-		catch (IOException ex)
-		{
-			log.debug("unable to lookup killcount", ex);
-			return;
-		}
+		chatLookupBatcher.lookup(new ChatLookup(ChatLookupType.KILLCOUNT, player, boss))
+			.whenComplete((result, ex) ->
+			{
+				if (ex != null || result.getValue() == null)
+				{
+					log.debug("unable to lookup killcount", ex);
+					return;
+				}
 
-		String response = new ChatMessageBuilder()
-			.append(ChatColorType.HIGHLIGHT)
-			.append(search)
-			.append(ChatColorType.NORMAL)
-			.append(" kill count: ")
-			.append(ChatColorType.HIGHLIGHT)
-			.append(Integer.toString(kc))
-			.build();
-
-		log.debug("Setting response {}", response);
-		final MessageNode messageNode = chatMessage.getMessageNode();
-		messageNode.setRuneLiteFormatMessage(response);
-		chatMessageManager.update(messageNode);
-		client.refreshChat();
+				String response = new ChatMessageBuilder()
+					.append(ChatColorType.HIGHLIGHT)
+					.append(boss)
+					.append(ChatColorType.NORMAL)
+					.append(" kill count: ")
+					.append(ChatColorType.HIGHLIGHT)
+					.append(Integer.toString(result.getValue()))
+					.build();
+
+				log.debug("Setting response {}", response);
+				final MessageNode messageNode = chatMessage.getMessageNode();
+				messageNode.setRuneLiteFormatMessage(response);
+				chatMessageManager.update(messageNode);
+				client.refreshChat();
+			});
 	}
 
 	private void questPointsLookup(ChatMessage chatMessage, String message)
@@ -432,29 +435,28 @@ public class ChatCommandsPlugin extends Plugin
 			player = sanitize(chatMessage.getName());
 		}
 
-		int qp;
-		try
-		{
-			qp = chatClient.getQp(player);
-		}
-		catch (IOException ex)
-		{
-			log.debug("unable to lookup quest points", ex);
-			return;
-		}
+		chatLookupBatcher.lookup(new ChatLookup(ChatLookupType.QUEST_POINTS, player, null))
+			.whenComplete((result, ex) ->
+			{
+				if (ex != null || result.getValue() == null)
+				{
+					log.debug("unable to lookup quest points", ex);
+					return;
+				}
 
-		String response = new ChatMessageBuilder()
-			.append(ChatColorType.NORMAL)
-			.append("Quest points: ")
-			.append(ChatColorType.HIGHLIGHT)
-			.append(Integer.toString(qp))
-			.build();
-
-		log.debug("Setting response {}", response);
-		final MessageNode messageNode = chatMessage.getMessageNode();
-		messageNode.setRuneLiteFormatMessage(response);
-		chatMessageManager.update(messageNode);
-		client.refreshChat();
+				String response = new ChatMessageBuilder()
+					.append(ChatColorType.NORMAL)
+					.append("Quest points: ")
+					.append(ChatColorType.HIGHLIGHT)
+					.append(Integer.toString(result.getValue()))
+					.build();
+
+				log.debug("Setting response {}", response);
+				final MessageNode messageNode = chatMessage.getMessageNode();
+				messageNode.setRuneLiteFormatMessage(response);
+				chatMessageManager.update(messageNode);
+				client.refreshChat();
+			});
 	}
 
 	private boolean questPointsSubmit(ChatInput chatInput, String value)
@@ -506,36 +508,36 @@ public class ChatCommandsPlugin extends Plugin
 			player = sanitize(chatMessage.getName());
 		}
 
-		search = longBossName(search);
+		final String boss = longBossName(search);
 
-		final int pb;
-		try
-		{
-			pb = chatClient.getPb(player, search);
-		}
-		catch (IOException ex)
-		{
-			log.debug("unable to lookup personal best", ex);
-			return;
-		}
+		chatLookupBatcher.lookup(new ChatLookup(ChatLookupType.PERSONAL_BEST, player, boss))
+			.whenComplete((result, ex) ->
+			{
+				if (ex != null || result.getValue() == null)
+				{
+					log.debug("unable to lookup personal best", ex);
+					return;
+				}
 
-		int minutes = pb / 60;
-		int seconds = pb % 60;
-
-		String response = new ChatMessageBuilder()
-			.append(ChatColorType.HIGHLIGHT)
-			.append(search)
-			.append(ChatColorType.NORMAL)
-			.append(" personal best: ")
-			.append(ChatColorType.HIGHLIGHT)
-			.append(String.format("%d:%02d", minutes, seconds))
-			.build();
-
-		log.debug("Setting response {}", response);
-		final MessageNode messageNode = chatMessage.getMessageNode();
-		messageNode.setRuneLiteFormatMessage(response);
-		chatMessageManager.update(messageNode);
-		client.refreshChat();
+				int pb = result.getValue();
+				int minutes = pb / 60;
+				int seconds = pb % 60;
+
+				String response = new ChatMessageBuilder()
+					.append(ChatColorType.HIGHLIGHT)
+					.append(boss)
+					.append(ChatColorType.NORMAL)
+					.append(" personal best: ")
+					.append(ChatColorType.HIGHLIGHT)
+					.append(String.format("%d:%02d", minutes, seconds))
+					.build();
+
+				log.debug("Setting response {}", response);
+				final MessageNode messageNode = chatMessage.getMessageNode();
+				messageNode.setRuneLiteFormatMessage(response);
+				chatMessageManager.update(messageNode);
+				client.refreshChat();
+			});
 	}
 
 	private boolean personalBestSubmit(ChatInput chatInput, String value)
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.chatcommands;
+
+import com.google.common.collect.Lists;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.http.api.chat.ChatClient;
+import net.runelite.http.api.chat.ChatLookup;
+import net.runelite.http.api.chat.ChatLookupResult;
+
+/**
+ * Coalesces chat command lookups made within a short window into a single request,
+ * so a busy chat full of commands is resolved in one round trip.
+ */
+@Slf4j
+class ChatLookupBatcher
+{
+	private static final long BATCH_DELAY_MS = 50;
+
+	private final ChatClient chatClient;
+	private final ScheduledExecutorService executor;
+
+	private final List<ChatLookup> lookups = new ArrayList<>();
+	private final List<CompletableFuture<ChatLookupResult>> futures = new ArrayList<>();
+
+	ChatLookupBatcher(ChatClient chatClient, ScheduledExecutorService executor)
+	{
+		this.chatClient = chatClient;
+		this.executor = executor;
+	}
+
+	/**
+	 * Queue a lookup. The returned future is completed from the executor.
+	 *
+	 * @param lookup value to look up
+	 * @return the lookup result
+	 */
+	synchronized CompletableFuture<ChatLookupResult> lookup(ChatLookup lookup)
+	{
+		CompletableFuture<ChatLookupResult> future = new CompletableFuture<>();
+
+		if (lookups.isEmpty())
+		{
+			executor.schedule(this::flush, BATCH_DELAY_MS, TimeUnit.MILLISECONDS);
+		}
+
+		lookups.add(lookup);
+		futures.add(future);
+		return future;
+	}
+
+	void flush()
+	{
+		final List<ChatLookup> lookups;
+		final List<CompletableFuture<ChatLookupResult>> futures;
+
+		synchronized (this)
+		{
+			lookups = new ArrayList<>(this.lookups);
+			futures = new ArrayList<>(this.futures);
+			this.lookups.clear();
+			this.futures.clear();
+		}
+
+		final List<List<ChatLookup>> batches = Lists.partition(lookups, ChatClient.MAX_LOOKUPS);
+		final List<List<CompletableFuture<ChatLookupResult>>> futureBatches = Lists.partition(futures, ChatClient.MAX_LOOKUPS);
+
+		for (int i = 0; i < batches.size(); ++i)
+		{
+			final List<CompletableFuture<ChatLookupResult>> batchFutures = futureBatches.get(i);
+
+			try
+			{
+				final List<ChatLookupResult> results = chatClient.lookup(batches.get(i));
+				log.debug("Looked up {} chat values", results.size());
+
+				for (int j = 0; j < results.size(); ++j)
+				{
+					batchFutures.get(j).complete(results.get(j));
+				}
+			}
+			catch (IOException ex)
+			{
+				for (CompletableFuture<ChatLookupResult> future : batchFutures)
+				{
+					future.completeExceptionally(ex);
+				}
+			}
+		}
+	}
+}
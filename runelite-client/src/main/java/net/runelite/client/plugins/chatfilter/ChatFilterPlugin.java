@@ -27,6 +27,8 @@ package net.runelite.client.plugins.chatfilter;
 import com.google.common.base.Splitter;
 import com.google.inject.Provides;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -43,6 +45,7 @@ import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.util.MultiPatternMatcher;
 import net.runelite.client.util.Text;
 import org.apache.commons.lang3.StringUtils;
 
@@ -62,6 +65,7 @@ public class ChatFilterPlugin extends Plugin
 
 	private final JagexPrintableCharMatcher jagexPrintableCharMatcher = new JagexPrintableCharMatcher();
 	private final List<Pattern> filteredPatterns = new ArrayList<>();
+	private MultiPatternMatcher filteredWords;
 
 	@Inject
 	private Client client;
@@ -84,6 +88,7 @@ public class ChatFilterPlugin extends Plugin
 	@Override
 	protected void shutDown() throws Exception
 	{
+		filteredWords = null;
 		filteredPatterns.clear();
 	}
 
@@ -154,6 +159,30 @@ public class ChatFilterPlugin extends Plugin
 		String strippedMessage = jagexPrintableCharMatcher.retainFrom(message)
 			.replace('\u00A0', ' ');
 		boolean filtered = false;
+
+		List<MultiPatternMatcher.Match> words = filteredWords != null
+			? filteredWords.findAll(strippedMessage, false)
+			: Collections.emptyList();
+		if (!words.isEmpty())
+		{
+			switch (config.filterType())
+			{
+				case CENSOR_WORDS:
+					char[] chars = strippedMessage.toCharArray();
+					for (MultiPatternMatcher.Match word : words)
+					{
+						Arrays.fill(chars, word.getStart(), word.getEnd(), '*');
+					}
+					strippedMessage = new String(chars);
+					filtered = true;
+					break;
+				case CENSOR_MESSAGE:
+					return CENSOR_MESSAGE;
+				case REMOVE_MESSAGE:
+					return null;
+			}
+		}
+
 		for (Pattern pattern : filteredPatterns)
 		{
 			Matcher m = pattern.matcher(strippedMessage);
@@ -186,9 +215,7 @@ public class ChatFilterPlugin extends Plugin
 	{
 		filteredPatterns.clear();
 
-		Text.fromCSV(config.filteredWords()).stream()
-			.map(s -> Pattern.compile(Pattern.quote(s), Pattern.CASE_INSENSITIVE))
-			.forEach(filteredPatterns::add);
+		filteredWords = MultiPatternMatcher.compileLiterals(Text.fromCSV(config.filteredWords()));
 
 		NEWLINE_SPLITTER.splitToList(config.filteredRegex()).stream()
 			.map(s ->
@@ -31,7 +31,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import static java.util.regex.Pattern.quote;
-import java.util.stream.Collectors;
 import javax.inject.Inject;
 import net.runelite.api.Client;
 import net.runelite.api.MessageNode;
@@ -46,6 +45,7 @@ import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.util.MultiPatternMatcher;
 import net.runelite.client.util.Text;
 
 @PluginDescriptor(
@@ -74,7 +74,7 @@ public class ChatNotificationsPlugin extends Plugin
 	//Custom Highlights
 	private Pattern usernameMatcher = null;
 	private String usernameReplacer = "";
-	private Pattern highlightMatcher = null;
+	private MultiPatternMatcher highlightMatcher = null;
 
 	@Provides
 	ChatNotificationsConfig provideConfig(ConfigManager configManager)
@@ -116,10 +116,7 @@ public class ChatNotificationsPlugin extends Plugin
 		if (!config.highlightWordsString().trim().equals(""))
 		{
 			List<String> items = Text.fromCSV(config.highlightWordsString());
-			String joined = items.stream()
-				.map(Pattern::quote)
-				.collect(Collectors.joining("|"));
-			highlightMatcher = Pattern.compile("\\b(" + joined + ")\\b", Pattern.CASE_INSENSITIVE);
+			highlightMatcher = MultiPatternMatcher.compileLiterals(items);
 		}
 	}
 
@@ -177,22 +174,24 @@ public class ChatNotificationsPlugin extends Plugin
 
 		if (highlightMatcher != null)
 		{
-			Matcher matcher = highlightMatcher.matcher(nodeValue);
-			boolean found = false;
-			StringBuffer stringBuffer = new StringBuffer();
+			List<MultiPatternMatcher.Match> matches = highlightMatcher.findAll(nodeValue, true);
 
-			while (matcher.find())
+			if (!matches.isEmpty())
 			{
-				String value = matcher.group();
-				matcher.appendReplacement(stringBuffer, "<col" + ChatColorType.HIGHLIGHT + ">" + value + "<col" + ChatColorType.NORMAL + ">");
-				update = true;
-				found = true;
-			}
+				StringBuilder stringBuilder = new StringBuilder();
+				int last = 0;
+				for (MultiPatternMatcher.Match match : matches)
+				{
+					stringBuilder.append(nodeValue, last, match.getStart())
+						.append("<col").append(ChatColorType.HIGHLIGHT).append('>')
+						.append(nodeValue, match.getStart(), match.getEnd())
+						.append("<col").append(ChatColorType.NORMAL).append('>');
+					last = match.getEnd();
+				}
+				stringBuilder.append(nodeValue, last, nodeValue.length());
 
-			if (found)
-			{
-				matcher.appendTail(stringBuffer);
-				messageNode.setValue(stringBuffer.toString());
+				update = true;
+				messageNode.setValue(stringBuilder.toString());
 
 				if (config.notifyOnHighlight())
 				{
@@ -30,7 +30,25 @@ import java.nio.FloatBuffer;
 
 class GpuFloatBuffer
 {
-	private FloatBuffer buffer = allocateDirect(65536);
+	private final boolean direct;
+	private FloatBuffer buffer;
+
+	GpuFloatBuffer()
+	{
+		this(65536, true);
+	}
+
+	/**
+	 * @param size   initial capacity
+	 * @param direct whether to back the buffer with native memory. Heap buffers
+	 *               are used for scratch space which is copied into a direct
+	 *               buffer before being handed to GL.
+	 */
+	GpuFloatBuffer(int size, boolean direct)
+	{
+		this.direct = direct;
+		this.buffer = allocate(size);
+	}
 
 	void put(float texture, float u, float v, float pad)
 	{
@@ -51,18 +69,39 @@ class GpuFloatBuffer
 	{
 		while (buffer.remaining() < size)
 		{
-			FloatBuffer newB = allocateDirect(buffer.capacity() * 2);
+			FloatBuffer newB = allocate(buffer.capacity() * 2);
 			buffer.flip();
 			newB.put(buffer);
 			buffer = newB;
 		}
 	}
 
+	/**
+	 * Append a range of another buffer, which may have been cleared since the range was written
+	 *
+	 * @param other  the buffer to copy from
+	 * @param offset the start of the range
+	 * @param length the length of the range
+	 */
+	void put(GpuFloatBuffer other, int offset, int length)
+	{
+		FloatBuffer src = other.buffer.duplicate();
+		src.limit(offset + length);
+		src.position(offset);
+		ensureCapacity(length);
+		buffer.put(src);
+	}
+
 	FloatBuffer getBuffer()
 	{
 		return buffer;
 	}
 
+	private FloatBuffer allocate(int size)
+	{
+		return direct ? allocateDirect(size) : FloatBuffer.allocate(size);
+	}
+
 	static FloatBuffer allocateDirect(int size)
 	{
 		return ByteBuffer.allocateDirect(size * Float.BYTES)
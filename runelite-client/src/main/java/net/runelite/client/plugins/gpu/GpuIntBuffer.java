@@ -30,7 +30,25 @@ import java.nio.IntBuffer;
 
 class GpuIntBuffer
 {
-	private IntBuffer buffer = allocateDirect(65536);
+	private final boolean direct;
+	private IntBuffer buffer;
+
+	GpuIntBuffer()
+	{
+		this(65536, true);
+	}
+
+	/**
+	 * @param size   initial capacity
+	 * @param direct whether to back the buffer with native memory. Heap buffers
+	 *               are used for scratch space which is copied into a direct
+	 *               buffer before being handed to GL.
+	 */
+	GpuIntBuffer(int size, boolean direct)
+	{
+		this.direct = direct;
+		this.buffer = allocate(size);
+	}
 
 	void put(int x, int y, int z)
 	{
@@ -56,18 +74,39 @@ class GpuIntBuffer
 	{
 		while (buffer.remaining() < size)
 		{
-			IntBuffer newB = allocateDirect(buffer.capacity() * 2);
+			IntBuffer newB = allocate(buffer.capacity() * 2);
 			buffer.flip();
 			newB.put(buffer);
 			buffer = newB;
 		}
 	}
 
+	/**
+	 * Append a range of another buffer, which may have been cleared since the range was written
+	 *
+	 * @param other  the buffer to copy from
+	 * @param offset the start of the range
+	 * @param length the length of the range
+	 */
+	void put(GpuIntBuffer other, int offset, int length)
+	{
+		IntBuffer src = other.buffer.duplicate();
+		src.limit(offset + length);
+		src.position(offset);
+		ensureCapacity(length);
+		buffer.put(src);
+	}
+
 	IntBuffer getBuffer()
 	{
 		return buffer;
 	}
 
+	private IntBuffer allocate(int size)
+	{
+		return direct ? allocateDirect(size) : IntBuffer.allocate(size);
+	}
+
 	static IntBuffer allocateDirect(int size)
 	{
 		return ByteBuffer.allocateDirect(size * Integer.BYTES)
@@ -78,6 +78,8 @@ import static net.runelite.client.plugins.gpu.GLUtil.*;
 import net.runelite.client.plugins.gpu.config.AntiAliasingMode;
 import net.runelite.client.plugins.gpu.template.Template;
 import net.runelite.client.ui.DrawManager;
+import net.runelite.client.ui.FrameGrabber;
+import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.OSType;
 
 @PluginDescriptor(
@@ -117,6 +119,15 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 	@Inject
 	private PluginManager pluginManager;
 
+	@Inject
+	private OverlayManager overlayManager;
+
+	@Inject
+	private TempModelCache modelCache;
+
+	@Inject
+	private ModelCacheOverlay modelCacheOverlay;
+
 	private Canvas canvas;
 	private JAWTWindow jawtWindow;
 	private GL4 gl;
@@ -166,6 +177,12 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 	private GpuIntBuffer vertexBuffer;
 	private GpuFloatBuffer uvBuffer;
 
+	/**
+	 * temporary vertex and uv buffers of the previous frame
+	 */
+	private GpuIntBuffer lastVertexBuffer;
+	private GpuFloatBuffer lastUvBuffer;
+
 	private GpuIntBuffer modelBufferUnordered;
 	private GpuIntBuffer modelBufferSmall;
 	private GpuIntBuffer modelBuffer;
@@ -226,6 +243,8 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 	@Override
 	protected void startUp()
 	{
+		overlayManager.add(modelCacheOverlay);
+
 		clientThread.invoke(() ->
 		{
 			try
@@ -235,6 +254,9 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 
 				vertexBuffer = new GpuIntBuffer();
 				uvBuffer = new GpuFloatBuffer();
+				lastVertexBuffer = new GpuIntBuffer();
+				lastUvBuffer = new GpuFloatBuffer();
+				modelCache.clear();
 
 				modelBufferUnordered = new GpuIntBuffer();
 				modelBufferSmall = new GpuIntBuffer();
@@ -345,6 +367,8 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 	@Override
 	protected void shutDown()
 	{
+		overlayManager.remove(modelCacheOverlay);
+
 		clientThread.invoke(() ->
 		{
 			client.setGpu(false);
@@ -404,6 +428,9 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 
 			vertexBuffer = null;
 			uvBuffer = null;
+			lastVertexBuffer = null;
+			lastUvBuffer = null;
+			modelCache.clear();
 
 			modelBufferSmall = null;
 			modelBuffer = null;
@@ -1097,6 +1124,17 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 		tempOffset = 0;
 		tempUvOffset = 0;
 
+		// Keep this frame's temporary models so unchanged models can be copied next frame
+		GpuIntBuffer swapVertexBuffer = this.lastVertexBuffer;
+		this.lastVertexBuffer = this.vertexBuffer;
+		this.vertexBuffer = swapVertexBuffer;
+		GpuFloatBuffer swapUvBuffer = this.lastUvBuffer;
+		this.lastUvBuffer = this.uvBuffer;
+		this.uvBuffer = swapUvBuffer;
+		this.vertexBuffer.clear();
+		this.uvBuffer.clear();
+		modelCache.endFrame();
+
 		glDeleteBuffer(gl, bufferId);
 		glDeleteBuffer(gl, uvBufferId);
 		glDeleteBuffer(gl, modelBufferId);
@@ -1110,7 +1148,7 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 
 		glDrawable.swapBuffers();
 
-		drawManager.processDrawComplete(this::screenshot);
+		drawManager.processDrawComplete(this::screenshot, frameGrabber);
 	}
 
 	private void drawUi(final int canvasHeight, final int canvasWidth)
@@ -1181,6 +1219,46 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 		vertexBuffer.clear();
 	}
 
+	private final FrameGrabber frameGrabber = new FrameGrabber()
+	{
+		private IntBuffer buffer;
+
+		@Override
+		public int getWidth()
+		{
+			return client.isStretchedEnabled() ? client.getStretchedDimensions().width : client.getCanvasWidth();
+		}
+
+		@Override
+		public int getHeight()
+		{
+			return client.isStretchedEnabled() ? client.getStretchedDimensions().height : client.getCanvasHeight();
+		}
+
+		@Override
+		public void grab(int[] pixels)
+		{
+			final int width = getWidth();
+			final int height = getHeight();
+
+			if (buffer == null || buffer.capacity() < width * height)
+			{
+				buffer = GpuIntBuffer.allocateDirect(width * height);
+			}
+			buffer.clear();
+
+			// read as ARGB ints, which only need the rows flipped
+			gl.glReadBuffer(gl.GL_FRONT);
+			gl.glReadPixels(0, 0, width, height, gl.GL_BGRA, gl.GL_UNSIGNED_INT_8_8_8_8_REV, buffer);
+
+			for (int y = 0; y < height; ++y)
+			{
+				buffer.position(y * width);
+				buffer.get(pixels, (height - y - 1) * width, width);
+			}
+		}
+	};
+
 	/**
 	 * Convert the front framebuffer to an Image
 	 *
@@ -1395,31 +1473,70 @@ public class GpuPlugin extends Plugin implements DrawCallbacks
 				boolean hasUv = model.getFaceTextures() != null;
 
 				int faces = Math.min(MAX_TRIANGLE, model.getTrianglesCount());
-				vertexBuffer.ensureCapacity(12 * faces);
-				uvBuffer.ensureCapacity(12 * faces);
-				int len = 0;
-				for (int i = 0; i < faces; ++i)
+				// Models from getModel() are animated into instances shared between renderables,
+				// only a renderable which is itself a model keeps its geometry between draws
+				boolean cacheable = renderable == model;
+				TempModelCache.Entry entry = cacheable ? modelCache.get(model) : null;
+
+				int offset;
+				int uvOffset;
+				int len;
+				if (entry != null && modelCache.isCurrent(entry))
 				{
-					len += sceneUploader.pushFace(model, i, vertexBuffer, uvBuffer);
+					// Already written this frame
+					offset = entry.offset;
+					uvOffset = entry.uvOffset;
+					len = entry.len;
+				}
+				else
+				{
+					offset = tempOffset;
+					uvOffset = hasUv ? tempUvOffset : -1;
+
+					if (entry != null)
+					{
+						// Unchanged since the last frame
+						len = entry.len;
+						vertexBuffer.put(lastVertexBuffer, entry.offset * 4, len * 4);
+						if (hasUv)
+						{
+							uvBuffer.put(lastUvBuffer, entry.uvOffset * 4, len * 4);
+						}
+					}
+					else
+					{
+						vertexBuffer.ensureCapacity(12 * faces);
+						uvBuffer.ensureCapacity(12 * faces);
+						len = 0;
+						for (int i = 0; i < faces; ++i)
+						{
+							len += sceneUploader.pushFace(model, i, vertexBuffer, uvBuffer);
+						}
+					}
+
+					if (cacheable)
+					{
+						modelCache.put(model, offset, uvOffset, len);
+					}
+
+					tempOffset += len;
+					if (hasUv)
+					{
+						tempUvOffset += len;
+					}
 				}
 
 				GpuIntBuffer b = bufferForTriangles(faces);
 
 				b.ensureCapacity(8);
 				IntBuffer buffer = b.getBuffer();
-				buffer.put(tempOffset);
-				buffer.put(hasUv ? tempUvOffset : -1);
+				buffer.put(offset);
+				buffer.put(uvOffset);
 				buffer.put(len / 3);
 				buffer.put(targetBufferOffset);
 				buffer.put((model.getRadius() << 12) | orientation);
 				buffer.put(x + client.getCameraX2()).put(y + client.getCameraY2()).put(z + client.getCameraZ2());
 
-				tempOffset += len;
-				if (hasUv)
-				{
-					tempUvOffset += len;
-				}
-
 				targetBufferOffset += len;
 			}
 		}
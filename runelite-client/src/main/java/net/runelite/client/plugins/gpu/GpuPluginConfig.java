@@ -84,4 +84,15 @@ public interface GpuPluginConfig extends Config
 	{
 		return 0;
 	}
+
+	@ConfigItem(
+		keyName = "modelCacheStats",
+		name = "Model cache stats",
+		description = "Shows how many temporary models were reused from the previous frame",
+		position = 5
+	)
+	default boolean modelCacheStats()
+	{
+		return false;
+	}
 }
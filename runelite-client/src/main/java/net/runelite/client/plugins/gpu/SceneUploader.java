@@ -24,6 +24,13 @@
  */
 package net.runelite.client.plugins.gpu;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import net.runelite.api.Client;
@@ -44,167 +51,199 @@ import net.runelite.api.WallObject;
 @Singleton
 class SceneUploader
 {
+	/**
+	 * Number of x columns of a plane which are uploaded by a single worker
+	 */
+	private static final int CHUNK_WIDTH = 13;
+	private static final int CHUNKS_PER_PLANE = (Constants.SCENE_SIZE + CHUNK_WIDTH - 1) / CHUNK_WIDTH;
+
 	@Inject
 	private Client client;
 
 	int sceneId = (int) (System.currentTimeMillis() / 1000L);
-	private int offset;
-	private int uvoffset;
 
-	void upload(Scene scene, GpuIntBuffer vertexbuffer, GpuFloatBuffer uvBuffer)
+	/**
+	 * Vertices generated by one worker for a range of tiles, along with where
+	 * each paint, tile model and model was placed relative to the start of the chunk
+	 */
+	private static class Chunk
+	{
+		private final GpuIntBuffer vertexBuffer = new GpuIntBuffer(4096, false);
+		private final GpuFloatBuffer uvBuffer = new GpuFloatBuffer(4096, false);
+		private final Set<Model> models = Collections.newSetFromMap(new IdentityHashMap<>());
+		private final List<Object> targets = new ArrayList<>();
+		// offset, uv offset, and length of each target
+		private int[] ranges = new int[96];
+		private int offset;
+		private int uvoffset;
+
+		void add(Object target, int len, boolean textured)
+		{
+			int idx = targets.size() * 3;
+			if (idx + 3 > ranges.length)
+			{
+				ranges = Arrays.copyOf(ranges, ranges.length * 2);
+			}
+
+			ranges[idx] = offset;
+			ranges[idx + 1] = textured ? uvoffset : -1;
+			ranges[idx + 2] = len;
+			targets.add(target);
+
+			offset += len;
+			if (textured)
+			{
+				uvoffset += len;
+			}
+		}
+	}
+
+	void upload(Scene scene, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
 	{
 		++sceneId;
-		offset = 0;
-		uvoffset = 0;
-		vertexbuffer.clear();
+		vertexBuffer.clear();
 		uvBuffer.clear();
 
-		for (int z = 0; z < Constants.MAX_Z; ++z)
+		final Tile[][][] tiles = scene.getTiles();
+		final int[][][] tileHeights = client.getTileHeights();
+
+		// The workers only read from the scene, all of the offsets are assigned below once
+		// the position of each chunk in the final buffer is known
+		final Chunk[] chunks = IntStream.range(0, Constants.MAX_Z * CHUNKS_PER_PLANE)
+			.parallel()
+			.mapToObj(i -> upload(tiles, tileHeights, i / CHUNKS_PER_PLANE, (i % CHUNKS_PER_PLANE) * CHUNK_WIDTH))
+			.toArray(Chunk[]::new);
+
+		final Set<Model> uploaded = Collections.newSetFromMap(new IdentityHashMap<>());
+		int offset = 0;
+		int uvoffset = 0;
+		for (Chunk chunk : chunks)
 		{
-			for (int x = 0; x < Constants.SCENE_SIZE; ++x)
+			final int[] ranges = chunk.ranges;
+			// the vertices of the chunk are copied in runs, leaving out models already copied from an earlier chunk
+			int copied = 0;
+			int uvcopied = 0;
+			int skipped = 0;
+			int uvskipped = 0;
+			for (int i = 0; i < chunk.targets.size(); ++i)
 			{
-				for (int y = 0; y < Constants.SCENE_SIZE; ++y)
+				final Object target = chunk.targets.get(i);
+				final int start = ranges[i * 3];
+				final int uvStart = ranges[i * 3 + 1];
+				final int len = ranges[i * 3 + 2];
+
+				if (target instanceof Model && !uploaded.add((Model) target))
 				{
-					Tile tile = scene.getTiles()[z][x][y];
-					if (tile != null)
+					// A model shared by objects in several chunks is used from the first of them
+					copy(chunk.vertexBuffer, vertexBuffer, copied, start);
+					copied = start + len;
+					skipped += len;
+
+					if (uvStart != -1)
 					{
-						reset(tile);
+						copy(chunk.uvBuffer, uvBuffer, uvcopied, uvStart);
+						uvcopied = uvStart + len;
+						uvskipped += len;
 					}
+					continue;
 				}
-			}
-		}
 
-		for (int z = 0; z < Constants.MAX_Z; ++z)
-		{
-			for (int x = 0; x < Constants.SCENE_SIZE; ++x)
-			{
-				for (int y = 0; y < Constants.SCENE_SIZE; ++y)
+				final int bufferOffset = offset + start - skipped;
+				final int uvBufferOffset = uvStart == -1 ? -1 : uvoffset + uvStart - uvskipped;
+
+				if (target instanceof Model)
 				{
-					Tile tile = scene.getTiles()[z][x][y];
-					if (tile != null)
-					{
-						upload(tile, vertexbuffer, uvBuffer);
-					}
+					Model model = (Model) target;
+
+					model.setBufferOffset(bufferOffset);
+					model.setUvBufferOffset(uvBufferOffset);
+					model.setSceneId(sceneId);
+				}
+				else if (target instanceof SceneTilePaint)
+				{
+					SceneTilePaint sceneTilePaint = (SceneTilePaint) target;
+					sceneTilePaint.setBufferOffset(bufferOffset);
+					sceneTilePaint.setUvBufferOffset(uvBufferOffset);
+					sceneTilePaint.setBufferLen(len);
+				}
+				else
+				{
+					SceneTileModel sceneTileModel = (SceneTileModel) target;
+					sceneTileModel.setBufferOffset(bufferOffset);
+					sceneTileModel.setUvBufferOffset(uvBufferOffset);
+					sceneTileModel.setBufferLen(len);
 				}
 			}
-		}
-	}
 
-	private void reset(Tile tile)
-	{
-		Tile bridge = tile.getBridge();
-		if (bridge != null)
-		{
-			reset(bridge);
-		}
+			copy(chunk.vertexBuffer, vertexBuffer, copied, chunk.offset);
+			copy(chunk.uvBuffer, uvBuffer, uvcopied, chunk.uvoffset);
 
-		SceneTilePaint sceneTilePaint = tile.getSceneTilePaint();
-		if (sceneTilePaint != null)
-		{
-			sceneTilePaint.setBufferOffset(-1);
+			offset += chunk.offset - skipped;
+			uvoffset += chunk.uvoffset - uvskipped;
 		}
+	}
 
-		SceneTileModel sceneTileModel = tile.getSceneTileModel();
-		if (sceneTileModel != null)
+	/**
+	 * Copy the vertices from start up to end
+	 */
+	private static void copy(GpuIntBuffer src, GpuIntBuffer dst, int start, int end)
+	{
+		if (end > start)
 		{
-			sceneTileModel.setBufferOffset(-1);
+			dst.put(src, start * 4, (end - start) * 4);
 		}
+	}
 
-		WallObject wallObject = tile.getWallObject();
-		if (wallObject != null)
+	private static void copy(GpuFloatBuffer src, GpuFloatBuffer dst, int start, int end)
+	{
+		if (end > start)
 		{
-			if (wallObject.getRenderable1() instanceof Model)
-			{
-				((Model) wallObject.getRenderable1()).setBufferOffset(-1);
-			}
-			if (wallObject.getRenderable2() instanceof Model)
-			{
-				((Model) wallObject.getRenderable2()).setBufferOffset(-1);
-			}
+			dst.put(src, start * 4, (end - start) * 4);
 		}
+	}
 
-		GroundObject groundObject = tile.getGroundObject();
-		if (groundObject != null)
-		{
-			if (groundObject.getRenderable() instanceof Model)
-			{
-				((Model) groundObject.getRenderable()).setBufferOffset(-1);
-			}
-		}
+	private Chunk upload(Tile[][][] tiles, int[][][] tileHeights, int z, int startX)
+	{
+		final Chunk chunk = new Chunk();
+		final int endX = Math.min(startX + CHUNK_WIDTH, Constants.SCENE_SIZE);
 
-		DecorativeObject decorativeObject = tile.getDecorativeObject();
-		if (decorativeObject != null)
+		for (int x = startX; x < endX; ++x)
 		{
-			if (decorativeObject.getRenderable() instanceof Model)
+			for (int y = 0; y < Constants.SCENE_SIZE; ++y)
 			{
-				((Model) decorativeObject.getRenderable()).setBufferOffset(-1);
+				Tile tile = tiles[z][x][y];
+				if (tile != null)
+				{
+					upload(chunk, tile, tileHeights);
+				}
 			}
 		}
 
-		GameObject[] gameObjects = tile.getGameObjects();
-		for (GameObject gameObject : gameObjects)
-		{
-			if (gameObject == null)
-			{
-				continue;
-			}
-			if (gameObject.getRenderable() instanceof Model)
-			{
-				((Model) gameObject.getRenderable()).setBufferOffset(-1);
-			}
-		}
+		return chunk;
 	}
 
-	private void upload(Tile tile, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	private void upload(Chunk chunk, Tile tile, int[][][] tileHeights)
 	{
 		Tile bridge = tile.getBridge();
 		if (bridge != null)
 		{
-			upload(bridge, vertexBuffer, uvBuffer);
+			upload(chunk, bridge, tileHeights);
 		}
 
 		SceneTilePaint sceneTilePaint = tile.getSceneTilePaint();
 		if (sceneTilePaint != null)
 		{
-			sceneTilePaint.setBufferOffset(offset);
-			if (sceneTilePaint.getTexture() != -1)
-			{
-				sceneTilePaint.setUvBufferOffset(uvoffset);
-			}
-			else
-			{
-				sceneTilePaint.setUvBufferOffset(-1);
-			}
 			Point tilePoint = tile.getSceneLocation();
-			int len = upload(sceneTilePaint, tile.getRenderLevel(), tilePoint.getX(), tilePoint.getY(), vertexBuffer, uvBuffer);
-			sceneTilePaint.setBufferLen(len);
-			offset += len;
-			if (sceneTilePaint.getTexture() != -1)
-			{
-				uvoffset += len;
-			}
+			int len = upload(sceneTilePaint, tileHeights, tile.getRenderLevel(), tilePoint.getX(), tilePoint.getY(), chunk.vertexBuffer, chunk.uvBuffer);
+			chunk.add(sceneTilePaint, len, sceneTilePaint.getTexture() != -1);
 		}
 
 		SceneTileModel sceneTileModel = tile.getSceneTileModel();
 		if (sceneTileModel != null)
 		{
-			sceneTileModel.setBufferOffset(offset);
-			if (sceneTileModel.getTriangleTextureId() != null)
-			{
-				sceneTileModel.setUvBufferOffset(uvoffset);
-			}
-			else
-			{
-				sceneTileModel.setUvBufferOffset(-1);
-			}
 			Point tilePoint = tile.getSceneLocation();
-			int len = upload(sceneTileModel, tilePoint.getX(), tilePoint.getY(), vertexBuffer, uvBuffer);
-			sceneTileModel.setBufferLen(len);
-			offset += len;
-			if (sceneTileModel.getTriangleTextureId() != null)
-			{
-				uvoffset += len;
-			}
+			int len = upload(sceneTileModel, tilePoint.getX(), tilePoint.getY(), chunk.vertexBuffer, chunk.uvBuffer);
+			chunk.add(sceneTileModel, len, sceneTileModel.getTriangleTextureId() != null);
 		}
 
 		WallObject wallObject = tile.getWallObject();
@@ -213,13 +252,13 @@ class SceneUploader
 			Renderable renderable1 = wallObject.getRenderable1();
 			if (renderable1 instanceof Model)
 			{
-				uploadModel((Model) renderable1, vertexBuffer, uvBuffer);
+				uploadModel(chunk, (Model) renderable1);
 			}
 
 			Renderable renderable2 = wallObject.getRenderable2();
 			if (renderable2 instanceof Model)
 			{
-				uploadModel((Model) renderable2, vertexBuffer, uvBuffer);
+				uploadModel(chunk, (Model) renderable2);
 			}
 		}
 
@@ -229,7 +268,7 @@ class SceneUploader
 			Renderable renderable = groundObject.getRenderable();
 			if (renderable instanceof Model)
 			{
-				uploadModel((Model) renderable, vertexBuffer, uvBuffer);
+				uploadModel(chunk, (Model) renderable);
 			}
 		}
 
@@ -239,13 +278,13 @@ class SceneUploader
 			Renderable renderable = decorativeObject.getRenderable();
 			if (renderable instanceof Model)
 			{
-				uploadModel((Model) renderable, vertexBuffer, uvBuffer);
+				uploadModel(chunk, (Model) renderable);
 			}
 
 			Renderable renderable2 = decorativeObject.getRenderable2();
 			if (renderable2 instanceof Model)
 			{
-				uploadModel((Model) renderable2, vertexBuffer, uvBuffer);
+				uploadModel(chunk, (Model) renderable2);
 			}
 		}
 
@@ -257,18 +296,23 @@ class SceneUploader
 				continue;
 			}
 
+			// Objects larger than a tile are on every tile they cover, generate them only from their origin
+			// tile so that each is owned by a single chunk
+			if (!tile.getSceneLocation().equals(gameObject.getSceneMinLocation()))
+			{
+				continue;
+			}
+
 			Renderable renderable = gameObject.getRenderable();
 			if (renderable instanceof Model)
 			{
-				uploadModel((Model) gameObject.getRenderable(), vertexBuffer, uvBuffer);
+				uploadModel(chunk, (Model) renderable);
 			}
 		}
 	}
 
-	private int upload(SceneTilePaint tile, int tileZ, int tileX, int tileY, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	private int upload(SceneTilePaint tile, int[][][] tileHeights, int tileZ, int tileX, int tileY, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
 	{
-		final int[][][] tileHeights = client.getTileHeights();
-
 		final int localX = 0;
 		final int localY = 0;
 
@@ -413,39 +457,24 @@ class SceneUploader
 		return cnt;
 	}
 
-	private void uploadModel(Model model, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
+	private void uploadModel(Chunk chunk, Model model)
 	{
-		if (model.getBufferOffset() > 0)
+		if (!chunk.models.add(model))
 		{
 			return;
 		}
 
-		model.setBufferOffset(offset);
-		if (model.getFaceTextures() != null)
-		{
-			model.setUvBufferOffset(uvoffset);
-		}
-		else
-		{
-			model.setUvBufferOffset(-1);
-		}
-		model.setSceneId(sceneId);
-
-		vertexBuffer.ensureCapacity(model.getTrianglesCount() * 12);
-		uvBuffer.ensureCapacity(model.getTrianglesCount() * 12);
-
 		final int triangleCount = model.getTrianglesCount();
+		chunk.vertexBuffer.ensureCapacity(triangleCount * 12);
+		chunk.uvBuffer.ensureCapacity(triangleCount * 12);
+
 		int len = 0;
 		for (int i = 0; i < triangleCount; ++i)
 		{
-			len += pushFace(model, i, vertexBuffer, uvBuffer);
+			len += pushFace(model, i, chunk.vertexBuffer, chunk.uvBuffer);
 		}
 
-		offset += len;
-		if (model.getFaceTextures() != null)
-		{
-			uvoffset += len;
-		}
+		chunk.add(model, len, model.getFaceTextures() != null);
 	}
 
 	int pushFace(Model model, int face, GpuIntBuffer vertexBuffer, GpuFloatBuffer uvBuffer)
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import javax.inject.Singleton;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.runelite.api.Model;
+
+/**
+ * Tracks where temporary models were written to the temporary vertex buffer, so
+ * a model drawn again in the same frame can point at the same vertices, and a
+ * model which has not changed since the last frame can be copied instead of
+ * being pushed face by face.
+ * <p>
+ * Models are looked up by identity, and a hit is checked against the vertex array
+ * and counts the model had when it was written. This only holds for models whose
+ * geometry is not changed in place, so animated models, which the client builds
+ * into shared instances, must not be cached.
+ */
+@Singleton
+class TempModelCache
+{
+	@AllArgsConstructor
+	static class Entry
+	{
+		final int frame;
+		final int[] verticesX;
+		final int verticesCount;
+		final int trianglesCount;
+		final int offset;
+		final int uvOffset;
+		final int len;
+	}
+
+	private Map<Model, Entry> current = new IdentityHashMap<>();
+	private Map<Model, Entry> last = new IdentityHashMap<>();
+	private int frame;
+
+	private int frameHits;
+	private int frameMisses;
+	private long frameBytesSaved;
+
+	/**
+	 * Number of models reused in the last frame
+	 */
+	@Getter
+	private int hits;
+
+	/**
+	 * Number of models which had to be pushed in the last frame
+	 */
+	@Getter
+	private int misses;
+
+	/**
+	 * Number of vertex and uv bytes which were not pushed in the last frame
+	 */
+	@Getter
+	private long bytesSaved;
+
+	/**
+	 * Find where the model was written this frame, or the last frame
+	 *
+	 * @param model the model
+	 * @return the entry, or null if the model has not been written or has changed since
+	 */
+	Entry get(Model model)
+	{
+		Entry entry = current.get(model);
+		if (entry == null)
+		{
+			entry = last.get(model);
+		}
+
+		if (entry == null
+			|| entry.verticesX != model.getVerticesX()
+			|| entry.verticesCount != model.getVerticesCount()
+			|| entry.trianglesCount != model.getTrianglesCount())
+		{
+			++frameMisses;
+			return null;
+		}
+
+		++frameHits;
+		frameBytesSaved += (long) entry.len * (entry.uvOffset != -1 ? 32 : 16);
+		return entry;
+	}
+
+	/**
+	 * Check if the entry refers to vertices written in the current frame
+	 */
+	boolean isCurrent(Entry entry)
+	{
+		return entry.frame == frame;
+	}
+
+	void put(Model model, int offset, int uvOffset, int len)
+	{
+		current.put(model, new Entry(frame, model.getVerticesX(), model.getVerticesCount(), model.getTrianglesCount(), offset, uvOffset, len));
+	}
+
+	/**
+	 * Called once the temporary buffers of the current frame have been drawn
+	 */
+	void endFrame()
+	{
+		Map<Model, Entry> tmp = last;
+		last = current;
+		current = tmp;
+		current.clear();
+		++frame;
+
+		hits = frameHits;
+		misses = frameMisses;
+		bytesSaved = frameBytesSaved;
+		frameHits = frameMisses = 0;
+		frameBytesSaved = 0;
+	}
+
+	void clear()
+	{
+		current.clear();
+		last.clear();
+		++frame;
+	}
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.loottracker;
+
+import com.google.common.collect.Lists;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+import net.runelite.http.api.RuneLiteAPI;
+import net.runelite.http.api.loottracker.LootRecord;
+import net.runelite.http.api.loottracker.LootTrackerClient;
+
+/**
+ * Buffers loot records so they can be submitted many at a time. Records which
+ * could not be submitted are kept, and saved to disk so they survive a restart.
+ */
+@Slf4j
+class LootSubmitBuffer
+{
+	static final int FLUSH_SIZE = 32;
+	private static final int MAX_RECORDS_PER_REQUEST = 512;
+	private static final int MAX_PENDING = 8192;
+	private static final File PENDING_DIR = new File(RuneLite.RUNELITE_DIR, "loottracker");
+	private static final Type LOOT_RECORD_LIST = new TypeToken<List<LootRecord>>()
+	{
+	}.getType();
+	// shared by all buffers, so a new buffer does not load the pending file while the
+	// buffer of the previous session is still submitting records which are saved in it
+	private static final Object FLUSH_LOCK = new Object();
+
+	private final File file;
+	private final List<LootRecord> pending = new ArrayList<>();
+	// records taken by a flush which the server has not acknowledged yet
+	private final List<LootRecord> inFlight = new ArrayList<>();
+	private volatile boolean loaded;
+
+	/**
+	 * Create a buffer for the given account. Records left in its pending file are
+	 * loaded by the first flush or save.
+	 */
+	LootSubmitBuffer(String username)
+	{
+		String name = username == null ? "default" : username.replaceAll("[^a-zA-Z0-9@._-]", "_");
+		file = new File(PENDING_DIR, name + ".json");
+	}
+
+	/**
+	 * Add a record to the buffer
+	 *
+	 * @return the number of buffered records
+	 */
+	synchronized int add(LootRecord lootRecord)
+	{
+		pending.add(lootRecord);
+		if (pending.size() > MAX_PENDING)
+		{
+			log.debug("Loot buffer is full, dropping oldest record");
+			pending.remove(0);
+		}
+		return pending.size();
+	}
+
+	/**
+	 * Submit all buffered records. This blocks on the network, so should not be
+	 * called from the client or event thread.
+	 */
+	void flush(LootTrackerClient lootTrackerClient)
+	{
+		synchronized (FLUSH_LOCK)
+		{
+			load();
+
+			List<LootRecord> batch;
+			synchronized (this)
+			{
+				if (pending.isEmpty())
+				{
+					return;
+				}
+
+				batch = new ArrayList<>(pending);
+				inFlight.addAll(batch);
+				pending.clear();
+			}
+
+			for (List<LootRecord> request : Lists.partition(batch, MAX_RECORDS_PER_REQUEST))
+			{
+				try
+				{
+					lootTrackerClient.submit(request);
+				}
+				catch (IOException ex)
+				{
+					log.debug("Unable to submit loot, will retry later", ex);
+
+					synchronized (this)
+					{
+						// put the unsubmitted records back in front of anything added meanwhile
+						inFlight.addAll(pending);
+						pending.clear();
+						pending.addAll(inFlight);
+						inFlight.clear();
+						save();
+					}
+					return;
+				}
+
+				synchronized (this)
+				{
+					inFlight.subList(0, request.size()).clear();
+				}
+			}
+
+			synchronized (this)
+			{
+				if (file.exists())
+				{
+					// a save during the flush may have written the now submitted records
+					save();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Save the buffered records to disk, including those of a flush which has not finished,
+	 * so they are not lost if the flush fails after the client exits
+	 */
+	void save()
+	{
+		if (!loaded)
+		{
+			// otherwise the records left in the file would be overwritten
+			load();
+		}
+
+		synchronized (this)
+		{
+			if (pending.isEmpty() && inFlight.isEmpty())
+			{
+				file.delete();
+				return;
+			}
+
+			PENDING_DIR.mkdirs();
+
+			final List<LootRecord> records = new ArrayList<>(inFlight.size() + pending.size());
+			records.addAll(inFlight);
+			records.addAll(pending);
+
+			try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8))
+			{
+				RuneLiteAPI.GSON.toJson(records, LOOT_RECORD_LIST, writer);
+				log.debug("Saved {} pending loot records", records.size());
+			}
+			catch (IOException ex)
+			{
+				log.warn("Unable to save pending loot", ex);
+			}
+		}
+	}
+
+	/**
+	 * Load the records left in the pending file, ahead of any added since the buffer was
+	 * created. This waits for any other buffer's flush, since until it finishes the file
+	 * still has the records it is submitting.
+	 */
+	private void load()
+	{
+		synchronized (FLUSH_LOCK)
+		{
+			synchronized (this)
+			{
+				if (loaded)
+				{
+					return;
+				}
+
+				loaded = true;
+				if (!file.exists())
+				{
+					return;
+				}
+
+				try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))
+				{
+					List<LootRecord> records = RuneLiteAPI.GSON.fromJson(reader, LOOT_RECORD_LIST);
+					if (records != null)
+					{
+						pending.addAll(0, records);
+						while (pending.size() > MAX_PENDING)
+						{
+							pending.remove(0);
+						}
+						log.debug("Loaded {} pending loot records", records.size());
+					}
+				}
+				catch (IOException | JsonParseException ex)
+				{
+					log.warn("Unable to load pending loot", ex);
+				}
+			}
+		}
+	}
+}
@@ -33,6 +33,7 @@ import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -77,11 +78,13 @@ import net.runelite.client.game.ItemStack;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.plugins.Plugin;
 import net.runelite.client.plugins.PluginDescriptor;
+import net.runelite.client.task.Schedule;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.util.ImageUtil;
 import net.runelite.client.util.Text;
 import net.runelite.http.api.loottracker.GameItem;
+import net.runelite.http.api.loottracker.LootAggregate;
 import net.runelite.http.api.loottracker.LootRecord;
 import net.runelite.http.api.loottracker.LootRecordType;
 import net.runelite.http.api.loottracker.LootTrackerClient;
@@ -144,6 +147,7 @@ public class LootTrackerPlugin extends Plugin
 
 	@Getter(AccessLevel.PACKAGE)
 	private LootTrackerClient lootTrackerClient;
+	private LootSubmitBuffer submitBuffer;
 
 	private static Collection<ItemStack> stack(Collection<ItemStack> items)
 	{
@@ -186,18 +190,64 @@ public class LootTrackerPlugin extends Plugin
 		AccountSession accountSession = sessionManager.getAccountSession();
 		if (accountSession.getUuid() != null)
 		{
-			lootTrackerClient = new LootTrackerClient(accountSession.getUuid());
+			openSession(accountSession);
 		}
 		else
 		{
-			lootTrackerClient = null;
+			closeSession();
 		}
 	}
 
 	@Subscribe
 	public void onSessionClose(SessionClose sessionClose)
 	{
+		closeSession();
+	}
+
+	private void openSession(AccountSession accountSession)
+	{
+		closeSession();
+		lootTrackerClient = new LootTrackerClient(accountSession.getUuid());
+		submitBuffer = new LootSubmitBuffer(accountSession.getUsername());
+
+		// load and submit anything left over from a previous session, once any flush
+		// of the previous buffer has finished
+		executor.submit(this::flushLoot);
+	}
+
+	private void closeSession()
+	{
+		if (submitBuffer != null)
+		{
+			submitBuffer.save();
+		}
+
 		lootTrackerClient = null;
+		submitBuffer = null;
+	}
+
+	private void submitLoot(LootRecord lootRecord)
+	{
+		final LootSubmitBuffer buffer = submitBuffer;
+		if (buffer != null && buffer.add(lootRecord) >= LootSubmitBuffer.FLUSH_SIZE)
+		{
+			executor.submit(this::flushLoot);
+		}
+	}
+
+	@Schedule(
+		period = 1,
+		unit = ChronoUnit.MINUTES,
+		asynchronous = true
+	)
+	public void flushLoot()
+	{
+		final LootTrackerClient client = lootTrackerClient;
+		final LootSubmitBuffer buffer = submitBuffer;
+		if (client != null && buffer != null)
+		{
+			buffer.flush(client);
+		}
 	}
 
 	@Subscribe
@@ -231,7 +281,7 @@ public class LootTrackerPlugin extends Plugin
 		AccountSession accountSession = sessionManager.getAccountSession();
 		if (accountSession != null)
 		{
-			lootTrackerClient = new LootTrackerClient(accountSession.getUuid());
+			openSession(accountSession);
 
 			clientThread.invokeLater(() ->
 			{
@@ -244,7 +294,7 @@ public class LootTrackerPlugin extends Plugin
 
 				executor.submit(() ->
 				{
-					Collection<LootRecord> lootRecords;
+					Collection<LootAggregate> lootAggregates;
 
 					if (!config.syncPanel())
 					{
@@ -253,7 +303,7 @@ public class LootTrackerPlugin extends Plugin
 
 					try
 					{
-						lootRecords = lootTrackerClient.get();
+						lootAggregates = lootTrackerClient.getSummary();
 					}
 					catch (IOException e)
 					{
@@ -261,11 +311,16 @@ public class LootTrackerPlugin extends Plugin
 						return;
 					}
 
-					log.debug("Loaded {} data entries", lootRecords.size());
+					if (lootAggregates == null)
+					{
+						return;
+					}
+
+					log.debug("Loaded {} data entries", lootAggregates.size());
 
 					clientThread.invokeLater(() ->
 					{
-						Collection<LootTrackerRecord> records = convertToLootTrackerRecord(lootRecords);
+						Collection<LootTrackerRecord> records = convertToLootTrackerRecord(lootAggregates);
 						SwingUtilities.invokeLater(() -> panel.addRecords(records));
 					});
 				});
@@ -278,7 +333,7 @@ public class LootTrackerPlugin extends Plugin
 	protected void shutDown()
 	{
 		clientToolbar.removeNavigation(navButton);
-		lootTrackerClient = null;
+		closeSession();
 	}
 
 	@Subscribe
@@ -294,7 +349,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(name, LootRecordType.NPC, toGameItems(items), Instant.now());
-			lootTrackerClient.submit(lootRecord);
+			submitLoot(lootRecord);
 		}
 	}
 
@@ -311,7 +366,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(name, LootRecordType.PLAYER, toGameItems(items), Instant.now());
-			lootTrackerClient.submit(lootRecord);
+			submitLoot(lootRecord);
 		}
 	}
 
@@ -370,7 +425,7 @@ public class LootTrackerPlugin extends Plugin
 		if (lootTrackerClient != null && config.saveLoot())
 		{
 			LootRecord lootRecord = new LootRecord(eventType, LootRecordType.EVENT, toGameItems(items), Instant.now());
-			lootTrackerClient.submit(lootRecord);
+			submitLoot(lootRecord);
 		}
 	}
 
@@ -481,7 +536,7 @@ public class LootTrackerPlugin extends Plugin
 			if (lootTrackerClient != null && config.saveLoot())
 			{
 				LootRecord lootRecord = new LootRecord(chestType, LootRecordType.EVENT, toGameItems(items), Instant.now());
-				lootTrackerClient.submit(lootRecord);
+				submitLoot(lootRecord);
 			}
 
 			inventorySnapshot = null;
@@ -539,16 +594,16 @@ public class LootTrackerPlugin extends Plugin
 			.collect(Collectors.toList());
 	}
 
-	private Collection<LootTrackerRecord> convertToLootTrackerRecord(final Collection<LootRecord> records)
+	private Collection<LootTrackerRecord> convertToLootTrackerRecord(final Collection<LootAggregate> records)
 	{
 		Collection<LootTrackerRecord> trackerRecords = new ArrayList<>();
-		for (LootRecord record : records)
+		for (LootAggregate record : records)
 		{
 			LootTrackerItem[] drops = record.getDrops().stream().map(itemStack ->
 				buildLootTrackerItem(itemStack.getId(), itemStack.getQty())
 			).toArray(LootTrackerItem[]::new);
 
-			trackerRecords.add(new LootTrackerRecord(record.getEventId(), "", drops, -1));
+			trackerRecords.add(new LootTrackerRecord(record.getEventId(), "", drops, -1, record.getKills()));
 		}
 
 		return trackerRecords;
@@ -33,6 +33,10 @@ class LootTrackerRecord
 	private final String subTitle;
 	private final LootTrackerItem[] items;
 	private final long timestamp;
+	/**
+	 * Number of kills this record covers, which is more than one for records loaded from the loot summary
+	 */
+	private final int kills;
 
 	/**
 	 * Checks if this record matches specified id
@@ -80,4 +80,14 @@ public interface PartyConfig extends Config
 	{
 		return true;
 	}
+
+	@ConfigItem(
+		keyName = "compactSync",
+		name = "Compact sync",
+		description = "Sends party status as compact updates once per tick. Requires a party server which supports them"
+	)
+	default boolean compactSync()
+	{
+		return false;
+	}
 }
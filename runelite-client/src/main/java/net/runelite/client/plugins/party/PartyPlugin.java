@@ -42,6 +42,7 @@ import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.ChatMessageType;
 import net.runelite.api.Client;
 import net.runelite.api.GameState;
+import net.runelite.api.Player;
 import net.runelite.api.MenuAction;
 import net.runelite.api.MenuEntry;
 import net.runelite.api.Skill;
@@ -66,6 +67,7 @@ import net.runelite.client.plugins.PluginDescriptor;
 import net.runelite.client.plugins.party.data.PartyData;
 import net.runelite.client.plugins.party.data.PartyTilePingData;
 import net.runelite.client.plugins.party.messages.LocationUpdate;
+import net.runelite.client.plugins.party.messages.PartyStateUpdate;
 import net.runelite.client.plugins.party.messages.SkillUpdate;
 import net.runelite.client.plugins.party.messages.TilePing;
 import net.runelite.client.task.Schedule;
@@ -126,6 +128,8 @@ public class PartyPlugin extends Plugin implements KeyListener
 	@Getter
 	private final List<PartyTilePingData> pendingTilePings = Collections.synchronizedList(new ArrayList<>());
 
+	private final PartyStateCodec stateCodec = new PartyStateCodec();
+
 	private int lastHp, lastPray;
 	private boolean hotkeyDown, doSync;
 	private boolean sendAlert;
@@ -144,6 +148,7 @@ public class PartyPlugin extends Plugin implements KeyListener
 		wsClient.registerMessage(SkillUpdate.class);
 		wsClient.registerMessage(TilePing.class);
 		wsClient.registerMessage(LocationUpdate.class);
+		wsClient.registerBinaryMessage(PartyStateCodec.TYPE, PartyStateCodec::decode);
 		keyManager.registerKeyListener(this);
 		doSync = true; // Delay sync so eventbus can process correctly.
 	}
@@ -159,6 +164,8 @@ public class PartyPlugin extends Plugin implements KeyListener
 		wsClient.unregisterMessage(SkillUpdate.class);
 		wsClient.unregisterMessage(TilePing.class);
 		wsClient.unregisterMessage(LocationUpdate.class);
+		wsClient.unregisterBinaryMessage(PartyStateCodec.TYPE);
+		stateCodec.reset();
 		keyManager.unregisterKeyListener(this);
 		hotkeyDown = false;
 		doSync = false;
@@ -266,7 +273,8 @@ public class PartyPlugin extends Plugin implements KeyListener
 	)
 	public void shareLocation()
 	{
-		if (client.getGameState() != GameState.LOGGED_IN)
+		// location is included in the per tick state updates
+		if (client.getGameState() != GameState.LOGGED_IN || config.compactSync())
 		{
 			return;
 		}
@@ -308,7 +316,18 @@ public class PartyPlugin extends Plugin implements KeyListener
 		final int realPrayer = client.getRealSkillLevel(Skill.PRAYER);
 		final PartyMember localMember = party.getLocalMember();
 
-		if (localMember != null)
+		if (localMember != null && config.compactSync())
+		{
+			final Player localPlayer = client.getLocalPlayer();
+			final WorldPoint location = localPlayer != null ? localPlayer.getWorldLocation() : null;
+			final byte[] frame = stateCodec.encode(localMember.getMemberId(), currentHealth, realHealth, currentPrayer, realPrayer, location);
+
+			if (frame != null)
+			{
+				ws.send(frame);
+			}
+		}
+		else if (localMember != null)
 		{
 			if (currentHealth != lastHp)
 			{
@@ -351,6 +370,42 @@ public class PartyPlugin extends Plugin implements KeyListener
 		}
 	}
 
+	@Subscribe
+	public void onPartyStateUpdate(final PartyStateUpdate event)
+	{
+		final PartyData partyData = getPartyData(event.getMemberId());
+
+		if (partyData == null)
+		{
+			return;
+		}
+
+		if (event.getHitpoints() != null)
+		{
+			partyData.setHitpoints(event.getHitpoints());
+		}
+
+		if (event.getMaxHitpoints() != null)
+		{
+			partyData.setMaxHitpoints(event.getMaxHitpoints());
+		}
+
+		if (event.getPrayer() != null)
+		{
+			partyData.setPrayer(event.getPrayer());
+		}
+
+		if (event.getMaxPrayer() != null)
+		{
+			partyData.setMaxPrayer(event.getMaxPrayer());
+		}
+
+		if (event.getWorldPoint() != null)
+		{
+			partyData.getWorldMapPoint().setWorldPoint(event.getWorldPoint());
+		}
+	}
+
 	@Subscribe
 	public void onLocationUpdate(final LocationUpdate event)
 	{
@@ -396,6 +451,13 @@ public class PartyPlugin extends Plugin implements KeyListener
 	@Subscribe
 	public void onUserSync(final UserSync event)
 	{
+		if (config.compactSync())
+		{
+			// send the full state on the next tick
+			stateCodec.reset();
+			return;
+		}
+
 		final int currentHealth = client.getBoostedSkillLevel(Skill.HITPOINTS);
 		final int currentPrayer = client.getBoostedSkillLevel(Skill.PRAYER);
 		final int realHealth = client.getRealSkillLevel(Skill.HITPOINTS);
@@ -443,6 +505,7 @@ public class PartyPlugin extends Plugin implements KeyListener
 	public void onPartyChanged(final PartyChanged event)
 	{
 		// Reset party
+		stateCodec.reset();
 		partyDataMap.clear();
 		pendingTilePings.clear();
 		worldMapManager.removeIf(PartyWorldMapPoint.class::isInstance);
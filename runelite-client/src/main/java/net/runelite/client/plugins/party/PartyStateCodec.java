@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.party;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.party.messages.PartyStateUpdate;
+
+/**
+ * Binary encoding of party member state. The local member's state is coalesced
+ * into at most one frame per tick, which carries only the fields that changed
+ * since the previous frame.
+ * <p>
+ * Frame layout: type (byte), member id (2 longs), field mask (byte), then each
+ * field present in the mask in order: hitpoints, max hitpoints, prayer and max
+ * prayer (unsigned shorts), and location (unsigned short x, y and a byte plane).
+ */
+class PartyStateCodec
+{
+	static final int TYPE = 1;
+
+	private static final int HITPOINTS = 1;
+	private static final int MAX_HITPOINTS = 1 << 1;
+	private static final int PRAYER = 1 << 2;
+	private static final int MAX_PRAYER = 1 << 3;
+	private static final int LOCATION = 1 << 4;
+
+	private static final int MAX_FRAME_SIZE = 1 + 16 + 1 + 4 * 2 + 2 + 2 + 1;
+
+	private boolean sent;
+	private int hitpoints;
+	private int maxHitpoints;
+	private int prayer;
+	private int maxPrayer;
+	private WorldPoint worldPoint;
+
+	/**
+	 * Encode the changes in the local member's state since the previous frame
+	 *
+	 * @param memberId     local member id
+	 * @param hitpoints    current hitpoints
+	 * @param maxHitpoints real hitpoints level
+	 * @param prayer       current prayer
+	 * @param maxPrayer    real prayer level
+	 * @param worldPoint   location, or null if unknown
+	 * @return the frame, or null if nothing has changed
+	 */
+	synchronized byte[] encode(UUID memberId, int hitpoints, int maxHitpoints, int prayer, int maxPrayer, WorldPoint worldPoint)
+	{
+		int mask = 0;
+		if (!sent || hitpoints != this.hitpoints)
+		{
+			mask |= HITPOINTS;
+		}
+		if (!sent || maxHitpoints != this.maxHitpoints)
+		{
+			mask |= MAX_HITPOINTS;
+		}
+		if (!sent || prayer != this.prayer)
+		{
+			mask |= PRAYER;
+		}
+		if (!sent || maxPrayer != this.maxPrayer)
+		{
+			mask |= MAX_PRAYER;
+		}
+		if (worldPoint != null && !worldPoint.equals(this.worldPoint))
+		{
+			mask |= LOCATION;
+		}
+
+		if (mask == 0)
+		{
+			return null;
+		}
+
+		ByteBuffer buf = ByteBuffer.allocate(MAX_FRAME_SIZE);
+		buf.put((byte) TYPE);
+		buf.putLong(memberId.getMostSignificantBits());
+		buf.putLong(memberId.getLeastSignificantBits());
+		buf.put((byte) mask);
+
+		if ((mask & HITPOINTS) != 0)
+		{
+			buf.putShort((short) hitpoints);
+		}
+		if ((mask & MAX_HITPOINTS) != 0)
+		{
+			buf.putShort((short) maxHitpoints);
+		}
+		if ((mask & PRAYER) != 0)
+		{
+			buf.putShort((short) prayer);
+		}
+		if ((mask & MAX_PRAYER) != 0)
+		{
+			buf.putShort((short) maxPrayer);
+		}
+		if ((mask & LOCATION) != 0)
+		{
+			buf.putShort((short) worldPoint.getX());
+			buf.putShort((short) worldPoint.getY());
+			buf.put((byte) worldPoint.getPlane());
+		}
+
+		sent = true;
+		this.hitpoints = hitpoints;
+		this.maxHitpoints = maxHitpoints;
+		this.prayer = prayer;
+		this.maxPrayer = maxPrayer;
+		if (worldPoint != null)
+		{
+			this.worldPoint = worldPoint;
+		}
+
+		byte[] frame = new byte[buf.position()];
+		buf.flip();
+		buf.get(frame);
+		return frame;
+	}
+
+	/**
+	 * Forget the previously sent state, so that the next frame contains all fields
+	 */
+	synchronized void reset()
+	{
+		sent = false;
+		worldPoint = null;
+	}
+
+	/**
+	 * Decode a frame following its type byte
+	 *
+	 * @param buf frame
+	 * @return the state update
+	 */
+	static PartyStateUpdate decode(ByteBuffer buf)
+	{
+		final UUID memberId = new UUID(buf.getLong(), buf.getLong());
+		final int mask = buf.get() & 0xFF;
+
+		final Integer hitpoints = (mask & HITPOINTS) != 0 ? buf.getShort() & 0xFFFF : null;
+		final Integer maxHitpoints = (mask & MAX_HITPOINTS) != 0 ? buf.getShort() & 0xFFFF : null;
+		final Integer prayer = (mask & PRAYER) != 0 ? buf.getShort() & 0xFFFF : null;
+		final Integer maxPrayer = (mask & MAX_PRAYER) != 0 ? buf.getShort() & 0xFFFF : null;
+		final WorldPoint worldPoint = (mask & LOCATION) != 0
+			? new WorldPoint(buf.getShort() & 0xFFFF, buf.getShort() & 0xFFFF, buf.get())
+			: null;
+
+		final PartyStateUpdate update = new PartyStateUpdate(hitpoints, maxHitpoints, prayer, maxPrayer, worldPoint);
+		update.setMemberId(memberId);
+		return update;
+	}
+}
@@ -33,6 +33,7 @@ import java.awt.Graphics2D;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.util.Arrays;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -47,12 +48,14 @@ import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.BLANK
 import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.DIMENSION;
 import net.runelite.api.widgets.Widget;
 import net.runelite.api.widgets.WidgetInfo;
+import net.runelite.client.RuneLite;
 import net.runelite.client.game.SpriteManager;
 import net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver;
 import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
 import net.runelite.client.plugins.puzzlesolver.solver.heuristics.ManhattanDistance;
-import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStar;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase;
 import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStarMM;
+import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.ParallelIDAStar;
 import net.runelite.client.ui.overlay.Overlay;
 import net.runelite.client.ui.overlay.OverlayLayer;
 import net.runelite.client.ui.overlay.OverlayPosition;
@@ -72,10 +75,13 @@ public class PuzzleSolverOverlay extends Overlay
 	private static final int PUZZLE_TILE_SIZE = 39;
 	private static final int DOT_MARKER_SIZE = 16;
 
+	private static final File PATTERN_DATABASE_FILE = new File(RuneLite.CACHE_DIR, "puzzlesolver.pdb");
+
 	private final Client client;
 	private final PuzzleSolverConfig config;
 	private final ScheduledExecutorService executorService;
 	private final SpriteManager spriteManager;
+	private final PatternDatabase patternDatabase = new PatternDatabase(PATTERN_DATABASE_FILE);
 
 	private PuzzleSolver solver;
 	private Future<?> solverFuture;
@@ -434,7 +440,7 @@ public class PuzzleSolverOverlay extends Overlay
 
 		if (useNormalSolver)
 		{
-			solver = new PuzzleSolver(new IDAStar(new ManhattanDistance()), puzzleState);
+			solver = new PuzzleSolver(new ParallelIDAStar(patternDatabase), puzzleState);
 		}
 		else
 		{
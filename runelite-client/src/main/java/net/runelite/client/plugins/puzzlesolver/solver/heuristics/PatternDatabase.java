@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.puzzlesolver.solver.heuristics;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.BLANK_TILE_VALUE;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.DIMENSION;
+
+/**
+ * An additive disjoint pattern database heuristic.
+ * <p>
+ * The tiles are split into {@link #PATTERNS} of four tiles each. For every pattern the
+ * table holds the number of moves of its own tiles needed to bring them home, where a
+ * tile may move onto any square not occupied by another tile of the pattern. Every real
+ * move moves exactly one tile, so the sum over all patterns never overestimates.
+ * <p>
+ * A pattern is indexed by the squares of its tiles, five bits each, which lets the packed
+ * board of {@link net.runelite.client.plugins.puzzlesolver.solver.pathfinding.ParallelIDAStar}
+ * be used as the index directly. The tables are built on first use and cached on disk.
+ */
+@Slf4j
+public class PatternDatabase implements Heuristic
+{
+	public static final int[][] PATTERNS =
+	{
+		{0, 1, 5, 6},
+		{2, 3, 7, 8},
+		{4, 9, 14, 19},
+		{10, 15, 20, 21},
+		{11, 12, 16, 17},
+		{13, 18, 22, 23},
+	};
+
+	public static final int PATTERN_SIZE = 4;
+	public static final int SQUARE_BITS = 5;
+	public static final int PATTERN_BITS = PATTERN_SIZE * SQUARE_BITS;
+	public static final int PATTERN_MASK = (1 << PATTERN_BITS) - 1;
+
+	private static final int SQUARE_MASK = (1 << SQUARE_BITS) - 1;
+	private static final int SQUARES = DIMENSION * DIMENSION;
+	private static final int MAGIC = 0x524c5044; // RLPD
+	private static final int VERSION = 1;
+
+	private final File file;
+	private volatile byte[][] tables;
+
+	/**
+	 * @param file where to cache the tables, or null to always build them in memory
+	 */
+	public PatternDatabase(File file)
+	{
+		this.file = file;
+	}
+
+	/**
+	 * Load the tables, from the cache if possible or by building them otherwise.
+	 * This is called by {@link #value(int, int)} if needed, but may take a moment,
+	 * so it is best called off the client thread ahead of time.
+	 */
+	public void load()
+	{
+		if (tables != null)
+		{
+			return;
+		}
+
+		synchronized (this)
+		{
+			if (tables != null)
+			{
+				return;
+			}
+
+			byte[][] t = file != null ? read() : null;
+			if (t == null)
+			{
+				long start = System.nanoTime();
+				t = build();
+				log.debug("Built puzzle pattern database in {}ms", (System.nanoTime() - start) / 1_000_000);
+
+				if (file != null)
+				{
+					write(t);
+				}
+			}
+
+			tables = t;
+		}
+	}
+
+	/**
+	 * Get the number of moves needed to bring the tiles of a pattern home
+	 *
+	 * @param pattern the index into {@link #PATTERNS}
+	 * @param index   the squares of the pattern's tiles, packed by {@link #index(int[])}
+	 * @return the heuristic value for the pattern
+	 */
+	public int value(int pattern, int index)
+	{
+		byte[][] t = tables;
+		if (t == null)
+		{
+			load();
+			t = tables;
+		}
+		return t[pattern][index];
+	}
+
+	@Override
+	public int computeValue(PuzzleState state)
+	{
+		int[] squares = new int[SQUARES];
+		for (int i = 0; i < SQUARES; i++)
+		{
+			int piece = state.getPiece(i % DIMENSION, i / DIMENSION);
+			if (piece != BLANK_TILE_VALUE)
+			{
+				squares[piece] = i;
+			}
+		}
+
+		int value = 0;
+		int[] cells = new int[PATTERN_SIZE];
+		for (int p = 0; p < PATTERNS.length; p++)
+		{
+			for (int i = 0; i < PATTERN_SIZE; i++)
+			{
+				cells[i] = squares[PATTERNS[p][i]];
+			}
+			value += value(p, index(cells));
+		}
+		return value;
+	}
+
+	/**
+	 * Pack the squares of a pattern's tiles into a table index
+	 */
+	public static int index(int[] cells)
+	{
+		int index = 0;
+		for (int i = 0; i < PATTERN_SIZE; i++)
+		{
+			index |= cells[i] << (i * SQUARE_BITS);
+		}
+		return index;
+	}
+
+	static byte[][] build()
+	{
+		byte[][] t = new byte[PATTERNS.length][];
+		for (int p = 0; p < PATTERNS.length; p++)
+		{
+			t[p] = build(PATTERNS[p]);
+		}
+		return t;
+	}
+
+	/**
+	 * Breadth first search outwards from the goal placement of the pattern
+	 */
+	private static byte[] build(int[] pattern)
+	{
+		byte[] table = new byte[1 << PATTERN_BITS];
+		Arrays.fill(table, (byte) -1);
+
+		// 25 * 24 * 23 * 22 placements of four distinct tiles
+		int[] queue = new int[SQUARES * (SQUARES - 1) * (SQUARES - 2) * (SQUARES - 3)];
+		int head = 0, tail = 0;
+
+		int goal = index(pattern);
+		table[goal] = 0;
+		queue[tail++] = goal;
+
+		while (head < tail)
+		{
+			int index = queue[head++];
+			byte next = (byte) (table[index] + 1);
+
+			for (int i = 0; i < PATTERN_SIZE; i++)
+			{
+				int shift = i * SQUARE_BITS;
+				int cell = (index >>> shift) & SQUARE_MASK;
+				int x = cell % DIMENSION;
+				int y = cell / DIMENSION;
+
+				for (int dir = 0; dir < 4; dir++)
+				{
+					int to;
+					switch (dir)
+					{
+						case 0:
+							to = x > 0 ? cell - 1 : -1;
+							break;
+						case 1:
+							to = x < DIMENSION - 1 ? cell + 1 : -1;
+							break;
+						case 2:
+							to = y > 0 ? cell - DIMENSION : -1;
+							break;
+						default:
+							to = y < DIMENSION - 1 ? cell + DIMENSION : -1;
+							break;
+					}
+
+					if (to == -1 || isOccupied(index, to))
+					{
+						continue;
+					}
+
+					int moved = (index & ~(SQUARE_MASK << shift)) | (to << shift);
+					if (table[moved] == -1)
+					{
+						table[moved] = next;
+						queue[tail++] = moved;
+					}
+				}
+			}
+		}
+
+		return table;
+	}
+
+	private static boolean isOccupied(int index, int cell)
+	{
+		for (int i = 0; i < PATTERN_SIZE; i++)
+		{
+			if (((index >>> (i * SQUARE_BITS)) & SQUARE_MASK) == cell)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private byte[][] read()
+	{
+		if (!file.exists())
+		{
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(new FileInputStream(file)))))
+		{
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readInt() != PATTERNS.length)
+			{
+				log.debug("Puzzle pattern database {} is invalid", file);
+				return null;
+			}
+
+			byte[][] t = new byte[PATTERNS.length][1 << PATTERN_BITS];
+			for (byte[] table : t)
+			{
+				in.readFully(table);
+			}
+			return t;
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to read puzzle pattern database", ex);
+			return null;
+		}
+	}
+
+	private void write(byte[][] t)
+	{
+		file.getParentFile().mkdirs();
+
+		File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(new FileOutputStream(tmp)))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(PATTERNS.length);
+			for (byte[] table : t)
+			{
+				out.write(table);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to write puzzle pattern database", ex);
+			tmp.delete();
+			return;
+		}
+
+		try
+		{
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to move puzzle pattern database into place", ex);
+			tmp.delete();
+		}
+	}
+}
@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.puzzlesolver.solver.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.BLANK_TILE_VALUE;
+import static net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver.DIMENSION;
+import static net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase.PATTERNS;
+import static net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase.PATTERN_BITS;
+import static net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase.PATTERN_MASK;
+import static net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase.PATTERN_SIZE;
+import static net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase.SQUARE_BITS;
+
+/**
+ * An IDA* implementation which keeps the board in primitive longs and makes and
+ * undoes moves in place, so nothing is allocated while searching. Each iteration
+ * splits the tree a few moves below the root and searches the branches in parallel
+ * on the common fork-join pool.
+ */
+@Slf4j
+public class ParallelIDAStar extends Pathfinder
+{
+	/**
+	 * Depth at which the tree is split into parallel tasks
+	 */
+	private static final int SPLIT_DEPTH = 4;
+
+	/**
+	 * Number of tiles whose squares are packed into each long
+	 */
+	private static final int TILES_PER_LONG = 64 / PATTERN_BITS * PATTERN_SIZE;
+
+	private static final int SQUARES = DIMENSION * DIMENSION;
+	private static final int[][] NEIGHBOURS = new int[SQUARES][];
+
+	static
+	{
+		for (int i = 0; i < SQUARES; i++)
+		{
+			int x = i % DIMENSION;
+			int y = i / DIMENSION;
+			int[] n = new int[4];
+			int count = 0;
+			if (x > 0)
+			{
+				n[count++] = i - 1;
+			}
+			if (x < DIMENSION - 1)
+			{
+				n[count++] = i + 1;
+			}
+			if (y > 0)
+			{
+				n[count++] = i - DIMENSION;
+			}
+			if (y < DIMENSION - 1)
+			{
+				n[count++] = i + DIMENSION;
+			}
+			NEIGHBOURS[i] = Arrays.copyOf(n, count);
+		}
+	}
+
+	private final PatternDatabase patternDatabase;
+
+	public ParallelIDAStar(PatternDatabase patternDatabase)
+	{
+		super(patternDatabase);
+		this.patternDatabase = patternDatabase;
+	}
+
+	@Override
+	public List<PuzzleState> computePath(PuzzleState start)
+	{
+		patternDatabase.load();
+
+		Board root = new Board(patternDatabase, start);
+		int bound = root.h;
+
+		while (true)
+		{
+			Iteration iteration = new Iteration(root, bound);
+			ForkJoinTask<?> task = ForkJoinPool.commonPool().submit(iteration);
+
+			try
+			{
+				task.get();
+			}
+			catch (InterruptedException ex)
+			{
+				// the solver has been cancelled, so stop the workers too
+				iteration.done = true;
+				Thread.currentThread().interrupt();
+				return null;
+			}
+			catch (ExecutionException ex)
+			{
+				log.warn("error solving puzzle", ex);
+				return null;
+			}
+
+			if (iteration.solution != null)
+			{
+				return toStates(start, iteration.solution);
+			}
+
+			int next = iteration.nextBound.get();
+			if (next == Integer.MAX_VALUE)
+			{
+				// the whole space was searched, so the puzzle is unsolvable
+				return null;
+			}
+
+			bound = next;
+		}
+	}
+
+	private static List<PuzzleState> toStates(PuzzleState start, int[] blanks)
+	{
+		List<PuzzleState> path = new ArrayList<>(blanks.length + 1);
+		path.add(start);
+
+		PuzzleState state = start;
+		for (int blank : blanks)
+		{
+			int empty = state.getEmptyPiece();
+			state = state.swap(empty % DIMENSION, empty / DIMENSION, blank % DIMENSION, blank / DIMENSION);
+			path.add(state);
+		}
+
+		return path;
+	}
+
+	/**
+	 * One iteration of IDA*, searching all paths with f below a bound
+	 */
+	private static class Iteration extends RecursiveAction
+	{
+		private final Board root;
+		private final int bound;
+		private final AtomicInteger nextBound = new AtomicInteger(Integer.MAX_VALUE);
+
+		private volatile boolean done;
+		private volatile int[] solution;
+
+		Iteration(Board root, int bound)
+		{
+			this.root = root;
+			this.bound = bound;
+		}
+
+		@Override
+		protected void compute()
+		{
+			List<int[]> prefixes = new ArrayList<>();
+			split(new Board(root), new int[SPLIT_DEPTH], 0, -1, prefixes);
+
+			List<Branch> branches = new ArrayList<>(prefixes.size());
+			for (int[] prefix : prefixes)
+			{
+				branches.add(new Branch(this, prefix));
+			}
+			invokeAll(branches);
+		}
+
+		/**
+		 * Collect the paths to the nodes at the split depth, or to any goal above it,
+		 * which are within the bound
+		 */
+		private void split(Board board, int[] path, int g, int prevBlank, List<int[]> prefixes)
+		{
+			int f = g + board.h;
+			if (f > bound)
+			{
+				nextBound.accumulateAndGet(f, Math::min);
+				return;
+			}
+
+			if (g == SPLIT_DEPTH || board.h == 0)
+			{
+				prefixes.add(Arrays.copyOf(path, g));
+				return;
+			}
+
+			int blank = board.blank;
+			for (int n : NEIGHBOURS[blank])
+			{
+				if (n == prevBlank)
+				{
+					continue;
+				}
+
+				board.move(n);
+				path[g] = n;
+				split(board, path, g + 1, blank, prefixes);
+				board.move(blank);
+			}
+		}
+
+		void found(int[] path)
+		{
+			synchronized (this)
+			{
+				if (solution == null)
+				{
+					solution = path;
+				}
+			}
+			done = true;
+		}
+	}
+
+	/**
+	 * Depth first search of the subtree below one prefix of the root
+	 */
+	private static class Branch extends RecursiveAction
+	{
+		private final Iteration iteration;
+		private final int[] prefix;
+
+		private Board board;
+		private int[] path;
+		private int min = Integer.MAX_VALUE;
+
+		Branch(Iteration iteration, int[] prefix)
+		{
+			this.iteration = iteration;
+			this.prefix = prefix;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (iteration.done)
+			{
+				return;
+			}
+
+			board = new Board(iteration.root);
+			path = new int[Math.max(iteration.bound, prefix.length)];
+
+			int prevBlank = -1;
+			for (int i = 0; i < prefix.length; i++)
+			{
+				prevBlank = board.blank;
+				board.move(prefix[i]);
+				path[i] = prefix[i];
+			}
+
+			if (search(prefix.length, prevBlank))
+			{
+				iteration.found(path);
+			}
+			else if (min != Integer.MAX_VALUE)
+			{
+				iteration.nextBound.accumulateAndGet(min, Math::min);
+			}
+		}
+
+		private boolean search(int g, int prevBlank)
+		{
+			int h = board.h;
+			int f = g + h;
+
+			if (f > iteration.bound)
+			{
+				if (f < min)
+				{
+					min = f;
+				}
+				return false;
+			}
+
+			if (h == 0)
+			{
+				path = Arrays.copyOf(path, g);
+				return true;
+			}
+
+			if (iteration.done)
+			{
+				return false;
+			}
+
+			int blank = board.blank;
+			for (int n : NEIGHBOURS[blank])
+			{
+				if (n == prevBlank)
+				{
+					continue;
+				}
+
+				board.move(n);
+				path[g] = n;
+
+				if (search(g + 1, blank))
+				{
+					return true;
+				}
+
+				board.move(blank);
+			}
+
+			return false;
+		}
+	}
+
+	/**
+	 * A mutable board. The squares of the tiles are packed five bits each into two longs,
+	 * ordered by pattern so each pattern's database index is a plain bit field. The owner
+	 * of each square is kept alongside for generating moves.
+	 */
+	private static final class Board
+	{
+		private static final byte EMPTY = -1;
+
+		private final PatternDatabase patternDatabase;
+
+		/**
+		 * Square to tile slot, where the slot is the tile's position in the flattened patterns
+		 */
+		private final byte[] slots;
+
+		private long low;
+		private long high;
+		private int blank;
+		private int h;
+
+		Board(PatternDatabase patternDatabase, PuzzleState state)
+		{
+			this.patternDatabase = patternDatabase;
+			this.slots = new byte[SQUARES];
+
+			int[] slotOf = new int[SQUARES];
+			for (int p = 0; p < PATTERNS.length; p++)
+			{
+				for (int i = 0; i < PATTERN_SIZE; i++)
+				{
+					slotOf[PATTERNS[p][i]] = p * PATTERN_SIZE + i;
+				}
+			}
+
+			for (int square = 0; square < SQUARES; square++)
+			{
+				int piece = state.getPiece(square % DIMENSION, square / DIMENSION);
+				if (piece == BLANK_TILE_VALUE)
+				{
+					slots[square] = EMPTY;
+					blank = square;
+					continue;
+				}
+
+				int slot = slotOf[piece];
+				slots[square] = (byte) slot;
+				if (slot < TILES_PER_LONG)
+				{
+					low |= (long) square << (slot * SQUARE_BITS);
+				}
+				else
+				{
+					high |= (long) square << ((slot - TILES_PER_LONG) * SQUARE_BITS);
+				}
+			}
+
+			for (int p = 0; p < PATTERNS.length; p++)
+			{
+				h += patternDatabase.value(p, index(p));
+			}
+		}
+
+		Board(Board other)
+		{
+			this.patternDatabase = other.patternDatabase;
+			this.slots = other.slots.clone();
+			this.low = other.low;
+			this.high = other.high;
+			this.blank = other.blank;
+			this.h = other.h;
+		}
+
+		private int index(int pattern)
+		{
+			int perLong = TILES_PER_LONG / PATTERN_SIZE;
+			long bits = pattern < perLong ? low : high;
+			return (int) (bits >>> ((pattern % perLong) * PATTERN_BITS)) & PATTERN_MASK;
+		}
+
+		/**
+		 * Slide the tile on the given square into the blank square. Moving the
+		 * tile now on the old blank square back undoes the move.
+		 */
+		void move(int square)
+		{
+			int slot = slots[square];
+			int pattern = slot / PATTERN_SIZE;
+			long delta = square ^ blank;
+
+			h -= patternDatabase.value(pattern, index(pattern));
+			if (slot < TILES_PER_LONG)
+			{
+				low ^= delta << (slot * SQUARE_BITS);
+			}
+			else
+			{
+				high ^= delta << ((slot - TILES_PER_LONG) * SQUARE_BITS);
+			}
+			h += patternDatabase.value(pattern, index(pattern));
+
+			slots[blank] = (byte) slot;
+			slots[square] = EMPTY;
+			blank = square;
+		}
+	}
+}
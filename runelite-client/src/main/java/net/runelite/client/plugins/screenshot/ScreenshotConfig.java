@@ -28,6 +28,7 @@ import net.runelite.client.config.Config;
 import net.runelite.client.config.ConfigGroup;
 import net.runelite.client.config.ConfigItem;
 import net.runelite.client.config.Keybind;
+import net.runelite.client.config.Range;
 
 @ConfigGroup("screenshot")
 public interface ScreenshotConfig extends Config
@@ -197,4 +198,41 @@ public interface ScreenshotConfig extends Config
 	{
 		return Keybind.NOT_SET;
 	}
-}
\ No newline at end of file
+
+	@ConfigItem(
+		keyName = "recordFrames",
+		name = "Keep recent frames",
+		description = "Keeps the last few seconds of the game in memory, so they can be saved with the recording hotkey",
+		position = 15
+	)
+	default boolean recordFrames()
+	{
+		return false;
+	}
+
+	@Range(
+		min = 1,
+		max = 30
+	)
+	@ConfigItem(
+		keyName = "recordSeconds",
+		name = "Recent frames seconds",
+		description = "How many seconds of recent frames to keep. Fewer are kept of large clients to limit memory use",
+		position = 16
+	)
+	default int recordSeconds()
+	{
+		return 5;
+	}
+
+	@ConfigItem(
+		keyName = "recordingHotkey",
+		name = "Save recent frames hotkey",
+		description = "When you press this key the recent frames are saved as a sequence of images",
+		position = 17
+	)
+	default Keybind recordingHotkey()
+	{
+		return Keybind.NOT_SET;
+	}
+}
@@ -27,6 +27,7 @@ package net.runelite.client.plugins.screenshot;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.Provides;
 import java.awt.Desktop;
 import java.awt.Graphics;
@@ -40,12 +41,17 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
 import java.lang.reflect.InvocationTargetException;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
 import java.util.Date;
 import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
 import java.util.regex.Matcher;
@@ -64,6 +70,7 @@ import net.runelite.api.Point;
 import net.runelite.api.SpriteID;
 import net.runelite.api.WorldType;
 import net.runelite.api.events.ChatMessage;
+import net.runelite.api.events.ConfigChanged;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.LocalPlayerDeath;
@@ -92,6 +99,7 @@ import net.runelite.client.plugins.screenshot.imgur.ImageUploadResponse;
 import net.runelite.client.ui.ClientToolbar;
 import net.runelite.client.ui.ClientUI;
 import net.runelite.client.ui.DrawManager;
+import net.runelite.client.ui.FrameRecorder;
 import net.runelite.client.ui.NavigationButton;
 import net.runelite.client.ui.overlay.OverlayManager;
 import net.runelite.client.util.HotkeyListener;
@@ -118,6 +126,10 @@ public class ScreenshotPlugin extends Plugin
 	private static final HttpUrl IMGUR_IMAGE_UPLOAD_URL = HttpUrl.parse("https://api.imgur.com/3/image");
 	private static final MediaType JSON = MediaType.parse("application/json");
 
+	private static final int RECORD_FPS = 10;
+	// a second of frames of a 1080p client is about 80 MiB
+	private static final long RECORD_MAX_BYTES = 256L * 1024 * 1024;
+
 	private static final DateFormat TIME_FORMAT = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
 
 	private static final Pattern NUMBER_PATTERN = Pattern.compile("([0-9]+)");
@@ -189,6 +201,9 @@ public class ScreenshotPlugin extends Plugin
 
 	private NavigationButton titleBarButton;
 
+	private ExecutorService encoderExecutor;
+	private FrameRecorder frameRecorder;
+
 	private final HotkeyListener hotkeyListener = new HotkeyListener(() -> config.hotkey())
 	{
 		@Override
@@ -198,6 +213,15 @@ public class ScreenshotPlugin extends Plugin
 		}
 	};
 
+	private final HotkeyListener recordingHotkeyListener = new HotkeyListener(() -> config.recordingHotkey())
+	{
+		@Override
+		public void hotkeyPressed()
+		{
+			saveRecording();
+		}
+	};
+
 	@Provides
 	ScreenshotConfig getConfig(ConfigManager configManager)
 	{
@@ -210,6 +234,14 @@ public class ScreenshotPlugin extends Plugin
 		overlayManager.add(screenshotOverlay);
 		SCREENSHOT_DIR.mkdirs();
 		keyManager.registerKeyListener(hotkeyListener);
+		keyManager.registerKeyListener(recordingHotkeyListener);
+
+		encoderExecutor = Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1),
+			new ThreadFactoryBuilder()
+				.setNameFormat("screenshot-encoder-%d")
+				.setDaemon(true)
+				.build());
+		updateFrameRecorder();
 
 		final BufferedImage iconImage = ImageUtil.getResourceStreamFromClass(getClass(), "screenshot.png");
 
@@ -243,11 +275,30 @@ public class ScreenshotPlugin extends Plugin
 		overlayManager.remove(screenshotOverlay);
 		clientToolbar.removeNavigation(titleBarButton);
 		keyManager.unregisterKeyListener(hotkeyListener);
+		keyManager.unregisterKeyListener(recordingHotkeyListener);
+
+		drawManager.setFrameRecorder(null);
+		frameRecorder = null;
+		encoderExecutor.shutdown();
+		encoderExecutor = null;
+	}
+
+	@Subscribe
+	public void onConfigChanged(ConfigChanged event)
+	{
+		if (event.getGroup().equals("screenshot")
+			&& (event.getKey().equals("recordFrames") || event.getKey().equals("recordSeconds")))
+		{
+			frameRecorder = null;
+			updateFrameRecorder();
+		}
 	}
 
 	@Subscribe
 	public void onGameStateChanged(GameStateChanged event)
 	{
+		updateFrameRecorder();
+
 		if (event.getGameState() == GameState.LOGGED_IN
 			&& reportButton == null)
 		{
@@ -621,7 +672,32 @@ public class ScreenshotPlugin extends Plugin
 		// Draw the game onto the screenshot
 		graphics.drawImage(image, gameOffsetX, gameOffsetY, null);
 
-		File playerFolder;
+		File playerFolder = getPlayerFolder();
+		playerFolder.mkdirs();
+
+		try
+		{
+			File screenshotFile = new File(playerFolder, fileName + ".png");
+
+			ImageIO.write(screenshot, "PNG", screenshotFile);
+
+			if (config.uploadScreenshot())
+			{
+				uploadScreenshot(screenshotFile);
+			}
+			else if (config.notifyWhenTaken())
+			{
+				notifier.notify("A screenshot was saved to " + screenshotFile, TrayIcon.MessageType.INFO);
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("error writing screenshot", ex);
+		}
+	}
+
+	private File getPlayerFolder()
+	{
 		if (client.getLocalPlayer() != null && client.getLocalPlayer().getName() != null)
 		{
 			final EnumSet<WorldType> worldTypes = client.getWorldType();
@@ -635,34 +711,93 @@ public class ScreenshotPlugin extends Plugin
 			{
 				playerDir += "-Deadman";
 			}
-			playerFolder = new File(SCREENSHOT_DIR, playerDir);
+			return new File(SCREENSHOT_DIR, playerDir);
 		}
 		else
 		{
-			playerFolder = SCREENSHOT_DIR;
+			return SCREENSHOT_DIR;
 		}
+	}
 
-		playerFolder.mkdirs();
+	private void updateFrameRecorder()
+	{
+		if (!config.recordFrames())
+		{
+			drawManager.setFrameRecorder(null);
+			frameRecorder = null;
+			return;
+		}
 
-		try
+		if (frameRecorder == null)
 		{
-			File screenshotFile = new File(playerFolder, fileName + ".png");
+			frameRecorder = new FrameRecorder(config.recordSeconds(), RECORD_FPS, RECORD_MAX_BYTES);
+		}
 
-			ImageIO.write(screenshot, "PNG", screenshotFile);
+		// Don't record the login screen
+		if (client.getGameState().compareTo(GameState.LOADING) >= 0)
+		{
+			drawManager.setFrameRecorder(frameRecorder);
+		}
+		else
+		{
+			drawManager.setFrameRecorder(null);
+			frameRecorder.clear();
+		}
+	}
 
-			if (config.uploadScreenshot())
+	/**
+	 * Saves the recent frames to a new folder in the screenshot folder, as a sequence
+	 * of PNG images. Recording is paused until all of the frames have been written.
+	 */
+	private void saveRecording()
+	{
+		final FrameRecorder recorder = frameRecorder;
+		if (recorder == null)
+		{
+			return;
+		}
+
+		final List<FrameRecorder.Frame> frames = recorder.pause();
+		if (frames.isEmpty())
+		{
+			recorder.resume();
+			return;
+		}
+
+		final File folder = new File(getPlayerFolder(), "Recording " + format(new Date()));
+		folder.mkdirs();
+
+		final CompletableFuture<?>[] futures = new CompletableFuture<?>[frames.size()];
+		for (int i = 0; i < futures.length; ++i)
+		{
+			final FrameRecorder.Frame frame = frames.get(i);
+			final File file = new File(folder, String.format("%04d.png", i));
+			futures[i] = CompletableFuture.runAsync(() ->
 			{
-				uploadScreenshot(screenshotFile);
+				try
+				{
+					ImageIO.write(frame.toImage(), "PNG", file);
+				}
+				catch (IOException ex)
+				{
+					throw new UncheckedIOException(ex);
+				}
+			}, encoderExecutor);
+		}
+
+		CompletableFuture.allOf(futures).whenComplete((v, ex) ->
+		{
+			recorder.resume();
+
+			if (ex != null)
+			{
+				log.warn("error writing recording", ex);
 			}
 			else if (config.notifyWhenTaken())
 			{
-				notifier.notify("A screenshot was saved to " + screenshotFile, TrayIcon.MessageType.INFO);
+				notifier.notify("A recording was saved to " + folder, TrayIcon.MessageType.INFO);
 			}
-		}
-		catch (IOException ex)
-		{
-			log.warn("error writing screenshot", ex);
-		}
+		});
 	}
 
 	/**
@@ -476,7 +476,7 @@ public class WorldHopperPlugin extends Plugin
 
 		try
 		{
-			WorldResult worldResult = new WorldClient().lookupWorlds();
+			WorldResult worldResult = new WorldClient().refreshWorlds(this.worldResult);
 
 			if (worldResult != null)
 			{
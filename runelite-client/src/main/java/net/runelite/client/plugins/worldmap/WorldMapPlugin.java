@@ -29,6 +29,7 @@ import com.google.inject.Inject;
 import com.google.inject.Provides;
 import java.awt.image.BufferedImage;
 import java.util.Arrays;
+import java.util.stream.Collectors;
 import net.runelite.api.Client;
 import net.runelite.api.Experience;
 import net.runelite.api.Skill;
@@ -117,14 +118,14 @@ public class WorldMapPlugin extends Plugin
 	@Override
 	protected void shutDown() throws Exception
 	{
-		worldMapPointManager.removeIf(FairyRingPoint.class::isInstance);
-		worldMapPointManager.removeIf(AgilityShortcutPoint.class::isInstance);
-		worldMapPointManager.removeIf(QuestStartPoint.class::isInstance);
-		worldMapPointManager.removeIf(TeleportPoint.class::isInstance);
-		worldMapPointManager.removeIf(TransportationPoint.class::isInstance);
-		worldMapPointManager.removeIf(MinigamePoint.class::isInstance);
-		worldMapPointManager.removeIf(FarmingPatchPoint.class::isInstance);
-		worldMapPointManager.removeIf(RareTreePoint.class::isInstance);
+		worldMapPointManager.removeIf(point -> point instanceof FairyRingPoint
+			|| point instanceof AgilityShortcutPoint
+			|| point instanceof QuestStartPoint
+			|| point instanceof TeleportPoint
+			|| point instanceof TransportationPoint
+			|| point instanceof MinigamePoint
+			|| point instanceof FarmingPatchPoint
+			|| point instanceof RareTreePoint);
 		agilityLevel = 0;
 		woodcuttingLevel = 0;
 	}
@@ -170,12 +171,12 @@ public class WorldMapPlugin extends Plugin
 
 		if (config.agilityShortcutLevelIcon() || config.agilityShortcutTooltips())
 		{
-			Arrays.stream(AgilityShortcut.values())
+			worldMapPointManager.addAll(Arrays.stream(AgilityShortcut.values())
 				.filter(value -> value.getWorldMapLocation() != null)
 				.map(value -> new AgilityShortcutPoint(value,
 					agilityLevel > 0 && config.agilityShortcutLevelIcon() && value.getLevel() > agilityLevel ? NOPE_ICON : BLANK_ICON,
 					config.agilityShortcutTooltips()))
-				.forEach(worldMapPointManager::add);
+				.collect(Collectors.toList()));
 		}
 	}
 
@@ -185,14 +186,14 @@ public class WorldMapPlugin extends Plugin
 
 		if (config.rareTreeLevelIcon() || config.rareTreeTooltips())
 		{
-			Arrays.stream(RareTreeLocation.values()).forEach(rareTree ->
+			worldMapPointManager.addAll(Arrays.stream(RareTreeLocation.values()).flatMap(rareTree ->
 				Arrays.stream(rareTree.getLocations())
 					.map(point -> new RareTreePoint(point,
 						rareTree.getTooltip(),
 						woodcuttingLevel > 0 && config.rareTreeLevelIcon() &&
 							rareTree.getLevelReq() > woodcuttingLevel ? NOPE_ICON : BLANK_ICON,
-						config.rareTreeTooltips()))
-					.forEach(worldMapPointManager::add));
+						config.rareTreeTooltips())))
+				.collect(Collectors.toList()));
 		}
 	}
 
@@ -204,49 +205,48 @@ public class WorldMapPlugin extends Plugin
 		worldMapPointManager.removeIf(FairyRingPoint.class::isInstance);
 		if (config.fairyRingIcon() || config.fairyRingTooltips())
 		{
-			Arrays.stream(FairyRingLocation.values())
+			worldMapPointManager.addAll(Arrays.stream(FairyRingLocation.values())
 				.map(value -> new FairyRingPoint(value,
 					config.fairyRingIcon() ? FAIRY_TRAVEL_ICON : BLANK_ICON,
 					config.fairyRingTooltips()))
-				.forEach(worldMapPointManager::add);
+				.collect(Collectors.toList()));
 		}
 
 		worldMapPointManager.removeIf(MinigamePoint.class::isInstance);
 		if (config.minigameTooltip())
 		{
-			Arrays.stream(MinigameLocation.values())
+			worldMapPointManager.addAll(Arrays.stream(MinigameLocation.values())
 				.map(value -> new MinigamePoint(value, BLANK_ICON))
-				.forEach(worldMapPointManager::add);
+				.collect(Collectors.toList()));
 		}
 
 		worldMapPointManager.removeIf(QuestStartPoint.class::isInstance);
 		if (config.questStartTooltips())
 		{
-			Arrays.stream(QuestStartLocation.values())
+			worldMapPointManager.addAll(Arrays.stream(QuestStartLocation.values())
 				.map(value -> new QuestStartPoint(value, BLANK_ICON))
-				.forEach(worldMapPointManager::add);
+				.collect(Collectors.toList()));
 		}
 
 		worldMapPointManager.removeIf(TransportationPoint.class::isInstance);
 		if (config.transportationTeleportTooltips())
 		{
-			Arrays.stream(TransportationPointLocation.values())
+			worldMapPointManager.addAll(Arrays.stream(TransportationPointLocation.values())
 					.map(value -> new TransportationPoint(value, BLANK_ICON))
-					.forEach((worldMapPointManager::add));
+					.collect(Collectors.toList()));
 		}
 
 		worldMapPointManager.removeIf(FarmingPatchPoint.class::isInstance);
 		if (config.farmingPatchTooltips())
 		{
-			Arrays.stream(FarmingPatchLocation.values()).forEach(location ->
+			worldMapPointManager.addAll(Arrays.stream(FarmingPatchLocation.values()).flatMap(location ->
 				Arrays.stream(location.getLocations())
-					.map(point -> new FarmingPatchPoint(point, location.getTooltip(), BLANK_ICON))
-					.forEach(worldMapPointManager::add)
-			);
+					.map(point -> new FarmingPatchPoint(point, location.getTooltip(), BLANK_ICON)))
+				.collect(Collectors.toList()));
 		}
 
 		worldMapPointManager.removeIf(TeleportPoint.class::isInstance);
-		Arrays.stream(TeleportLocationData.values())
+		worldMapPointManager.addAll(Arrays.stream(TeleportLocationData.values())
 			.filter(data ->
 			{
 				switch (data.getType())
@@ -269,6 +269,6 @@ public class WorldMapPlugin extends Plugin
 						return false;
 				}
 			}).map(TeleportPoint::new)
-			.forEach(worldMapPointManager::add);
+			.collect(Collectors.toList()));
 	}
 }
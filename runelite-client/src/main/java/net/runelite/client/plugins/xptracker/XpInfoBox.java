@@ -38,7 +38,6 @@ import javax.swing.JMenuItem;
 import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
 import javax.swing.SwingConstants;
-import javax.swing.SwingUtilities;
 import javax.swing.border.EmptyBorder;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -182,12 +181,7 @@ class XpInfoBox extends JPanel
 		panel.revalidate();
 	}
 
-	void update(boolean updated, boolean paused, XpSnapshotSingle xpSnapshotSingle)
-	{
-		SwingUtilities.invokeLater(() -> rebuildAsync(updated, paused, xpSnapshotSingle));
-	}
-
-	private void rebuildAsync(boolean updated, boolean skillPaused, XpSnapshotSingle xpSnapshotSingle)
+	void update(boolean updated, boolean skillPaused, XpSnapshotSingle xpSnapshotSingle)
 	{
 		if (updated)
 		{
@@ -29,6 +29,7 @@ import java.awt.BorderLayout;
 import java.awt.GridLayout;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.swing.BoxLayout;
 import javax.swing.ImageIcon;
 import javax.swing.JLabel;
@@ -53,6 +54,7 @@ import okhttp3.HttpUrl;
 class XpPanel extends PluginPanel
 {
 	private final Map<Skill, XpInfoBox> infoBoxes = new HashMap<>();
+	private final AtomicReference<XpSnapshot> pendingSnapshot = new AtomicReference<>();
 
 	private final JLabel overallExpGained = new JLabel(XpInfoBox.htmlLabel("Gained: ", 0));
 	private final JLabel overallExpHour = new JLabel(XpInfoBox.htmlLabel("Per hour: ", 0));
@@ -175,17 +177,34 @@ class XpPanel extends PluginPanel
 		}
 	}
 
-	void updateSkillExperience(boolean updated, boolean paused, Skill skill, XpSnapshotSingle xpSnapshotSingle)
+	/**
+	 * Queue a snapshot to be shown. Snapshots published before the EDT gets to the
+	 * previous one are merged into it, so the panel is rebuilt once for all of them.
+	 * @param xpSnapshot the snapshot to show
+	 */
+	void update(XpSnapshot xpSnapshot)
 	{
-		final XpInfoBox xpInfoBox = infoBoxes.get(skill);
+		if (pendingSnapshot.getAndAccumulate(xpSnapshot, (prev, next) -> prev == null ? next : prev.merge(next)) == null)
+		{
+			SwingUtilities.invokeLater(this::rebuildAsync);
+		}
+	}
 
-		if (xpInfoBox != null)
+	private void rebuildAsync()
+	{
+		final XpSnapshot xpSnapshot = pendingSnapshot.getAndSet(null);
+		if (xpSnapshot == null)
 		{
-			xpInfoBox.update(updated, paused, xpSnapshotSingle);
+			return;
 		}
+
+		infoBoxes.forEach((skill, xpInfoBox) ->
+			xpInfoBox.update(xpSnapshot.isUpdated(skill), xpSnapshot.isPaused(skill), xpSnapshot.getSkill(skill)));
+
+		updateTotal(xpSnapshot.getSkill(Skill.OVERALL));
 	}
 
-	void updateTotal(XpSnapshotSingle xpSnapshotTotal)
+	private void updateTotal(XpSnapshotSingle xpSnapshotTotal)
 	{
 		// if player has gained exp and hasn't switched displays yet, hide error panel and show overall info
 		if (xpSnapshotTotal.getXpGainedInSession() > 0 && !overallPanel.isVisible())
@@ -199,11 +218,6 @@ class XpPanel extends PluginPanel
 			add(errorPanel);
 		}
 
-		SwingUtilities.invokeLater(() -> rebuildAsync(xpSnapshotTotal));
-	}
-
-	private void rebuildAsync(XpSnapshotSingle xpSnapshotTotal)
-	{
 		overallExpGained.setText(XpInfoBox.htmlLabel("Gained: ", xpSnapshotTotal.getXpGainedInSession()));
 		overallExpHour.setText(XpInfoBox.htmlLabel("Per hour: ", xpSnapshotTotal.getXpPerHour()));
 	}
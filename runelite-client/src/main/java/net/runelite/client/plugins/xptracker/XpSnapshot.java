@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2018, Levi <me@levischuck.com>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.xptracker;
+
+import lombok.Value;
+import net.runelite.api.Skill;
+
+/**
+ * Immutable snapshot of every skill, published once per tick for the UI and other plugins
+ */
+@Value
+class XpSnapshot
+{
+	/**
+	 * Skill snapshots, indexed by skill ordinal
+	 */
+	private XpSnapshotSingle[] skills;
+	/**
+	 * Bits, by skill ordinal, of the skills which gained experience or actions since the previous snapshot
+	 */
+	private long updatedSkills;
+	/**
+	 * Bits, by skill ordinal, of the paused skills
+	 */
+	private long pausedSkills;
+
+	XpSnapshotSingle getSkill(Skill skill)
+	{
+		return skills[skill.ordinal()];
+	}
+
+	boolean isUpdated(Skill skill)
+	{
+		return (updatedSkills & (1L << skill.ordinal())) != 0;
+	}
+
+	boolean isPaused(Skill skill)
+	{
+		return (pausedSkills & (1L << skill.ordinal())) != 0;
+	}
+
+	/**
+	 * Combine this snapshot with a newer one which replaces it before it was applied
+	 * @param next the newer snapshot
+	 * @return the newer snapshot, keeping the skills updated in either
+	 */
+	XpSnapshot merge(XpSnapshot next)
+	{
+		return new XpSnapshot(next.skills, updatedSkills | next.updatedSkills, next.pausedSkills);
+	}
+}
@@ -24,31 +24,64 @@
  */
 package net.runelite.client.plugins.xptracker;
 
-import java.util.EnumMap;
-import java.util.Map;
-import lombok.NonNull;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.api.Experience;
 import net.runelite.api.NPC;
 import net.runelite.api.Skill;
 
 /**
  * Internal state for the XpTrackerPlugin
  *
- * Note: This class's operations are not currently synchronized.
- * It is intended to be called by the XpTrackerPlugin on the client thread.
+ * The state of every skill is kept in primitive arrays indexed by skill ordinal, and each
+ * rate is kept as a running total so an xp drop updates it in constant time. All of it,
+ * including the skill times, is only used by the XpTrackerPlugin on the client thread.
+ * Other threads should read {@link XpSnapshot}s.
  */
+@Slf4j
 class XpState
 {
 	private static final double DEFAULT_XP_MODIFIER = 4.0;
 	private static final double SHARED_XP_MODIFIER = DEFAULT_XP_MODIFIER / 3.0;
-	private final Map<Skill, XpStateSingle> xpSkills = new EnumMap<>(Skill.class);
+
+	private static final Skill[] SKILLS = Skill.values();
+	private static final XpActionType[] ACTION_TYPES = XpActionType.values();
+
+	/**
+	 * Number of recent actions averaged for the actions remaining to goal
+	 */
+	private static final int ACTION_HISTORY = 10;
+
+	private final long[] startXp = new long[SKILLS.length];
+	private final int[] xpGained = new int[SKILLS.length];
+	private final int[] startLevelExp = new int[SKILLS.length];
+	private final int[] endLevelExp = new int[SKILLS.length];
+	private final int[] actionTypes = new int[SKILLS.length];
+	private final long[] skillTimes = new long[SKILLS.length];
+
+	// per skill and action type, indexed by action(skill, type)
+	private final int[] actions = new int[SKILLS.length * ACTION_TYPES.length];
+	private final boolean[] historyInitialized = new boolean[SKILLS.length * ACTION_TYPES.length];
+	private final int[] historyIndex = new int[SKILLS.length * ACTION_TYPES.length];
+	private final long[] historySum = new long[SKILLS.length * ACTION_TYPES.length];
+	private final int[] history = new int[SKILLS.length * ACTION_TYPES.length * ACTION_HISTORY];
+
 	private NPC interactedNPC;
 
+	XpState()
+	{
+		reset();
+	}
+
 	/**
 	 * Destroys all internal state, however any XpSnapshotSingle or XpSnapshotTotal remain unaffected.
 	 */
 	void reset()
 	{
-		xpSkills.clear();
+		for (Skill skill : SKILLS)
+		{
+			clear(skill, -1);
+		}
 	}
 
 	/**
@@ -58,8 +91,33 @@ class XpState
 	 */
 	void resetSkill(Skill skill, long currentXp)
 	{
-		xpSkills.remove(skill);
-		xpSkills.put(skill, new XpStateSingle(skill, currentXp));
+		clear(skill, currentXp);
+	}
+
+	private void clear(Skill skill, long currentXp)
+	{
+		final int s = skill.ordinal();
+		startXp[s] = currentXp;
+		xpGained[s] = 0;
+		startLevelExp[s] = 0;
+		endLevelExp[s] = 0;
+		actionTypes[s] = XpActionType.EXPERIENCE.ordinal();
+		skillTimes[s] = 0;
+
+		for (XpActionType type : ACTION_TYPES)
+		{
+			final int a = action(s, type);
+			actions[a] = 0;
+			historyInitialized[a] = false;
+			historyIndex[a] = 0;
+			historySum[a] = 0;
+			Arrays.fill(history, a * ACTION_HISTORY, (a + 1) * ACTION_HISTORY, 0);
+		}
+	}
+
+	private static int action(int skill, XpActionType type)
+	{
+		return skill * ACTION_TYPES.length + type.ordinal();
 	}
 
 	/**
@@ -75,9 +133,9 @@ class XpState
 	 */
 	XpUpdateResult updateSkill(Skill skill, long currentXp, int goalStartXp, int goalEndXp)
 	{
-		XpStateSingle state = getSkill(skill);
+		final int s = skill.ordinal();
 
-		if (state.getStartXp() == -1)
+		if (startXp[s] == -1)
 		{
 			if (currentXp >= 0)
 			{
@@ -91,10 +149,7 @@ class XpState
 		}
 		else
 		{
-			long startXp = state.getStartXp();
-			int gainedXp = state.getXpGained();
-
-			if (startXp + gainedXp > currentXp)
+			if (startXp[s] + xpGained[s] > currentXp)
 			{
 				// Reinitialize with lesser currentXp, this can happen with negative xp lamps
 				initializeSkill(skill, currentXp);
@@ -102,11 +157,82 @@ class XpState
 			}
 			else
 			{
-				return state.update(currentXp, goalStartXp, goalEndXp) ? XpUpdateResult.UPDATED : XpUpdateResult.NO_CHANGE;
+				return update(skill, currentXp, goalStartXp, goalEndXp) ? XpUpdateResult.UPDATED : XpUpdateResult.NO_CHANGE;
 			}
 		}
 	}
 
+	private boolean update(Skill skill, long currentXp, int goalStartXp, int goalEndXp)
+	{
+		final int s = skill.ordinal();
+		final int actionExp = (int) (currentXp - (startXp[s] + xpGained[s]));
+
+		// No experience gained
+		if (actionExp == 0)
+		{
+			return false;
+		}
+
+		// Update EXPERIENCE action
+		final int a = action(s, XpActionType.EXPERIENCE);
+		recordAction(a, actionExp);
+		historyIndex[a] = (historyIndex[a] + 1) % ACTION_HISTORY;
+		actions[a]++;
+
+		// Calculate experience gained
+		xpGained[s] = (int) (currentXp - startXp[s]);
+
+		// Determine XP goals, overall has no goals
+		if (skill != Skill.OVERALL)
+		{
+			if (goalStartXp <= 0 || currentXp > goalEndXp)
+			{
+				startLevelExp[s] = Experience.getXpForLevel(Experience.getLevelForXp((int) currentXp));
+			}
+			else
+			{
+				startLevelExp[s] = goalStartXp;
+			}
+
+			if (goalEndXp <= 0 || currentXp > goalEndXp)
+			{
+				int currentLevel = Experience.getLevelForXp((int) currentXp);
+				endLevelExp[s] = currentLevel + 1 <= Experience.MAX_VIRT_LEVEL
+					? Experience.getXpForLevel(currentLevel + 1)
+					: Experience.MAX_SKILL_XP;
+			}
+			else
+			{
+				endLevelExp[s] = goalEndXp;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Write an action's xp into the current history slot, keeping the history's running total
+	 */
+	private void recordAction(int a, int actionExp)
+	{
+		final int base = a * ACTION_HISTORY;
+
+		if (historyInitialized[a])
+		{
+			final int slot = base + historyIndex[a];
+			historySum[a] += actionExp - history[slot];
+			history[slot] = actionExp;
+		}
+		else
+		{
+			// populate all values in our action history array with this first value that we see
+			// so the average value of our action history starts out as this first value we see
+			Arrays.fill(history, base, base + ACTION_HISTORY, actionExp);
+			historySum[a] = (long) actionExp * ACTION_HISTORY;
+			historyInitialized[a] = true;
+		}
+	}
+
 	private double getCombatXPModifier(Skill skill)
 	{
 		if (skill == Skill.HITPOINTS)
@@ -130,32 +256,20 @@ class XpState
 			return;
 		}
 
-		final XpStateSingle state = getSkill(skill);
+		final int s = skill.ordinal();
 		final int actionExp = (int) (npcHealth * getCombatXPModifier(skill));
-		final XpAction action = state.getXpAction(XpActionType.ACTOR_HEALTH);
+		final int a = action(s, XpActionType.ACTOR_HEALTH);
+		final boolean initialized = historyInitialized[a];
 
-		if (action.isActionsHistoryInitialized())
-		{
-			action.getActionExps()[action.getActionExpIndex()] = actionExp;
+		recordAction(a, actionExp);
 
-			if (interactedNPC != npc)
-			{
-				action.setActionExpIndex((action.getActionExpIndex() + 1) % action.getActionExps().length);
-			}
-		}
-		else
+		if (initialized && interactedNPC != npc)
 		{
-			// So we have a decent average off the bat, lets populate all values with what we see.
-			for (int i = 0; i < action.getActionExps().length; i++)
-			{
-				action.getActionExps()[i] = actionExp;
-			}
-
-			action.setActionsHistoryInitialized(true);
+			historyIndex[a] = (historyIndex[a] + 1) % ACTION_HISTORY;
 		}
 
 		interactedNPC = npc;
-		state.setActionType(XpActionType.ACTOR_HEALTH);
+		actionTypes[s] = XpActionType.ACTOR_HEALTH.ordinal();
 	}
 
 	/**
@@ -168,21 +282,34 @@ class XpState
 	 */
 	XpUpdateResult updateNpcKills(Skill skill, NPC npc, Integer npcHealth)
 	{
-		XpStateSingle state = getSkill(skill);
+		final int s = skill.ordinal();
 
-		if (state.getXpGained() <= 0 || npcHealth == null || npc != interactedNPC)
+		if (xpGained[s] <= 0 || npcHealth == null || npc != interactedNPC)
 		{
 			return XpUpdateResult.NO_CHANGE;
 		}
 
-		final XpAction xpAction = state.getXpAction(XpActionType.ACTOR_HEALTH);
-		xpAction.setActions(xpAction.getActions() + 1);
-		return xpAction.isActionsHistoryInitialized() ? XpUpdateResult.UPDATED : XpUpdateResult.NO_CHANGE;
+		final int a = action(s, XpActionType.ACTOR_HEALTH);
+		actions[a]++;
+		return historyInitialized[a] ? XpUpdateResult.UPDATED : XpUpdateResult.NO_CHANGE;
+	}
+
+	void setActionType(Skill skill, XpActionType actionType)
+	{
+		actionTypes[skill.ordinal()] = actionType.ordinal();
 	}
 
 	void tick(Skill skill, long delta)
 	{
-		getSkill(skill).tick(delta);
+		final int s = skill.ordinal();
+
+		// Don't tick skills that have not gained XP or have been reset.
+		if (xpGained[s] <= 0)
+		{
+			return;
+		}
+
+		skillTimes[s] += delta;
 	}
 
 	/**
@@ -193,19 +320,29 @@ class XpState
 	 */
 	void initializeSkill(Skill skill, long currentXp)
 	{
-		xpSkills.put(skill, new XpStateSingle(skill, currentXp));
+		clear(skill, currentXp);
 	}
 
 	boolean isInitialized(Skill skill)
 	{
-		XpStateSingle xpStateSingle = xpSkills.get(skill);
-		return xpStateSingle != null && xpStateSingle.getStartXp() != -1;
+		return startXp[skill.ordinal()] != -1;
 	}
 
-	@NonNull
-	XpStateSingle getSkill(Skill skill)
+	/**
+	 * Obtain an immutable snapshot of every skill, intended for use with the UI which operates on
+	 * another thread
+	 * @param updatedSkills bits, by skill ordinal, of the skills whose xp changed since the last snapshot
+	 * @param pausedSkills bits, by skill ordinal, of the paused skills
+	 * @return An immutable snapshot of the session since first login or last reset
+	 */
+	XpSnapshot snapshot(long updatedSkills, long pausedSkills)
 	{
-		return xpSkills.computeIfAbsent(skill, (s) -> new XpStateSingle(s, -1));
+		final XpSnapshotSingle[] snapshots = new XpSnapshotSingle[SKILLS.length];
+		for (Skill skill : SKILLS)
+		{
+			snapshots[skill.ordinal()] = getSkillSnapshot(skill);
+		}
+		return new XpSnapshot(snapshots, updatedSkills, pausedSkills);
 	}
 
 	/**
@@ -214,20 +351,105 @@ class XpState
 	 * @param skill Skill to obtain the snapshot for
 	 * @return An immutable snapshot of the specified skill for this session since first login or last reset
 	 */
-	@NonNull
 	XpSnapshotSingle getSkillSnapshot(Skill skill)
 	{
-		return getSkill(skill).snapshot();
+		final int s = skill.ordinal();
+		final XpActionType actionType = ACTION_TYPES[actionTypes[s]];
+		final int a = action(s, actionType);
+		final long seconds = getTimeElapsedInSeconds(s);
+		final int xpRemaining = endLevelExp[s] - (int) (startXp[s] + xpGained[s]);
+
+		return XpSnapshotSingle.builder()
+			.startLevel(Experience.getLevelForXp(startLevelExp[s]))
+			.endLevel(Experience.getLevelForXp(endLevelExp[s]))
+			.xpGainedInSession(xpGained[s])
+			.xpRemainingToGoal(xpRemaining)
+			.xpPerHour(toHourly(xpGained[s], seconds))
+			.skillProgressToGoal(getSkillProgress(s))
+			.actionType(actionType)
+			.actionsInSession(actions[a])
+			.actionsRemainingToGoal(getActionsRemaining(a, xpRemaining))
+			.actionsPerHour(toHourly(actions[a], seconds))
+			.timeTillGoal(getTimeTillLevel(seconds, xpGained[s], xpRemaining))
+			.startGoalXp(startLevelExp[s])
+			.endGoalXp(endLevelExp[s])
+			.build();
 	}
 
-	/**
-	 * Obtain an immutable snapshot of the provided skill
-	 * intended for use with the UI which operates on another thread
-	 * @return An immutable snapshot of total information for this session since first login or last reset
-	 */
-	@NonNull
-	XpSnapshotSingle getTotalSnapshot()
+	private static int toHourly(int value, long seconds)
 	{
-		return getSkill(Skill.OVERALL).snapshot();
+		return (int) ((1.0 / (seconds / 3600.0)) * value);
+	}
+
+	private long getTimeElapsedInSeconds(int s)
+	{
+		// If the skill started just now, we can divide by near zero, this results in odd behavior.
+		// To prevent that, pretend the skill has been active for a minute (60 seconds)
+		// This will create a lower estimate for the first minute,
+		// but it isn't ridiculous like saying 2 billion XP per hour.
+		return Math.max(60, skillTimes[s] / 1000);
+	}
+
+	private int getActionsRemaining(int a, int xpRemaining)
+	{
+		// Let's not divide by zero (or negative)
+		if (historyInitialized[a] && historySum[a] > 0)
+		{
+			long totalXpRemaining = (long) xpRemaining * ACTION_HISTORY;
+			long totalActionXp = historySum[a];
+
+			// Make sure to account for the very last action at the end
+			long remainder = totalXpRemaining % totalActionXp;
+			long quotient = totalXpRemaining / totalActionXp;
+			return Math.toIntExact(quotient + (remainder > 0 ? 1 : 0));
+		}
+
+		return Integer.MAX_VALUE;
+	}
+
+	private double getSkillProgress(int s)
+	{
+		double xpGained = startXp[s] + this.xpGained[s] - startLevelExp[s];
+		double xpGoal = endLevelExp[s] - startLevelExp[s];
+		return (xpGained / xpGoal) * 100;
+	}
+
+	private static String getTimeTillLevel(long seconds, int xpGained, int xpRemaining)
+	{
+		if (seconds <= 0 || xpGained <= 0)
+		{
+			// Infinity symbol
+			return "\u221e";
+		}
+
+		// formula is xpRemaining / xpPerSecond
+		// xpPerSecond being xpGained / seconds
+		// This can be simplified so division is only done once and we can work in whole numbers!
+		long remainingSeconds = (xpRemaining * seconds) / xpGained;
+
+		// Java 8 doesn't have good duration / period objects to represent spans of time that can be formatted
+		// Rather than importing another dependency like joda time (which is practically built into java 10)
+		// below will be a custom formatter that handles spans larger than 1 day
+
+		long durationDays = remainingSeconds / (24 * 60 * 60);
+		long durationHours = (remainingSeconds % (24 * 60 * 60)) / (60 * 60);
+		long durationMinutes = (remainingSeconds % (60 * 60)) / 60;
+		long durationSeconds = remainingSeconds % 60;
+
+		if (durationDays > 1)
+		{
+			return String.format("%d days %02d:%02d:%02d", durationDays, durationHours, durationMinutes, durationSeconds);
+		}
+		else if (durationDays == 1)
+		{
+			return String.format("1 day %02d:%02d:%02d", durationHours, durationMinutes, durationSeconds);
+		}
+		else if (durationHours > 0)
+		{
+			return String.format("%02d:%02d:%02d", durationHours, durationMinutes, durationSeconds);
+		}
+
+		// Minutes and seconds will always be present
+		return String.format("%02d:%02d", durationMinutes, durationSeconds);
 	}
 }
@@ -34,6 +34,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.inject.Inject;
 import lombok.extern.slf4j.Slf4j;
 import net.runelite.api.Actor;
@@ -49,6 +50,7 @@ import net.runelite.api.events.ExperienceChanged;
 import net.runelite.api.events.GameStateChanged;
 import net.runelite.api.events.GameTick;
 import net.runelite.api.events.NpcDespawned;
+import net.runelite.client.callback.ClientThread;
 import net.runelite.client.config.ConfigManager;
 import net.runelite.client.eventbus.Subscribe;
 import net.runelite.client.game.NPCManager;
@@ -89,6 +91,9 @@ public class XpTrackerPlugin extends Plugin
 	@Inject
 	private Client client;
 
+	@Inject
+	private ClientThread clientThread;
+
 	@Inject
 	private SkillIconManager skillIconManager;
 
@@ -110,6 +115,12 @@ public class XpTrackerPlugin extends Plugin
 	private final XpState xpState = new XpState();
 	private final XpPauseState xpPauseState = new XpPauseState();
 
+	/**
+	 * Bits, by skill ordinal, of the skills updated since the last published snapshot
+	 */
+	private final AtomicLong updatedSkills = new AtomicLong();
+	private volatile XpSnapshot snapshot = xpState.snapshot(0, 0);
+
 	@Provides
 	XpTrackerConfig provideConfig(ConfigManager configManager)
 	{
@@ -142,7 +153,12 @@ public class XpTrackerPlugin extends Plugin
 	@Override
 	protected void shutDown() throws Exception
 	{
-		xpState.reset();
+		clientThread.invoke(() ->
+		{
+			xpState.reset();
+			updatedSkills.set(0);
+			snapshot = xpState.snapshot(0, 0);
+		});
 		clientToolbar.removeNavigation(navButton);
 	}
 
@@ -215,22 +231,25 @@ public class XpTrackerPlugin extends Plugin
 	 */
 	void resetAndInitState()
 	{
-		resetState();
-
-		for (Skill skill : Skill.values())
+		clientThread.invoke(() ->
 		{
-			long currentXp;
-			if (skill == Skill.OVERALL)
-			{
-				currentXp = client.getOverallExperience();
-			}
-			else
+			resetState();
+
+			for (Skill skill : Skill.values())
 			{
-				currentXp = client.getSkillExperience(skill);
+				long currentXp;
+				if (skill == Skill.OVERALL)
+				{
+					currentXp = client.getOverallExperience();
+				}
+				else
+				{
+					currentXp = client.getSkillExperience(skill);
+				}
+
+				xpState.initializeSkill(skill, currentXp);
 			}
-
-			xpState.initializeSkill(skill, currentXp);
-		}
+		});
 	}
 
 	/**
@@ -240,8 +259,9 @@ public class XpTrackerPlugin extends Plugin
 	private void resetState()
 	{
 		xpState.reset();
+		updatedSkills.set(0);
 		xpPanel.resetAllInfoBoxes();
-		xpPanel.updateTotal(new XpSnapshotSingle.XpSnapshotSingleBuilder().build());
+		publishSnapshot();
 	}
 
 	/**
@@ -251,8 +271,7 @@ public class XpTrackerPlugin extends Plugin
 	 */
 	void resetSkillState(Skill skill)
 	{
-		int currentXp = client.getSkillExperience(skill);
-		xpState.resetSkill(skill, currentXp);
+		clientThread.invoke(() -> xpState.resetSkill(skill, client.getSkillExperience(skill)));
 		xpPanel.resetSkill(skill);
 	}
 
@@ -289,8 +308,7 @@ public class XpTrackerPlugin extends Plugin
 			return;
 		}
 
-		final XpStateSingle state = xpState.getSkill(skill);
-		state.setActionType(XpActionType.EXPERIENCE);
+		xpState.setActionType(skill, XpActionType.EXPERIENCE);
 
 		final Actor interacting = client.getLocalPlayer().getInteracting();
 		if (interacting instanceof NPC && COMBAT.contains(skill))
@@ -300,7 +318,10 @@ public class XpTrackerPlugin extends Plugin
 		}
 
 		final XpUpdateResult updateResult = xpState.updateSkill(skill, currentXp, startGoalXp, endGoalXp);
-		xpPanel.updateSkillExperience(updateResult == XpUpdateResult.UPDATED, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+		if (updateResult == XpUpdateResult.UPDATED)
+		{
+			markUpdated(skill);
+		}
 
 		if (skill == Skill.CONSTRUCTION && updateResult == XpUpdateResult.INITIALIZED)
 		{
@@ -312,7 +333,6 @@ public class XpTrackerPlugin extends Plugin
 		else if (xpState.isInitialized(Skill.OVERALL))
 		{
 			xpState.updateSkill(Skill.OVERALL, client.getOverallExperience(), -1, -1);
-			xpPanel.updateTotal(xpState.getTotalSnapshot());
 		}
 	}
 
@@ -329,17 +349,17 @@ public class XpTrackerPlugin extends Plugin
 		for (Skill skill : COMBAT)
 		{
 			final XpUpdateResult updateResult = xpState.updateNpcKills(skill, npc, npcManager.getHealth(npc.getName(), npc.getCombatLevel()));
-			final boolean updated = XpUpdateResult.UPDATED.equals(updateResult);
-			xpPanel.updateSkillExperience(updated, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+			if (updateResult == XpUpdateResult.UPDATED)
+			{
+				markUpdated(skill);
+			}
 		}
-
-		xpPanel.updateTotal(xpState.getTotalSnapshot());
 	}
 
 	@Subscribe
 	public void onGameTick(GameTick event)
 	{
-		rebuildSkills();
+		publishSnapshot();
 		if (fetchXp)
 		{
 			lastXp = client.getOverallExperience();
@@ -347,9 +367,41 @@ public class XpTrackerPlugin extends Plugin
 		}
 	}
 
+	/**
+	 * Get the skill's state as of the last published snapshot
+	 * @param skill skill to get the snapshot of
+	 * @return the skill's snapshot
+	 */
 	XpSnapshotSingle getSkillSnapshot(Skill skill)
 	{
-		return xpState.getSkillSnapshot(skill);
+		return snapshot.getSkill(skill);
+	}
+
+	private void markUpdated(Skill skill)
+	{
+		final long bit = 1L << skill.ordinal();
+		updatedSkills.getAndUpdate(bits -> bits | bit);
+	}
+
+	/**
+	 * Publish a snapshot of every skill to the xp tracker service and the panel. Skill updates
+	 * between snapshots are coalesced into the next one, so the panel rebuilds once per tick.
+	 * This must be called on the client thread, which is the only thread the xp state is used from.
+	 */
+	private void publishSnapshot()
+	{
+		long paused = 0;
+		for (Skill skill : Skill.values())
+		{
+			if (xpPauseState.isPaused(skill))
+			{
+				paused |= 1L << skill.ordinal();
+			}
+		}
+
+		final XpSnapshot xpSnapshot = xpState.snapshot(updatedSkills.getAndSet(0), paused);
+		snapshot = xpSnapshot;
+		xpPanel.update(xpSnapshot);
 	}
 
 	private static VarPlayer startGoalVarpForSkill(final Skill skill)
@@ -467,6 +519,11 @@ public class XpTrackerPlugin extends Plugin
 		unit = ChronoUnit.SECONDS
 	)
 	public void tickSkillTimes()
+	{
+		clientThread.invoke(this::updateSkillTimes);
+	}
+
+	private void updateSkillTimes()
 	{
 		// Adjust unpause states
 		for (Skill skill : Skill.values())
@@ -504,33 +561,43 @@ public class XpTrackerPlugin extends Plugin
 			}
 		}
 
-		rebuildSkills();
-	}
-
-	private void rebuildSkills()
-	{
-		// Rebuild calculated values like xp/hr in panel
-		for (Skill skill : Skill.values())
+		// Rebuild calculated values like xp/hr while there are no game ticks to publish them
+		if (client.getGameState() != GameState.LOGGED_IN)
 		{
-			xpPanel.updateSkillExperience(false, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
+			publishSnapshot();
 		}
-
-		xpPanel.updateTotal(xpState.getTotalSnapshot());
 	}
 
 	void pauseSkill(Skill skill, boolean pause)
 	{
-		if (pause ? xpPauseState.pauseSkill(skill) : xpPauseState.unpauseSkill(skill))
+		clientThread.invoke(() ->
 		{
-			xpPanel.updateSkillExperience(false, xpPauseState.isPaused(skill), skill, xpState.getSkillSnapshot(skill));
-		}
+			if (setPaused(skill, pause))
+			{
+				publishSnapshot();
+			}
+		});
 	}
 
 	void pauseAllSkills(boolean pause)
 	{
-		for (Skill skill : Skill.values())
+		clientThread.invoke(() ->
 		{
-			pauseSkill(skill, pause);
-		}
+			boolean changed = false;
+			for (Skill skill : Skill.values())
+			{
+				changed |= setPaused(skill, pause);
+			}
+
+			if (changed)
+			{
+				publishSnapshot();
+			}
+		});
+	}
+
+	private boolean setPaused(Skill skill, boolean pause)
+	{
+		return pause ? xpPauseState.pauseSkill(skill) : xpPauseState.unpauseSkill(skill);
 	}
 }
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.rs;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import net.runelite.client.RuneLite;
+
+/**
+ * On-disk cache of the verified, and possibly patched, gamepack classes.
+ * Entries are keyed by the gamepack location and the set of patches which
+ * were applied to it, so a client or gamepack update invalidates the cache.
+ */
+@Slf4j
+class ClientCache
+{
+	private static final File CLIENT_CACHE_DIR = new File(RuneLite.CACHE_DIR, "client");
+	private static final String CACHE_EXTENSION = ".cache";
+	private static final int MAGIC = 0x524c4343; // RLCC
+	private static final int VERSION = 1;
+
+	private final File file;
+	private final String key;
+
+	ClientCache(RSConfig config, ClientUpdateCheckMode updateCheckMode, byte[] patchHashes)
+	{
+		Hasher hasher = Hashing.sha256().newHasher()
+			.putString(config.getCodeBase(), StandardCharsets.UTF_8)
+			.putString(config.getInitialJar(), StandardCharsets.UTF_8)
+			.putString(updateCheckMode.name(), StandardCharsets.UTF_8);
+		if (patchHashes != null)
+		{
+			hasher.putBytes(patchHashes);
+		}
+
+		this.key = hasher.hash().toString();
+		this.file = new File(CLIENT_CACHE_DIR, key + CACHE_EXTENSION);
+	}
+
+	/**
+	 * Read the cached class map
+	 *
+	 * @return the cached classes, or null if there is no usable cache
+	 */
+	Map<String, byte[]> read()
+	{
+		if (!file.exists())
+		{
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file))))
+		{
+			if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(in.readUTF()))
+			{
+				log.debug("Client cache {} is invalid", file);
+				return null;
+			}
+
+			// Counts and lengths are checked against the file size, so a corrupt cache
+			// is discarded instead of failing the allocation
+			final long fileSize = file.length();
+			int count = in.readInt();
+			if (count < 0 || count > fileSize)
+			{
+				throw new IOException("invalid class count " + count);
+			}
+
+			Map<String, byte[]> classes = new HashMap<>(count * 2);
+			for (int i = 0; i < count; ++i)
+			{
+				String name = in.readUTF();
+				int length = in.readInt();
+				if (length < 0 || length > fileSize)
+				{
+					throw new IOException("invalid length " + length + " for class " + name);
+				}
+
+				byte[] data = new byte[length];
+				in.readFully(data);
+				classes.put(name, data);
+			}
+
+			return classes;
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to read client cache", ex);
+			file.delete();
+			return null;
+		}
+	}
+
+	/**
+	 * Write the class map to the cache, replacing any cache for a previous gamepack
+	 *
+	 * @param classes the classes to cache
+	 */
+	void write(Map<String, byte[]> classes)
+	{
+		CLIENT_CACHE_DIR.mkdirs();
+
+		File tmp = new File(CLIENT_CACHE_DIR, key + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp))))
+		{
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(key);
+			out.writeInt(classes.size());
+			for (Map.Entry<String, byte[]> entry : classes.entrySet())
+			{
+				out.writeUTF(entry.getKey());
+				out.writeInt(entry.getValue().length);
+				out.write(entry.getValue());
+			}
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to write client cache", ex);
+			tmp.delete();
+			return;
+		}
+
+		try
+		{
+			Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException ex)
+		{
+			log.warn("Unable to move client cache into place", ex);
+			tmp.delete();
+			return;
+		}
+
+		File[] files = CLIENT_CACHE_DIR.listFiles((dir, name) -> name.endsWith(CACHE_EXTENSION));
+		if (files != null)
+		{
+			for (File f : files)
+			{
+				if (!f.equals(file))
+				{
+					log.debug("Removing stale client cache {}", f);
+					f.delete();
+				}
+			}
+		}
+
+		log.debug("Wrote {} classes to client cache {}", classes.size(), file);
+	}
+}
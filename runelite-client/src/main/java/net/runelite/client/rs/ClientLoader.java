@@ -33,6 +33,7 @@ import com.google.gson.Gson;
 import io.sigpipe.jbsdiff.InvalidHeaderException;
 import io.sigpipe.jbsdiff.Patch;
 import java.applet.Applet;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -41,12 +42,15 @@ import java.net.URL;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateException;
 import java.security.cert.CertificateFactory;
+import java.util.AbstractMap;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
+import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -86,116 +90,57 @@ public class ClientLoader
 		{
 			RSConfig config = clientConfigLoader.fetch();
 
-			Map<String, byte[]> zipFile = new HashMap<>();
+			byte[] hashesJson = null;
+			if (updateCheckMode == AUTO)
 			{
-				Certificate[] jagexCertificateChain = getJagexCertificateChain();
-				String codebase = config.getCodeBase();
-				String initialJar = config.getInitialJar();
-				URL url = new URL(codebase + initialJar);
-				Request request = new Request.Builder()
-					.url(url)
-					.build();
-
-				try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+				try (InputStream is = ClientLoader.class.getResourceAsStream("/patch/hashes.json"))
 				{
-					JarInputStream jis = new JarInputStream(response.body().byteStream());
-
-					byte[] tmp = new byte[4096];
-					ByteArrayOutputStream buffer = new ByteArrayOutputStream(756 * 1024);
-					for (; ; )
-					{
-						JarEntry metadata = jis.getNextJarEntry();
-						if (metadata == null)
-						{
-							break;
-						}
-
-						buffer.reset();
-						for (; ; )
-						{
-							int n = jis.read(tmp);
-							if (n <= -1)
-							{
-								break;
-							}
-							buffer.write(tmp, 0, n);
-						}
-
-						if (!Arrays.equals(metadata.getCertificates(), jagexCertificateChain))
-						{
-							if (metadata.getName().startsWith("META-INF/"))
-							{
-								// META-INF/JAGEXLTD.SF and META-INF/JAGEXLTD.RSA are not signed, but we don't need
-								// anything in META-INF anyway.
-								continue;
-							}
-							else
-							{
-								throw new VerificationException("Unable to verify jar entry: " + metadata.getName());
-							}
-						}
-
-						zipFile.put(metadata.getName(), buffer.toByteArray());
-					}
+					hashesJson = ByteStreams.toByteArray(is);
 				}
 			}
 
-			if (updateCheckMode == AUTO)
+			ClientCache clientCache = new ClientCache(config, updateCheckMode, hashesJson);
+			Map<String, byte[]> cachedClasses = clientCache.read();
+			final Map<String, byte[]> zipFile;
+
+			if (cachedClasses != null)
 			{
-				Map<String, String> hashes;
-				try (InputStream is = ClientLoader.class.getResourceAsStream("/patch/hashes.json"))
-				{
-					hashes = new Gson().fromJson(new InputStreamReader(is), new TypeToken<HashMap<String, String>>()
-					{
-					}.getType());
-				}
+				log.debug("Loaded {} classes from client cache", cachedClasses.size());
+				zipFile = cachedClasses;
+			}
+			else
+			{
+				final ClientUpdateCheckMode requestedMode = updateCheckMode;
+				zipFile = download(config);
 
-				for (Map.Entry<String, String> file : hashes.entrySet())
+				if (updateCheckMode == AUTO)
 				{
-					byte[] bytes = zipFile.get(file.getKey());
-
-					String ourHash = null;
-					if (bytes != null)
-					{
-						ourHash = Hashing.sha512().hashBytes(bytes).toString();
-					}
+					Map<String, String> hashes = new Gson().fromJson(new InputStreamReader(new ByteArrayInputStream(hashesJson)),
+						new TypeToken<HashMap<String, String>>()
+						{
+						}.getType());
 
-					if (!file.getValue().equals(ourHash))
+					if (!verifyHashes(zipFile, hashes))
 					{
-						log.debug("{} had a hash mismatch; falling back to vanilla. {} != {}", file.getKey(), file.getValue(), ourHash);
 						log.info("Client is outdated!");
 						updateCheckMode = VANILLA;
-						break;
 					}
 				}
-			}
-
-			if (updateCheckMode == AUTO)
-			{
-				ByteArrayOutputStream patchOs = new ByteArrayOutputStream(756 * 1024);
-				int patchCount = 0;
 
-				for (Map.Entry<String, byte[]> file : zipFile.entrySet())
+				if (updateCheckMode == AUTO)
 				{
-					byte[] bytes;
-					try (InputStream is = ClientLoader.class.getResourceAsStream("/patch/" + file.getKey() + ".bs"))
-					{
-						if (is == null)
-						{
-							continue;
-						}
-
-						bytes = ByteStreams.toByteArray(is);
-					}
-
-					patchOs.reset();
-					Patch.patch(file.getValue(), bytes, patchOs);
-					file.setValue(patchOs.toByteArray());
-
-					++patchCount;
+					patch(zipFile);
 				}
 
-				log.debug("Patched {} classes", patchCount);
+				if (requestedMode != updateCheckMode)
+				{
+					// Don't pin the vanilla fallback; the next launch should retry with fresh patches
+					log.debug("Not caching client loaded in fallback mode {}", updateCheckMode);
+				}
+				else
+				{
+					clientCache.write(zipFile);
+				}
 			}
 
 			String initialClass = config.getInitialClass();
@@ -238,6 +183,150 @@ public class ClientLoader
 		}
 	}
 
+	private static Map<String, byte[]> download(RSConfig config) throws IOException, CertificateException, VerificationException
+	{
+		Map<String, byte[]> zipFile = new HashMap<>();
+		Certificate[] jagexCertificateChain = getJagexCertificateChain();
+		String codebase = config.getCodeBase();
+		String initialJar = config.getInitialJar();
+		URL url = new URL(codebase + initialJar);
+		Request request = new Request.Builder()
+			.url(url)
+			.build();
+
+		try (Response response = RuneLiteAPI.CLIENT.newCall(request).execute())
+		{
+			JarInputStream jis = new JarInputStream(response.body().byteStream());
+
+			byte[] tmp = new byte[4096];
+			ByteArrayOutputStream buffer = new ByteArrayOutputStream(756 * 1024);
+			for (; ; )
+			{
+				JarEntry metadata = jis.getNextJarEntry();
+				if (metadata == null)
+				{
+					break;
+				}
+
+				buffer.reset();
+				for (; ; )
+				{
+					int n = jis.read(tmp);
+					if (n <= -1)
+					{
+						break;
+					}
+					buffer.write(tmp, 0, n);
+				}
+
+				if (!Arrays.equals(metadata.getCertificates(), jagexCertificateChain))
+				{
+					if (metadata.getName().startsWith("META-INF/"))
+					{
+						// META-INF/JAGEXLTD.SF and META-INF/JAGEXLTD.RSA are not signed, but we don't need
+						// anything in META-INF anyway.
+						continue;
+					}
+					else
+					{
+						throw new VerificationException("Unable to verify jar entry: " + metadata.getName());
+					}
+				}
+
+				zipFile.put(metadata.getName(), buffer.toByteArray());
+			}
+		}
+
+		return zipFile;
+	}
+
+	/**
+	 * Check the downloaded classes against the hashes the patches were generated from.
+	 * The classes are hashed in parallel.
+	 *
+	 * @return true if every class matched its expected hash
+	 */
+	private static boolean verifyHashes(Map<String, byte[]> zipFile, Map<String, String> hashes)
+	{
+		return hashes.entrySet().parallelStream().allMatch(file ->
+		{
+			byte[] bytes = zipFile.get(file.getKey());
+
+			String ourHash = null;
+			if (bytes != null)
+			{
+				ourHash = Hashing.sha512().hashBytes(bytes).toString();
+			}
+
+			if (!file.getValue().equals(ourHash))
+			{
+				log.debug("{} had a hash mismatch; falling back to vanilla. {} != {}", file.getKey(), file.getValue(), ourHash);
+				return false;
+			}
+
+			return true;
+		});
+	}
+
+	/**
+	 * Apply the bundled patches to the classes in parallel, replacing the class bytes in place
+	 */
+	private static void patch(Map<String, byte[]> zipFile) throws IOException, CompressorException, InvalidHeaderException
+	{
+		Map<String, byte[]> patched;
+		try
+		{
+			patched = zipFile.entrySet().parallelStream()
+				.map(file -> patch(file.getKey(), file.getValue()))
+				.filter(Objects::nonNull)
+				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+		}
+		catch (PatchException e)
+		{
+			Throwable cause = e.getCause();
+			if (cause instanceof CompressorException)
+			{
+				throw (CompressorException) cause;
+			}
+			if (cause instanceof InvalidHeaderException)
+			{
+				throw (InvalidHeaderException) cause;
+			}
+			throw (IOException) cause;
+		}
+
+		zipFile.putAll(patched);
+		log.debug("Patched {} classes", patched.size());
+	}
+
+	private static Map.Entry<String, byte[]> patch(String name, byte[] bytes)
+	{
+		try (InputStream is = ClientLoader.class.getResourceAsStream("/patch/" + name + ".bs"))
+		{
+			if (is == null)
+			{
+				return null;
+			}
+
+			byte[] patch = ByteStreams.toByteArray(is);
+			ByteArrayOutputStream patchOs = new ByteArrayOutputStream(bytes.length + patch.length);
+			Patch.patch(bytes, patch, patchOs);
+			return new AbstractMap.SimpleImmutableEntry<>(name, patchOs.toByteArray());
+		}
+		catch (IOException | CompressorException | InvalidHeaderException e)
+		{
+			throw new PatchException(e);
+		}
+	}
+
+	private static class PatchException extends RuntimeException
+	{
+		PatchException(Exception cause)
+		{
+			super(cause);
+		}
+	}
+
 	private static Certificate[] getJagexCertificateChain() throws CertificateException
 	{
 		CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
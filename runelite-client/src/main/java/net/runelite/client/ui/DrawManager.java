@@ -40,6 +40,7 @@ public class DrawManager
 {
 	private final List<Runnable> everyFrame = new CopyOnWriteArrayList<>();
 	private final Queue<Consumer<Image>> nextFrame = new ConcurrentLinkedQueue<>();
+	private volatile FrameRecorder frameRecorder;
 
 	public void registerEveryFrameListener(Runnable everyFrameListener)
 	{
@@ -59,7 +60,17 @@ public class DrawManager
 		nextFrame.add(nextFrameListener);
 	}
 
-	public void processDrawComplete(Supplier<Image> imageSupplier)
+	/**
+	 * Set the recorder which every drawn frame is copied into
+	 *
+	 * @param frameRecorder the recorder, or null to stop recording
+	 */
+	public void setFrameRecorder(FrameRecorder frameRecorder)
+	{
+		this.frameRecorder = frameRecorder;
+	}
+
+	public void processDrawComplete(Supplier<Image> imageSupplier, FrameGrabber frameGrabber)
 	{
 		for (Runnable everyFrameListener : everyFrame)
 		{
@@ -73,6 +84,19 @@ public class DrawManager
 			}
 		}
 
+		final FrameRecorder frameRecorder = this.frameRecorder;
+		if (frameRecorder != null)
+		{
+			try
+			{
+				frameRecorder.capture(frameGrabber);
+			}
+			catch (Exception e)
+			{
+				log.warn("error recording frame", e);
+			}
+		}
+
 		Consumer<Image> nextFrameListener = nextFrame.poll();
 		Image image = null;
 		while (nextFrameListener != null)
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DirectColorModel;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * Keeps the last few seconds of drawn frames in a ring of preallocated pixel buffers.
+ * Once the ring is full, recording a frame only copies pixels into the oldest buffer.
+ * The ring is shortened for large frames so the buffers stay within a memory limit.
+ */
+public class FrameRecorder
+{
+	private static final DirectColorModel RGB = new DirectColorModel(24, 0xff0000, 0xff00, 0xff);
+
+	@Value
+	public static class Frame
+	{
+		private final long time;
+		private final int width;
+		private final int height;
+		private final int[] pixels;
+
+		/**
+		 * Create an image backed by the pixels of this frame
+		 */
+		public BufferedImage toImage()
+		{
+			DataBufferInt buffer = new DataBufferInt(pixels, width * height);
+			WritableRaster raster = Raster.createPackedRaster(buffer, width, height, width, RGB.getMasks(), null);
+			return new BufferedImage(RGB, raster, false, null);
+		}
+	}
+
+	private final int[][] frames;
+	private final long[] times;
+	private final long interval;
+	private final long maxBytes;
+
+	@Getter
+	private final int fps;
+
+	private int width;
+	private int height;
+	// number of frames of the current size which fit in the memory limit
+	private int capacity;
+	private int next;
+	private int count;
+	private long lastCapture;
+	private boolean paused;
+
+	/**
+	 * @param seconds  how many seconds of frames to keep
+	 * @param fps      how many frames per second to keep
+	 * @param maxBytes the most memory to use for frames, which limits the seconds kept of large frames
+	 */
+	public FrameRecorder(int seconds, int fps, long maxBytes)
+	{
+		this.fps = fps;
+		this.interval = 1000 / fps;
+		this.maxBytes = maxBytes;
+		this.frames = new int[seconds * fps][];
+		this.times = new long[frames.length];
+	}
+
+	void capture(FrameGrabber grabber)
+	{
+		capture(grabber, System.currentTimeMillis());
+	}
+
+	@VisibleForTesting
+	synchronized void capture(FrameGrabber grabber, long now)
+	{
+		if (paused || now - lastCapture < interval)
+		{
+			return;
+		}
+
+		final int width = grabber.getWidth();
+		final int height = grabber.getHeight();
+		if (width <= 0 || height <= 0)
+		{
+			return;
+		}
+
+		if (width != this.width || height != this.height)
+		{
+			// the old frames can't be reused for a different size
+			this.width = width;
+			this.height = height;
+			capacity = (int) Math.max(1, Math.min(frames.length, maxBytes / ((long) width * height * Integer.BYTES)));
+			next = count = 0;
+			Arrays.fill(frames, null);
+		}
+
+		int[] frame = frames[next];
+		if (frame == null)
+		{
+			frame = frames[next] = new int[width * height];
+		}
+
+		grabber.grab(frame);
+		times[next] = now;
+		next = (next + 1) % capacity;
+		count = Math.min(count + 1, capacity);
+		lastCapture = now;
+	}
+
+	/**
+	 * Stop recording, and get the recorded frames. The frames are backed by the
+	 * buffers of the recorder, so must not be used after {@link #resume()}.
+	 *
+	 * @return the frames, oldest first
+	 */
+	public synchronized List<Frame> pause()
+	{
+		paused = true;
+
+		if (count == 0)
+		{
+			return Collections.emptyList();
+		}
+
+		List<Frame> result = new ArrayList<>(count);
+		int idx = (next - count + capacity) % capacity;
+		for (int i = 0; i < count; ++i)
+		{
+			result.add(new Frame(times[idx], width, height, frames[idx]));
+			idx = (idx + 1) % capacity;
+		}
+		return result;
+	}
+
+	/**
+	 * Forget the recorded frames, keeping the buffers for reuse
+	 */
+	public synchronized void clear()
+	{
+		next = count = 0;
+	}
+
+	/**
+	 * Resume recording after {@link #pause()}
+	 */
+	public synchronized void resume()
+	{
+		paused = false;
+	}
+}
@@ -30,6 +30,7 @@ import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.awt.geom.Area;
 import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.List;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -54,6 +55,11 @@ public class WorldMapOverlay extends Overlay
 	private static final int TOOLTIP_OFFSET_WIDTH = 5;
 	private static final int TOOLTIP_PADDING_HEIGHT = 1;
 	private static final int TOOLTIP_PADDING_WIDTH = 2;
+	/**
+	 * Distance in pixels outside of the map which points are still drawn, so
+	 * images of points just off the map are drawn partially
+	 */
+	private static final int IMAGE_MARGIN = 64;
 
 	private final WorldMapPointManager worldMapPointManager;
 	private final Client client;
@@ -76,20 +82,29 @@ public class WorldMapOverlay extends Overlay
 	@Override
 	public Dimension render(Graphics2D graphics)
 	{
-		final List<WorldMapPoint> points = worldMapPointManager.getWorldMapPoints();
+		final List<WorldMapPoint> lastDrawn = worldMapPointManager.getDrawnPoints();
+		for (WorldMapPoint worldPoint : lastDrawn)
+		{
+			// points which are not visited this frame can no longer be clicked
+			worldPoint.setClickbox(null);
+		}
 
-		if (points.isEmpty())
+		if (worldMapPointManager.isEmpty())
 		{
+			worldMapPointManager.setDrawnPoints(Collections.emptyList());
 			return null;
 		}
 
 		Widget widget = client.getWidget(WidgetInfo.WORLD_MAP_VIEW);
 		if (widget == null)
 		{
+			worldMapPointManager.setDrawnPoints(Collections.emptyList());
 			return null;
 		}
 
 		final Rectangle worldMapRectangle = widget.getBounds();
+		final List<WorldMapPoint> points = getVisiblePoints(worldMapRectangle);
+		worldMapPointManager.setDrawnPoints(points);
 		final Area mapViewArea = getWorldMapClipArea(worldMapRectangle);
 		final Rectangle canvasBounds = client.getCanvas().getBounds();
 		// in fixed, the bounds are offset by the size of the black borders outside the canvas
@@ -179,6 +194,26 @@ public class WorldMapOverlay extends Overlay
 		return null;
 	}
 
+	/**
+	 * Get the points which are near enough to the visible area of the world map to be drawn
+	 *
+	 * @param worldMapRect bounds of the world map view
+	 * @return the points
+	 */
+	private List<WorldMapPoint> getVisiblePoints(Rectangle worldMapRect)
+	{
+		final RenderOverview ro = client.getRenderOverview();
+		final float pixelsPerTile = ro.getWorldMapZoom();
+		final Point worldMapPosition = ro.getWorldMapPosition();
+
+		final int halfWidthInTiles = (int) Math.ceil((worldMapRect.getWidth() / 2 + IMAGE_MARGIN) / pixelsPerTile) + 1;
+		final int halfHeightInTiles = (int) Math.ceil((worldMapRect.getHeight() / 2 + IMAGE_MARGIN) / pixelsPerTile) + 1;
+
+		return worldMapPointManager.getWorldMapPoints(
+			worldMapPosition.getX() - halfWidthInTiles, worldMapPosition.getY() - halfHeightInTiles,
+			worldMapPosition.getX() + halfWidthInTiles, worldMapPosition.getY() + halfHeightInTiles);
+	}
+
 	/**
 	 * Get the screen coordinates for a WorldPoint on the world map
 	 * @param worldPoint WorldPoint to get screen coordinates of
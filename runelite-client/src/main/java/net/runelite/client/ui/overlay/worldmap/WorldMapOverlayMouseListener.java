@@ -55,7 +55,7 @@ public class WorldMapOverlayMouseListener extends MouseAdapter
 	@Override
 	public MouseEvent mousePressed(MouseEvent e)
 	{
-		final List<WorldMapPoint> worldMapPoints = worldMapPointManager.getWorldMapPoints();
+		final List<WorldMapPoint> worldMapPoints = worldMapPointManager.getDrawnPoints();
 
 		if (SwingUtilities.isLeftMouseButton(e) && !worldMapPoints.isEmpty())
 		{
@@ -83,7 +83,7 @@ public class WorldMapOverlayMouseListener extends MouseAdapter
 	@Override
 	public MouseEvent mouseMoved(MouseEvent mouseEvent)
 	{
-		final List<WorldMapPoint> worldMapPoints = worldMapPointManager.getWorldMapPoints();
+		final List<WorldMapPoint> worldMapPoints = worldMapPointManager.getDrawnPoints();
 
 		if (worldMapPoints.isEmpty())
 		{
@@ -134,7 +134,7 @@ public class WorldMapOverlayMouseListener extends MouseAdapter
 			}
 		}
 
-		for (WorldMapPoint worldMapPoint : worldMapPointManager.getWorldMapPoints())
+		for (WorldMapPoint worldMapPoint : worldMapPointManager.getDrawnPoints())
 		{
 			if (worldMapPoint.getClickbox() != null
 				&& worldMapPoint.getClickbox().contains(mousePos.getX(), mousePos.getY())
@@ -27,7 +27,12 @@ package net.runelite.client.ui.overlay.worldmap;
 import java.awt.Rectangle;
 import java.awt.event.MouseEvent;
 import java.awt.image.BufferedImage;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import net.runelite.api.Point;
 import net.runelite.api.coords.WorldPoint;
 
@@ -59,12 +64,41 @@ public class WorldMapPoint
 
 	private String tooltip;
 
+	/**
+	 * The manager this point has been added to, which indexes it by location
+	 */
+	@Getter(AccessLevel.NONE)
+	@Setter(AccessLevel.PACKAGE)
+	@EqualsAndHashCode.Exclude
+	@ToString.Exclude
+	private WorldMapPointManager manager;
+
 	public WorldMapPoint(WorldPoint worldPoint, BufferedImage image)
 	{
 		this.worldPoint = worldPoint;
 		this.image = image;
 	}
 
+	public void setWorldPoint(WorldPoint worldPoint)
+	{
+		final WorldPoint previous = this.worldPoint;
+		this.worldPoint = worldPoint;
+		if (manager != null)
+		{
+			manager.update(this, previous, snapToEdge);
+		}
+	}
+
+	public void setSnapToEdge(boolean snapToEdge)
+	{
+		final boolean previous = this.snapToEdge;
+		this.snapToEdge = snapToEdge;
+		if (manager != null)
+		{
+			manager.update(this, worldPoint, previous);
+		}
+	}
+
 	public MouseEvent onClick(MouseEvent e)
 	{
 		return e;
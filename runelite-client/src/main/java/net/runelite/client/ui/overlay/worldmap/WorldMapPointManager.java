@@ -24,31 +24,220 @@
  */
 package net.runelite.client.ui.overlay.worldmap;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Map;
 import java.util.function.Predicate;
 import javax.inject.Singleton;
 import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
+import net.runelite.api.coords.WorldPoint;
 
+/**
+ * Holds the points drawn on the world map. Points are indexed by location in a grid,
+ * so the overlay only has to visit the points near the visible area of the map.
+ */
 @Singleton
 public class WorldMapPointManager
 {
+	private static final int CELL_SHIFT = 6;
+
+	private final Map<Long, List<WorldMapPoint>> cells = new HashMap<>();
+	/**
+	 * points which are always visited, either because they snap to the edge of the map
+	 * or because they have no location
+	 */
+	private final List<WorldMapPoint> unindexed = new ArrayList<>();
+	private int size;
+
+	/**
+	 * Points drawn by the overlay in the last frame
+	 */
 	@Getter(AccessLevel.PACKAGE)
-	private final List<WorldMapPoint> worldMapPoints = new CopyOnWriteArrayList<>();
+	@Setter(AccessLevel.PACKAGE)
+	private volatile List<WorldMapPoint> drawnPoints = new ArrayList<>();
+
+	public synchronized void add(WorldMapPoint worldMapPoint)
+	{
+		worldMapPoint.setManager(this);
+		listFor(worldMapPoint.getWorldPoint(), worldMapPoint.isSnapToEdge(), true).add(worldMapPoint);
+		++size;
+	}
+
+	public synchronized void addAll(Collection<? extends WorldMapPoint> worldMapPoints)
+	{
+		for (WorldMapPoint worldMapPoint : worldMapPoints)
+		{
+			add(worldMapPoint);
+		}
+	}
+
+	public synchronized void remove(WorldMapPoint worldMapPoint)
+	{
+		List<WorldMapPoint> list = listFor(worldMapPoint.getWorldPoint(), worldMapPoint.isSnapToEdge(), false);
+		if (list == null)
+		{
+			return;
+		}
+
+		// prefer the point itself, but fall back to an equal point like the list this replaced
+		int idx = indexOfIdentity(list, worldMapPoint);
+		if (idx == -1)
+		{
+			idx = list.indexOf(worldMapPoint);
+		}
+
+		if (idx != -1)
+		{
+			list.remove(idx).setManager(null);
+			--size;
+		}
+	}
+
+	public synchronized void removeAll(Collection<? extends WorldMapPoint> worldMapPoints)
+	{
+		for (WorldMapPoint worldMapPoint : worldMapPoints)
+		{
+			remove(worldMapPoint);
+		}
+	}
+
+	public synchronized void removeIf(Predicate<WorldMapPoint> filter)
+	{
+		removeIf(unindexed, filter);
+
+		for (Iterator<List<WorldMapPoint>> it = cells.values().iterator(); it.hasNext(); )
+		{
+			List<WorldMapPoint> cell = it.next();
+			removeIf(cell, filter);
+			if (cell.isEmpty())
+			{
+				it.remove();
+			}
+		}
+	}
+
+	synchronized boolean isEmpty()
+	{
+		return size == 0;
+	}
+
+	/**
+	 * Get all points
+	 */
+	synchronized List<WorldMapPoint> getWorldMapPoints()
+	{
+		List<WorldMapPoint> points = new ArrayList<>(size);
+		points.addAll(unindexed);
+		for (List<WorldMapPoint> cell : cells.values())
+		{
+			points.addAll(cell);
+		}
+		return points;
+	}
+
+	/**
+	 * Get the points within an area, along with every point which snaps to the edge of the map
+	 *
+	 * @param minX minimum world x, inclusive
+	 * @param minY minimum world y, inclusive
+	 * @param maxX maximum world x, inclusive
+	 * @param maxY maximum world y, inclusive
+	 * @return the points
+	 */
+	synchronized List<WorldMapPoint> getWorldMapPoints(int minX, int minY, int maxX, int maxY)
+	{
+		List<WorldMapPoint> points = new ArrayList<>(unindexed);
+
+		for (int cellX = minX >> CELL_SHIFT; cellX <= maxX >> CELL_SHIFT; ++cellX)
+		{
+			for (int cellY = minY >> CELL_SHIFT; cellY <= maxY >> CELL_SHIFT; ++cellY)
+			{
+				List<WorldMapPoint> cell = cells.get(key(cellX, cellY));
+				if (cell == null)
+				{
+					continue;
+				}
+
+				for (WorldMapPoint point : cell)
+				{
+					WorldPoint worldPoint = point.getWorldPoint();
+					if (worldPoint.getX() >= minX && worldPoint.getX() <= maxX
+						&& worldPoint.getY() >= minY && worldPoint.getY() <= maxY)
+					{
+						points.add(point);
+					}
+				}
+			}
+		}
+
+		return points;
+	}
+
+	/**
+	 * Move a point after its location or snapping has changed
+	 */
+	synchronized void update(WorldMapPoint worldMapPoint, WorldPoint oldWorldPoint, boolean oldSnapToEdge)
+	{
+		List<WorldMapPoint> from = listFor(oldWorldPoint, oldSnapToEdge, false);
+		List<WorldMapPoint> to = listFor(worldMapPoint.getWorldPoint(), worldMapPoint.isSnapToEdge(), true);
+		if (from == to || from == null)
+		{
+			return;
+		}
+
+		int idx = indexOfIdentity(from, worldMapPoint);
+		if (idx != -1)
+		{
+			from.remove(idx);
+			to.add(worldMapPoint);
+		}
+	}
+
+	private List<WorldMapPoint> listFor(WorldPoint worldPoint, boolean snapToEdge, boolean create)
+	{
+		if (worldPoint == null || snapToEdge)
+		{
+			return unindexed;
+		}
+
+		long key = key(worldPoint.getX() >> CELL_SHIFT, worldPoint.getY() >> CELL_SHIFT);
+		return create ? cells.computeIfAbsent(key, k -> new ArrayList<>()) : cells.get(key);
+	}
 
-	public void add(WorldMapPoint worldMapPoint)
+	private void removeIf(List<WorldMapPoint> list, Predicate<WorldMapPoint> filter)
 	{
-		worldMapPoints.add(worldMapPoint);
+		int before = list.size();
+		list.removeIf(point ->
+		{
+			if (filter.test(point))
+			{
+				point.setManager(null);
+				return true;
+			}
+			return false;
+		});
+		size -= before - list.size();
 	}
 
-	public void remove(WorldMapPoint worldMapPoint)
+	private static int indexOfIdentity(List<WorldMapPoint> list, WorldMapPoint worldMapPoint)
 	{
-		worldMapPoints.remove(worldMapPoint);
+		for (int i = 0; i < list.size(); ++i)
+		{
+			if (list.get(i) == worldMapPoint)
+			{
+				return i;
+			}
+		}
+		return -1;
 	}
 
-	public void removeIf(Predicate<WorldMapPoint> filter)
+	private static long key(int cellX, int cellY)
 	{
-		worldMapPoints.removeIf(filter);
+		return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
 	}
 }
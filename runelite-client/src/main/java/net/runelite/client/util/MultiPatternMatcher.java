@@ -0,0 +1,447 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import lombok.Value;
+
+/**
+ * Matches text against a whole set of patterns at once. Every literal pattern, and every
+ * segment between the {@code *}s of a wildcard pattern, is compiled into one Aho-Corasick
+ * automaton, so testing a string is a single pass over it no matter how many patterns there
+ * are. Matching is case insensitive.
+ */
+public class MultiPatternMatcher
+{
+	private static final char WILDCARD = '*';
+	private static final int NONE = -1;
+
+	// Aho-Corasick automaton; state 0 is the root
+	private final char[][] transitionChars;
+	private final int[][] transitionStates;
+	private final int[] fail;
+	private final int[] dictionaryLink;
+	private final int[] keywordAt;
+	private final int[] keywordLength;
+	private final int[] keywordLiteral;
+
+	// Compiled patterns, as keyword ids between the wildcards
+	private final int[][] segments;
+	private final boolean[] anchoredStart;
+	private final boolean[] anchoredEnd;
+	private final boolean[] literal;
+	private final boolean hasWildcards;
+	private final boolean matchesEverything;
+
+	@Value
+	public static class Match
+	{
+		/**
+		 * Index of the pattern which matched
+		 */
+		private final int pattern;
+		private final int start;
+		private final int end;
+	}
+
+	private MultiPatternMatcher(List<String> patterns, boolean wildcards)
+	{
+		Map<String, Integer> keywordIds = new HashMap<>();
+		List<String> keywords = new ArrayList<>();
+
+		int count = patterns.size();
+		segments = new int[count][];
+		anchoredStart = new boolean[count];
+		anchoredEnd = new boolean[count];
+		literal = new boolean[count];
+
+		boolean anyWildcards = false, everything = false;
+		for (int i = 0; i < count; ++i)
+		{
+			String pattern = patterns.get(i);
+			List<String> parts = new ArrayList<>();
+			if (wildcards && pattern.indexOf(WILDCARD) != -1)
+			{
+				for (String part : pattern.split("\\*+"))
+				{
+					if (!part.isEmpty())
+					{
+						parts.add(part);
+					}
+				}
+				anchoredStart[i] = pattern.charAt(0) != WILDCARD;
+				anchoredEnd[i] = pattern.charAt(pattern.length() - 1) != WILDCARD;
+				anyWildcards = true;
+				everything |= parts.isEmpty();
+			}
+			else if (!pattern.isEmpty())
+			{
+				parts.add(pattern);
+				anchoredStart[i] = anchoredEnd[i] = literal[i] = true;
+			}
+
+			segments[i] = new int[parts.size()];
+			for (int j = 0; j < parts.size(); ++j)
+			{
+				String keyword = fold(parts.get(j));
+				Integer id = keywordIds.get(keyword);
+				if (id == null)
+				{
+					id = keywords.size();
+					keywordIds.put(keyword, id);
+					keywords.add(keyword);
+				}
+				segments[i][j] = id;
+			}
+		}
+
+		hasWildcards = anyWildcards;
+		matchesEverything = everything;
+
+		keywordLength = new int[keywords.size()];
+		keywordLiteral = new int[keywords.size()];
+		Arrays.fill(keywordLiteral, NONE);
+		for (int i = count - 1; i >= 0; --i)
+		{
+			if (literal[i])
+			{
+				keywordLiteral[segments[i][0]] = i;
+			}
+		}
+
+		List<Map<Character, Integer>> trie = new ArrayList<>();
+		List<Integer> keywordStates = new ArrayList<>();
+		trie.add(new HashMap<>());
+		keywordStates.add(NONE);
+
+		for (int id = 0; id < keywords.size(); ++id)
+		{
+			String keyword = keywords.get(id);
+			keywordLength[id] = keyword.length();
+
+			int state = 0;
+			for (int i = 0; i < keyword.length(); ++i)
+			{
+				Integer next = trie.get(state).get(keyword.charAt(i));
+				if (next == null)
+				{
+					next = trie.size();
+					trie.add(new HashMap<>());
+					keywordStates.add(NONE);
+					trie.get(state).put(keyword.charAt(i), next);
+				}
+				state = next;
+			}
+			keywordStates.set(state, id);
+		}
+
+		int states = trie.size();
+		transitionChars = new char[states][];
+		transitionStates = new int[states][];
+		keywordAt = new int[states];
+		for (int state = 0; state < states; ++state)
+		{
+			List<Map.Entry<Character, Integer>> edges = new ArrayList<>(trie.get(state).entrySet());
+			edges.sort(Map.Entry.comparingByKey());
+
+			transitionChars[state] = new char[edges.size()];
+			transitionStates[state] = new int[edges.size()];
+			for (int i = 0; i < edges.size(); ++i)
+			{
+				transitionChars[state][i] = edges.get(i).getKey();
+				transitionStates[state][i] = edges.get(i).getValue();
+			}
+
+			keywordAt[state] = keywordStates.get(state);
+		}
+
+		// Breadth first so that the failure state of a node is always computed before its children
+		fail = new int[states];
+		dictionaryLink = new int[states];
+		dictionaryLink[0] = NONE;
+		Queue<Integer> queue = new ArrayDeque<>();
+		for (int child : transitionStates[0])
+		{
+			dictionaryLink[child] = NONE;
+			queue.add(child);
+		}
+
+		while (!queue.isEmpty())
+		{
+			int state = queue.poll();
+			for (int i = 0; i < transitionChars[state].length; ++i)
+			{
+				char c = transitionChars[state][i];
+				int child = transitionStates[state][i];
+
+				int f = fail[state];
+				while (f != 0 && transition(f, c) == NONE)
+				{
+					f = fail[f];
+				}
+				int target = transition(f, c);
+				fail[child] = target == NONE || target == child ? 0 : target;
+				dictionaryLink[child] = keywordAt[fail[child]] != NONE ? fail[child] : dictionaryLink[fail[child]];
+
+				queue.add(child);
+			}
+		}
+	}
+
+	/**
+	 * Compile a set of wildcard patterns, where {@code *} matches any sequence of characters
+	 */
+	public static MultiPatternMatcher compileWildcards(Collection<String> patterns)
+	{
+		return new MultiPatternMatcher(new ArrayList<>(patterns), true);
+	}
+
+	/**
+	 * Compile a set of literal patterns, which are matched exactly
+	 */
+	public static MultiPatternMatcher compileLiterals(Collection<String> patterns)
+	{
+		return new MultiPatternMatcher(new ArrayList<>(patterns), false);
+	}
+
+	/**
+	 * Test if the whole of the text matches any of the patterns
+	 */
+	public boolean matches(String text)
+	{
+		if (matchesEverything)
+		{
+			return true;
+		}
+
+		final int length = text.length();
+		final int[] counts = new int[keywordLength.length];
+		final int[][] starts = hasWildcards ? new int[keywordLength.length][] : null;
+
+		int state = 0;
+		for (int i = 0; i < length; ++i)
+		{
+			state = step(state, Character.toLowerCase(text.charAt(i)));
+
+			for (int s = keywordAt[state] != NONE ? state : dictionaryLink[state]; s != NONE; s = dictionaryLink[s])
+			{
+				int keyword = keywordAt[s];
+				int start = i + 1 - keywordLength[keyword];
+				if (start == 0 && i == length - 1 && keywordLiteral[keyword] != NONE)
+				{
+					return true;
+				}
+
+				if (starts != null)
+				{
+					int[] list = starts[keyword];
+					if (list == null)
+					{
+						list = starts[keyword] = new int[4];
+					}
+					else if (counts[keyword] == list.length)
+					{
+						list = starts[keyword] = Arrays.copyOf(list, list.length * 2);
+					}
+					list[counts[keyword]++] = start;
+				}
+			}
+		}
+
+		if (starts == null)
+		{
+			return false;
+		}
+
+		for (int pattern = 0; pattern < segments.length; ++pattern)
+		{
+			if (!literal[pattern] && segments[pattern].length > 0 && matchesWildcard(pattern, length, starts, counts))
+			{
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * Find the non-overlapping occurrences of the literal patterns in the text. Like a
+	 * regex alternation, the leftmost occurrence wins, and of occurrences at the same
+	 * position the pattern which is first in the set wins.
+	 *
+	 * @param text       text to search
+	 * @param wholeWords whether occurrences have to be bounded by word boundaries
+	 * @return the occurrences, ordered by position
+	 */
+	public List<Match> findAll(String text, boolean wholeWords)
+	{
+		List<Match> found = null;
+
+		int state = 0;
+		for (int i = 0; i < text.length(); ++i)
+		{
+			state = step(state, Character.toLowerCase(text.charAt(i)));
+
+			for (int s = keywordAt[state] != NONE ? state : dictionaryLink[state]; s != NONE; s = dictionaryLink[s])
+			{
+				int keyword = keywordAt[s];
+				int start = i + 1 - keywordLength[keyword];
+				if (wholeWords && !(isWordBoundary(text, start) && isWordBoundary(text, i + 1)))
+				{
+					continue;
+				}
+
+				int pattern = keywordLiteral[keyword];
+				if (pattern == NONE)
+				{
+					continue;
+				}
+
+				if (found == null)
+				{
+					found = new ArrayList<>();
+				}
+				found.add(new Match(pattern, start, i + 1));
+			}
+		}
+
+		if (found == null)
+		{
+			return Collections.emptyList();
+		}
+
+		found.sort(Comparator.comparingInt(Match::getStart).thenComparingInt(Match::getPattern));
+
+		List<Match> result = new ArrayList<>(found.size());
+		int end = 0;
+		for (Match match : found)
+		{
+			if (match.getStart() >= end)
+			{
+				result.add(match);
+				end = match.getEnd();
+			}
+		}
+		return result;
+	}
+
+	private boolean matchesWildcard(int pattern, int length, int[][] starts, int[] counts)
+	{
+		final int[] parts = segments[pattern];
+		int position = 0;
+		for (int i = 0; i < parts.length; ++i)
+		{
+			final int keyword = parts[i];
+			final int[] list = starts[keyword];
+			if (list == null)
+			{
+				return false;
+			}
+
+			int start;
+			if (i == parts.length - 1 && anchoredEnd[pattern])
+			{
+				start = length - keywordLength[keyword];
+				if (start < position || Arrays.binarySearch(list, 0, counts[keyword], start) < 0
+					|| (i == 0 && anchoredStart[pattern] && start != 0))
+				{
+					return false;
+				}
+			}
+			else if (i == 0 && anchoredStart[pattern])
+			{
+				start = 0;
+				if (list[0] != 0)
+				{
+					return false;
+				}
+			}
+			else
+			{
+				int idx = Arrays.binarySearch(list, 0, counts[keyword], position);
+				if (idx < 0)
+				{
+					idx = -idx - 1;
+				}
+				if (idx >= counts[keyword])
+				{
+					return false;
+				}
+				start = list[idx];
+			}
+
+			position = start + keywordLength[keyword];
+		}
+
+		return true;
+	}
+
+	private int step(int state, char c)
+	{
+		int next;
+		while ((next = transition(state, c)) == NONE && state != 0)
+		{
+			state = fail[state];
+		}
+		return next == NONE ? 0 : next;
+	}
+
+	private int transition(int state, char c)
+	{
+		int idx = Arrays.binarySearch(transitionChars[state], c);
+		return idx < 0 ? NONE : transitionStates[state][idx];
+	}
+
+	private static boolean isWordBoundary(String text, int index)
+	{
+		boolean before = index > 0 && isWordChar(text.charAt(index - 1));
+		boolean after = index < text.length() && isWordChar(text.charAt(index));
+		return before != after;
+	}
+
+	private static boolean isWordChar(char c)
+	{
+		return Character.isLetterOrDigit(c) || c == '_';
+	}
+
+	private static String fold(String str)
+	{
+		StringBuilder sb = new StringBuilder(str.length());
+		for (int i = 0; i < str.length(); ++i)
+		{
+			sb.append(Character.toLowerCase(str.charAt(i)));
+		}
+		return sb.toString();
+	}
+}
@@ -24,34 +24,53 @@
  */
 package net.runelite.client.util;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 public class WildcardMatcher
 {
-	private static final Pattern WILDCARD_PATTERN = Pattern.compile("(?i)[^*]+|(\\*)");
+	private static final char WILDCARD = '*';
 
+	/**
+	 * Test if the text matches the pattern, case insensitively, where {@code *} in the pattern
+	 * matches any sequence of characters. To test against many patterns use {@link MultiPatternMatcher}.
+	 */
 	public static boolean matches(String pattern, String text)
 	{
-		final Matcher matcher = WILDCARD_PATTERN.matcher(pattern);
-		final StringBuffer buffer = new StringBuffer();
+		int p = 0, t = 0;
+		int star = -1, starText = 0;
 
-		buffer.append("(?i)");
-		while (matcher.find())
+		while (t < text.length())
 		{
-			if (matcher.group(1) != null)
+			if (p < pattern.length() && pattern.charAt(p) == WILDCARD)
+			{
+				star = p++;
+				starText = t;
+			}
+			else if (p < pattern.length() && equalsIgnoreCase(pattern.charAt(p), text.charAt(t)))
+			{
+				++p;
+				++t;
+			}
+			else if (star != -1)
 			{
-				matcher.appendReplacement(buffer, ".*");
+				// let the last wildcard consume one more character and retry
+				p = star + 1;
+				t = ++starText;
 			}
 			else
 			{
-				matcher.appendReplacement(buffer, "\\\\Q" + matcher.group(0) + "\\\\E");
+				return false;
 			}
 		}
 
-		matcher.appendTail(buffer);
-		final String replaced = buffer.toString();
+		while (p < pattern.length() && pattern.charAt(p) == WILDCARD)
+		{
+			++p;
+		}
 
-		return text.matches(replaced);
+		return p == pattern.length();
+	}
+
+	private static boolean equalsIgnoreCase(char a, char b)
+	{
+		return a == b || Character.toLowerCase(a) == Character.toLowerCase(b);
 	}
 }
@@ -24,12 +24,21 @@
  */
 package net.runelite.client.ws;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.google.gson.JsonParseException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import lombok.Getter;
@@ -40,17 +49,28 @@ import net.runelite.http.api.ws.WebsocketGsonFactory;
 import net.runelite.http.api.ws.WebsocketMessage;
 import net.runelite.http.api.ws.messages.Handshake;
 import net.runelite.http.api.ws.messages.party.PartyMessage;
+import okhttp3.HttpUrl;
+import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.WebSocket;
 import okhttp3.WebSocketListener;
+import okio.ByteString;
 
 @Slf4j
 @Singleton
 public class WSClient extends WebSocketListener implements AutoCloseable
 {
 	private final EventBus eventBus;
+	private final OkHttpClient okHttpClient;
+	private final HttpUrl endpoint;
 	private final Collection<Class<? extends WebsocketMessage>> messages = new HashSet<>();
+	private final Map<Integer, Function<ByteBuffer, ? extends PartyMessage>> binaryMessages = new ConcurrentHashMap<>();
+	// messages are decoded and posted off the socket reader thread, in the order they are received
+	private final ExecutorService decoder = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder()
+		.setNameFormat("ws-decoder")
+		.setDaemon(true)
+		.build());
 
 	private volatile Gson gson;
 	@Getter
@@ -59,8 +79,16 @@ public class WSClient extends WebSocketListener implements AutoCloseable
 
 	@Inject
 	private WSClient(EventBus eventBus)
+	{
+		this(eventBus, RuneLiteAPI.CLIENT, RuneLiteAPI.getWsEndpoint());
+	}
+
+	@VisibleForTesting
+	WSClient(EventBus eventBus, OkHttpClient okHttpClient, HttpUrl endpoint)
 	{
 		this.eventBus = eventBus;
+		this.okHttpClient = okHttpClient;
+		this.endpoint = endpoint;
 		this.gson = WebsocketGsonFactory.build(WebsocketGsonFactory.factory(messages));
 	}
 
@@ -98,10 +126,10 @@ public class WSClient extends WebSocketListener implements AutoCloseable
 		}
 
 		Request request = new Request.Builder()
-			.url(RuneLiteAPI.getWsEndpoint())
+			.url(endpoint)
 			.build();
 
-		webSocket = RuneLiteAPI.CLIENT.newWebSocket(request, this);
+		webSocket = okHttpClient.newWebSocket(request, this);
 
 		Handshake handshake = new Handshake();
 		handshake.setSession(sessionId);
@@ -124,6 +152,23 @@ public class WSClient extends WebSocketListener implements AutoCloseable
 		}
 	}
 
+	/**
+	 * Register a decoder for binary party frames of the given type. The decoder is given the
+	 * frame following its type byte, and is called from a background thread.
+	 *
+	 * @param type    frame type
+	 * @param decoder frame decoder
+	 */
+	public void registerBinaryMessage(int type, Function<ByteBuffer, ? extends PartyMessage> decoder)
+	{
+		binaryMessages.put(type, decoder);
+	}
+
+	public void unregisterBinaryMessage(int type)
+	{
+		binaryMessages.remove(type);
+	}
+
 	public void send(WebsocketMessage message)
 	{
 		if (webSocket == null)
@@ -137,6 +182,22 @@ public class WSClient extends WebSocketListener implements AutoCloseable
 		log.debug("Sent: {}", json);
 	}
 
+	/**
+	 * Send a binary party frame. The first byte of the frame is its type.
+	 *
+	 * @param frame frame to send
+	 */
+	public void send(byte[] frame)
+	{
+		if (webSocket == null)
+		{
+			log.debug("Reconnecting to server");
+			connect();
+		}
+
+		webSocket.send(ByteString.of(frame));
+	}
+
 	@Override
 	public void close()
 	{
@@ -154,6 +215,17 @@ public class WSClient extends WebSocketListener implements AutoCloseable
 
 	@Override
 	public void onMessage(WebSocket webSocket, String text)
+	{
+		decoder.execute(() -> handleMessage(text));
+	}
+
+	@Override
+	public void onMessage(WebSocket webSocket, ByteString bytes)
+	{
+		decoder.execute(() -> handleMessage(bytes.asByteBuffer()));
+	}
+
+	private void handleMessage(String text)
 	{
 		final WebsocketMessage message;
 
@@ -177,6 +249,40 @@ public class WSClient extends WebSocketListener implements AutoCloseable
 		eventBus.post(message);
 	}
 
+	private void handleMessage(ByteBuffer buffer)
+	{
+		if (!buffer.hasRemaining())
+		{
+			return;
+		}
+
+		final int type = buffer.get() & 0xFF;
+		final Function<ByteBuffer, ? extends PartyMessage> messageDecoder = binaryMessages.get(type);
+
+		if (messageDecoder == null)
+		{
+			log.debug("Unknown binary message type {}", type);
+			return;
+		}
+
+		final PartyMessage message;
+
+		try
+		{
+			message = messageDecoder.apply(buffer);
+		}
+		catch (BufferUnderflowException | IllegalArgumentException e)
+		{
+			log.debug("Failed to decode binary message", e);
+			return;
+		}
+
+		if (message != null)
+		{
+			eventBus.post(message);
+		}
+	}
+
 	@Override
 	public void onClosed(WebSocket webSocket, int code, String reason)
 	{
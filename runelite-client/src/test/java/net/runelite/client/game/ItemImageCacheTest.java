@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ItemImageCacheTest
+{
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static BufferedImage image(int width, int height)
+	{
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		for (int x = 0; x < width; ++x)
+		{
+			for (int y = 0; y < height; ++y)
+			{
+				image.setRGB(x, y, x * 0x10000 + y | 0x80000000);
+			}
+		}
+		return image;
+	}
+
+	@Test
+	public void testRoundTrip()
+	{
+		File file = new File(folder.getRoot(), "items.cache");
+		BufferedImage image = image(36, 32);
+		BufferedImage outline = image(38, 34);
+
+		ItemImageCache cache = new ItemImageCache(file);
+
+		// images are not cached until the revision is known
+		cache.put(ItemImageCache.IMAGE, 4151, 1, 0, image);
+		assertNull(cache.get(ItemImageCache.IMAGE, 4151, 1, 0));
+
+		cache.load(180);
+		cache.put(ItemImageCache.IMAGE, 4151, 1, 0, image);
+		cache.put(ItemImageCache.OUTLINE, 4151, 1, 0xffff0000, outline);
+		cache.write();
+
+		ItemImageCache read = new ItemImageCache(file);
+		read.load(180);
+
+		ItemImageCache.CachedImage cached = read.get(ItemImageCache.IMAGE, 4151, 1, 0);
+		assertNotNull(cached);
+		BufferedImage copy = new BufferedImage(36, 32, BufferedImage.TYPE_INT_ARGB);
+		cached.copyTo(copy);
+		assertArrayEquals(image.getRGB(0, 0, 36, 32, null, 0, 36), copy.getRGB(0, 0, 36, 32, null, 0, 36));
+
+		BufferedImage cachedOutline = read.get(ItemImageCache.OUTLINE, 4151, 1, 0xffff0000).toBufferedImage();
+		assertEquals(38, cachedOutline.getWidth());
+		assertArrayEquals(outline.getRGB(0, 0, 38, 34, null, 0, 38), cachedOutline.getRGB(0, 0, 38, 34, null, 0, 38));
+
+		assertNull(read.get(ItemImageCache.IMAGE, 4151, 2, 0));
+		assertNull(read.get(ItemImageCache.OUTLINE, 4151, 1, 0xff00ff00));
+	}
+
+	@Test
+	public void testStacksNotCached()
+	{
+		ItemImageCache cache = new ItemImageCache(new File(folder.getRoot(), "items.cache"));
+		cache.load(180);
+
+		cache.put(ItemImageCache.IMAGE, 995, 12345, 1, image(36, 32));
+		cache.put(ItemImageCache.OUTLINE, 995, 12345, 0xffff0000, image(38, 34));
+		assertNull(cache.get(ItemImageCache.IMAGE, 995, 12345, 1));
+		assertNull(cache.get(ItemImageCache.OUTLINE, 995, 12345, 0xffff0000));
+	}
+
+	@Test
+	public void testEviction()
+	{
+		ItemImageCache cache = new ItemImageCache(new File(folder.getRoot(), "items.cache"));
+		cache.load(180);
+
+		BufferedImage image = image(36, 32);
+		int count = 2 * ItemImageCache.MAX_PIXELS / (36 * 32);
+		cache.put(ItemImageCache.IMAGE, 0, 1, 0, image);
+		for (int i = 1; i < count; ++i)
+		{
+			// an image which keeps being used is kept
+			assertNotNull(cache.get(ItemImageCache.IMAGE, 0, 1, 0));
+			cache.put(ItemImageCache.IMAGE, i, 1, 0, image);
+		}
+
+		// images are still added once the cache is full, evicting the least recently used
+		assertNotNull(cache.get(ItemImageCache.IMAGE, count - 1, 1, 0));
+		assertNull(cache.get(ItemImageCache.IMAGE, 1, 1, 0));
+	}
+
+	@Test
+	public void testRevision()
+	{
+		File file = new File(folder.getRoot(), "items.cache");
+
+		ItemImageCache cache = new ItemImageCache(file);
+		cache.load(180);
+		cache.put(ItemImageCache.IMAGE, 4151, 1, 0, image(36, 32));
+		cache.write();
+
+		ItemImageCache read = new ItemImageCache(file);
+		read.load(181);
+		assertNull(read.get(ItemImageCache.IMAGE, 4151, 1, 0));
+
+		// nothing changed, so the old revision's cache is left as is
+		read.write();
+		ItemImageCache old = new ItemImageCache(file);
+		old.load(180);
+		assertNotNull(old.get(ItemImageCache.IMAGE, 4151, 1, 0));
+		assertFalse(new File(folder.getRoot(), "items.cache.tmp").exists());
+	}
+}
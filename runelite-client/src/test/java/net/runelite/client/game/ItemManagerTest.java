@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import static net.runelite.api.ItemID.*;
+import net.runelite.http.api.item.ItemPrice;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ItemManagerTest
+{
+	private static ItemPrice price(int id, int price)
+	{
+		ItemPrice itemPrice = new ItemPrice();
+		itemPrice.setId(id);
+		itemPrice.setPrice(price);
+		return itemPrice;
+	}
+
+	@Test
+	public void testBuildPriceTable()
+	{
+		Map<Integer, ItemPrice> prices = ImmutableMap.of(
+			ABYSSAL_WHIP, price(ABYSSAL_WHIP, 2_000_000),
+			AHRIMS_HOOD, price(AHRIMS_HOOD, 50_000),
+			AMYLASE_CRYSTAL, price(AMYLASE_CRYSTAL, 300)
+		);
+
+		int[] table = ItemManager.buildPriceTable(prices);
+
+		assertEquals(2_000_000, table[ABYSSAL_WHIP]);
+		assertEquals(1, table[COINS_995]);
+		assertEquals(1000, table[PLATINUM_TOKEN]);
+		// untradeable item mapped to its tradeable version
+		assertEquals(50_000, table[AHRIMS_HOOD_100]);
+		// untradeable item priced by what it can be exchanged for
+		assertEquals(3000, table[MARK_OF_GRACE]);
+		assertEquals(0, table[DRAGON_DAGGER]);
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.game;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class ItemSearchIndexTest
+{
+	private static final List<String> NAMES = ImmutableList.of(
+		"Abyssal whip",
+		"Abyssal dagger",
+		"Dragon dagger",
+		"Dragon dagger(p++)",
+		"Rune platebody",
+		"Whip",
+		"Baā℁nana"
+	);
+
+	private final ItemSearchIndex<String> index = new ItemSearchIndex<>(NAMES, Function.identity());
+
+	@Test
+	public void testSearch()
+	{
+		assertEquals(ImmutableList.of("Abyssal whip", "Whip"), index.search("WHIP"));
+		assertEquals(ImmutableList.of("Abyssal dagger", "Dragon dagger", "Dragon dagger(p++)"), index.search("dagger"));
+		assertEquals(ImmutableList.of("Dragon dagger(p++)"), index.search("(p++"));
+		assertEquals(ImmutableList.of("Baā℁nana"), index.search("aā℁n"));
+		assertEquals(Collections.emptyList(), index.search("dragon whip"));
+		// ℁ and ā share a trigram key, so this is a candidate that must be rejected
+		assertEquals(Collections.emptyList(), index.search("a℁ān"));
+	}
+
+	@Test
+	public void testShortSearch()
+	{
+		assertEquals(ImmutableList.of("Rune platebody"), index.search("ru"));
+		assertEquals(NAMES, index.search(""));
+	}
+
+	@Test
+	public void testMatchesScan()
+	{
+		for (String name : NAMES)
+		{
+			for (int i = 0; i < name.length(); ++i)
+			{
+				for (int j = i; j <= name.length(); ++j)
+				{
+					final String query = name.substring(i, j);
+					final ImmutableList.Builder<String> expected = ImmutableList.builder();
+					for (String n : NAMES)
+					{
+						if (n.toLowerCase().contains(query.toLowerCase()))
+						{
+							expected.add(n);
+						}
+					}
+					assertEquals(query, expected.build(), index.search(query));
+				}
+			}
+		}
+	}
+}
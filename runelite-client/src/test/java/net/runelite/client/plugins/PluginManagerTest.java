@@ -25,6 +25,9 @@
 package net.runelite.client.plugins;
 
 import com.google.common.reflect.ClassPath;
+import com.google.common.collect.ImmutableList;
+import com.google.common.graph.GraphBuilder;
+import com.google.common.graph.MutableGraph;
 import com.google.common.reflect.ClassPath.ClassInfo;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
@@ -38,8 +41,14 @@ import java.applet.Applet;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
@@ -50,6 +59,8 @@ import net.runelite.client.RuneLiteModule;
 import net.runelite.client.eventbus.EventBus;
 import net.runelite.client.rs.ClientUpdateCheckMode;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -155,4 +166,108 @@ public class PluginManagerTest
 		}
 	}
 
+	@Test
+	public void testPluginIndex() throws Exception
+	{
+		ClassLoader classLoader = indexClassLoader(
+			TestPluginA.class.getName(),
+			"",
+			PLUGIN_PACKAGE + ".DoesNotExist",
+			"net.example.OtherPlugin",
+			TestPluginB.class.getName());
+
+		List<Class<?>> classes = PluginManager.findPluginClasses(classLoader, PLUGIN_PACKAGE);
+		assertEquals(Arrays.asList(TestPluginA.class, TestPluginB.class), classes);
+	}
+
+	@Test
+	public void testDependencyLevels()
+	{
+		MutableGraph<String> graph = GraphBuilder.directed().build();
+		graph.addNode("e");
+		graph.putEdge("b", "a");
+		graph.putEdge("c", "a");
+		graph.putEdge("d", "b");
+		graph.putEdge("d", "c");
+
+		List<List<String>> levels = PluginManager.dependencyLevels(graph, Arrays.asList("a", "e", "b", "c", "d"));
+		assertEquals(ImmutableList.of(
+			ImmutableList.of("a", "e"),
+			ImmutableList.of("b", "c"),
+			ImmutableList.of("d")
+		), levels);
+	}
+
+	@Test
+	public void testInstantiateLevels() throws Exception
+	{
+		ClassLoader classLoader = indexClassLoader(
+			TestPluginD.class.getName(),
+			TestPluginC.class.getName(),
+			TestPluginB.class.getName(),
+			TestPluginA.class.getName());
+
+		PluginManager pluginManager = new PluginManager(true, null, null, null, null, null);
+		List<Plugin> plugins = pluginManager.scanAndInstantiate(classLoader, PLUGIN_PACKAGE);
+		assertEquals(4, plugins.size());
+
+		// plugins are instantiated after their dependencies, which are bound in their injectors
+		Plugin a = plugins.get(0);
+		Plugin d = plugins.get(3);
+		assertTrue(a instanceof TestPluginA);
+		assertTrue(d instanceof TestPluginD);
+		Plugin b = plugins.stream().filter(TestPluginB.class::isInstance).findFirst().get();
+		Plugin c = plugins.stream().filter(TestPluginC.class::isInstance).findFirst().get();
+		assertSame(a, b.getInjector().getInstance(TestPluginA.class));
+		assertSame(a, c.getInjector().getInstance(TestPluginA.class));
+		assertSame(b, d.getInjector().getInstance(TestPluginB.class));
+		assertSame(c, d.getInjector().getInstance(TestPluginC.class));
+	}
+
+	/**
+	 * Create a class loader whose plugin index lists the given class names
+	 */
+	private ClassLoader indexClassLoader(String... classNames) throws IOException
+	{
+		File index = folder.newFile();
+		Files.write(index.toPath(), Arrays.asList(classNames), StandardCharsets.UTF_8);
+		URL url = index.toURI().toURL();
+
+		return new ClassLoader(getClass().getClassLoader())
+		{
+			@Override
+			public Enumeration<URL> getResources(String name) throws IOException
+			{
+				if (name.equals(PluginManager.PLUGIN_INDEX))
+				{
+					return Collections.enumeration(Collections.singletonList(url));
+				}
+				return super.getResources(name);
+			}
+		};
+	}
+
+	@PluginDescriptor(name = "Test A", developerPlugin = true)
+	public static class TestPluginA extends Plugin
+	{
+	}
+
+	@PluginDescriptor(name = "Test B", developerPlugin = true)
+	@PluginDependency(TestPluginA.class)
+	public static class TestPluginB extends Plugin
+	{
+	}
+
+	@PluginDescriptor(name = "Test C", developerPlugin = true)
+	@PluginDependency(TestPluginA.class)
+	public static class TestPluginC extends Plugin
+	{
+	}
+
+	@PluginDescriptor(name = "Test D", developerPlugin = true)
+	@PluginDependency(TestPluginB.class)
+	@PluginDependency(TestPluginC.class)
+	public static class TestPluginD extends Plugin
+	{
+	}
 }
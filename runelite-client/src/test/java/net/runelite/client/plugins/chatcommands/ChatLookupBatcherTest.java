@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.chatcommands;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import net.runelite.http.api.chat.ChatClient;
+import net.runelite.http.api.chat.ChatLookup;
+import net.runelite.http.api.chat.ChatLookupResult;
+import net.runelite.http.api.chat.ChatLookupType;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.anyList;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ChatLookupBatcherTest
+{
+	@Test
+	public void testBatch() throws Exception
+	{
+		ChatClient chatClient = mock(ChatClient.class);
+		ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+
+		ChatLookupResult kc = new ChatLookupResult();
+		kc.setValue(42);
+		ChatLookupResult qp = new ChatLookupResult();
+		qp.setValue(200);
+		when(chatClient.lookup(anyList())).thenReturn(Arrays.asList(kc, qp));
+
+		ChatLookupBatcher batcher = new ChatLookupBatcher(chatClient, executor);
+		CompletableFuture<ChatLookupResult> kcFuture = batcher.lookup(new ChatLookup(ChatLookupType.KILLCOUNT, "Adam", "Zulrah"));
+		CompletableFuture<ChatLookupResult> qpFuture = batcher.lookup(new ChatLookup(ChatLookupType.QUEST_POINTS, "Zezima", null));
+
+		// only one flush is scheduled for the batch
+		verify(executor, times(1)).schedule(any(Runnable.class), anyLong(), eq(TimeUnit.MILLISECONDS));
+
+		batcher.flush();
+
+		verify(chatClient, times(1)).lookup(anyList());
+		assertTrue(kcFuture.isDone());
+		assertEquals(42, (int) kcFuture.get().getValue());
+		assertEquals(200, (int) qpFuture.get().getValue());
+	}
+}
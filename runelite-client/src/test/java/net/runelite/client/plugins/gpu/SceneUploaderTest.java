@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import com.google.inject.Guice;
+import com.google.inject.testing.fieldbinder.Bind;
+import com.google.inject.testing.fieldbinder.BoundFieldModule;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import javax.inject.Inject;
+import net.runelite.api.Client;
+import net.runelite.api.Constants;
+import net.runelite.api.GameObject;
+import net.runelite.api.Model;
+import net.runelite.api.Point;
+import net.runelite.api.Scene;
+import net.runelite.api.SceneTilePaint;
+import net.runelite.api.Tile;
+import static org.junit.Assert.assertEquals;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.runners.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SceneUploaderTest
+{
+	@Mock
+	@Bind
+	Client client;
+
+	@Mock
+	Scene scene;
+
+	@Inject
+	SceneUploader sceneUploader;
+
+	private final Tile[][][] tiles = new Tile[Constants.MAX_Z][Constants.SCENE_SIZE][Constants.SCENE_SIZE];
+
+	@Before
+	public void before()
+	{
+		Guice.createInjector(BoundFieldModule.of(this)).injectMembers(this);
+
+		int[][][] tileHeights = new int[Constants.MAX_Z][Constants.SCENE_SIZE + 1][Constants.SCENE_SIZE + 1];
+		tileHeights[0][1][1] = -240;
+		when(client.getTileHeights()).thenReturn(tileHeights);
+		when(scene.getTiles()).thenReturn(tiles);
+	}
+
+	@Test
+	public void testUpload()
+	{
+		SceneTilePaint paint = mock(SceneTilePaint.class);
+		when(paint.getTexture()).thenReturn(-1);
+		when(paint.getNeColor()).thenReturn(42);
+		tile(0, 0, 0);
+		when(tiles[0][0][0].getSceneTilePaint()).thenReturn(paint);
+
+		// a second plane, so it is generated by a different worker
+		SceneTilePaint texturedPaint = mock(SceneTilePaint.class);
+		when(texturedPaint.getTexture()).thenReturn(7);
+		tile(1, 50, 3);
+		when(tiles[1][50][3].getSceneTilePaint()).thenReturn(texturedPaint);
+
+		// an object spanning two chunks
+		Model model = model();
+		GameObject gameObject = mock(GameObject.class);
+		when(gameObject.getRenderable()).thenReturn(model);
+		when(gameObject.getSceneMinLocation()).thenReturn(new Point(64, 5));
+		when(tile(0, 64, 5).getGameObjects()).thenReturn(new GameObject[]{gameObject, null});
+		when(tile(0, 65, 5).getGameObjects()).thenReturn(new GameObject[]{gameObject});
+
+		GpuIntBuffer vertexBuffer = new GpuIntBuffer();
+		GpuFloatBuffer uvBuffer = new GpuFloatBuffer();
+		sceneUploader.upload(scene, vertexBuffer, uvBuffer);
+
+		// chunks are laid out plane by plane
+		verify(paint).setBufferOffset(0);
+		verify(paint).setUvBufferOffset(-1);
+		verify(paint).setBufferLen(6);
+
+		verify(model, times(1)).setBufferOffset(6);
+		verify(model, times(1)).setUvBufferOffset(-1);
+		verify(model, times(1)).setSceneId(sceneUploader.sceneId);
+
+		verify(texturedPaint).setBufferOffset(9);
+		verify(texturedPaint).setUvBufferOffset(0);
+		verify(texturedPaint).setBufferLen(6);
+
+		vertexBuffer.flip();
+		uvBuffer.flip();
+		IntBuffer vertices = vertexBuffer.getBuffer();
+		FloatBuffer uvs = uvBuffer.getBuffer();
+
+		// the north east corner of the first tile
+		assertEquals(128, vertices.get(0));
+		assertEquals(-240, vertices.get(1));
+		assertEquals(128, vertices.get(2));
+		assertEquals(42, vertices.get(3));
+
+		// the first vertex of the model
+		assertEquals(1, vertices.get(6 * 4));
+		assertEquals(2, vertices.get(6 * 4 + 1));
+		assertEquals(3, vertices.get(6 * 4 + 2));
+		assertEquals(100, vertices.get(6 * 4 + 3));
+
+		assertEquals(8f, uvs.get(0), 0f);
+		assertEquals(15 * 4, vertices.limit());
+		assertEquals(6 * 4, uvs.limit());
+	}
+
+	@Test
+	public void testSharedModel()
+	{
+		// objects in different chunks sharing a model
+		Model model = model();
+		GameObject first = mock(GameObject.class);
+		when(first.getRenderable()).thenReturn(model);
+		when(first.getSceneMinLocation()).thenReturn(new Point(10, 5));
+		when(tile(0, 10, 5).getGameObjects()).thenReturn(new GameObject[]{first});
+		GameObject second = mock(GameObject.class);
+		when(second.getRenderable()).thenReturn(model);
+		when(second.getSceneMinLocation()).thenReturn(new Point(30, 5));
+		when(tile(0, 30, 5).getGameObjects()).thenReturn(new GameObject[]{second});
+
+		Model other = model();
+		GameObject third = mock(GameObject.class);
+		when(third.getRenderable()).thenReturn(other);
+		when(third.getSceneMinLocation()).thenReturn(new Point(30, 6));
+		when(tile(0, 30, 6).getGameObjects()).thenReturn(new GameObject[]{third});
+
+		GpuIntBuffer vertexBuffer = new GpuIntBuffer();
+		GpuFloatBuffer uvBuffer = new GpuFloatBuffer();
+		sceneUploader.upload(scene, vertexBuffer, uvBuffer);
+
+		// the copy of the shared model in the second chunk is left out of the buffer
+		verify(model, times(1)).setBufferOffset(0);
+		verify(other, times(1)).setBufferOffset(3);
+
+		vertexBuffer.flip();
+		assertEquals(6 * 4, vertexBuffer.getBuffer().limit());
+	}
+
+	private Tile tile(int z, int x, int y)
+	{
+		Tile tile = mock(Tile.class);
+		when(tile.getSceneLocation()).thenReturn(new Point(x, y));
+		when(tile.getRenderLevel()).thenReturn(z);
+		when(tile.getGameObjects()).thenReturn(new GameObject[0]);
+		tiles[z][x][y] = tile;
+		return tile;
+	}
+
+	private static Model model()
+	{
+		Model model = mock(Model.class);
+		when(model.getTrianglesCount()).thenReturn(1);
+		when(model.getVerticesX()).thenReturn(new int[]{1, 4, 7});
+		when(model.getVerticesY()).thenReturn(new int[]{2, 5, 8});
+		when(model.getVerticesZ()).thenReturn(new int[]{3, 6, 9});
+		when(model.getTrianglesX()).thenReturn(new int[]{0});
+		when(model.getTrianglesY()).thenReturn(new int[]{1});
+		when(model.getTrianglesZ()).thenReturn(new int[]{2});
+		when(model.getFaceColors1()).thenReturn(new int[]{100});
+		when(model.getFaceColors2()).thenReturn(new int[]{200});
+		when(model.getFaceColors3()).thenReturn(new int[]{300});
+		return model;
+	}
+}
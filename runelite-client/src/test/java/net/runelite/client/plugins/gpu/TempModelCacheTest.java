@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.gpu;
+
+import net.runelite.api.Model;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TempModelCacheTest
+{
+	@Test
+	public void testChanged()
+	{
+		TempModelCache cache = new TempModelCache();
+		Model model = model();
+
+		cache.put(model, 0, -1, 3);
+		assertNotNull(cache.get(model));
+
+		// the model instance was reused for different geometry
+		when(model.getVerticesX()).thenReturn(new int[]{0, 10, 0, 10});
+		when(model.getVerticesCount()).thenReturn(4);
+		assertNull(cache.get(model));
+	}
+
+	@Test
+	public void testFrames()
+	{
+		TempModelCache cache = new TempModelCache();
+		Model model = model();
+
+		assertNull(cache.get(model));
+		cache.put(model, 0, -1, 3);
+
+		TempModelCache.Entry entry = cache.get(model);
+		assertNotNull(entry);
+		assertTrue(cache.isCurrent(entry));
+
+		cache.endFrame();
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.getMisses());
+		assertEquals(3 * 16, cache.getBytesSaved());
+
+		entry = cache.get(model);
+		assertNotNull(entry);
+		assertFalse(cache.isCurrent(entry));
+
+		// not drawn in the previous frame
+		cache.endFrame();
+		cache.endFrame();
+		assertNull(cache.get(model));
+	}
+
+	private static Model model()
+	{
+		Model model = mock(Model.class);
+		when(model.getVerticesCount()).thenReturn(3);
+		when(model.getTrianglesCount()).thenReturn(1);
+		when(model.getVerticesX()).thenReturn(new int[]{0, 10, 0});
+		when(model.getVerticesY()).thenReturn(new int[]{0, 10, 20});
+		when(model.getVerticesZ()).thenReturn(new int[]{0, 0, 10});
+		when(model.getTrianglesX()).thenReturn(new int[]{0});
+		when(model.getFaceColors1()).thenReturn(new int[]{100});
+		when(model.getFaceColors2()).thenReturn(new int[]{200});
+		when(model.getFaceColors3()).thenReturn(new int[]{300});
+		return model;
+	}
+}
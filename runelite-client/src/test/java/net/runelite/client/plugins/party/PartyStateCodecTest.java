@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.party;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import net.runelite.api.coords.WorldPoint;
+import net.runelite.client.plugins.party.messages.PartyStateUpdate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+public class PartyStateCodecTest
+{
+	private static final UUID MEMBER = UUID.randomUUID();
+
+	@Test
+	public void testFullState()
+	{
+		PartyStateCodec codec = new PartyStateCodec();
+		WorldPoint point = new WorldPoint(3222, 3218, 0);
+
+		PartyStateUpdate update = decode(codec.encode(MEMBER, 10, 99, 43, 70, point));
+		assertEquals(MEMBER, update.getMemberId());
+		assertEquals(10, (int) update.getHitpoints());
+		assertEquals(99, (int) update.getMaxHitpoints());
+		assertEquals(43, (int) update.getPrayer());
+		assertEquals(70, (int) update.getMaxPrayer());
+		assertEquals(point, update.getWorldPoint());
+	}
+
+	@Test
+	public void testDelta()
+	{
+		PartyStateCodec codec = new PartyStateCodec();
+		WorldPoint point = new WorldPoint(3222, 3218, 0);
+
+		codec.encode(MEMBER, 10, 99, 43, 70, point);
+		assertNull(codec.encode(MEMBER, 10, 99, 43, 70, point));
+		assertNull(codec.encode(MEMBER, 10, 99, 43, 70, null));
+
+		byte[] frame = codec.encode(MEMBER, 9, 99, 43, 70, point);
+		assertEquals(1 + 16 + 1 + 2, frame.length);
+
+		PartyStateUpdate update = decode(frame);
+		assertEquals(9, (int) update.getHitpoints());
+		assertNull(update.getMaxHitpoints());
+		assertNull(update.getPrayer());
+		assertNull(update.getMaxPrayer());
+		assertNull(update.getWorldPoint());
+
+		codec.reset();
+		update = decode(codec.encode(MEMBER, 9, 99, 43, 70, point));
+		assertEquals(99, (int) update.getMaxHitpoints());
+		assertEquals(point, update.getWorldPoint());
+	}
+
+	private static PartyStateUpdate decode(byte[] frame)
+	{
+		ByteBuffer buf = ByteBuffer.wrap(frame);
+		assertEquals(PartyStateCodec.TYPE, buf.get());
+		return PartyStateCodec.decode(buf);
+	}
+}
@@ -25,17 +25,27 @@
  */
 package net.runelite.client.plugins.puzzlesolver;
 
+import java.io.File;
+import java.io.IOException;
 import net.runelite.client.plugins.puzzlesolver.solver.PuzzleSolver;
 import net.runelite.client.plugins.puzzlesolver.solver.PuzzleState;
 import net.runelite.client.plugins.puzzlesolver.solver.heuristics.ManhattanDistance;
+import net.runelite.client.plugins.puzzlesolver.solver.heuristics.PatternDatabase;
 import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStar;
 import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.IDAStarMM;
+import net.runelite.client.plugins.puzzlesolver.solver.pathfinding.ParallelIDAStar;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class PuzzleSolverTest
 {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	private static final PuzzleState[] START_STATES =
 	{
 		new PuzzleState(new int[]{0, 11, 1, 3, 4, 5, 12, 2, 7, 9, 6, 20, 18, 16, 8, 15, 22, 10, 14, 13, 21, -1, 17, 23, 19}),
@@ -163,4 +173,35 @@ public class PuzzleSolverTest
 			assertTrue(solver.getStep(solver.getStepCount() - 1).hasPieces(FINISHED_STATE));
 		}
 	}
+
+	@Test
+	public void testParallelSolver() throws IOException
+	{
+		File file = new File(folder.newFolder(), "puzzlesolver.pdb");
+		PatternDatabase patternDatabase = new PatternDatabase(file);
+		ManhattanDistance manhattanDistance = new ManhattanDistance();
+
+		for (PuzzleState state : START_STATES)
+		{
+			PuzzleSolver solver = new PuzzleSolver(new ParallelIDAStar(patternDatabase), state);
+			solver.run();
+
+			assertTrue(solver.hasSolution());
+			assertFalse(solver.hasFailed());
+			assertTrue(solver.getStep(solver.getStepCount() - 1).hasPieces(FINISHED_STATE));
+
+			// the pattern database is admissible and at least as strong as the manhattan distance
+			int h = patternDatabase.computeValue(state);
+			assertTrue(h >= manhattanDistance.computeValue(state));
+			assertTrue(h <= solver.getStepCount() - 1);
+		}
+
+		assertTrue(file.exists());
+
+		PatternDatabase cached = new PatternDatabase(file);
+		for (PuzzleState state : START_STATES)
+		{
+			assertEquals(patternDatabase.computeValue(state), cached.computeValue(state));
+		}
+	}
 }
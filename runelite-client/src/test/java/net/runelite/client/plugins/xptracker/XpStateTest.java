@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.plugins.xptracker;
+
+import net.runelite.api.Experience;
+import net.runelite.api.Skill;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class XpStateTest
+{
+	private XpState xpState;
+
+	@Before
+	public void before()
+	{
+		xpState = new XpState();
+	}
+
+	@Test
+	public void testUpdate()
+	{
+		assertEquals(XpUpdateResult.INITIALIZED, xpState.updateSkill(Skill.WOODCUTTING, 1000, -1, -1));
+		assertEquals(XpUpdateResult.NO_CHANGE, xpState.updateSkill(Skill.WOODCUTTING, 1000, -1, -1));
+		assertEquals(XpUpdateResult.UPDATED, xpState.updateSkill(Skill.WOODCUTTING, 1025, -1, -1));
+		assertEquals(XpUpdateResult.UPDATED, xpState.updateSkill(Skill.WOODCUTTING, 1050, -1, -1));
+
+		XpSnapshotSingle snapshot = xpState.getSkillSnapshot(Skill.WOODCUTTING);
+		assertEquals(50, snapshot.getXpGainedInSession());
+		assertEquals(2, snapshot.getActionsInSession());
+		assertEquals(Experience.getLevelForXp(1050), snapshot.getStartLevel());
+		assertEquals(Experience.getXpForLevel(Experience.getLevelForXp(1050) + 1) - 1050, snapshot.getXpRemainingToGoal());
+
+		// negative xp lamps reinitialize the skill
+		assertEquals(XpUpdateResult.INITIALIZED, xpState.updateSkill(Skill.WOODCUTTING, 900, -1, -1));
+		assertEquals(0, xpState.getSkillSnapshot(Skill.WOODCUTTING).getXpGainedInSession());
+	}
+
+	@Test
+	public void testActionsRemaining()
+	{
+		xpState.updateSkill(Skill.FISHING, 0, -1, -1);
+		xpState.updateSkill(Skill.FISHING, 10, 0, 1000);
+
+		// the history starts out filled with the first action
+		assertEquals(99, xpState.getSkillSnapshot(Skill.FISHING).getActionsRemainingToGoal());
+
+		for (int i = 0; i < 9; ++i)
+		{
+			xpState.updateSkill(Skill.FISHING, 10 + (i + 1) * 20, 0, 1000);
+		}
+
+		// nine 20 xp actions and one 10 xp action, so the average is 19
+		XpSnapshotSingle snapshot = xpState.getSkillSnapshot(Skill.FISHING);
+		assertEquals(810, snapshot.getXpRemainingToGoal());
+		assertEquals(43, snapshot.getActionsRemainingToGoal());
+
+		// the 10 xp action falls out of the history
+		xpState.updateSkill(Skill.FISHING, 210, 0, 1000);
+		assertEquals(40, xpState.getSkillSnapshot(Skill.FISHING).getActionsRemainingToGoal());
+	}
+
+	@Test
+	public void testTick()
+	{
+		xpState.updateSkill(Skill.MINING, 0, -1, -1);
+
+		// skills which have not gained xp do not tick
+		xpState.tick(Skill.MINING, 3_600_000);
+		xpState.updateSkill(Skill.MINING, 35, -1, -1);
+		assertEquals(35 * 60, xpState.getSkillSnapshot(Skill.MINING).getXpPerHour());
+
+		xpState.tick(Skill.MINING, 3_600_000);
+		XpSnapshotSingle snapshot = xpState.getSkillSnapshot(Skill.MINING);
+		assertEquals(35, snapshot.getXpPerHour());
+		assertEquals(1, snapshot.getActionsPerHour());
+
+		xpState.resetSkill(Skill.MINING, 35);
+		assertEquals(0, xpState.getSkillSnapshot(Skill.MINING).getXpPerHour());
+	}
+
+	@Test
+	public void testSnapshot()
+	{
+		xpState.updateSkill(Skill.AGILITY, 0, -1, -1);
+		xpState.updateSkill(Skill.AGILITY, 100, -1, -1);
+
+		XpSnapshot first = xpState.snapshot(1L << Skill.AGILITY.ordinal(), 1L << Skill.THIEVING.ordinal());
+		assertTrue(first.isUpdated(Skill.AGILITY));
+		assertTrue(first.isPaused(Skill.THIEVING));
+		assertEquals(100, first.getSkill(Skill.AGILITY).getXpGainedInSession());
+
+		xpState.updateSkill(Skill.AGILITY, 150, -1, -1);
+		XpSnapshot merged = first.merge(xpState.snapshot(1L << Skill.ATTACK.ordinal(), 0));
+		assertTrue(merged.isUpdated(Skill.AGILITY));
+		assertTrue(merged.isUpdated(Skill.ATTACK));
+		assertFalse(merged.isPaused(Skill.THIEVING));
+		assertEquals(150, merged.getSkill(Skill.AGILITY).getXpGainedInSession());
+
+		// snapshots are unaffected by later updates
+		xpState.updateSkill(Skill.AGILITY, 200, -1, -1);
+		assertEquals(100, first.getSkill(Skill.AGILITY).getXpGainedInSession());
+	}
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class FrameRecorderTest
+{
+	private static class TestGrabber implements FrameGrabber
+	{
+		private int width = 4;
+		private int height = 2;
+		private int value;
+
+		@Override
+		public int getWidth()
+		{
+			return width;
+		}
+
+		@Override
+		public int getHeight()
+		{
+			return height;
+		}
+
+		@Override
+		public void grab(int[] pixels)
+		{
+			Arrays.fill(pixels, 0, width * height, value);
+		}
+	}
+
+	private final TestGrabber grabber = new TestGrabber();
+
+	@Test
+	public void testRing()
+	{
+		// 3 frames, one per second
+		FrameRecorder recorder = new FrameRecorder(3, 1, Long.MAX_VALUE);
+
+		for (int i = 1; i <= 5; ++i)
+		{
+			grabber.value = i;
+			recorder.capture(grabber, i * 1000L);
+			// too soon after the last frame
+			recorder.capture(grabber, i * 1000L + 500L);
+		}
+
+		List<FrameRecorder.Frame> frames = recorder.pause();
+		assertEquals(3, frames.size());
+		assertEquals(3, frames.get(0).getPixels()[0]);
+		assertEquals(5, frames.get(2).getPixels()[0]);
+		assertEquals(5000L, frames.get(2).getTime());
+
+		// paused
+		recorder.capture(grabber, 10_000L);
+		assertEquals(5000L, recorder.pause().get(2).getTime());
+
+		// buffers are reused once the ring is full
+		int[] oldest = frames.get(0).getPixels();
+		recorder.resume();
+		grabber.value = 6;
+		recorder.capture(grabber, 11_000L);
+		frames = recorder.pause();
+		assertSame(oldest, frames.get(2).getPixels());
+		assertEquals(6, oldest[0]);
+	}
+
+	@Test
+	public void testResize()
+	{
+		FrameRecorder recorder = new FrameRecorder(3, 1, Long.MAX_VALUE);
+		recorder.capture(grabber, 1000L);
+		int[] pixels = recorder.pause().get(0).getPixels();
+		recorder.resume();
+
+		grabber.width = 8;
+		recorder.capture(grabber, 2000L);
+		List<FrameRecorder.Frame> frames = recorder.pause();
+		assertEquals(1, frames.size());
+		assertNotSame(pixels, frames.get(0).getPixels());
+		assertEquals(8, frames.get(0).getWidth());
+	}
+
+	@Test
+	public void testMemoryLimit()
+	{
+		// room for 2 of the 4x2 frames
+		FrameRecorder recorder = new FrameRecorder(3, 1, 2 * 4 * 2 * Integer.BYTES);
+
+		for (int i = 1; i <= 3; ++i)
+		{
+			grabber.value = i;
+			recorder.capture(grabber, i * 1000L);
+		}
+
+		List<FrameRecorder.Frame> frames = recorder.pause();
+		assertEquals(2, frames.size());
+		assertEquals(2, frames.get(0).getPixels()[0]);
+		assertEquals(3, frames.get(1).getPixels()[0]);
+	}
+
+	@Test
+	public void testToImage()
+	{
+		FrameRecorder recorder = new FrameRecorder(1, 1, Long.MAX_VALUE);
+		grabber.value = 0x123456;
+		recorder.capture(grabber, 1000L);
+
+		BufferedImage image = recorder.pause().get(0).toImage();
+		assertEquals(4, image.getWidth());
+		assertEquals(2, image.getHeight());
+		assertEquals(0xff123456, image.getRGB(3, 1));
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ui.overlay.worldmap;
+
+import java.util.Arrays;
+import java.util.List;
+import net.runelite.api.coords.WorldPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class WorldMapPointManagerTest
+{
+	private final WorldMapPointManager manager = new WorldMapPointManager();
+
+	@Test
+	public void testQuery()
+	{
+		WorldMapPoint lumbridge = new WorldMapPoint(new WorldPoint(3222, 3218, 0), null);
+		WorldMapPoint varrock = new WorldMapPoint(new WorldPoint(3213, 3424, 0), null);
+		WorldMapPoint snapped = new WorldMapPoint(new WorldPoint(2000, 2000, 0), null);
+		snapped.setSnapToEdge(true);
+		manager.addAll(Arrays.asList(lumbridge, varrock, snapped));
+
+		List<WorldMapPoint> points = manager.getWorldMapPoints(3150, 3150, 3300, 3300);
+		assertEquals(2, points.size());
+		assertTrue(points.contains(lumbridge));
+		assertTrue(points.contains(snapped));
+
+		assertEquals(3, manager.getWorldMapPoints().size());
+	}
+
+	@Test
+	public void testMove()
+	{
+		WorldMapPoint point = new WorldMapPoint(new WorldPoint(0, 0, 0), null);
+		manager.add(point);
+		assertTrue(manager.getWorldMapPoints(3150, 3150, 3300, 3300).isEmpty());
+
+		point.setWorldPoint(new WorldPoint(3222, 3218, 0));
+		assertEquals(1, manager.getWorldMapPoints(3150, 3150, 3300, 3300).size());
+		assertTrue(manager.getWorldMapPoints(0, 0, 10, 10).isEmpty());
+
+		manager.remove(point);
+		assertTrue(manager.isEmpty());
+
+		// no longer tracked once removed
+		point.setWorldPoint(new WorldPoint(0, 0, 0));
+		assertTrue(manager.getWorldMapPoints(0, 0, 10, 10).isEmpty());
+	}
+
+	@Test
+	public void testRemoveIf()
+	{
+		for (int i = 0; i < 100; ++i)
+		{
+			manager.add(new WorldMapPoint(new WorldPoint(i * 100, i * 100, 0), null));
+		}
+		manager.add(new WorldMapPoint(null, null));
+
+		manager.removeIf(point -> point.getWorldPoint() == null || point.getWorldPoint().getX() % 200 == 0);
+		assertEquals(50, manager.getWorldMapPoints().size());
+		assertEquals(1, manager.getWorldMapPoints(0, 0, 200, 200).size());
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.util;
+
+import com.google.common.collect.ImmutableList;
+import java.util.List;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class MultiPatternMatcherTest
+{
+	@Test
+	public void testMatches()
+	{
+		MultiPatternMatcher matcher = MultiPatternMatcher.compileWildcards(ImmutableList.of(
+			"rune*", "Abyssal whip", "*bones", "dragon*sword", "a*b*a"));
+
+		assertTrue(matcher.matches("rune pouch"));
+		assertTrue(matcher.matches("Runeite Ore"));
+		assertTrue(matcher.matches("abyssal WHIP"));
+		assertTrue(matcher.matches("Big bones"));
+		assertTrue(matcher.matches("bones"));
+		assertTrue(matcher.matches("Dragon longsword"));
+		assertTrue(matcher.matches("dragonsword"));
+		assertTrue(matcher.matches("aba"));
+		assertTrue(matcher.matches("abcaba"));
+
+		assertFalse(matcher.matches("Adamant dagger"));
+		assertFalse(matcher.matches("Abyssal whip (or)"));
+		assertFalse(matcher.matches("Bones to bananas"));
+		assertFalse(matcher.matches("Dragon swordfish"));
+		assertFalse(matcher.matches("ab"));
+		assertFalse(matcher.matches("aa"));
+		assertFalse(matcher.matches(""));
+	}
+
+	@Test
+	public void testMatchesEverything()
+	{
+		assertTrue(MultiPatternMatcher.compileWildcards(ImmutableList.of("coins", "*")).matches("anything"));
+		assertFalse(MultiPatternMatcher.compileWildcards(ImmutableList.of()).matches("anything"));
+	}
+
+	@Test
+	public void testLiteralsIgnoreWildcards()
+	{
+		MultiPatternMatcher matcher = MultiPatternMatcher.compileLiterals(ImmutableList.of("rune*"));
+		assertFalse(matcher.matches("rune pouch"));
+		assertTrue(matcher.matches("Rune*"));
+	}
+
+	@Test
+	public void testFindAll()
+	{
+		MultiPatternMatcher matcher = MultiPatternMatcher.compileLiterals(ImmutableList.of("hers", "his", "she", "he"));
+
+		List<MultiPatternMatcher.Match> matches = matcher.findAll("uSHErs and his", false);
+		assertEquals(2, matches.size());
+		assertEquals(new MultiPatternMatcher.Match(2, 1, 4), matches.get(0));
+		assertEquals(new MultiPatternMatcher.Match(1, 11, 14), matches.get(1));
+	}
+
+	@Test
+	public void testFindAllWholeWords()
+	{
+		MultiPatternMatcher matcher = MultiPatternMatcher.compileLiterals(ImmutableList.of("Deathbeam", "Deathbeam OSRS", "test"));
+
+		List<MultiPatternMatcher.Match> matches = matcher.findAll("Deathbeam, Deathbeam OSRS, testing", true);
+		assertEquals(2, matches.size());
+		assertEquals(new MultiPatternMatcher.Match(0, 0, 9), matches.get(0));
+		assertEquals(new MultiPatternMatcher.Match(0, 11, 20), matches.get(1));
+	}
+}
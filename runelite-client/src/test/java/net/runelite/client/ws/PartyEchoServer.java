@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ws;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import okhttp3.HttpUrl;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.ByteString;
+
+/**
+ * A local stand-in for the party websocket server which relays every frame
+ * it receives to all connected sockets, including the sender.
+ */
+public class PartyEchoServer implements AutoCloseable
+{
+	private final MockWebServer server = new MockWebServer();
+	private final Set<WebSocket> sockets = ConcurrentHashMap.newKeySet();
+
+	private final WebSocketListener listener = new WebSocketListener()
+	{
+		@Override
+		public void onOpen(WebSocket webSocket, Response response)
+		{
+			sockets.add(webSocket);
+		}
+
+		@Override
+		public void onMessage(WebSocket webSocket, String text)
+		{
+			for (WebSocket socket : sockets)
+			{
+				socket.send(text);
+			}
+		}
+
+		@Override
+		public void onMessage(WebSocket webSocket, ByteString bytes)
+		{
+			for (WebSocket socket : sockets)
+			{
+				socket.send(bytes);
+			}
+		}
+
+		@Override
+		public void onClosing(WebSocket webSocket, int code, String reason)
+		{
+			sockets.remove(webSocket);
+			webSocket.close(1000, null);
+		}
+
+		@Override
+		public void onFailure(WebSocket webSocket, Throwable t, Response response)
+		{
+			sockets.remove(webSocket);
+		}
+	};
+
+	public void start() throws IOException
+	{
+		server.setDispatcher(new Dispatcher()
+		{
+			@Override
+			public MockResponse dispatch(RecordedRequest request)
+			{
+				return new MockResponse().withWebSocketUpgrade(listener);
+			}
+		});
+		server.start();
+	}
+
+	public HttpUrl url()
+	{
+		return server.url("/ws");
+	}
+
+	public int getConnected()
+	{
+		return sockets.size();
+	}
+
+	@Override
+	public void close() throws IOException
+	{
+		server.shutdown();
+	}
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.client.ws;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import lombok.EqualsAndHashCode;
+import lombok.Value;
+import net.runelite.client.eventbus.EventBus;
+import net.runelite.client.eventbus.Subscribe;
+import net.runelite.http.api.ws.messages.party.PartyMemberMessage;
+import okhttp3.OkHttpClient;
+import org.junit.After;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WSClientTest
+{
+	private static final int TYPE = 0x7F;
+	private static final int MEMBERS = 50;
+	private static final int TICKS = 20;
+
+	private final PartyEchoServer server = new PartyEchoServer();
+	private final OkHttpClient okHttpClient = new OkHttpClient();
+	private final List<WSClient> clients = new ArrayList<>();
+
+	@Before
+	public void before() throws Exception
+	{
+		// every member is a websocket to the same host
+		okHttpClient.dispatcher().setMaxRequestsPerHost(MEMBERS + 1);
+		server.start();
+	}
+
+	@After
+	public void after() throws Exception
+	{
+		for (WSClient client : clients)
+		{
+			client.close();
+		}
+		server.close();
+	}
+
+	@Test
+	public void testBinaryMessages() throws Exception
+	{
+		final CountDownLatch latch = new CountDownLatch(MEMBERS * TICKS);
+		final Thread[] posted = new Thread[1];
+
+		final EventBus eventBus = new EventBus();
+		eventBus.register(new Object()
+		{
+			@Subscribe
+			public void onTestMessage(TestMessage message)
+			{
+				posted[0] = Thread.currentThread();
+				latch.countDown();
+			}
+		});
+
+		final WSClient receiver = new WSClient(eventBus, okHttpClient, server.url());
+		receiver.registerBinaryMessage(TYPE, WSClientTest::decode);
+		receiver.changeSession(UUID.randomUUID());
+		clients.add(receiver);
+
+		final List<WSClient> members = new ArrayList<>();
+		for (int i = 0; i < MEMBERS; ++i)
+		{
+			final WSClient member = new WSClient(new EventBus(), okHttpClient, server.url());
+			member.changeSession(UUID.randomUUID());
+			members.add(member);
+			clients.add(member);
+		}
+
+		// wait for all members to be connected before sending
+		for (int i = 0; i < 100 && server.getConnected() < MEMBERS + 1; ++i)
+		{
+			Thread.sleep(50);
+		}
+		assertEquals(MEMBERS + 1, server.getConnected());
+
+		for (int tick = 0; tick < TICKS; ++tick)
+		{
+			for (int i = 0; i < MEMBERS; ++i)
+			{
+				members.get(i).send(encode(i, tick));
+			}
+		}
+
+		assertTrue(latch.await(30, TimeUnit.SECONDS));
+		assertNotEquals(Thread.currentThread(), posted[0]);
+	}
+
+	private static byte[] encode(int member, int tick)
+	{
+		return ByteBuffer.allocate(1 + 4 + 4)
+			.put((byte) TYPE)
+			.putInt(member)
+			.putInt(tick)
+			.array();
+	}
+
+	private static TestMessage decode(ByteBuffer buf)
+	{
+		return new TestMessage(buf.getInt(), buf.getInt());
+	}
+
+	@Value
+	@EqualsAndHashCode(callSuper = true)
+	private static class TestMessage extends PartyMemberMessage
+	{
+		private final int member;
+		private final int tick;
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.processor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the names of all classes annotated with {@code PluginDescriptor} to
+ * {@link #PLUGIN_INDEX}, so the plugin manager doesn't have to scan the classpath
+ * to find the core plugins.
+ */
+@SupportedAnnotationTypes(PluginIndexProcessor.PLUGIN_DESCRIPTOR)
+public class PluginIndexProcessor extends AbstractProcessor
+{
+	static final String PLUGIN_DESCRIPTOR = "net.runelite.client.plugins.PluginDescriptor";
+	static final String PLUGIN_INDEX = "META-INF/runelite/plugins";
+
+	private final Set<String> plugins = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+	{
+		for (TypeElement annotation : annotations)
+		{
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation))
+			{
+				if (element instanceof TypeElement)
+				{
+					// the binary name, so nested plugin classes can be loaded with Class.forName
+					plugins.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+				}
+			}
+		}
+
+		if (roundEnv.processingOver())
+		{
+			writeIndex();
+		}
+
+		return false;
+	}
+
+	private void writeIndex()
+	{
+		// Incremental compiles only process the changed sources, so keep any
+		// entries from a previous index whose classes still exist
+		try
+		{
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", PLUGIN_INDEX);
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8)))
+			{
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (!line.isEmpty() && processingEnv.getElementUtils().getTypeElement(line) != null)
+					{
+						plugins.add(line);
+					}
+				}
+			}
+		}
+		catch (IOException | IllegalArgumentException ex)
+		{
+			// no previous index
+		}
+
+		if (plugins.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", PLUGIN_INDEX);
+			try (Writer writer = index.openWriter(); PrintWriter out = new PrintWriter(writer))
+			{
+				for (String plugin : plugins)
+				{
+					out.println(plugin);
+				}
+			}
+		}
+		catch (IOException ex)
+		{
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write plugin index: " + ex);
+		}
+	}
+}
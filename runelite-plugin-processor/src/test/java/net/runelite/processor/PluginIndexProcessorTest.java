@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019, Adam <Adam@sigterm.info>
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package net.runelite.processor;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PluginIndexProcessorTest
+{
+	private static final String DESCRIPTOR = "package net.runelite.client.plugins;\n"
+		+ "public @interface PluginDescriptor { String name(); }";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File out;
+
+	@Before
+	public void before() throws IOException
+	{
+		out = folder.newFolder();
+	}
+
+	@Test
+	public void testIndex() throws IOException
+	{
+		compile(
+			source("net.runelite.client.plugins.PluginDescriptor", DESCRIPTOR),
+			source("net.runelite.client.plugins.b.BPlugin", "package net.runelite.client.plugins.b;\n"
+				+ "@net.runelite.client.plugins.PluginDescriptor(name = \"B\")\n"
+				+ "public class BPlugin {\n"
+				+ "  @net.runelite.client.plugins.PluginDescriptor(name = \"Nested\")\n"
+				+ "  public static class NestedPlugin {}\n"
+				+ "}"),
+			source("net.runelite.client.plugins.a.APlugin", "package net.runelite.client.plugins.a;\n"
+				+ "@net.runelite.client.plugins.PluginDescriptor(name = \"A\")\n"
+				+ "public class APlugin {}"),
+			source("net.runelite.client.plugins.a.NotAPlugin", "package net.runelite.client.plugins.a;\n"
+				+ "public class NotAPlugin {}"));
+
+		assertEquals(Arrays.asList(
+			"net.runelite.client.plugins.a.APlugin",
+			"net.runelite.client.plugins.b.BPlugin",
+			"net.runelite.client.plugins.b.BPlugin$NestedPlugin"
+		), readIndex());
+	}
+
+	@Test
+	public void testIncremental() throws IOException
+	{
+		compile(
+			source("net.runelite.client.plugins.PluginDescriptor", DESCRIPTOR),
+			source("net.runelite.client.plugins.a.APlugin", "package net.runelite.client.plugins.a;\n"
+				+ "@net.runelite.client.plugins.PluginDescriptor(name = \"A\")\n"
+				+ "public class APlugin {}"));
+
+		// a plugin which has since been deleted
+		File index = new File(out, PluginIndexProcessor.PLUGIN_INDEX);
+		Files.write(index.toPath(), Arrays.asList("net.runelite.client.plugins.a.APlugin", "net.runelite.client.plugins.GonePlugin"), StandardCharsets.UTF_8);
+
+		// only the changed source is compiled, against the previous output
+		compile(source("net.runelite.client.plugins.c.CPlugin", "package net.runelite.client.plugins.c;\n"
+			+ "@net.runelite.client.plugins.PluginDescriptor(name = \"C\")\n"
+			+ "public class CPlugin {}"));
+
+		assertEquals(Arrays.asList(
+			"net.runelite.client.plugins.a.APlugin",
+			"net.runelite.client.plugins.c.CPlugin"
+		), readIndex());
+	}
+
+	private void compile(JavaFileObject... sources)
+	{
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		List<String> options = new ArrayList<>();
+		options.add("-d");
+		options.add(out.getPath());
+		options.add("-classpath");
+		options.add(out.getPath());
+
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null, null, options, null, Arrays.asList(sources));
+		task.setProcessors(Collections.singletonList(new PluginIndexProcessor()));
+		assertTrue(task.call());
+	}
+
+	private List<String> readIndex() throws IOException
+	{
+		return Files.readAllLines(new File(out, PluginIndexProcessor.PLUGIN_INDEX).toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static JavaFileObject source(String className, String code)
+	{
+		URI uri = URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+		return new SimpleJavaFileObject(uri, JavaFileObject.Kind.SOURCE)
+		{
+			@Override
+			public CharSequence getCharContent(boolean ignoreEncodingErrors)
+			{
+				return code;
+			}
+		};
+	}
+}